@@ -1,5 +1,6 @@
 package io.openems.backend.b2bwebsocket;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
@@ -13,7 +14,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
 
 import io.openems.backend.b2bwebsocket.jsonrpc.notification.EdgesCurrentDataNotification;
 import io.openems.backend.b2bwebsocket.jsonrpc.request.SubscribeEdgesChannelsRequest;
@@ -136,9 +136,9 @@ public class SubscribedEdgesChannelsWorker {
 			// assure read permissions of this User for this Edge.
 			user.assertEdgeRoleIsAtLeast("EdgesCurrentDataNotification", edgeId, Role.GUEST);
 
+			Map<ChannelAddress, JsonElement> values = this.parent.timeData.getChannelValues(edgeId, this.channels);
 			for (ChannelAddress channel : this.channels) {
-				Optional<JsonElement> value = this.parent.timeData.getChannelValue(edgeId, channel);
-				result.addValue(edgeId, channel, value.orElse(JsonNull.INSTANCE));
+				result.addValue(edgeId, channel, values.get(channel));
 			}
 		}
 		return result;
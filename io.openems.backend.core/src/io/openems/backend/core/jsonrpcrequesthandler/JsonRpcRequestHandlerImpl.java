@@ -15,7 +15,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
 
 import io.openems.backend.common.component.AbstractOpenemsBackendComponent;
 import io.openems.backend.common.jsonrpc.JsonRpcRequestHandler;
@@ -146,9 +145,9 @@ public class JsonRpcRequestHandlerImpl extends AbstractOpenemsBackendComponent i
 				continue;
 			}
 
+			Map<ChannelAddress, JsonElement> values = this.timeData.getChannelValues(edgeId, request.getChannels());
 			for (ChannelAddress channel : request.getChannels()) {
-				Optional<JsonElement> value = this.timeData.getChannelValue(edgeId, channel);
-				response.addValue(edgeId, channel, value.orElse(JsonNull.INSTANCE));
+				response.addValue(edgeId, channel, values.get(channel));
 			}
 		}
 		return CompletableFuture.completedFuture(response);
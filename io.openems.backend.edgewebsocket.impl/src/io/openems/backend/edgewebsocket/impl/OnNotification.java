@@ -11,7 +11,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 
 import io.openems.backend.metadata.api.Edge;
 import io.openems.common.channel.Level;
@@ -30,6 +29,12 @@ import io.openems.common.utils.JsonUtils;
 
 public class OnNotification implements io.openems.common.websocket.OnNotification {
 
+	private static final ChannelAddress ESS0_SOC = new ChannelAddress("ess0", "Soc");
+	private static final ChannelAddress SYSTEM0_PRIMARY_IP_ADDRESS = new ChannelAddress("system0",
+			"PrimaryIpAddress");
+	private static final ChannelAddress META_VERSION = new ChannelAddress("_meta", "Version");
+	private static final ChannelAddress SUM_STATE = new ChannelAddress("_sum", "State");
+
 	private final Logger log = LoggerFactory.getLogger(OnNotification.class);
 	private final EdgeWebsocketImpl parent;
 
@@ -110,10 +115,10 @@ public class OnNotification implements io.openems.common.websocket.OnNotificatio
 
 		// Read some specific channels
 		Edge edge = this.parent.metadata.getEdgeOrError(edgeId);
-		for (Entry<String, JsonElement> entry : message.getParams().entrySet()) {
-			JsonObject data = JsonUtils.getAsJsonObject(entry.getValue());
+		for (Map<ChannelAddress, JsonElement> data : message.getData().rowMap().values()) {
 			// set Edge last update timestamp only for those channels
-			for (String channel : data.keySet()) {
+			for (ChannelAddress address : data.keySet()) {
+				String channel = address.getChannelId();
 				if (channel.endsWith("ActivePower")
 						|| channel.endsWith("ActivePowerL1") | channel.endsWith("ActivePowerL2")
 								| channel.endsWith("ActivePowerL3") | channel.endsWith("Soc")) {
@@ -122,21 +127,22 @@ public class OnNotification implements io.openems.common.websocket.OnNotificatio
 			}
 
 			// set specific Edge values
-			if (data.has("ess0/Soc") && data.get("ess0/Soc").isJsonPrimitive()) {
-				int soc = JsonUtils.getAsPrimitive(data, "ess0/Soc").getAsInt();
-				edge.setSoc(soc);
+			JsonElement soc = data.get(ESS0_SOC);
+			if (soc != null && soc.isJsonPrimitive()) {
+				edge.setSoc(soc.getAsInt());
 			}
-			if (data.has("system0/PrimaryIpAddress") && data.get("system0/PrimaryIpAddress").isJsonPrimitive()) {
-				String ipv4 = JsonUtils.getAsPrimitive(data, "system0/PrimaryIpAddress").getAsString();
-				edge.setIpv4(ipv4);
+			JsonElement ipv4 = data.get(SYSTEM0_PRIMARY_IP_ADDRESS);
+			if (ipv4 != null && ipv4.isJsonPrimitive()) {
+				edge.setIpv4(ipv4.getAsString());
 			}
-			if (data.has("_meta/Version") && data.get("_meta/Version").isJsonPrimitive()) {
-				String version = JsonUtils.getAsPrimitive(data, "_meta/Version").getAsString();
-				edge.setVersion(SemanticVersion.fromString(version));
+			JsonElement version = data.get(META_VERSION);
+			if (version != null && version.isJsonPrimitive()) {
+				edge.setVersion(SemanticVersion.fromString(version.getAsString()));
 			}
-			if (data.has("_sum/State")) {
+			JsonElement state = data.get(SUM_STATE);
+			if (state != null) {
 				// Read global State
-				Optional<Level> levelOpt = Level.fromJson(data, "_sum/State");
+				Optional<Level> levelOpt = Level.fromJson(state);
 				Map<ChannelAddress, EdgeConfig.Component.Channel> activeStateChannels = new HashMap<>();
 				if (levelOpt.isPresent() && levelOpt.get() != Level.OK) {
 					// Global State is not "OK" -> Some State-Channel has to be active:
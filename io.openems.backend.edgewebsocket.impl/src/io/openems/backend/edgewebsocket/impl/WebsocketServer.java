@@ -53,6 +53,11 @@ public class WebsocketServer extends AbstractWebsocketServer<WsData> {
 		return wsData;
 	}
 
+	@Override
+	protected boolean isCompactEncodingSupported() {
+		return true;
+	}
+
 	public boolean isOnline(String edgeId) {
 		final Optional<String> edgeIdOpt = Optional.of(edgeId);
 		return this.getConnections().parallelStream().anyMatch(
@@ -0,0 +1,85 @@
+package io.openems.backend.timedata.api;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.openems.common.types.ChannelAddress;
+
+/**
+ * Assigns a stable, dense index to every {@link ChannelAddress}.
+ *
+ * <p>
+ * Most Channel-Addresses - like '_sum/EssSoc' - exist on many Edges. The
+ * dictionary is therefore shared by all {@link EdgeCache}s, which store their
+ * values in arrays by this index. Indexes are never reused.
+ */
+public class ChannelAddressDictionary {
+
+	private final ConcurrentHashMap<ChannelAddress, Integer> indexes = new ConcurrentHashMap<>();
+
+	/*
+	 * Reverse lookup; only appended to while holding the lock on 'this'.
+	 */
+	private volatile ChannelAddress[] addresses = new ChannelAddress[1024];
+	private int size = 0;
+
+	/**
+	 * Gets the index of a Channel-Address; assigns a new index if the address is
+	 * unknown.
+	 *
+	 * @param address the Channel-Address
+	 * @return the index
+	 */
+	public int indexOf(ChannelAddress address) {
+		Integer index = this.indexes.get(address);
+		if (index != null) {
+			return index;
+		}
+		synchronized (this) {
+			index = this.indexes.get(address);
+			if (index != null) {
+				return index;
+			}
+			ChannelAddress[] addresses = this.addresses;
+			if (this.size == addresses.length) {
+				addresses = Arrays.copyOf(addresses, addresses.length * 2);
+			}
+			addresses[this.size] = address;
+			this.addresses = addresses;
+			index = this.size++;
+			this.indexes.put(address, index);
+			return index;
+		}
+	}
+
+	/**
+	 * Gets the index of a Channel-Address without assigning a new one.
+	 *
+	 * @param address the Channel-Address
+	 * @return the index; -1 if the address is unknown
+	 */
+	public int getIndex(ChannelAddress address) {
+		Integer index = this.indexes.get(address);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets the Channel-Address of an index.
+	 *
+	 * @param index the index
+	 * @return the Channel-Address
+	 */
+	public ChannelAddress get(int index) {
+		return this.addresses[index];
+	}
+
+	/**
+	 * Gets the number of known Channel-Addresses.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return this.indexes.size();
+	}
+
+}
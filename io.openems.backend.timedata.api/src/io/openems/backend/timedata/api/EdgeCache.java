@@ -1,33 +1,402 @@
 package io.openems.backend.timedata.api;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
 
 import io.openems.common.types.ChannelAddress;
 
+/**
+ * Holds the latest Channel values of one Edge.
+ *
+ * <p>
+ * Every Channel-Address gets a global index in the shared
+ * {@link ChannelAddressDictionary}. Each EdgeCache maps the global indexes of
+ * its own Channels to dense local slots via a small open-addressing hash
+ * table, so its arrays grow only with the number of Channels of this Edge.
+ * Per slot, numbers and booleans are stored as raw 64-bit values; only other
+ * values (e.g. Strings) are kept as objects. {@link JsonElement}s are created
+ * only when a value is read.
+ *
+ * <p>
+ * Writers are serialized; readers never block: they read optimistically and
+ * retry only if a write happened at the same time.
+ */
 public class EdgeCache {
 
-	private long timestamp = 0l;
-	private final ConcurrentHashMap<ChannelAddress, JsonElement> channelValueCache = new ConcurrentHashMap<>();
+	/**
+	 * The dictionary shared by all EdgeCaches.
+	 */
+	public static final ChannelAddressDictionary DICTIONARY = new ChannelAddressDictionary();
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final byte ABSENT = 0;
+	private static final byte NULL = 1;
+	private static final byte LONG = 2;
+	private static final byte DOUBLE = 3;
+	private static final byte BOOLEAN = 4;
+	private static final byte OTHER = 5;
+
+	/**
+	 * The local slots of one EdgeCache. Replaced as a whole when it grows.
+	 *
+	 * <p>
+	 * Readers might see an instance while it is being modified. They never
+	 * throw or loop forever on inconsistent data; the lock validation makes
+	 * them retry.
+	 */
+	private static class Slots {
+		// hash table: global index + 1 (0 = empty) -> local slot
+		private final int[] keys;
+		private final int[] locals;
+		// per local slot
+		private final int[] globals;
+		private final byte[] kinds;
+		private final long[] bits;
+		private Object[] others = null;
+		private int size = 0;
+
+		private Slots(int capacity) {
+			this.keys = new int[capacity * 2];
+			this.locals = new int[capacity * 2];
+			this.globals = new int[capacity];
+			this.kinds = new byte[capacity];
+			this.bits = new long[capacity];
+		}
+
+		/**
+		 * Gets the local slot of a global index.
+		 *
+		 * @param global the index in the {@link ChannelAddressDictionary}
+		 * @return the local slot; -1 if there is none
+		 */
+		private int find(int global) {
+			int key = global + 1;
+			int mask = this.keys.length - 1;
+			for (int i = hash(global) & mask, n = 0; n < this.keys.length; i = (i + 1) & mask, n++) {
+				int k = this.keys[i];
+				if (k == key) {
+					int local = this.locals[i];
+					return local < this.kinds.length ? local : -1;
+				}
+				if (k == 0) {
+					return -1;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Adds a new local slot for a global index. The capacity must not be
+		 * exhausted.
+		 *
+		 * @param global the index in the {@link ChannelAddressDictionary}
+		 * @return the local slot
+		 */
+		private int add(int global) {
+			int local = this.size++;
+			this.globals[local] = global;
+			int mask = this.keys.length - 1;
+			int i = hash(global) & mask;
+			while (this.keys[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			this.locals[i] = local;
+			this.keys[i] = global + 1;
+			return local;
+		}
+
+		private Slots grow() {
+			Slots result = new Slots(this.kinds.length * 2);
+			for (int local = 0; local < this.size; local++) {
+				result.add(this.globals[local]);
+			}
+			System.arraycopy(this.kinds, 0, result.kinds, 0, this.size);
+			System.arraycopy(this.bits, 0, result.bits, 0, this.size);
+			if (this.others != null) {
+				result.others = Arrays.copyOf(this.others, result.kinds.length);
+			}
+			return result;
+		}
+
+		private static int hash(int global) {
+			int h = global * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+
+	private final StampedLock lock = new StampedLock();
+
+	private volatile long timestamp = 0l;
+	private Slots slots = new Slots(INITIAL_CAPACITY);
+
+	/**
+	 * Gets the latest value of a Channel.
+	 *
+	 * @param address the Channel-Address
+	 * @return the value; empty if there is no value in the cache
+	 */
+	public final Optional<JsonElement> getChannelValue(ChannelAddress address) {
+		int global = DICTIONARY.getIndex(address);
+		if (global < 0) {
+			return Optional.empty();
+		}
+		long stamp = this.lock.tryOptimisticRead();
+		JsonElement value = stamp == 0 ? null : this.readUnlocked(global);
+		if (stamp == 0 || !this.lock.validate(stamp)) {
+			stamp = this.lock.readLock();
+			try {
+				value = this.readUnlocked(global);
+			} finally {
+				this.lock.unlockRead(stamp);
+			}
+		}
+		return Optional.ofNullable(value);
+	}
+
+	private JsonElement readUnlocked(int global) {
+		Slots slots = this.slots;
+		int local = slots.find(global);
+		if (local < 0) {
+			return null;
+		}
+		Object[] others = slots.others;
+		return toJson(slots.kinds[local], slots.bits[local],
+				others == null || local >= others.length ? null : others[local]);
+	}
+
+	/**
+	 * Gets the latest values of multiple Channels.
+	 *
+	 * @param addresses the Channel-Addresses
+	 * @return a map of all requested Channels; JsonNull if there is no value in
+	 *         the cache
+	 */
+	public final Map<ChannelAddress, JsonElement> getChannelValues(Set<ChannelAddress> addresses) {
+		ChannelAddress[] keys = addresses.toArray(new ChannelAddress[addresses.size()]);
+		int[] globals = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			globals[i] = DICTIONARY.getIndex(keys[i]);
+		}
+		byte[] kinds = new byte[keys.length];
+		long[] bits = new long[keys.length];
+		Object[] others = new Object[keys.length];
+		this.read(globals, kinds, bits, others);
+
+		Map<ChannelAddress, JsonElement> result = new HashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			JsonElement value = toJson(kinds[i], bits[i], others[i]);
+			result.put(keys[i], value == null ? JsonNull.INSTANCE : value);
+		}
+		return result;
+	}
 
-	public synchronized final Optional<JsonElement> getChannelValue(ChannelAddress address) {
-		return Optional.ofNullable(this.channelValueCache.get(address));
+	/**
+	 * Reads the values of the given global indexes; optimistically first, under
+	 * the read lock if a write happened at the same time.
+	 *
+	 * @param globals the indexes in the {@link ChannelAddressDictionary}; -1 for
+	 *                unknown addresses
+	 * @param kinds   the target for the kinds
+	 * @param bits    the target for the raw values
+	 * @param others  the target for other values
+	 */
+	private void read(int[] globals, byte[] kinds, long[] bits, Object[] others) {
+		long stamp = this.lock.tryOptimisticRead();
+		if (stamp != 0) {
+			this.readUnlocked(globals, kinds, bits, others);
+			if (this.lock.validate(stamp)) {
+				return;
+			}
+		}
+		stamp = this.lock.readLock();
+		try {
+			this.readUnlocked(globals, kinds, bits, others);
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	private void readUnlocked(int[] globals, byte[] kinds, long[] bits, Object[] others) {
+		Slots slots = this.slots;
+		Object[] slotsOthers = slots.others;
+		for (int i = 0; i < globals.length; i++) {
+			int local = globals[i] < 0 ? -1 : slots.find(globals[i]);
+			if (local < 0) {
+				kinds[i] = ABSENT;
+				others[i] = null;
+				continue;
+			}
+			kinds[i] = slots.kinds[local];
+			bits[i] = slots.bits[local];
+			others[i] = slotsOthers == null || local >= slotsOthers.length ? null : slotsOthers[local];
+		}
 	}
 
-	public synchronized final ConcurrentHashMap<ChannelAddress, JsonElement> getChannelCacheEntries() {
-		return this.channelValueCache;
+	/**
+	 * Gets a snapshot of all values in the cache.
+	 *
+	 * @return a map of Channel-Addresses to values
+	 */
+	public final Map<ChannelAddress, JsonElement> getChannelCacheEntries() {
+		Map<ChannelAddress, JsonElement> result = new HashMap<>();
+		this.forEachChannelValue(result::put);
+		return result;
 	}
 
 	/**
-	 * Adds the channel value to the cache
+	 * Calls the consumer for every value in the cache, without creating a
+	 * snapshot. Only the slots of this Edge are visited. Writes to this cache
+	 * are blocked meanwhile, so the consumer must be fast and must not write to
+	 * this cache.
+	 *
+	 * @param consumer the consumer of Channel-Address and value
+	 */
+	public final void forEachChannelValue(BiConsumer<ChannelAddress, JsonElement> consumer) {
+		long stamp = this.lock.readLock();
+		try {
+			Slots slots = this.slots;
+			for (int local = 0; local < slots.size; local++) {
+				JsonElement value = toJson(slots.kinds[local], slots.bits[local],
+						slots.others == null ? null : slots.others[local]);
+				if (value != null) {
+					consumer.accept(DICTIONARY.get(slots.globals[local]), value);
+				}
+			}
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Adds the channel value to the cache.
 	 *
 	 * @param channel the Channel-Address
-	 * @param value the Value as a JsonElement
+	 * @param value   the Value as a JsonElement
 	 */
-	public synchronized void putToChannelCache(ChannelAddress channel, JsonElement value) {
-		this.channelValueCache.put(channel, value);
+	public void putToChannelCache(ChannelAddress channel, JsonElement value) {
+		int global = DICTIONARY.indexOf(channel);
+		long stamp = this.lock.writeLock();
+		try {
+			this.put(global, value);
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Adds multiple channel values to the cache at once.
+	 *
+	 * @param values the Values per Channel-Address
+	 */
+	public void putToChannelCache(Map<ChannelAddress, JsonElement> values) {
+		int[] globals = new int[values.size()];
+		JsonElement[] elements = new JsonElement[values.size()];
+		int i = 0;
+		for (Entry<ChannelAddress, JsonElement> entry : values.entrySet()) {
+			globals[i] = DICTIONARY.indexOf(entry.getKey());
+			elements[i] = entry.getValue();
+			i++;
+		}
+		long stamp = this.lock.writeLock();
+		try {
+			for (i = 0; i < globals.length; i++) {
+				this.put(globals[i], elements[i]);
+			}
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Stores a value. Must be called while holding the write lock.
+	 *
+	 * @param global the index in the {@link ChannelAddressDictionary}
+	 * @param value  the value
+	 */
+	private void put(int global, JsonElement value) {
+		Slots slots = this.slots;
+		int local = slots.find(global);
+		if (local < 0) {
+			if (slots.size == slots.kinds.length) {
+				slots = slots.grow();
+				this.slots = slots;
+			}
+			local = slots.add(global);
+		}
+		byte kind = OTHER;
+		long bits = 0;
+		if (value == null || value.isJsonNull()) {
+			kind = NULL;
+		} else if (value.isJsonPrimitive()) {
+			JsonPrimitive primitive = value.getAsJsonPrimitive();
+			if (primitive.isBoolean()) {
+				kind = BOOLEAN;
+				bits = primitive.getAsBoolean() ? 1 : 0;
+			} else if (primitive.isNumber()) {
+				String string = primitive.getAsString();
+				if (isIntegral(string)) {
+					try {
+						bits = Long.parseLong(string);
+						kind = LONG;
+					} catch (NumberFormatException e) {
+						// too large for long -> keep as object
+					}
+				} else {
+					kind = DOUBLE;
+					bits = Double.doubleToRawLongBits(primitive.getAsDouble());
+				}
+			}
+		}
+		slots.kinds[local] = kind;
+		slots.bits[local] = bits;
+		if (kind == OTHER) {
+			if (slots.others == null) {
+				slots.others = new Object[slots.kinds.length];
+			}
+			slots.others[local] = value;
+		} else if (slots.others != null) {
+			slots.others[local] = null;
+		}
+	}
+
+	private static boolean isIntegral(String number) {
+		for (int i = 0; i < number.length(); i++) {
+			char c = number.charAt(i);
+			if (c == '.' || c == 'e' || c == 'E') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static JsonElement toJson(byte kind, long bits, Object other) {
+		switch (kind) {
+		case NULL:
+			return JsonNull.INSTANCE;
+		case LONG:
+			return new JsonPrimitive(bits);
+		case DOUBLE:
+			return new JsonPrimitive(Double.longBitsToDouble(bits));
+		case BOOLEAN:
+			return new JsonPrimitive(bits != 0);
+		case OTHER:
+			// might be null while a write is in progress; the read is repeated then
+			return (JsonElement) other;
+		case ABSENT:
+		default:
+			return null;
+		}
 	}
 
 	public long getTimestamp() {
@@ -38,8 +407,16 @@ public class EdgeCache {
 		this.timestamp = timestamp;
 	}
 
+	/**
+	 * Removes all values from the cache.
+	 */
 	public void clear() {
-		this.channelValueCache.clear();
+		long stamp = this.lock.writeLock();
+		try {
+			this.slots = new Slots(INITIAL_CAPACITY);
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
 	}
 
 }
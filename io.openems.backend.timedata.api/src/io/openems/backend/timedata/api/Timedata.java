@@ -1,11 +1,15 @@
 package io.openems.backend.timedata.api;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.osgi.annotation.versioning.ProviderType;
 
 import com.google.common.collect.TreeBasedTable;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.timedata.CommonTimedataService;
@@ -33,4 +37,20 @@ public interface Timedata extends CommonTimedataService {
 	 */
 	public Optional<JsonElement> getChannelValue(String edgeId, ChannelAddress channelAddress);
 
+	/**
+	 * Gets the latest values for the given ChannelAddresses.
+	 * 
+	 * @param edgeId           The unique Edge-ID
+	 * @param channelAddresses The Channel-Addresses
+	 * @return a map of all requested Channels; JsonNull if there is no value
+	 */
+	public default Map<ChannelAddress, JsonElement> getChannelValues(String edgeId,
+			Set<ChannelAddress> channelAddresses) {
+		Map<ChannelAddress, JsonElement> result = new HashMap<>();
+		for (ChannelAddress channelAddress : channelAddresses) {
+			result.put(channelAddress, this.getChannelValue(edgeId, channelAddress).orElse(JsonNull.INSTANCE));
+		}
+		return result;
+	}
+
 }
@@ -0,0 +1,119 @@
+package io.openems.backend.timedata.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.types.ChannelAddress;
+
+public class EdgeCacheTest {
+
+	@Test
+	public void testTypes() {
+		EdgeCache cache = new EdgeCache();
+		ChannelAddress integer = new ChannelAddress("meter0", "ActivePower");
+		ChannelAddress decimal = new ChannelAddress("meter0", "Frequency");
+		ChannelAddress bool = new ChannelAddress("meter0", "State");
+		ChannelAddress string = new ChannelAddress("meter0", "Name");
+		ChannelAddress big = new ChannelAddress("meter0", "Big");
+		ChannelAddress empty = new ChannelAddress("meter0", "Empty");
+		cache.putToChannelCache(integer, new JsonPrimitive(-1500));
+		cache.putToChannelCache(decimal, new JsonPrimitive(49.95));
+		cache.putToChannelCache(bool, new JsonPrimitive(true));
+		cache.putToChannelCache(string, new JsonPrimitive("foo"));
+		cache.putToChannelCache(big, new JsonPrimitive(new BigInteger("123456789012345678901234567890")));
+		cache.putToChannelCache(empty, JsonNull.INSTANCE);
+
+		assertEquals(-1500, cache.getChannelValue(integer).get().getAsInt());
+		assertEquals(49.95, cache.getChannelValue(decimal).get().getAsDouble(), 0);
+		assertTrue(cache.getChannelValue(bool).get().getAsBoolean());
+		assertEquals("foo", cache.getChannelValue(string).get().getAsString());
+		assertEquals("123456789012345678901234567890", cache.getChannelValue(big).get().getAsString());
+		assertTrue(cache.getChannelValue(empty).get().isJsonNull());
+		assertFalse(cache.getChannelValue(new ChannelAddress("meter0", "Unknown")).isPresent());
+
+		// overwrite an object value with a number
+		cache.putToChannelCache(string, new JsonPrimitive(1));
+		assertEquals(1, cache.getChannelValue(string).get().getAsInt());
+	}
+
+	@Test
+	public void testEdgesAreIndependent() {
+		EdgeCache edge0 = new EdgeCache();
+		EdgeCache edge1 = new EdgeCache();
+		ChannelAddress soc = new ChannelAddress("_sum", "EssSoc");
+		ChannelAddress other = new ChannelAddress("ess5", "Soc");
+		edge0.putToChannelCache(soc, new JsonPrimitive(50));
+		edge1.putToChannelCache(other, new JsonPrimitive(60));
+		edge1.putToChannelCache(soc, new JsonPrimitive(70));
+
+		assertEquals(50, edge0.getChannelValue(soc).get().getAsInt());
+		assertFalse(edge0.getChannelValue(other).isPresent());
+		assertEquals(70, edge1.getChannelValue(soc).get().getAsInt());
+
+		Map<ChannelAddress, JsonElement> entries = edge0.getChannelCacheEntries();
+		assertEquals(1, entries.size());
+		assertEquals(50, entries.get(soc).getAsInt());
+	}
+
+	@Test
+	public void testGrow() {
+		EdgeCache cache = new EdgeCache();
+		Map<ChannelAddress, JsonElement> values = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			values.put(new ChannelAddress("grow" + i, "Channel"), new JsonPrimitive(i));
+		}
+		cache.putToChannelCache(values);
+		cache.putToChannelCache(new ChannelAddress("grow0", "Name"), new JsonPrimitive("foo"));
+
+		Map<ChannelAddress, JsonElement> entries = cache.getChannelCacheEntries();
+		assertEquals(1001, entries.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, entries.get(new ChannelAddress("grow" + i, "Channel")).getAsInt());
+		}
+		assertEquals("foo", entries.get(new ChannelAddress("grow0", "Name")).getAsString());
+	}
+
+	@Test
+	public void testGetChannelValues() {
+		EdgeCache cache = new EdgeCache();
+		ChannelAddress known = new ChannelAddress("meter0", "ActivePower");
+		ChannelAddress unknown = new ChannelAddress("meter0", "ReactivePower");
+		cache.putToChannelCache(known, new JsonPrimitive(1000));
+
+		Set<ChannelAddress> addresses = new HashSet<>();
+		addresses.add(known);
+		addresses.add(unknown);
+		Map<ChannelAddress, JsonElement> values = cache.getChannelValues(addresses);
+		assertEquals(2, values.size());
+		assertEquals(1000, values.get(known).getAsInt());
+		assertTrue(values.get(unknown).isJsonNull());
+	}
+
+	@Test
+	public void testClear() {
+		EdgeCache cache = new EdgeCache();
+		ChannelAddress address = new ChannelAddress("meter0", "ActivePower");
+		cache.putToChannelCache(address, new JsonPrimitive(1000));
+		cache.clear();
+
+		assertFalse(cache.getChannelValue(address).isPresent());
+		assertTrue(cache.getChannelCacheEntries().isEmpty());
+
+		cache.putToChannelCache(address, new JsonPrimitive(2000));
+		assertEquals(2000, cache.getChannelValue(address).get().getAsInt());
+	}
+
+}
@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -19,6 +20,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.TreeBasedTable;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 
 import io.openems.backend.common.component.AbstractOpenemsBackendComponent;
 import io.openems.backend.timedata.api.EdgeCache;
@@ -32,7 +34,7 @@ import io.openems.common.types.ChannelAddress;
 public class TimedataDummy extends AbstractOpenemsBackendComponent implements Timedata {
 
 	private final Logger log = LoggerFactory.getLogger(TimedataDummy.class);
-	private final Map<String, EdgeCache> edgeCacheMap = new HashMap<>();
+	private final Map<String, EdgeCache> edgeCacheMap = new ConcurrentHashMap<>();
 
 	public TimedataDummy() {
 		super("Timedata.Dummy");
@@ -58,13 +60,23 @@ public class TimedataDummy extends AbstractOpenemsBackendComponent implements Ti
 	}
 
 	@Override
-	public void write(String edgeId, TreeBasedTable<Long, ChannelAddress, JsonElement> data) throws OpenemsException {
-		// get existing or create new EdgeCache
+	public Map<ChannelAddress, JsonElement> getChannelValues(String edgeId, Set<ChannelAddress> channelAddresses) {
 		EdgeCache edgeCache = this.edgeCacheMap.get(edgeId);
-		if (edgeCache == null) {
-			edgeCache = new EdgeCache();
-			this.edgeCacheMap.put(edgeId, edgeCache);
+		if (edgeCache != null) {
+			return edgeCache.getChannelValues(channelAddresses);
+		} else {
+			Map<ChannelAddress, JsonElement> result = new HashMap<>();
+			for (ChannelAddress channelAddress : channelAddresses) {
+				result.put(channelAddress, JsonNull.INSTANCE);
+			}
+			return result;
 		}
+	}
+
+	@Override
+	public void write(String edgeId, TreeBasedTable<Long, ChannelAddress, JsonElement> data) throws OpenemsException {
+		// get existing or create new EdgeCache
+		EdgeCache edgeCache = this.edgeCacheMap.computeIfAbsent(edgeId, e -> new EdgeCache());
 
 		// Prepare data table. Takes entries starting with eldest timestamp (ascending
 		// order)
@@ -95,11 +107,7 @@ public class TimedataDummy extends AbstractOpenemsBackendComponent implements Ti
 				}
 
 				// add incoming data to cache (this replaces already existing cache values)
-				for (Entry<ChannelAddress, JsonElement> channelEntry : channels.entrySet()) {
-					ChannelAddress channel = channelEntry.getKey();
-					JsonElement value = channelEntry.getValue();
-					edgeCache.putToChannelCache(channel, value);
-				}
+				edgeCache.putToChannelCache(channels);
 			}
 		}
 	}
@@ -0,0 +1,53 @@
+package io.openems.backend.timedata.influx;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Defines which cached values are written together with newer data of an Edge.
+ *
+ * <p>
+ * Edges send only changed values. To still have complete points in InfluxDB,
+ * the latest values from the EdgeCache - if they are not older than
+ * {@link Influx#CARRY_FORWARD_TIMEOUT} - are added to every point.
+ */
+public enum CarryForwardPolicy {
+
+	/**
+	 * Only the received values are written.
+	 */
+	NONE,
+	/**
+	 * The last value of every Channel is carried forward.
+	 */
+	LAST_VALUE,
+	/**
+	 * Per Channel type: the last value of numeric and boolean Channels is carried
+	 * forward; Strings (e.g. State texts) are written only when they were
+	 * received.
+	 */
+	NUMERIC_ONLY;
+
+	/**
+	 * Checks if a cached value is carried forward.
+	 *
+	 * @param value the cached value; not null
+	 * @return true if the value should be written
+	 */
+	public boolean isCarriedForward(JsonElement value) {
+		switch (this) {
+		case LAST_VALUE:
+			return true;
+		case NUMERIC_ONLY:
+			if (!value.isJsonPrimitive()) {
+				return false;
+			}
+			JsonPrimitive primitive = value.getAsJsonPrimitive();
+			return primitive.isNumber() || primitive.isBoolean();
+		case NONE:
+		default:
+			return false;
+		}
+	}
+
+}
@@ -29,6 +29,21 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 	@AttributeDefinition(name = "Retention-Policy", description = "The InfluxDB retention policy")
 	String retentionPolicy() default "autogen";
 
+	@AttributeDefinition(name = "Batch size [kB]", description = "Points are sent to InfluxDB in batches of this size (uncompressed line protocol)")
+	int batchSize() default 512;
+
+	@AttributeDefinition(name = "Batch interval [ms]", description = "Batches are sent at the latest after this time")
+	int batchInterval() default 1000;
+
+	@AttributeDefinition(name = "Max pending batches", description = "Maximum number of batches waiting to be sent. If exceeded, writes are blocked for a short time and then spilled to the journal.")
+	int maxPendingBatches() default 16;
+
+	@AttributeDefinition(name = "Journal size [MB]", description = "Maximum size of the disk journal for batches that could not be sent. The oldest batches are dropped if it is full.")
+	int journalSize() default 1024;
+
+	@AttributeDefinition(name = "Carry-forward policy", description = "Which of the latest values (not older than 5 minutes) are written together with newer data of an Edge: none, the last value of every Channel or only numeric and boolean Channels")
+	CarryForwardPolicy carryForwardPolicy() default CarryForwardPolicy.LAST_VALUE;
+
 	@AttributeDefinition(name = "Read-Only mode", description = "Activates the read-only mode. Then no data is written to InfluxDB.")
 	boolean isReadOnly() default false;
 
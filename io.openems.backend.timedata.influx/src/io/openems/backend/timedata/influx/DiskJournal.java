@@ -0,0 +1,181 @@
+package io.openems.backend.timedata.influx;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Stores batches of line protocol that could not be sent to InfluxDB in a
+ * local directory, for replay after the outage.
+ *
+ * <p>
+ * Every batch is one gzip-compressed file. File names start with a sequence
+ * number, so replay keeps the original order - also after a restart. If the
+ * journal exceeds its maximum size, the oldest batches are dropped.
+ */
+public class DiskJournal {
+
+	private static final String SUFFIX = ".lp.gz";
+
+	private final Path directory;
+	private final long maxSize;
+	private final TreeSet<Path> files = new TreeSet<>();
+	private final AtomicLong droppedBatches = new AtomicLong();
+
+	private long size = 0;
+	private long nextSequence = 0;
+
+	/**
+	 * Opens the journal and loads existing batches.
+	 *
+	 * @param directory the directory
+	 * @param maxSize   the maximum size of all files in [byte]
+	 * @throws IOException on error
+	 */
+	public DiskJournal(Path directory, long maxSize) throws IOException {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		Files.createDirectories(directory);
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+			for (Path file : stream) {
+				this.files.add(file);
+				this.size += Files.size(file);
+				this.nextSequence = Math.max(this.nextSequence, parseSequence(file) + 1);
+			}
+		}
+	}
+
+	/**
+	 * Adds a batch to the journal.
+	 *
+	 * @param data       the buffer
+	 * @param length     the number of bytes in the buffer
+	 * @param compressed true if the data is already gzip-compressed
+	 * @throws IOException on error
+	 */
+	public synchronized void spill(byte[] data, int length, boolean compressed) throws IOException {
+		Path file = this.directory.resolve(String.format("%019d", this.nextSequence++) + SUFFIX);
+		Path tmp = this.directory.resolve(file.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			if (compressed) {
+				out.write(data, 0, length);
+			} else {
+				try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+					gzip.write(data, 0, length);
+				}
+			}
+		}
+		// move atomically, so that replay never sees a partial file
+		Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+		this.files.add(file);
+		this.size += Files.size(file);
+
+		// drop the oldest batches if the journal is full
+		while (this.size > this.maxSize && this.files.size() > 1) {
+			this.delete(this.files.first());
+			this.droppedBatches.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets the oldest batch.
+	 *
+	 * @return the file; null if the journal is empty
+	 */
+	public synchronized Path peek() {
+		return this.files.isEmpty() ? null : this.files.first();
+	}
+
+	/**
+	 * Reads a batch and validates that it can be decoded.
+	 *
+	 * @param file the file as returned by {@link #peek()}
+	 * @return the gzip-compressed content
+	 * @throws ZipException if the content is not valid gzip, e.g. because the
+	 *                      file was corrupted
+	 * @throws IOException  on any other error
+	 */
+	public byte[] read(Path file) throws IOException {
+		byte[] content = Files.readAllBytes(file);
+		validate(content);
+		return content;
+	}
+
+	/**
+	 * Decodes the complete content, including the gzip checksum.
+	 *
+	 * @param content the gzip-compressed content
+	 * @throws ZipException if the content is not valid gzip
+	 */
+	private static void validate(byte[] content) throws ZipException {
+		byte[] buffer = new byte[8192];
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			while (in.read(buffer) >= 0) {
+				// discard
+			}
+		} catch (IOException e) {
+			// any failure of an in-memory stream is a decode error
+			throw new ZipException(e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes a batch, e.g. after it was successfully replayed.
+	 *
+	 * @param file the file as returned by {@link #peek()}
+	 * @throws IOException on error
+	 */
+	public synchronized void delete(Path file) throws IOException {
+		if (this.files.remove(file)) {
+			this.size -= Files.size(file);
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Gets the number of batches in the journal.
+	 *
+	 * @return the number of batches
+	 */
+	public synchronized int getBatches() {
+		return this.files.size();
+	}
+
+	/**
+	 * Gets the size of the journal.
+	 *
+	 * @return the size in [byte]
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Gets the number of batches that were dropped because the journal was full.
+	 *
+	 * @return the number of batches
+	 */
+	public long getDroppedBatches() {
+		return this.droppedBatches.get();
+	}
+
+	private static long parseSequence(Path file) {
+		String name = file.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+}
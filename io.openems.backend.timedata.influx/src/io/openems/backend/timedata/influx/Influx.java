@@ -1,23 +1,23 @@
 package io.openems.backend.timedata.influx;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.ZonedDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.TimeUnit;
-import java.util.function.BiConsumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
-import org.influxdb.InfluxDBException.FieldTypeConflictException;
 import org.influxdb.dto.Point;
-import org.influxdb.dto.Point.Builder;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
@@ -30,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ObjectArrays;
 import com.google.common.collect.TreeBasedTable;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonPrimitive;
 
 import io.openems.backend.common.component.AbstractOpenemsBackendComponent;
@@ -37,6 +38,7 @@ import io.openems.backend.metadata.api.Edge;
 import io.openems.backend.metadata.api.Metadata;
 import io.openems.backend.timedata.api.EdgeCache;
 import io.openems.backend.timedata.api.Timedata;
+import io.openems.common.OpenemsConstants;
 import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.types.ChannelAddress;
@@ -44,18 +46,25 @@ import io.openems.common.types.EdgeConfig;
 import io.openems.common.types.SemanticVersion;
 import io.openems.common.utils.StringUtils;
 import io.openems.shared.influxdb.InfluxConnector;
-import io.openems.shared.influxdb.InfluxConstants;
 
 @Designate(ocd = Config.class, factory = false)
 @Component(name = "Timedata.InfluxDB", configurationPolicy = ConfigurationPolicy.REQUIRE)
 public class Influx extends AbstractOpenemsBackendComponent implements Timedata {
 
+	/**
+	 * Cached values are carried forward for at most this time in [ms].
+	 */
+	public static final long CARRY_FORWARD_TIMEOUT = 5 * 60 * 1000;
+
 	private static final Pattern NAME_NUMBER_PATTERN = Pattern.compile("[^0-9]+([0-9]+)$");
+	private static final String JOURNAL_PATH = "influx-journal";
 
 	private final Logger log = LoggerFactory.getLogger(Influx.class);
-	private final Map<String, EdgeCache> edgeCacheMap = new HashMap<>();
+	private final Map<String, EdgeCache> edgeCacheMap = new ConcurrentHashMap<>();
 
 	private InfluxConnector influxConnector = null;
+	private InfluxWriter influxWriter = null;
+	private CarryForwardPolicy carryForwardPolicy = CarryForwardPolicy.LAST_VALUE;
 
 	public Influx() {
 		super("Timedata.InfluxDB");
@@ -74,9 +83,11 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 				";username=" + config.username() + //
 				";password=" + (config.password() != null ? "ok" : "NOT_SET") + //
 				";measurement=" + config.measurement() + //
+				";carryForward=" + config.carryForwardPolicy() + //
 				(config.isReadOnly() ? ";READ_ONLY_MODE" : "") + //
 				"]");
 
+		this.carryForwardPolicy = config.carryForwardPolicy();
 		this.influxConnector = new InfluxConnector(config.url(), config.port(), config.username(), config.password(),
 				config.database(), config.retentionPolicy(), config.isReadOnly(), //
 				(failedPoints, throwable) -> {
@@ -84,16 +95,33 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 							.map(Point::lineProtocol).collect(Collectors.joining(","));
 					this.logError(this.log, "Unable to write to InfluxDB. " + throwable.getClass().getSimpleName()
 							+ ": " + throwable.getMessage() + " for " + StringUtils.toShortString(pointsString, 100));
-
-					if (throwable instanceof FieldTypeConflictException) {
-						this.handleFieldTypeConflictException((FieldTypeConflictException) throwable);
-					}
 				});
+
+		if (!config.isReadOnly()) {
+			DiskJournal journal = null;
+			Path journalPath = Paths.get(OpenemsConstants.getOpenemsDataDir(), JOURNAL_PATH, config.database());
+			try {
+				journal = new DiskJournal(journalPath, config.journalSize() * 1024L * 1024L);
+				if (journal.getBatches() > 0) {
+					this.logInfo(this.log, "Replaying [" + journal.getBatches() + "] batches from journal ["
+							+ journalPath + "]");
+				}
+			} catch (IOException e) {
+				this.logError(this.log,
+						"Unable to open journal [" + journalPath + "]: " + e.getMessage() + ". Failed batches are lost.");
+			}
+			this.influxWriter = new InfluxWriter(config.url(), config.port(), config.username(), config.password(),
+					config.database(), config.retentionPolicy(), config.batchSize() * 1024, config.batchInterval(),
+					config.maxPendingBatches(), journal, this::mapField, this::handleFieldTypeConflict);
+		}
 	}
 
 	@Deactivate
 	void deactivate() {
 		this.logInfo(this.log, "Deactivate");
+		if (this.influxWriter != null) {
+			this.influxWriter.deactivate();
+		}
 		if (this.influxConnector != null) {
 			this.influxConnector.deactivate();
 		}
@@ -105,39 +133,28 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 		int influxEdgeId = Influx.parseNumberFromName(edgeId);
 
 		// get existing or create new DeviceCache
-		EdgeCache edgeCache = this.edgeCacheMap.get(edgeId);
-		if (edgeCache == null) {
-			edgeCache = new EdgeCache();
-			this.edgeCacheMap.put(edgeId, edgeCache);
-		}
+		EdgeCache edgeCache = this.edgeCacheMap.computeIfAbsent(edgeId, e -> new EdgeCache());
 
 		/*
-		 * Prepare data table. Takes entries starting with eldest timestamp (ascending
-		 * order)
+		 * Stream the rows starting with eldest timestamp (ascending order); every row
+		 * is merged with the cache as it was before this row.
 		 */
 		for (Entry<Long, Map<ChannelAddress, JsonElement>> entry : data.rowMap().entrySet()) {
-			Long timestamp = entry.getKey();
+			long timestamp = entry.getKey();
+			Map<ChannelAddress, JsonElement> values = entry.getValue();
 
 			// Check if cache is valid (it is not elder than 5 minutes compared to this
 			// timestamp)
 			long cacheTimestamp = edgeCache.getTimestamp();
 			if (timestamp < cacheTimestamp) {
 				// incoming data is older than cache -> do not apply cache
+				this.writeData(influxEdgeId, timestamp, values, null);
 
 			} else {
 				// incoming data is more recent than cache
-				if (timestamp < cacheTimestamp + 5 * 60 * 1000) {
-					// cache is valid (not elder than 5 minutes)
-					for (Entry<ChannelAddress, JsonElement> cacheEntry : edgeCache.getChannelCacheEntries()
-							.entrySet()) {
-						ChannelAddress channel = cacheEntry.getKey();
-						// check if there is a current value for this timestamp + channel
-						JsonElement existingValue = data.get(timestamp, channel);
-						if (existingValue == null) {
-							// if not -> add cache data to write data
-							data.put(timestamp, channel, cacheEntry.getValue());
-						}
-					}
+				if (timestamp < cacheTimestamp + CARRY_FORWARD_TIMEOUT) {
+					// cache is valid (not elder than 5 minutes) -> merge while writing
+					this.writeData(influxEdgeId, timestamp, values, edgeCache);
 				} else {
 					// cache is not anymore valid (elder than 5 minutes)
 					if (cacheTimestamp != 0L) {
@@ -146,55 +163,38 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 					}
 					// clear cache
 					edgeCache.clear();
+					this.writeData(influxEdgeId, timestamp, values, null);
 				}
 
 				// update cache
 				edgeCache.setTimestamp(timestamp);
-				for (Entry<ChannelAddress, JsonElement> channelEntry : entry.getValue().entrySet()) {
-					edgeCache.putToChannelCache(channelEntry.getKey(), channelEntry.getValue());
-				}
+				edgeCache.putToChannelCache(values);
 			}
 		}
-
-		// Write data to default location
-		this.writeData(influxEdgeId, data);
 	}
 
 	/**
-	 * Actually writes the data to InfluxDB.
+	 * Actually writes one row to InfluxDB.
 	 * 
 	 * @param influxEdgeId the unique, numeric identifier of the Edge
-	 * @param data         the data
+	 * @param timestamp    the timestamp of the row
+	 * @param values       the received values
+	 * @param cache        the {@link EdgeCache} with the values to carry forward;
+	 *                     null for none
 	 * @throws OpenemsException on error
 	 */
-	private void writeData(int influxEdgeId, TreeBasedTable<Long, ChannelAddress, JsonElement> data)
-			throws OpenemsException {
-		Set<Entry<Long, Map<ChannelAddress, JsonElement>>> dataEntries = data.rowMap().entrySet();
-		if (dataEntries.isEmpty()) {
-			// no data to write
+	private void writeData(int influxEdgeId, long timestamp, Map<ChannelAddress, JsonElement> values,
+			EdgeCache cache) throws OpenemsException {
+		if (this.influxWriter == null) {
+			// Read-Only mode
 			return;
 		}
-
-		for (Entry<Long, Map<ChannelAddress, JsonElement>> dataEntry : dataEntries) {
-			Set<Entry<ChannelAddress, JsonElement>> channelEntries = dataEntry.getValue().entrySet();
-			if (channelEntries.isEmpty()) {
-				// no points to add
-				continue;
-			}
-
-			Long timestamp = dataEntry.getKey();
-			// this builds an InfluxDB record ("point") for a given timestamp
-			Point.Builder builder = Point //
-					.measurement(InfluxConnector.MEASUREMENT) //
-					.tag(InfluxConstants.TAG, String.valueOf(influxEdgeId)) //
-					.time(timestamp, TimeUnit.MILLISECONDS);
-			for (Entry<ChannelAddress, JsonElement> channelEntry : channelEntries) {
-				this.addValue(builder, channelEntry.getKey().toString(), channelEntry.getValue());
-			}
-			if (builder.hasFields()) {
-				this.influxConnector.write(builder.build());
-			}
+		if (values.isEmpty() && (cache == null || this.carryForwardPolicy == CarryForwardPolicy.NONE)) {
+			// no points to add
+			return;
 		}
+		// this writes an InfluxDB record ("point") for the given timestamp
+		this.influxWriter.write(influxEdgeId, timestamp, values, cache, this.carryForwardPolicy);
 	}
 
 	public static Integer parseNumberFromName(String name) throws OpenemsException {
@@ -228,88 +228,55 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 		return this.influxConnector.queryHistoricEnergy(influxEdgeId, fromDate, toDate, channels);
 	}
 
-	/**
-	 * Adds the value in the correct data format for InfluxDB.
-	 *
-	 * @param builder the Influx PointBuilder
-	 * @param field   the field name
-	 * @param element the value
-	 * @return
-	 */
-	private void addValue(Builder builder, String field, JsonElement element) {
-		if (element == null || element.isJsonNull()) {
-			// do not add
-			return;
-		}
-		if (this.specialCaseFieldHandling(builder, field, element)) {
-			// already handled by special case handling
-			return;
-		}
-		if (element.isJsonPrimitive()) {
-			JsonPrimitive value = element.getAsJsonPrimitive();
-			if (value.isNumber()) {
-				try {
-					builder.addField(field, Long.parseLong(value.toString()));
-				} catch (NumberFormatException e1) {
-					try {
-						builder.addField(field, Double.parseDouble(value.toString()));
-					} catch (NumberFormatException e2) {
-						builder.addField(field, value.getAsNumber());
-					}
-				}
-			} else if (value.isBoolean()) {
-				builder.addField(field, value.getAsBoolean());
-			} else if (value.isString()) {
-				builder.addField(field, value.getAsString());
-			} else {
-				builder.addField(field, value.toString());
-			}
-		} else {
-			builder.addField(field, element.toString());
-		}
-	}
-
 	private final static Pattern FIELD_TYPE_CONFLICT_EXCEPTION_PATTERN = Pattern.compile(
 			"^partial write: field type conflict: input field \"(?<channel>.*)\" on measurement \"data\" is type (?<thisType>\\w+), already exists as type (?<requiredType>\\w+) dropped=\\d+$");
 
-	private final Map<String, BiConsumer<Builder, JsonElement>> specialCaseFieldHandlers = new HashMap<>();
+	private final Map<ChannelAddress, UnaryOperator<JsonElement>> specialCaseFieldHandlers = new ConcurrentHashMap<>();
 
 	/**
-	 * Handles a {@link FieldTypeConflictException}; adds special handling for
-	 * fields that already exist in the database.
+	 * Handles an error message of a rejected batch; adds special handling for
+	 * fields that already exist in the database with a different type.
 	 * 
-	 * @param e the {@link FieldTypeConflictException}
+	 * @param message the error message
 	 */
-	private void handleFieldTypeConflictException(FieldTypeConflictException e) {
-		Matcher matcher = FIELD_TYPE_CONFLICT_EXCEPTION_PATTERN.matcher(e.getMessage());
+	private void handleFieldTypeConflict(String message) {
+		Matcher matcher = FIELD_TYPE_CONFLICT_EXCEPTION_PATTERN.matcher(message);
 		if (!matcher.find()) {
-			this.logWarn(this.log, "Unable to add special field handler for message [" + e.getMessage() + "]");
 			return;
 		}
 		String field = matcher.group("channel");
 		String thisType = matcher.group("thisType");
 		String requiredType = matcher.group("requiredType");
 
-		BiConsumer<Builder, JsonElement> handler = null;
+		ChannelAddress address;
+		try {
+			address = ChannelAddress.fromString(field);
+		} catch (OpenemsNamedException e) {
+			this.logWarn(this.log, "Unable to add special field handler for [" + field + "]: " + e.getMessage());
+			return;
+		}
+
+		UnaryOperator<JsonElement> handler = null;
 		switch (requiredType) {
 		case "string":
-			handler = (builder, value) -> {
-				builder.addField(field, value.toString());
+			handler = (value) -> {
+				return new JsonPrimitive(value.toString());
 			};
 			break;
 		case "integer":
-			handler = (builder, jValue) -> {
+			handler = (jValue) -> {
 				String value = jValue.toString().replace("\"", "");
 				try {
-					builder.addField(field, Long.parseLong(value));
+					return new JsonPrimitive(Long.parseLong(value));
 				} catch (NumberFormatException e1) {
-					if (field.equalsIgnoreCase("false")) {
-						builder.addField(field, 0l);
-					} else if (field.equalsIgnoreCase("true")) {
-						builder.addField(field, 1l);
+					if (value.equalsIgnoreCase("false")) {
+						return new JsonPrimitive(0L);
+					} else if (value.equalsIgnoreCase("true")) {
+						return new JsonPrimitive(1L);
 					} else {
 						this.logInfo(this.log,
 								"Unable to convert field [" + field + "] value [" + value + "] to integer");
+						return null;
 					}
 				}
 			};
@@ -322,7 +289,7 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 		} else {
 			this.logInfo(this.log,
 					"Add special field handler for [" + field + "] from [" + thisType + "] to [" + requiredType + "]");
-			this.specialCaseFieldHandlers.put(field, handler);
+			this.specialCaseFieldHandlers.put(address, handler);
 		}
 	}
 
@@ -333,20 +300,21 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 	 * E.g. to avoid errors like "field type conflict: input field XYZ on
 	 * measurement "data" is type integer, already exists as type string"
 	 * 
-	 * @param builder the InfluxDB Builder
-	 * @param field   the fieldName, i.e. the ChannelAddress
-	 * @param value   the value, guaranteed to be not-null and not JsonNull.
-	 * @return true if field was handled; false otherwise
+	 * @param address the ChannelAddress, i.e. the field
+	 * @param value   the value
+	 * @return the value to be written; null to not write the field
 	 */
-	private boolean specialCaseFieldHandling(Builder builder, String field, JsonElement value) {
-		BiConsumer<Builder, JsonElement> handler = this.specialCaseFieldHandlers.get(field);
+	private JsonElement mapField(ChannelAddress address, JsonElement value) {
+		if (value == null || value.isJsonNull()) {
+			return null;
+		}
+		UnaryOperator<JsonElement> handler = this.specialCaseFieldHandlers.get(address);
 		if (handler == null) {
 			// no special handling exists for this field
-			return false;
+			return value;
 		}
 		// call special handler
-		handler.accept(builder, value);
-		return true;
+		return handler.apply(value);
 	}
 
 	@Override
@@ -376,6 +344,32 @@ public class Influx extends AbstractOpenemsBackendComponent implements Timedata
 		}
 	}
 
+	@Override
+	public Map<ChannelAddress, JsonElement> getChannelValues(String edgeId, Set<ChannelAddress> addresses) {
+		EdgeCache cache = this.edgeCacheMap.get(edgeId);
+		if (cache == null) {
+			return Timedata.super.getChannelValues(edgeId, addresses);
+		}
+		Map<ChannelAddress, JsonElement> result = cache.getChannelValues(addresses);
+		if (!result.containsValue(JsonNull.INSTANCE)) {
+			return result;
+		}
+		Optional<Edge> edge = this.metadata.getEdge(edgeId);
+		if (!edge.isPresent() || edge.get().getVersion().isAtLeast(new SemanticVersion(2018, 11, 0))) {
+			return result;
+		}
+		// Old version: fill missing values in compatibility mode
+		for (Entry<ChannelAddress, JsonElement> entry : result.entrySet()) {
+			if (entry.getValue().isJsonNull()) {
+				ChannelFormula[] compatibility = this.getCompatibilityFormula(edge.get(), entry.getKey());
+				if (compatibility.length != 0) {
+					entry.setValue(this.getCompatibilityChannelValue(compatibility, cache).get());
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Handles compatibility with elder OpenEMS Edge version, e.g. calculate the
 	 * '_sum' Channels.
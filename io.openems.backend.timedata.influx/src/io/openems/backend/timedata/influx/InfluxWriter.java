@@ -0,0 +1,755 @@
+package io.openems.backend.timedata.influx;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.backend.timedata.api.EdgeCache;
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.utils.JsonUtils;
+import io.openems.shared.influxdb.InfluxConnector;
+import io.openems.shared.influxdb.InfluxConstants;
+
+/**
+ * A high-throughput write pipeline for InfluxDB.
+ *
+ * <ul>
+ * <li>Points are encoded as line protocol directly into reusable
+ * {@link LineProtocolBatch}es; no objects are created per point
+ * <li>Batches are sent when they reach the configured size or age, as one
+ * gzip-compressed HTTP request by a single sender thread
+ * <li>Back-pressure is explicit: if the bounded queue of pending batches is
+ * full, writers are blocked for at most {@link #BACK_PRESSURE_TIMEOUT}
+ * milliseconds; afterwards the batch is spilled to the {@link DiskJournal}
+ * <li>Batches that fail because of connection problems or server errors are
+ * spilled to the {@link DiskJournal} and replayed in their original order once
+ * InfluxDB is available again. While the journal is not empty, new batches are
+ * appended to it, so that InfluxDB always receives older data first. Batches
+ * that are rejected by InfluxDB (HTTP 4xx) are not retried
+ * </ul>
+ */
+public class InfluxWriter {
+
+	/**
+	 * Maximum time in [ms] a writer is blocked if the queue of pending batches is
+	 * full.
+	 */
+	public static final long BACK_PRESSURE_TIMEOUT = 1_000;
+
+	private static final long RETRY_DELAY = 30_000;
+	private static final long METRICS_LOG_INTERVAL = 5 * 60_000;
+	private static final int CONNECT_TIMEOUT = 5_000;
+	private static final int READ_TIMEOUT = 30_000;
+
+	private final Logger log = LoggerFactory.getLogger(InfluxWriter.class);
+	private final URL url;
+	private final String authorization;
+	private final int batchSize;
+	private final long batchInterval;
+	private final DiskJournal journal;
+	private final BiFunction<ChannelAddress, JsonElement, JsonElement> fieldMapper;
+	private final Consumer<String> onRejected;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final BlockingQueue<LineProtocolBatch> pending;
+	private final BlockingQueue<LineProtocolBatch> pool;
+	private final Map<Integer, byte[]> prefixes = new ConcurrentHashMap<>();
+	private final Map<ChannelAddress, byte[]> keys = new ConcurrentHashMap<>();
+	private final GzipEncoder gzip = new GzipEncoder();
+	private final Thread sender;
+
+	// Metrics
+	private final AtomicLong writtenPoints = new AtomicLong();
+	private final AtomicLong sentBatches = new AtomicLong();
+	private final AtomicLong sentBytes = new AtomicLong();
+	private final AtomicLong backPressureTime = new AtomicLong();
+	private final AtomicLong spilledBatches = new AtomicLong();
+	private final AtomicLong replayedBatches = new AtomicLong();
+	private final AtomicLong rejectedBatches = new AtomicLong();
+	private final AtomicLong droppedBatches = new AtomicLong();
+
+	// guarded by lock
+	private LineProtocolBatch current;
+
+	// only accessed by the sender thread
+	private boolean isOutage = false;
+	private long nextRetry = 0;
+
+	/**
+	 * Creates and starts the {@link InfluxWriter}.
+	 *
+	 * @param ip                IP-Address of the InfluxDB-Server
+	 * @param port              Port of the InfluxDB-Server
+	 * @param username          the username
+	 * @param password          the password
+	 * @param database          the database name
+	 * @param retentionPolicy   the retention policy
+	 * @param batchSize         the size of a batch in [byte]
+	 * @param batchInterval     the maximum age of a batch in [ms]
+	 * @param maxPendingBatches the maximum number of batches waiting to be sent
+	 * @param journal           the {@link DiskJournal}; null to drop failed
+	 *                          batches
+	 * @param fieldMapper       maps each value before it is written, e.g. to
+	 *                          avoid field type conflicts; null values are not
+	 *                          written
+	 * @param onRejected        called with the error message if InfluxDB rejected
+	 *                          a batch
+	 * @throws OpenemsException on error
+	 */
+	public InfluxWriter(String ip, int port, String username, String password, String database,
+			String retentionPolicy, int batchSize, long batchInterval, int maxPendingBatches, DiskJournal journal,
+			BiFunction<ChannelAddress, JsonElement, JsonElement> fieldMapper, Consumer<String> onRejected)
+			throws OpenemsException {
+		try {
+			this.url = new URL("http://" + ip + ":" + port + "/write?precision=ms" //
+					+ "&db=" + URLEncoder.encode(database, "UTF-8") //
+					+ "&rp=" + URLEncoder.encode(retentionPolicy, "UTF-8"));
+		} catch (IOException e) {
+			throw new OpenemsException("Invalid InfluxDB URL: " + e.getMessage());
+		}
+		this.authorization = "Basic " + Base64.getEncoder()
+				.encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+		this.batchSize = batchSize;
+		this.batchInterval = batchInterval;
+		this.journal = journal;
+		this.fieldMapper = fieldMapper;
+		this.onRejected = onRejected;
+		this.pending = new ArrayBlockingQueue<>(Math.max(1, maxPendingBatches));
+		this.pool = new ArrayBlockingQueue<>(Math.max(1, maxPendingBatches) + 1);
+		this.current = this.newBatch();
+
+		this.sender = new Thread(this::run, "InfluxWriter");
+		this.sender.setDaemon(true);
+		this.sender.start();
+	}
+
+	/**
+	 * Stops the sender thread. Remaining batches are sent or spilled to the
+	 * {@link DiskJournal}.
+	 *
+	 * <p>
+	 * If the sender thread does not terminate in time - e.g. because it is still
+	 * waiting for InfluxDB - the remaining batches are only spilled, because the
+	 * sender might still be using the {@link GzipEncoder}.
+	 */
+	public void deactivate() {
+		this.sender.interrupt();
+		try {
+			this.sender.join(READ_TIMEOUT);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		boolean isSenderAlive = this.sender.isAlive();
+		if (isSenderAlive) {
+			this.log.warn("InfluxWriter sender did not terminate. Spilling remaining batches.");
+		}
+		this.lock.lock();
+		try {
+			LineProtocolBatch batch;
+			while ((batch = this.pending.poll()) != null) {
+				if (isSenderAlive) {
+					this.spill(batch.getBuffer(), batch.size(), false);
+				} else {
+					this.send(batch);
+				}
+			}
+			if (this.current.getLines() > 0) {
+				if (isSenderAlive) {
+					this.spill(this.current.getBuffer(), this.current.size(), false);
+				} else {
+					this.send(this.current);
+				}
+				this.current.reset();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+		if (!isSenderAlive) {
+			this.gzip.close();
+		}
+		this.logMetrics();
+	}
+
+	/**
+	 * Writes one point, i.e. the values of one Edge at one timestamp.
+	 *
+	 * <p>
+	 * Blocks for at most {@link #BACK_PRESSURE_TIMEOUT} milliseconds if the queue
+	 * of pending batches is full.
+	 *
+	 * @param influxEdgeId the unique, numeric identifier of the Edge
+	 * @param timestamp    the timestamp in [ms]
+	 * @param fields       the values by {@link ChannelAddress}
+	 * @throws OpenemsException if interrupted
+	 */
+	public void write(int influxEdgeId, long timestamp, Map<ChannelAddress, JsonElement> fields)
+			throws OpenemsException {
+		this.write(influxEdgeId, timestamp, fields, null, CarryForwardPolicy.NONE);
+	}
+
+	/**
+	 * Writes one point, merging the received values with the carried forward
+	 * values of the {@link EdgeCache}.
+	 *
+	 * <p>
+	 * The cached values are streamed directly into the line; the merged point is
+	 * never materialized. Received values take precedence over cached values.
+	 * Blocks for at most {@link #BACK_PRESSURE_TIMEOUT} milliseconds if the queue
+	 * of pending batches is full.
+	 *
+	 * @param influxEdgeId the unique, numeric identifier of the Edge
+	 * @param timestamp    the timestamp in [ms]
+	 * @param fields       the received values by {@link ChannelAddress}
+	 * @param cache        the {@link EdgeCache} with the values before this
+	 *                     point; null for none
+	 * @param policy       the {@link CarryForwardPolicy} for the cached values
+	 * @throws OpenemsException if interrupted
+	 */
+	public void write(int influxEdgeId, long timestamp, Map<ChannelAddress, JsonElement> fields, EdgeCache cache,
+			CarryForwardPolicy policy) throws OpenemsException {
+		byte[] prefix = this.prefixes.computeIfAbsent(influxEdgeId, InfluxWriter::getLinePrefix);
+		this.lock.lock();
+		try {
+			LineProtocolBatch batch = this.current;
+			batch.beginLine(prefix);
+			for (Entry<ChannelAddress, JsonElement> entry : fields.entrySet()) {
+				this.appendMappedField(batch, entry.getKey(), entry.getValue());
+			}
+			if (cache != null && policy != CarryForwardPolicy.NONE) {
+				cache.forEachChannelValue((address, value) -> {
+					if (!fields.containsKey(address) && policy.isCarriedForward(value)) {
+						this.appendMappedField(batch, address, value);
+					}
+				});
+			}
+			if (batch.endLine(timestamp)) {
+				this.writtenPoints.incrementAndGet();
+			}
+			if (batch.size() >= this.batchSize) {
+				this.enqueue(BACK_PRESSURE_TIMEOUT);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OpenemsException("Interrupted while writing to InfluxDB");
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the measurement and tags of the lines of an Edge.
+	 *
+	 * @param influxEdgeId the unique, numeric identifier of the Edge
+	 * @return the encoded prefix, e.g. 'data,edge=0'
+	 */
+	private static byte[] getLinePrefix(int influxEdgeId) {
+		byte[] measurement = LineProtocolBatch.escapeKey(InfluxConnector.MEASUREMENT);
+		byte[] tag = LineProtocolBatch.escapeKey(InfluxConstants.TAG);
+		byte[] value = LineProtocolBatch.escapeKey(String.valueOf(influxEdgeId));
+		byte[] result = new byte[measurement.length + tag.length + value.length + 2];
+		System.arraycopy(measurement, 0, result, 0, measurement.length);
+		result[measurement.length] = ',';
+		System.arraycopy(tag, 0, result, measurement.length + 1, tag.length);
+		result[measurement.length + 1 + tag.length] = '=';
+		System.arraycopy(value, 0, result, measurement.length + tag.length + 2, value.length);
+		return result;
+	}
+
+	/**
+	 * Appends a field after applying the field mapper.
+	 *
+	 * @param batch   the {@link LineProtocolBatch}
+	 * @param address the {@link ChannelAddress}, i.e. the field key
+	 * @param element the value
+	 */
+	private void appendMappedField(LineProtocolBatch batch, ChannelAddress address, JsonElement element) {
+		JsonElement value = this.fieldMapper.apply(address, element);
+		if (value == null || value.isJsonNull()) {
+			return;
+		}
+		this.appendField(batch, address, value);
+	}
+
+	/**
+	 * Appends a field in the correct data format for InfluxDB.
+	 *
+	 * @param batch   the {@link LineProtocolBatch}
+	 * @param address the {@link ChannelAddress}, i.e. the field key
+	 * @param element the value; not null
+	 */
+	private void appendField(LineProtocolBatch batch, ChannelAddress address, JsonElement element) {
+		byte[] key = this.keys.computeIfAbsent(address, a -> LineProtocolBatch.escapeKey(a.toString()));
+		if (!element.isJsonPrimitive()) {
+			batch.beginField(key);
+			batch.appendString(element.toString());
+			return;
+		}
+		JsonPrimitive value = element.getAsJsonPrimitive();
+		if (value.isNumber()) {
+			String number = value.getAsString();
+			if (isInteger(number)) {
+				batch.beginField(key);
+				batch.appendNumber(number, true);
+			} else {
+				try {
+					if (Double.isFinite(Double.parseDouble(number))) {
+						batch.beginField(key);
+						batch.appendNumber(number, false);
+					}
+				} catch (NumberFormatException e) {
+					// not a valid number -> do not add
+				}
+			}
+		} else if (value.isBoolean()) {
+			batch.beginField(key);
+			batch.appendBoolean(value.getAsBoolean());
+		} else {
+			batch.beginField(key);
+			batch.appendString(value.getAsString());
+		}
+	}
+
+	/**
+	 * Checks if a JSON number fits in a 64-bit integer.
+	 *
+	 * @param number the number
+	 * @return true for integers
+	 */
+	private static boolean isInteger(String number) {
+		int start = number.startsWith("-") ? 1 : 0;
+		int digits = number.length() - start;
+		if (digits < 1 || digits > 19) {
+			return false;
+		}
+		for (int i = start; i < number.length(); i++) {
+			char c = number.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		if (digits == 19) {
+			try {
+				Long.parseLong(number);
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the current batch to the queue of pending batches. Must be called
+	 * while holding the lock.
+	 *
+	 * @param timeout the maximum time to wait in [ms]
+	 * @return true if the batch was queued or spilled; false if the queue was full
+	 *         and the timeout was 0
+	 * @throws InterruptedException if interrupted
+	 */
+	private boolean enqueue(long timeout) throws InterruptedException {
+		long start = System.nanoTime();
+		boolean isQueued = this.pending.offer(this.current, timeout, TimeUnit.MILLISECONDS);
+		if (timeout > 0) {
+			this.backPressureTime.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+		if (isQueued) {
+			LineProtocolBatch next = this.pool.poll();
+			this.current = next != null ? next : this.newBatch();
+			return true;
+		}
+		if (timeout == 0) {
+			return false;
+		}
+		// InfluxDB is too slow: keep the data on disk
+		this.spill(this.current.getBuffer(), this.current.size(), false);
+		this.current.reset();
+		return true;
+	}
+
+	/**
+	 * The sender thread.
+	 */
+	private void run() {
+		long lastMetricsLog = System.currentTimeMillis();
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				// do not wait for new batches while the journal can be replayed
+				long timeout = this.isReplayDue() ? 0 : this.batchInterval;
+				LineProtocolBatch batch = this.pending.poll(timeout, TimeUnit.MILLISECONDS);
+				if (batch != null) {
+					this.send(batch);
+					this.recycle(batch);
+				}
+				this.flushIfDue();
+				this.replay();
+
+				long now = System.currentTimeMillis();
+				if (now - lastMetricsLog > METRICS_LOG_INTERVAL) {
+					lastMetricsLog = now;
+					this.logMetrics();
+				}
+			} catch (InterruptedException e) {
+				return;
+			} catch (RuntimeException e) {
+				this.log.error("InfluxWriter failed: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Queues the current batch if it is older than the batch interval. Never
+	 * blocks the sender thread.
+	 *
+	 * @throws InterruptedException if interrupted
+	 */
+	private void flushIfDue() throws InterruptedException {
+		if (!this.lock.tryLock()) {
+			// a writer is active; it will queue the batch once it is full
+			return;
+		}
+		try {
+			LineProtocolBatch batch = this.current;
+			if (batch.getLines() > 0 && System.currentTimeMillis() - batch.getCreated() >= this.batchInterval) {
+				this.enqueue(0);
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Sends a batch; spills it to the {@link DiskJournal} on failure.
+	 *
+	 * <p>
+	 * While the journal is not empty, the batch is appended to the journal
+	 * instead, so that it is sent after all older batches.
+	 *
+	 * @param batch the {@link LineProtocolBatch}
+	 */
+	private void send(LineProtocolBatch batch) {
+		byte[] body = this.gzip.encode(batch.getBuffer(), batch.size());
+		int length = this.gzip.size();
+		if (this.isRetryPending() || (this.journal != null && this.journal.getBatches() > 0)) {
+			// keep order: replay the journal first
+			this.spill(body, length, true);
+			return;
+		}
+		if (this.post(body, length)) {
+			this.sentBatches.incrementAndGet();
+			this.sentBytes.addAndGet(length);
+		} else {
+			this.spill(body, length, true);
+		}
+	}
+
+	/**
+	 * Is a retry after a failure pending?.
+	 *
+	 * @return true if nothing should be sent before {@link #nextRetry}
+	 */
+	private boolean isRetryPending() {
+		return this.isOutage && System.currentTimeMillis() < this.nextRetry;
+	}
+
+	/**
+	 * Are there batches in the {@link DiskJournal} that can be replayed now?.
+	 *
+	 * @return true if {@link #replay()} should be called without delay
+	 */
+	private boolean isReplayDue() {
+		return this.journal != null && this.journal.getBatches() > 0 && !this.isRetryPending();
+	}
+
+	/**
+	 * Replays the oldest batch from the {@link DiskJournal}.
+	 *
+	 * <p>
+	 * Only batches that cannot be decoded are dropped; on any other error the
+	 * batch is kept and retried after {@link #RETRY_DELAY}.
+	 */
+	private void replay() {
+		if (!this.isReplayDue()) {
+			return;
+		}
+		Path file = this.journal.peek();
+		if (file == null) {
+			return;
+		}
+		try {
+			byte[] body = this.journal.read(file);
+			if (this.post(body, body.length)) {
+				this.journal.delete(file);
+				this.replayedBatches.incrementAndGet();
+			}
+		} catch (ZipException e) {
+			this.log.error("Dropping invalid batch [" + file + "]: " + e.getMessage());
+			try {
+				this.journal.delete(file);
+			} catch (IOException e1) {
+				this.log.error("Unable to delete [" + file + "]: " + e1.getMessage());
+			}
+			this.droppedBatches.incrementAndGet();
+		} catch (IOException e) {
+			this.log.error("Unable to replay [" + file + "]: " + e.getMessage());
+			this.retryLater();
+		}
+	}
+
+	/**
+	 * Posts a gzip-compressed batch to InfluxDB.
+	 *
+	 * @param body   the buffer
+	 * @param length the number of bytes in the buffer
+	 * @return true if the batch was handled; false if it should be retried later
+	 */
+	private boolean post(byte[] body, int length) {
+		HttpURLConnection connection = null;
+		try {
+			connection = (HttpURLConnection) this.url.openConnection();
+			connection.setConnectTimeout(CONNECT_TIMEOUT);
+			connection.setReadTimeout(READ_TIMEOUT);
+			connection.setRequestMethod("POST");
+			connection.setDoOutput(true);
+			connection.setFixedLengthStreamingMode(length);
+			connection.setRequestProperty("Authorization", this.authorization);
+			connection.setRequestProperty("Content-Type", "text/plain; charset=utf-8");
+			connection.setRequestProperty("Content-Encoding", "gzip");
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body, 0, length);
+			}
+			int code = connection.getResponseCode();
+			if (code >= 200 && code < 300) {
+				drain(connection.getInputStream());
+				this.isOutage = false;
+				return true;
+			}
+			String message = getErrorMessage(drain(connection.getErrorStream()));
+			if (code >= 400 && code < 500 && code != 408 && code != 429) {
+				// rejected by InfluxDB, e.g. field type conflict -> do not retry
+				this.rejectedBatches.incrementAndGet();
+				this.log.error("InfluxDB rejected batch. HTTP " + code + ": " + message);
+				this.onRejected.accept(message);
+				this.isOutage = false;
+				return true;
+			}
+			this.log.warn("Unable to write to InfluxDB. HTTP " + code + ": " + message);
+
+		} catch (IOException e) {
+			this.log.warn("Unable to write to InfluxDB. " + e.getClass().getSimpleName() + ": " + e.getMessage());
+
+		} finally {
+			if (connection != null) {
+				connection.disconnect();
+			}
+		}
+		this.retryLater();
+		return false;
+	}
+
+	private void retryLater() {
+		this.isOutage = true;
+		this.nextRetry = System.currentTimeMillis() + RETRY_DELAY;
+	}
+
+	private void spill(byte[] data, int length, boolean compressed) {
+		if (this.journal == null) {
+			this.droppedBatches.incrementAndGet();
+			return;
+		}
+		try {
+			this.journal.spill(data, length, compressed);
+			this.spilledBatches.incrementAndGet();
+		} catch (IOException e) {
+			this.droppedBatches.incrementAndGet();
+			this.log.error("Unable to spill batch to journal: " + e.getMessage());
+		}
+	}
+
+	private void recycle(LineProtocolBatch batch) {
+		batch.reset();
+		this.pool.offer(batch);
+	}
+
+	private LineProtocolBatch newBatch() {
+		return new LineProtocolBatch(this.batchSize + this.batchSize / 8);
+	}
+
+	/**
+	 * Logs the metrics of this {@link InfluxWriter}.
+	 */
+	public void logMetrics() {
+		this.log.info("InfluxWriter " //
+				+ "Points [" + this.writtenPoints.get() + "] " //
+				+ "Sent [" + this.sentBatches.get() + " batches, " + this.sentBytes.get() / 1024 + " kB] " //
+				+ "Pending [" + this.pending.size() + "] " //
+				+ "BackPressure [" + this.backPressureTime.get() + " ms] " //
+				+ "Spilled [" + this.spilledBatches.get() + "] " //
+				+ "Replayed [" + this.replayedBatches.get() + "] " //
+				+ "Rejected [" + this.rejectedBatches.get() + "] " //
+				+ "Dropped [" + this.getDroppedBatches() + "] " //
+				+ (this.journal != null
+						? "Journal [" + this.journal.getBatches() + " batches, " + this.journal.getSize() / 1024
+								+ " kB]"
+						: ""));
+	}
+
+	public long getWrittenPoints() {
+		return this.writtenPoints.get();
+	}
+
+	public long getSentBatches() {
+		return this.sentBatches.get();
+	}
+
+	/**
+	 * Gets the total time writers were blocked because of back-pressure.
+	 *
+	 * @return the time in [ms]
+	 */
+	public long getBackPressureTime() {
+		return this.backPressureTime.get();
+	}
+
+	public long getSpilledBatches() {
+		return this.spilledBatches.get();
+	}
+
+	public long getReplayedBatches() {
+		return this.replayedBatches.get();
+	}
+
+	public long getRejectedBatches() {
+		return this.rejectedBatches.get();
+	}
+
+	/**
+	 * Gets the number of batches that were lost, because the journal was not
+	 * available or full.
+	 *
+	 * @return the number of batches
+	 */
+	public long getDroppedBatches() {
+		return this.droppedBatches.get() + (this.journal != null ? this.journal.getDroppedBatches() : 0);
+	}
+
+	public int getPendingBatches() {
+		return this.pending.size();
+	}
+
+	private static String drain(InputStream in) throws IOException {
+		if (in == null) {
+			return "";
+		}
+		try (InputStream stream = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int n;
+			while ((n = stream.read(buffer)) > 0) {
+				out.write(buffer, 0, n);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Extracts the error message from an InfluxDB error response like
+	 * '{"error":"..."}'.
+	 *
+	 * @param body the response body
+	 * @return the error message
+	 */
+	private static String getErrorMessage(String body) {
+		try {
+			return JsonUtils.getAsString(JsonUtils.parse(body), "error");
+		} catch (OpenemsNamedException | RuntimeException e) {
+			return body;
+		}
+	}
+
+	/**
+	 * Encodes gzip-compressed data into a reusable buffer.
+	 */
+	private static class GzipEncoder {
+
+		private static final byte[] HEADER = new byte[] { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+				(byte) 0xff };
+
+		private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		private final CRC32 crc = new CRC32();
+		private byte[] buffer = new byte[64 * 1024];
+		private int size = 0;
+
+		/**
+		 * Encodes the data.
+		 *
+		 * @param data   the buffer
+		 * @param length the number of bytes in the buffer
+		 * @return the internal buffer; valid till the next call
+		 */
+		private byte[] encode(byte[] data, int length) {
+			System.arraycopy(HEADER, 0, this.buffer, 0, HEADER.length);
+			this.size = HEADER.length;
+			this.deflater.reset();
+			this.deflater.setInput(data, 0, length);
+			this.deflater.finish();
+			while (!this.deflater.finished()) {
+				if (this.size == this.buffer.length) {
+					this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+				}
+				this.size += this.deflater.deflate(this.buffer, this.size, this.buffer.length - this.size);
+			}
+			this.crc.reset();
+			this.crc.update(data, 0, length);
+			if (this.size + 8 > this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, this.size + 8);
+			}
+			this.writeInt((int) this.crc.getValue());
+			this.writeInt(length);
+			return this.buffer;
+		}
+
+		private int size() {
+			return this.size;
+		}
+
+		private void writeInt(int value) {
+			for (int i = 0; i < 4; i++) {
+				this.buffer[this.size++] = (byte) (value >> (8 * i));
+			}
+		}
+
+		private void close() {
+			this.deflater.end();
+		}
+	}
+
+}
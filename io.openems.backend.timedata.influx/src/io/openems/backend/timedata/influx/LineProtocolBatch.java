@@ -0,0 +1,247 @@
+package io.openems.backend.timedata.influx;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reusable buffer that holds InfluxDB line protocol.
+ *
+ * <p>
+ * Lines are encoded directly into a growing byte array; no intermediate
+ * objects are created per point. After sending, the batch is
+ * {@link #reset()} and reused.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+public class LineProtocolBatch {
+
+	private byte[] buffer;
+	private int size = 0;
+	private int lines = 0;
+	private long created = 0;
+
+	// Start of the current line; for rollback of lines without fields
+	private int lineStart = 0;
+	private int fieldsInLine = 0;
+
+	public LineProtocolBatch(int initialCapacity) {
+		this.buffer = new byte[initialCapacity];
+	}
+
+	/**
+	 * Starts a new line.
+	 *
+	 * @param prefix the encoded measurement and tags, e.g. 'data,edge=0'
+	 */
+	public void beginLine(byte[] prefix) {
+		if (this.lines == 0 && this.size == 0) {
+			this.created = System.currentTimeMillis();
+		}
+		this.lineStart = this.size;
+		this.fieldsInLine = 0;
+		this.append(prefix);
+		this.append((byte) ' ');
+	}
+
+	/**
+	 * Starts a field of the current line and appends its key and the '='.
+	 *
+	 * @param key the escaped field key
+	 */
+	public void beginField(byte[] key) {
+		if (this.fieldsInLine++ > 0) {
+			this.append((byte) ',');
+		}
+		this.append(key);
+		this.append((byte) '=');
+	}
+
+	/**
+	 * Finishes the current line. If no field was added, the line is discarded.
+	 *
+	 * @param timestamp the timestamp in [ms]
+	 * @return true if the line was added; false if it was discarded
+	 */
+	public boolean endLine(long timestamp) {
+		if (this.fieldsInLine == 0) {
+			this.size = this.lineStart;
+			return false;
+		}
+		this.append((byte) ' ');
+		this.appendLong(timestamp);
+		this.append((byte) '\n');
+		this.lines++;
+		return true;
+	}
+
+	/**
+	 * Appends an integer field value.
+	 *
+	 * @param value the value
+	 */
+	public void appendInteger(long value) {
+		this.appendLong(value);
+		this.append((byte) 'i');
+	}
+
+	/**
+	 * Appends the ASCII characters of an already formatted number.
+	 *
+	 * @param value   the number, e.g. '123' or '1.5E3'
+	 * @param integer true to append the 'i' suffix for integers
+	 */
+	public void appendNumber(CharSequence value, boolean integer) {
+		this.ensureCapacity(value.length() + 1);
+		for (int i = 0; i < value.length(); i++) {
+			this.buffer[this.size++] = (byte) value.charAt(i);
+		}
+		if (integer) {
+			this.buffer[this.size++] = 'i';
+		}
+	}
+
+	/**
+	 * Appends a boolean field value.
+	 *
+	 * @param value the value
+	 */
+	public void appendBoolean(boolean value) {
+		this.append(value ? TRUE : FALSE);
+	}
+
+	/**
+	 * Appends a string field value in double quotes; escapes quotes, backslashes
+	 * and line breaks.
+	 *
+	 * @param value the value
+	 */
+	public void appendString(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		this.ensureCapacity(bytes.length * 2 + 2);
+		this.buffer[this.size++] = '"';
+		for (byte b : bytes) {
+			switch (b) {
+			case '"':
+			case '\\':
+				this.buffer[this.size++] = '\\';
+				this.buffer[this.size++] = b;
+				break;
+			case '\n':
+				this.buffer[this.size++] = '\\';
+				this.buffer[this.size++] = 'n';
+				break;
+			default:
+				this.buffer[this.size++] = b;
+			}
+		}
+		this.buffer[this.size++] = '"';
+	}
+
+	/**
+	 * Clears the batch for reuse.
+	 */
+	public void reset() {
+		this.size = 0;
+		this.lines = 0;
+		this.lineStart = 0;
+		this.fieldsInLine = 0;
+	}
+
+	public byte[] getBuffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * Gets the number of bytes in the batch.
+	 *
+	 * @return the size in [byte]
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Gets the number of lines, i.e. points, in the batch.
+	 *
+	 * @return the number of lines
+	 */
+	public int getLines() {
+		return this.lines;
+	}
+
+	/**
+	 * Gets the creation time of the first line of this batch.
+	 *
+	 * @return the timestamp in [ms]
+	 */
+	public long getCreated() {
+		return this.created;
+	}
+
+	@Override
+	public String toString() {
+		return new String(this.buffer, 0, this.size, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Escapes a measurement, tag key, tag value or field key: commas, equal signs
+	 * and spaces are prefixed with a backslash.
+	 *
+	 * @param value the value
+	 * @return the escaped UTF-8 bytes
+	 */
+	public static byte[] escapeKey(String value) {
+		StringBuilder b = new StringBuilder(value.length() + 4);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '=' || c == ' ') {
+				b.append('\\');
+			}
+			b.append(c);
+		}
+		return b.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+	private void append(byte b) {
+		this.ensureCapacity(1);
+		this.buffer[this.size++] = b;
+	}
+
+	private void append(byte[] bytes) {
+		this.ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, this.buffer, this.size, bytes.length);
+		this.size += bytes.length;
+	}
+
+	private void appendLong(long value) {
+		if (value == Long.MIN_VALUE) {
+			this.appendNumber(Long.toString(value), false);
+			return;
+		}
+		this.ensureCapacity(20);
+		if (value < 0) {
+			this.buffer[this.size++] = '-';
+			value = -value;
+		}
+		int digits = 1;
+		for (long v = value / 10; v > 0; v /= 10) {
+			digits++;
+		}
+		for (int i = this.size + digits - 1; i >= this.size; i--) {
+			this.buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		this.size += digits;
+	}
+
+	private void ensureCapacity(int additional) {
+		if (this.size + additional > this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + additional));
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+package io.openems.backend.timedata.influx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DiskJournalTest {
+
+	private Path directory;
+
+	@Before
+	public void before() throws IOException {
+		this.directory = Files.createTempDirectory("journal");
+	}
+
+	@After
+	public void after() throws IOException {
+		Files.walk(this.directory) //
+				.sorted(Comparator.reverseOrder()) //
+				.forEach(path -> path.toFile().delete());
+	}
+
+	@Test
+	public void testOrderAndReopen() throws IOException {
+		DiskJournal journal = new DiskJournal(this.directory, 1_000_000);
+		assertNull(journal.peek());
+		spill(journal, "line1");
+		spill(journal, "line2");
+		assertEquals(2, journal.getBatches());
+
+		// order is kept after a restart
+		journal = new DiskJournal(this.directory, 1_000_000);
+		assertEquals(2, journal.getBatches());
+		spill(journal, "line3");
+
+		assertEquals("line1", read(journal));
+		assertEquals("line2", read(journal));
+		assertEquals("line3", read(journal));
+		assertNull(journal.peek());
+		assertEquals(0, journal.getSize());
+	}
+
+	@Test
+	public void testCompressedBatch() throws IOException {
+		DiskJournal journal = new DiskJournal(this.directory, 1_000_000);
+		byte[] compressed = Files.readAllBytes(this.spillToOtherJournal("compressed"));
+		journal.spill(compressed, compressed.length, true);
+		assertArrayEquals(compressed, journal.read(journal.peek()));
+		assertEquals("compressed", read(journal));
+	}
+
+	@Test
+	public void testDropOldestIfFull() throws IOException {
+		DiskJournal journal = new DiskJournal(this.directory, 1);
+		spill(journal, "line1");
+		spill(journal, "line2");
+		spill(journal, "line3");
+
+		// the latest batch is always kept
+		assertEquals(1, journal.getBatches());
+		assertEquals(2, journal.getDroppedBatches());
+		assertEquals("line3", read(journal));
+	}
+
+	@Test(expected = ZipException.class)
+	public void testCorruptedBatch() throws IOException {
+		DiskJournal journal = new DiskJournal(this.directory, 1_000_000);
+		spill(journal, "line1");
+		Path file = journal.peek();
+		byte[] content = Files.readAllBytes(file);
+		// truncate
+		Files.write(file, Arrays.copyOf(content, content.length - 4));
+		journal.read(file);
+	}
+
+	private Path spillToOtherJournal(String data) throws IOException {
+		DiskJournal other = new DiskJournal(this.directory.resolve("other"), 1_000_000);
+		spill(other, data);
+		return other.peek();
+	}
+
+	private static void spill(DiskJournal journal, String data) throws IOException {
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		journal.spill(bytes, bytes.length, false);
+	}
+
+	private static String read(DiskJournal journal) throws IOException {
+		Path file = journal.peek();
+		byte[] content = journal.read(file);
+		journal.delete(file);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			byte[] buffer = new byte[1024];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				out.write(buffer, 0, n);
+			}
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
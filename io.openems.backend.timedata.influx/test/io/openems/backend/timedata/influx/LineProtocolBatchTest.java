@@ -0,0 +1,75 @@
+package io.openems.backend.timedata.influx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class LineProtocolBatchTest {
+
+	private static final byte[] PREFIX = "data,edge=0".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void testEscapeKey() {
+		assertEquals("ess0/Soc", escapeKey("ess0/Soc"));
+		assertEquals("a\\,b\\=c\\ d", escapeKey("a,b=c d"));
+		assertEquals("\"quoted\"", escapeKey("\"quoted\""));
+		assertEquals("ümlaut", escapeKey("ümlaut"));
+	}
+
+	@Test
+	public void testAppendString() {
+		LineProtocolBatch batch = new LineProtocolBatch(4);
+		batch.beginLine(PREFIX);
+		batch.beginField(LineProtocolBatch.escapeKey("s"));
+		batch.appendString("a \"b\" c\\d\ne");
+		assertTrue(batch.endLine(1000));
+		assertEquals("data,edge=0 s=\"a \\\"b\\\" c\\\\d\\ne\" 1000\n", batch.toString());
+	}
+
+	@Test
+	public void testLine() {
+		LineProtocolBatch batch = new LineProtocolBatch(4);
+		batch.beginLine(PREFIX);
+		batch.beginField(LineProtocolBatch.escapeKey("ess0/Soc"));
+		batch.appendInteger(50);
+		batch.beginField(LineProtocolBatch.escapeKey("meter0/Frequency"));
+		batch.appendNumber("50.01", false);
+		batch.beginField(LineProtocolBatch.escapeKey("io0/Relay1"));
+		batch.appendBoolean(true);
+		batch.beginField(LineProtocolBatch.escapeKey("ess0/Energy"));
+		batch.appendInteger(Long.MIN_VALUE);
+		assertTrue(batch.endLine(-5));
+		assertEquals("data,edge=0 ess0/Soc=50i,meter0/Frequency=50.01,io0/Relay1=true,ess0/Energy="
+				+ Long.MIN_VALUE + "i -5\n", batch.toString());
+		assertEquals(1, batch.getLines());
+	}
+
+	@Test
+	public void testLineWithoutFieldsIsDiscarded() {
+		LineProtocolBatch batch = new LineProtocolBatch(64);
+		batch.beginLine(PREFIX);
+		batch.beginField(LineProtocolBatch.escapeKey("a"));
+		batch.appendInteger(1);
+		batch.endLine(1);
+		int size = batch.size();
+
+		batch.beginLine(PREFIX);
+		assertFalse(batch.endLine(2));
+		assertEquals(size, batch.size());
+		assertEquals(1, batch.getLines());
+
+		batch.reset();
+		assertEquals(0, batch.size());
+		assertEquals(0, batch.getLines());
+		assertEquals("", batch.toString());
+	}
+
+	private static String escapeKey(String value) {
+		return new String(LineProtocolBatch.escapeKey(value), StandardCharsets.UTF_8);
+	}
+
+}
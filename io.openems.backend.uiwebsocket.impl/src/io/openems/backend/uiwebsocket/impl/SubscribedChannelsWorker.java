@@ -1,6 +1,9 @@
 package io.openems.backend.uiwebsocket.impl;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
@@ -17,7 +20,7 @@ public class SubscribedChannelsWorker extends io.openems.common.websocket.Subscr
 	private String edgeId = null;
 
 	public SubscribedChannelsWorker(UiWebsocketImpl parent, WsData wsData) {
-		super(wsData);
+		super(parent.subscriptionHub, wsData);
 		this.parent = parent;
 	}
 
@@ -30,6 +33,11 @@ public class SubscribedChannelsWorker extends io.openems.common.websocket.Subscr
 		this.edgeId = edgeId;
 	}
 
+	@Override
+	protected String getEdgeId() {
+		return this.edgeId;
+	}
+
 	@Override
 	protected JsonElement getChannelValue(ChannelAddress channelAddress) {
 		if (this.edgeId == null) {
@@ -40,6 +48,19 @@ public class SubscribedChannelsWorker extends io.openems.common.websocket.Subscr
 		return channelCacheValue.orElse(JsonNull.INSTANCE);
 	}
 
+	@Override
+	protected Map<ChannelAddress, JsonElement> getChannelValues(Set<ChannelAddress> channelAddresses) {
+		if (this.edgeId == null) {
+			Map<ChannelAddress, JsonElement> result = new HashMap<>();
+			for (ChannelAddress channelAddress : channelAddresses) {
+				result.put(channelAddress, JsonNull.INSTANCE);
+			}
+			return result;
+		}
+
+		return this.parent.timeData.getChannelValues(this.edgeId, channelAddresses);
+	}
+
 	@Override
 	protected JsonrpcNotification getJsonRpcNotification(CurrentDataNotification currentData) {
 		return new EdgeRpcNotification(this.edgeId, currentData);
@@ -30,6 +30,7 @@ import io.openems.common.jsonrpc.base.JsonrpcNotification;
 import io.openems.common.jsonrpc.base.JsonrpcRequest;
 import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
 import io.openems.common.session.Role;
+import io.openems.common.websocket.SubscriptionHub;
 
 @Designate(ocd = Config.class, factory = false)
 @Component(name = "Ui.Websocket", configurationPolicy = ConfigurationPolicy.REQUIRE, immediate = true)
@@ -39,6 +40,11 @@ public class UiWebsocketImpl extends AbstractOpenemsBackendComponent implements
 
 	protected WebsocketServer server = null;
 
+	/**
+	 * Sends subscribed Channel values to all sessions.
+	 */
+	protected SubscriptionHub subscriptionHub = null;
+
 	@Reference
 	protected volatile JsonRpcRequestHandler jsonRpcRequestHandler;
 
@@ -71,6 +77,7 @@ public class UiWebsocketImpl extends AbstractOpenemsBackendComponent implements
 	 * @param port the port
 	 */
 	private synchronized void startServer(int port) {
+		this.subscriptionHub = new SubscriptionHub("Ui.Websocket");
 		this.server = new WebsocketServer(this, "Ui.Websocket", port);
 		this.server.start();
 	}
@@ -82,6 +89,9 @@ public class UiWebsocketImpl extends AbstractOpenemsBackendComponent implements
 		if (this.server != null) {
 			this.server.stop();
 		}
+		if (this.subscriptionHub != null) {
+			this.subscriptionHub.deactivate();
+		}
 	}
 
 	@Override
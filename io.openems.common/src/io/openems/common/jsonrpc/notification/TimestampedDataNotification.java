@@ -31,6 +31,10 @@ import io.openems.common.utils.JsonUtils;
 public class TimestampedDataNotification extends JsonrpcNotification {
 
 	public static TimestampedDataNotification from(JsonrpcNotification notification) throws OpenemsNamedException {
+		if (notification instanceof TimestampedDataNotification) {
+			// e.g. decoded from CompactEncoding
+			return (TimestampedDataNotification) notification;
+		}
 		TimestampedDataNotification result = new TimestampedDataNotification();
 		JsonObject j = notification.getParams();
 		for (Entry<String, JsonElement> e1 : j.entrySet()) {
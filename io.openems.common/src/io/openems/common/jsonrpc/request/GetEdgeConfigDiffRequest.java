@@ -0,0 +1,69 @@
+package io.openems.common.jsonrpc.request;
+
+import java.util.UUID;
+
+import com.google.gson.JsonObject;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.jsonrpc.base.JsonrpcRequest;
+import io.openems.common.jsonrpc.response.GetEdgeConfigDiffResponse;
+import io.openems.common.utils.JsonUtils;
+
+/**
+ * Represents a JSON-RPC Request for 'getEdgeConfigDiff'. Gets only the parts of
+ * the EdgeConfig that changed since the given version; see
+ * {@link GetEdgeConfigDiffResponse}.
+ * 
+ * <p>
+ * Use version '0' to get the complete EdgeConfig together with its current
+ * version.
+ * 
+ * <pre>
+ * {
+ *   "jsonrpc": "2.0",
+ *   "id": "UUID",
+ *   "method": "getEdgeConfigDiff",
+ *   "params": {
+ *     "version": number
+ *   }
+ * }
+ * </pre>
+ */
+public class GetEdgeConfigDiffRequest extends JsonrpcRequest {
+
+	public static final String METHOD = "getEdgeConfigDiff";
+
+	public static GetEdgeConfigDiffRequest from(JsonrpcRequest r) throws OpenemsNamedException {
+		JsonObject p = r.getParams();
+		long version = JsonUtils.getAsLong(p, "version");
+		return new GetEdgeConfigDiffRequest(r.getId(), version);
+	}
+
+	private final long version;
+
+	public GetEdgeConfigDiffRequest(long version) {
+		this(UUID.randomUUID(), version);
+	}
+
+	public GetEdgeConfigDiffRequest(UUID id, long version) {
+		super(id, METHOD);
+		this.version = version;
+	}
+
+	/**
+	 * Gets the version of the EdgeConfig that is known to the client.
+	 * 
+	 * @return the version
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	@Override
+	public JsonObject getParams() {
+		return JsonUtils.buildJsonObject() //
+				.addProperty("version", this.version) //
+				.build();
+	}
+
+}
@@ -0,0 +1,106 @@
+package io.openems.common.jsonrpc.response;
+
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
+import io.openems.common.types.EdgeConfig;
+import io.openems.common.types.EdgeConfig.Component.JsonFormat;
+import io.openems.common.utils.JsonUtils;
+
+/**
+ * Represents a JSON-RPC Response for 'getEdgeConfigDiff'.
+ * 
+ * <p>
+ * If 'complete' is true, the Components and Factories replace the EdgeConfig
+ * of the client, e.g. because its version was unknown. Otherwise they are
+ * merged into it.
+ * 
+ * <pre>
+ * {
+ *   "jsonrpc": "2.0",
+ *   "id": "UUID",
+ *   "result": {
+ *     "version": number,
+ *     "complete": boolean,
+ *     "components": { {@link EdgeConfig.Component#toJson(JsonFormat)} },
+ *     "factories": { {@link EdgeConfig.Factory#toJson()} },
+ *     "removedComponents": string[],
+ *     "removedFactories": string[]
+ *   }
+ * }
+ * </pre>
+ */
+public class GetEdgeConfigDiffResponse extends JsonrpcResponseSuccess {
+
+	private final long version;
+	private final boolean isComplete;
+	private final EdgeConfig changes;
+	private final Set<String> removedComponents;
+	private final Set<String> removedFactories;
+
+	/**
+	 * Creates a GetEdgeConfigDiffResponse.
+	 * 
+	 * @param id                the JSON-RPC ID
+	 * @param version           the current version of the EdgeConfig
+	 * @param isComplete        true if 'changes' holds the complete EdgeConfig
+	 * @param changes           the changed Components and Factories
+	 * @param removedComponents the IDs of removed Components
+	 * @param removedFactories  the IDs of removed Factories
+	 */
+	public GetEdgeConfigDiffResponse(UUID id, long version, boolean isComplete, EdgeConfig changes,
+			Set<String> removedComponents, Set<String> removedFactories) {
+		super(id);
+		this.version = version;
+		this.isComplete = isComplete;
+		this.changes = changes;
+		this.removedComponents = removedComponents;
+		this.removedFactories = removedFactories;
+	}
+
+	public long getVersion() {
+		return this.version;
+	}
+
+	public boolean isComplete() {
+		return this.isComplete;
+	}
+
+	public EdgeConfig getChanges() {
+		return this.changes;
+	}
+
+	public Set<String> getRemovedComponents() {
+		return this.removedComponents;
+	}
+
+	public Set<String> getRemovedFactories() {
+		return this.removedFactories;
+	}
+
+	@Override
+	public JsonObject getResult() {
+		return JsonUtils.buildJsonObject() //
+				.addProperty("version", this.version) //
+				.addProperty("complete", this.isComplete) //
+				.add("components", this.changes.componentsToJson(JsonFormat.COMPLETE)) //
+				.add("factories", this.changes.factoriesToJson()) //
+				.add("removedComponents", toJsonArray(this.removedComponents)) //
+				.add("removedFactories", toJsonArray(this.removedFactories)) //
+				.build();
+	}
+
+	private static JsonArray toJsonArray(Set<String> ids) {
+		JsonArray result = new JsonArray();
+		for (String id : ids) {
+			result.add(new JsonPrimitive(id));
+		}
+		return result;
+	}
+
+}
@@ -702,6 +702,11 @@ public class JsonUtils {
 			return this;
 		}
 
+		public JsonObjectBuilder addProperty(String property, double value) {
+			j.addProperty(property, value);
+			return this;
+		}
+
 		public JsonObjectBuilder addProperty(String property, boolean value) {
 			j.addProperty(property, value);
 			return this;
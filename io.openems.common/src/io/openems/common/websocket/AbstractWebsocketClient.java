@@ -2,6 +2,7 @@ package io.openems.common.websocket;
 
 import java.net.Proxy;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -24,6 +25,7 @@ import io.openems.common.jsonrpc.base.JsonrpcNotification;
 import io.openems.common.jsonrpc.base.JsonrpcRequest;
 import io.openems.common.jsonrpc.base.JsonrpcResponse;
 import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
+import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
 import io.openems.common.utils.StringUtils;
 
 /**
@@ -64,6 +66,14 @@ public abstract class AbstractWebsocketClient<T extends WsData> extends Abstract
 
 			@Override
 			public void onOpen(ServerHandshake handshake) {
+				// Use CompactEncoding if the server accepted it; new session on every open
+				WsData wsData = AbstractWebsocketClient.this.ws.getAttachment();
+				if (CompactEncoding.VERSION.equals(handshake.getFieldValue(CompactEncoding.HEADER))) {
+					wsData.setCompactEncoder(new CompactEncoder());
+				} else {
+					wsData.setCompactEncoder(null);
+				}
+
 				JsonObject jHandshake = WebsocketUtils.handshakeToJsonObject(handshake);
 				CompletableFuture.runAsync(
 						new OnOpenHandler(AbstractWebsocketClient.this, AbstractWebsocketClient.this.ws, jHandshake));
@@ -93,6 +103,12 @@ public abstract class AbstractWebsocketClient<T extends WsData> extends Abstract
 				}
 			}
 
+			@Override
+			public void onMessage(ByteBuffer bytes) {
+				AbstractWebsocketClient.this
+						.handleInternalErrorAsync(new OpenemsException("Unexpected binary message"));
+			}
+
 			@Override
 			public void onError(Exception ex) {
 				CompletableFuture.runAsync(new OnErrorHandler(AbstractWebsocketClient.this, ws, ex));
@@ -162,8 +178,23 @@ public abstract class AbstractWebsocketClient<T extends WsData> extends Abstract
 	};
 
 	public void sendMessageOrError(JsonrpcMessage message) throws OpenemsException {
+		WsData wsData = this.ws.getAttachment();
+		CompactEncoder encoder = wsData.getCompactEncoder();
 		try {
-			this.ws.send(message.toString());
+			if (encoder != null && message instanceof TimestampedDataNotification) {
+				// encode and send atomically, so that frames arrive in the order of encoding
+				synchronized (encoder) {
+					try {
+						this.ws.send(encoder.encode((TimestampedDataNotification) message));
+					} catch (Exception e) {
+						// frame was lost -> start a new dictionary with the next frame
+						encoder.reset();
+						throw e;
+					}
+				}
+			} else {
+				this.ws.send(message.toString());
+			}
 		} catch (Exception e) {
 			if (e instanceof WebsocketNotConnectedException) {
 				AbstractWebsocketClient.this.reconnectorWorker.triggerNextRun();
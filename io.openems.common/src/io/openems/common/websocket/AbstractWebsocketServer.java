@@ -3,11 +3,16 @@ package io.openems.common.websocket;
 import java.io.IOException;
 import java.net.BindException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.framing.CloseFrame;
 import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.handshake.ServerHandshakeBuilder;
 import org.java_websocket.server.WebSocketServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +25,7 @@ import io.openems.common.jsonrpc.base.JsonrpcMessage;
 import io.openems.common.jsonrpc.base.JsonrpcNotification;
 import io.openems.common.jsonrpc.base.JsonrpcRequest;
 import io.openems.common.jsonrpc.base.JsonrpcResponse;
+import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
 
 public abstract class AbstractWebsocketServer<T extends WsData> extends AbstractWebsocket<T> {
 
@@ -40,10 +46,23 @@ public abstract class AbstractWebsocketServer<T extends WsData> extends Abstract
 			public void onStart() {
 			}
 
+			@Override
+			public ServerHandshakeBuilder onWebsocketHandshakeReceivedAsServer(WebSocket ws, Draft draft,
+					ClientHandshake request) throws InvalidDataException {
+				ServerHandshakeBuilder response = super.onWebsocketHandshakeReceivedAsServer(ws, draft, request);
+				if (AbstractWebsocketServer.this.isCompactEncodingAccepted(request)) {
+					response.put(CompactEncoding.HEADER, CompactEncoding.VERSION);
+				}
+				return response;
+			}
+
 			@Override
 			public void onOpen(WebSocket ws, ClientHandshake handshake) {
 				T wsData = AbstractWebsocketServer.this.createWsData();
 				wsData.setWebsocket(ws);
+				if (AbstractWebsocketServer.this.isCompactEncodingAccepted(handshake)) {
+					wsData.setCompactDecoder(new CompactDecoder());
+				}
 				ws.setAttachment(wsData);
 				JsonObject jHandshake = WebsocketUtils.handshakeToJsonObject(handshake);
 				CompletableFuture.runAsync(new OnOpenHandler(AbstractWebsocketServer.this, ws, jHandshake));
@@ -81,6 +100,25 @@ public abstract class AbstractWebsocketServer<T extends WsData> extends Abstract
 				}
 			}
 
+			@Override
+			public void onMessage(WebSocket ws, ByteBuffer bytes) {
+				WsData wsData = ws.getAttachment();
+				CompactDecoder decoder = wsData.getCompactDecoder();
+				try {
+					if (decoder == null) {
+						throw new OpenemsException("Unexpected binary message");
+					}
+					// decode synchronously: frames depend on the previous ones
+					TimestampedDataNotification notification = decoder.decode(bytes);
+					CompletableFuture
+							.runAsync(new OnNotificationHandler(AbstractWebsocketServer.this, ws, notification));
+				} catch (OpenemsNamedException e) {
+					AbstractWebsocketServer.this.handleInternalErrorAsync(e);
+					// state of the decoder is invalid -> client has to start a new session
+					ws.close(CloseFrame.PROTOCOL_ERROR, e.getMessage());
+				}
+			}
+
 			@Override
 			public void onError(WebSocket ws, Exception ex) {
 				if (ws == null) {
@@ -111,6 +149,21 @@ public abstract class AbstractWebsocketServer<T extends WsData> extends Abstract
 		};
 	};
 
+	/**
+	 * Defines whether this server supports the {@link CompactEncoding} for
+	 * incoming {@link TimestampedDataNotification}s. Override to enable.
+	 * 
+	 * @return true if supported
+	 */
+	protected boolean isCompactEncodingSupported() {
+		return false;
+	}
+
+	private boolean isCompactEncodingAccepted(ClientHandshake handshake) {
+		return this.isCompactEncodingSupported()
+				&& CompactEncoding.VERSION.equals(handshake.getFieldValue(CompactEncoding.HEADER));
+	}
+
 	public Collection<WebSocket> getConnections() {
 		return this.ws.getConnections();
 	}
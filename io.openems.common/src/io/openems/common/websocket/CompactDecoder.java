@@ -0,0 +1,123 @@
+package io.openems.common.websocket;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.utils.JsonUtils;
+
+/**
+ * Decodes binary frames in the {@link CompactEncoding} to
+ * {@link TimestampedDataNotification}s.
+ *
+ * <p>
+ * The decoder holds the state of one session; frames have to be decoded in
+ * the order they were received. Values are decoded directly to
+ * {@link JsonPrimitive}s, without parsing any JSON text.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+public class CompactDecoder {
+
+	private final List<ChannelAddress> dictionary = new ArrayList<>();
+	private long[] lastIntegers = new long[64];
+	private long lastTimestamp = 0;
+
+	/**
+	 * Decodes a binary frame.
+	 *
+	 * @param frame the binary frame
+	 * @return the {@link TimestampedDataNotification}
+	 * @throws OpenemsNamedException on error; the state of the decoder is invalid
+	 *                               afterwards
+	 */
+	public TimestampedDataNotification decode(ByteBuffer frame) throws OpenemsNamedException {
+		frame.order(ByteOrder.BIG_ENDIAN);
+		try {
+			byte type = frame.get();
+			if (type != CompactEncoding.TYPE_TIMESTAMPED_DATA) {
+				throw new OpenemsException("Unknown frame type [" + type + "]");
+			}
+			byte flags = frame.get();
+			if ((flags & CompactEncoding.FLAG_RESET) != 0) {
+				this.reset();
+			}
+
+			// Dictionary: read new Channel-Addresses
+			for (int i = CompactEncoding.readLength(frame); i > 0; i--) {
+				this.dictionary.add(ChannelAddress.fromString(CompactEncoding.readString(frame)));
+			}
+			if (this.dictionary.size() > this.lastIntegers.length) {
+				this.lastIntegers = Arrays.copyOf(this.lastIntegers,
+						Math.max(this.lastIntegers.length * 2, this.dictionary.size()));
+			}
+
+			// Values
+			TimestampedDataNotification result = new TimestampedDataNotification();
+			for (int i = CompactEncoding.readLength(frame); i > 0; i--) {
+				this.lastTimestamp += CompactEncoding.readZigzag(frame);
+				for (int j = CompactEncoding.readLength(frame); j > 0; j--) {
+					long id = CompactEncoding.readVarint(frame);
+					if (id < 0 || id >= this.dictionary.size()) {
+						throw new OpenemsException("Unknown Channel-Address id [" + id + "]");
+					}
+					result.add(this.lastTimestamp, this.dictionary.get((int) id), this.readValue(frame, (int) id));
+				}
+			}
+			if (frame.hasRemaining()) {
+				throw new OpenemsException("Unexpected [" + frame.remaining() + "] bytes at end of frame");
+			}
+			return result;
+
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new OpenemsException("Invalid compact frame: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Resets the state of this decoder.
+	 */
+	public void reset() {
+		this.dictionary.clear();
+		Arrays.fill(this.lastIntegers, 0);
+		this.lastTimestamp = 0;
+	}
+
+	private JsonElement readValue(ByteBuffer frame, int id) throws OpenemsNamedException {
+		byte tag = frame.get();
+		switch (tag) {
+		case CompactEncoding.TAG_NULL:
+			return JsonNull.INSTANCE;
+		case CompactEncoding.TAG_FALSE:
+			return new JsonPrimitive(false);
+		case CompactEncoding.TAG_TRUE:
+			return new JsonPrimitive(true);
+		case CompactEncoding.TAG_INTEGER:
+			this.lastIntegers[id] += CompactEncoding.readZigzag(frame);
+			return new JsonPrimitive(this.lastIntegers[id]);
+		case CompactEncoding.TAG_DOUBLE:
+			return new JsonPrimitive(frame.getDouble());
+		case CompactEncoding.TAG_FLOAT:
+			return new JsonPrimitive(frame.getFloat());
+		case CompactEncoding.TAG_STRING:
+			return new JsonPrimitive(CompactEncoding.readString(frame));
+		case CompactEncoding.TAG_JSON:
+			return JsonUtils.parse(CompactEncoding.readString(frame));
+		default:
+			throw new OpenemsException("Unknown value tag [" + tag + "]");
+		}
+	}
+
+}
@@ -0,0 +1,161 @@
+package io.openems.common.websocket;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
+import io.openems.common.types.ChannelAddress;
+
+/**
+ * Encodes {@link TimestampedDataNotification}s in the
+ * {@link CompactEncoding}.
+ *
+ * <p>
+ * The encoder holds the state of one session. Frames have to be delivered in
+ * the order they were encoded; if a frame could not be sent, call
+ * {@link #reset()}, so that the next frame starts a new dictionary.
+ *
+ * <p>
+ * This class is not thread-safe.
+ */
+public class CompactEncoder {
+
+	private final Map<ChannelAddress, Integer> dictionary = new HashMap<>();
+	private long[] lastIntegers = new long[64];
+	private long lastTimestamp = 0;
+	private boolean isReset = true;
+
+	/**
+	 * Encodes a {@link TimestampedDataNotification} to a binary frame.
+	 *
+	 * @param notification the {@link TimestampedDataNotification}
+	 * @return the binary frame
+	 */
+	public byte[] encode(TimestampedDataNotification notification) {
+		Map<Long, Map<ChannelAddress, JsonElement>> rows = notification.getData().rowMap();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+		out.write(CompactEncoding.TYPE_TIMESTAMPED_DATA);
+		out.write(this.isReset ? CompactEncoding.FLAG_RESET : 0);
+		this.isReset = false;
+
+		// Dictionary: add new Channel-Addresses
+		List<ChannelAddress> newAddresses = new ArrayList<>();
+		for (Map<ChannelAddress, JsonElement> row : rows.values()) {
+			for (ChannelAddress address : row.keySet()) {
+				if (!this.dictionary.containsKey(address)) {
+					this.dictionary.put(address, this.dictionary.size());
+					newAddresses.add(address);
+				}
+			}
+		}
+		if (this.dictionary.size() > this.lastIntegers.length) {
+			this.lastIntegers = Arrays.copyOf(this.lastIntegers,
+					Math.max(this.lastIntegers.length * 2, this.dictionary.size()));
+		}
+		CompactEncoding.writeVarint(out, newAddresses.size());
+		for (ChannelAddress address : newAddresses) {
+			CompactEncoding.writeString(out, address.toString());
+		}
+
+		// Values
+		CompactEncoding.writeVarint(out, rows.size());
+		for (Entry<Long, Map<ChannelAddress, JsonElement>> row : rows.entrySet()) {
+			long timestamp = row.getKey();
+			CompactEncoding.writeZigzag(out, timestamp - this.lastTimestamp);
+			this.lastTimestamp = timestamp;
+
+			CompactEncoding.writeVarint(out, row.getValue().size());
+			for (Entry<ChannelAddress, JsonElement> entry : row.getValue().entrySet()) {
+				int id = this.dictionary.get(entry.getKey());
+				CompactEncoding.writeVarint(out, id);
+				this.writeValue(out, id, entry.getValue());
+			}
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Resets the state of this encoder, e.g. on a new connection.
+	 */
+	public void reset() {
+		this.dictionary.clear();
+		Arrays.fill(this.lastIntegers, 0);
+		this.lastTimestamp = 0;
+		this.isReset = true;
+	}
+
+	private void writeValue(ByteArrayOutputStream out, int id, JsonElement value) {
+		if (value == null || value.isJsonNull()) {
+			out.write(CompactEncoding.TAG_NULL);
+			return;
+		}
+		if (!value.isJsonPrimitive()) {
+			out.write(CompactEncoding.TAG_JSON);
+			CompactEncoding.writeString(out, value.toString());
+			return;
+		}
+		JsonPrimitive primitive = value.getAsJsonPrimitive();
+		if (primitive.isBoolean()) {
+			out.write(primitive.getAsBoolean() ? CompactEncoding.TAG_TRUE : CompactEncoding.TAG_FALSE);
+
+		} else if (primitive.isString()) {
+			out.write(CompactEncoding.TAG_STRING);
+			CompactEncoding.writeString(out, primitive.getAsString());
+
+		} else {
+			Number number = primitive.getAsNumber();
+			if (number instanceof Float) {
+				out.write(CompactEncoding.TAG_FLOAT);
+				int bits = Float.floatToIntBits(number.floatValue());
+				for (int i = 24; i >= 0; i -= 8) {
+					out.write(bits >>> i);
+				}
+				return;
+			}
+			Long integer = asLong(number);
+			if (integer != null) {
+				out.write(CompactEncoding.TAG_INTEGER);
+				CompactEncoding.writeZigzag(out, integer - this.lastIntegers[id]);
+				this.lastIntegers[id] = integer;
+			} else {
+				out.write(CompactEncoding.TAG_DOUBLE);
+				long bits = Double.doubleToLongBits(number.doubleValue());
+				for (int i = 56; i >= 0; i -= 8) {
+					out.write((int) (bits >>> i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the value of an integral number.
+	 *
+	 * @param number the number
+	 * @return the value; null if the number is not integral or out of range
+	 */
+	private static Long asLong(Number number) {
+		if (number instanceof Integer || number instanceof Long || number instanceof Short
+				|| number instanceof Byte) {
+			return number.longValue();
+		}
+		if (number instanceof Double) {
+			return null;
+		}
+		// e.g. a LazilyParsedNumber after parsing a JSON string
+		try {
+			return new BigInteger(number.toString()).longValueExact();
+		} catch (ArithmeticException | NumberFormatException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package io.openems.common.websocket;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
+
+/**
+ * Constants and helpers for the compact binary encoding of
+ * {@link TimestampedDataNotification}s.
+ *
+ * <p>
+ * The encoding is negotiated during the Websocket handshake: the client sends
+ * the {@link #HEADER} with the supported {@link #VERSION}; the server echoes it
+ * if it supports the same version. Afterwards every
+ * {@link TimestampedDataNotification} is sent as one binary frame:
+ *
+ * <pre>
+ * | type (byte) | flags (byte) |
+ * | no. of new addresses (varint) | [address (string)]... |
+ * | no. of timestamps (varint) |
+ *   [ | timestamp delta (zigzag varint) | no. of values (varint) |
+ *       [ | address id (varint) | tag (byte) | value | ]... ]...
+ * </pre>
+ *
+ * <p>
+ * Channel-Addresses are transferred only once per session and afterwards
+ * referenced by their id, i.e. their position in the dictionary. Timestamps
+ * are delta-encoded to the previous timestamp; integer values are
+ * delta-encoded to the previous integer value of the same Channel.
+ */
+public final class CompactEncoding {
+
+	/**
+	 * The HTTP header used to negotiate the encoding.
+	 */
+	public static final String HEADER = "X-OpenEMS-Encoding";
+
+	/**
+	 * The version of the encoding.
+	 */
+	public static final String VERSION = "compact-1";
+
+	/**
+	 * Frame type of a {@link TimestampedDataNotification}.
+	 */
+	protected static final byte TYPE_TIMESTAMPED_DATA = 0x01;
+
+	/**
+	 * Flag: the sender started a new dictionary; the receiver has to reset its
+	 * state.
+	 */
+	protected static final byte FLAG_RESET = 0x01;
+
+	protected static final byte TAG_NULL = 0;
+	protected static final byte TAG_FALSE = 1;
+	protected static final byte TAG_TRUE = 2;
+	protected static final byte TAG_INTEGER = 3;
+	protected static final byte TAG_DOUBLE = 4;
+	protected static final byte TAG_FLOAT = 5;
+	protected static final byte TAG_STRING = 6;
+	protected static final byte TAG_JSON = 7;
+
+	private CompactEncoding() {
+	}
+
+	protected static void writeVarint(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	protected static void writeZigzag(ByteArrayOutputStream out, long value) {
+		writeVarint(out, (value << 1) ^ (value >> 63));
+	}
+
+	protected static void writeString(ByteArrayOutputStream out, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	protected static long readVarint(ByteBuffer in) {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.get();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IllegalArgumentException("Varint is too long");
+	}
+
+	protected static long readZigzag(ByteBuffer in) {
+		long value = readVarint(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	protected static int readLength(ByteBuffer in) {
+		long length = readVarint(in);
+		if (length < 0 || length > in.remaining()) {
+			throw new IllegalArgumentException("Invalid length [" + length + "]");
+		}
+		return (int) length;
+	}
+
+	protected static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[readLength(in)];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
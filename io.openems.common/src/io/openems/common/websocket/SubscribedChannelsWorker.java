@@ -1,52 +1,37 @@
 package io.openems.common.websocket;
 
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
-import org.java_websocket.WebSocket;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonElement;
 
-import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.jsonrpc.base.JsonrpcNotification;
 import io.openems.common.jsonrpc.notification.CurrentDataNotification;
 import io.openems.common.jsonrpc.request.SubscribeChannelsRequest;
 import io.openems.common.session.Role;
 import io.openems.common.types.ChannelAddress;
 
+/**
+ * Holds the Channel subscriptions of one Websocket session. Values are sent by
+ * the shared {@link SubscriptionHub}.
+ */
 public abstract class SubscribedChannelsWorker {
 
-	protected final static int UPDATE_INTERVAL_IN_SECONDS = 2;
-
-	private final Logger log = LoggerFactory.getLogger(SubscribedChannelsWorker.class);
-
-	/**
-	 * Executor for subscriptions task
-	 */
-	private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+	private final SubscriptionHub hub;
 
 	/**
 	 * Holds subscribed channels
 	 */
 	private final TreeSet<ChannelAddress> channels = new TreeSet<>();
 
-	/**
-	 * Holds the scheduled task for currentData
-	 */
-	private Optional<ScheduledFuture<?>> futureOpt = Optional.empty();
-
 	protected final WsData wsData;
 
 	private int lastRequestCount = Integer.MIN_VALUE;
 
-	public SubscribedChannelsWorker(WsData wsData) {
+	public SubscribedChannelsWorker(SubscriptionHub hub, WsData wsData) {
+		this.hub = hub;
 		this.wsData = wsData;
 	}
 
@@ -69,63 +54,44 @@ public abstract class SubscribedChannelsWorker {
 	 * @param channels Set of ChannelAddresses
 	 */
 	private synchronized void setChannels(Set<ChannelAddress> channels) {
-		// stop current thread
-		if (this.futureOpt.isPresent()) {
-			this.futureOpt.get().cancel(true);
-			this.futureOpt = Optional.empty();
-		}
-
 		// clear existing channels
 		this.channels.clear();
 
 		// set new channels
 		this.channels.addAll(channels);
 
-		if (!channels.isEmpty()) {
-			// registered channels -> create new thread
-			this.futureOpt = Optional.of(this.executor.scheduleWithFixedDelay(() -> {
-				/*
-				 * This task is executed regularly. Sends data to Websocket.
-				 */
-				WebSocket ws = this.wsData.getWebsocket();
-				if (ws == null || !ws.isOpen()) {
-					// disconnected; stop worker
-					this.dispose();
-					return;
-				}
-
-				try {
-					this.wsData.send(this.getJsonRpcNotification(this.getCurrentData()));
-				} catch (OpenemsException e) {
-					this.log.warn("Unable to send SubscribedChannels: " + e.getMessage());
-				}
-
-			}, 0, UPDATE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS));
-		}
+		// registers at the hub; an empty set unsubscribes
+		this.hub.subscribe(this, this.getEdgeId(), this.channels);
 	}
 
 	public void dispose() {
-		// unsubscribe regular task
-		if (this.futureOpt.isPresent()) {
-			futureOpt.get().cancel(true);
-		}
+		// unsubscribe regular updates
+		this.hub.unsubscribe(this);
 	}
 
 	/**
-	 * Gets a JSON-RPC Notification with all subscribed channels data
+	 * Gets the Edge-ID of the subscribed Channels.
+	 *
+	 * @return the Edge-ID
+	 */
+	protected abstract String getEdgeId();
+
+	protected abstract JsonElement getChannelValue(ChannelAddress channelAddress);
+
+	/**
+	 * Gets the values of multiple Channels. Override if the values can be read
+	 * more efficiently at once.
 	 *
-	 * @return
+	 * @param channelAddresses the Channel-Addresses
+	 * @return the values per Channel-Address
 	 */
-	private CurrentDataNotification getCurrentData() {
-		CurrentDataNotification result = new CurrentDataNotification();
-		for (ChannelAddress channel : this.channels) {
-			JsonElement value = this.getChannelValue(channel);
-			result.add(channel, value);
+	protected Map<ChannelAddress, JsonElement> getChannelValues(Set<ChannelAddress> channelAddresses) {
+		Map<ChannelAddress, JsonElement> result = new HashMap<>();
+		for (ChannelAddress channelAddress : channelAddresses) {
+			result.put(channelAddress, this.getChannelValue(channelAddress));
 		}
 		return result;
 	}
 
-	protected abstract JsonElement getChannelValue(ChannelAddress channelAddress);
-
 	protected abstract JsonrpcNotification getJsonRpcNotification(CurrentDataNotification currentData);
 }
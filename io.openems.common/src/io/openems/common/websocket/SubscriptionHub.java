@@ -0,0 +1,298 @@
+package io.openems.common.websocket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+
+import io.openems.common.jsonrpc.notification.CurrentDataNotification;
+import io.openems.common.types.ChannelAddress;
+
+/**
+ * Distributes subscribed Channel values to all {@link SubscribedChannelsWorker}s
+ * of a Websocket server.
+ *
+ * <p>
+ * One timer and a small pool of worker threads serve all sessions. The hub
+ * keeps an index from Edge-ID and Channel-Address to the subscribers:
+ *
+ * <ul>
+ * <li>every Channel value of an Edge is read only once per update, even if it
+ * is subscribed by many sessions
+ * <li>sessions with the same Edge-ID and set of Channels share one group; the
+ * {@link CurrentDataNotification} is serialized once per group and the same
+ * String is sent to every session of the group
+ * <li>a group is only sent if one of its values changed; new subscribers
+ * always receive the current values immediately
+ * </ul>
+ */
+public class SubscriptionHub {
+
+	protected static final int UPDATE_INTERVAL_IN_SECONDS = 2;
+	private static final int DEFAULT_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+	private final Logger log = LoggerFactory.getLogger(SubscriptionHub.class);
+
+	private final ScheduledExecutorService timer;
+	private final ExecutorService workers;
+
+	/**
+	 * Subscriptions per Edge-ID. Guarded by 'this'.
+	 */
+	private final Map<String, EdgeSubscriptions> edges = new HashMap<>();
+
+	/**
+	 * The current Group of every subscriber. Guarded by 'this'.
+	 */
+	private final Map<SubscribedChannelsWorker, Group> groupOfSubscriber = new HashMap<>();
+
+	public SubscriptionHub(String name) {
+		this(name, DEFAULT_THREADS);
+	}
+
+	public SubscriptionHub(String name, int threads) {
+		this.timer = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, name + ":SubscriptionTimer"));
+		AtomicInteger threadCount = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(Math.max(1, threads),
+				r -> new Thread(r, name + ":Subscription-" + threadCount.incrementAndGet()));
+		this.timer.scheduleWithFixedDelay(this::updateAll, UPDATE_INTERVAL_IN_SECONDS, UPDATE_INTERVAL_IN_SECONDS,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stops the timer and the worker threads.
+	 */
+	public void deactivate() {
+		this.timer.shutdownNow();
+		this.workers.shutdownNow();
+	}
+
+	/**
+	 * Subscribes Channels for a session. Replaces any previous subscription of
+	 * this session.
+	 *
+	 * @param subscriber the {@link SubscribedChannelsWorker} of the session
+	 * @param edgeId     the Edge-ID
+	 * @param channels   the Channel-Addresses; empty to unsubscribe
+	 */
+	public void subscribe(SubscribedChannelsWorker subscriber, String edgeId, Set<ChannelAddress> channels) {
+		EdgeSubscriptions edge;
+		synchronized (this) {
+			this.removeSubscriber(subscriber);
+			if (channels.isEmpty()) {
+				return;
+			}
+			edge = this.edges.get(edgeId);
+			if (edge == null) {
+				edge = new EdgeSubscriptions(edgeId);
+				this.edges.put(edgeId, edge);
+			}
+			Set<ChannelAddress> key = Collections.unmodifiableSet(new TreeSet<>(channels));
+			Group group = edge.groups.get(key);
+			if (group == null) {
+				group = new Group(key);
+				edge.groups.put(key, group);
+				for (ChannelAddress channel : key) {
+					edge.channels.merge(channel, 1, Integer::sum);
+				}
+			}
+			group.subscribers.add(subscriber);
+			group.newSubscribers.add(subscriber);
+			this.groupOfSubscriber.put(subscriber, group);
+		}
+		// send current values immediately
+		this.executeUpdate(edge);
+	}
+
+	/**
+	 * Removes all subscriptions of a session.
+	 *
+	 * @param subscriber the {@link SubscribedChannelsWorker} of the session
+	 */
+	public synchronized void unsubscribe(SubscribedChannelsWorker subscriber) {
+		this.removeSubscriber(subscriber);
+	}
+
+	/**
+	 * Gets the number of sessions with active subscriptions.
+	 *
+	 * @return the number of sessions
+	 */
+	public synchronized int getSubscribers() {
+		return this.groupOfSubscriber.size();
+	}
+
+	private void removeSubscriber(SubscribedChannelsWorker subscriber) {
+		Group group = this.groupOfSubscriber.remove(subscriber);
+		if (group == null) {
+			return;
+		}
+		group.subscribers.remove(subscriber);
+		group.newSubscribers.remove(subscriber);
+		if (!group.subscribers.isEmpty()) {
+			return;
+		}
+		// remove empty group and update the index
+		for (EdgeSubscriptions edge : this.edges.values()) {
+			if (edge.groups.get(group.channels) != group) {
+				continue;
+			}
+			edge.groups.remove(group.channels);
+			for (ChannelAddress channel : group.channels) {
+				edge.channels.computeIfPresent(channel, (c, count) -> count > 1 ? count - 1 : null);
+			}
+			if (edge.groups.isEmpty()) {
+				this.edges.remove(edge.edgeId);
+			}
+			return;
+		}
+	}
+
+	/**
+	 * Regularly triggers an update for every Edge.
+	 */
+	void updateAll() {
+		List<EdgeSubscriptions> edges;
+		synchronized (this) {
+			edges = new ArrayList<>(this.edges.values());
+		}
+		for (EdgeSubscriptions edge : edges) {
+			this.executeUpdate(edge);
+		}
+	}
+
+	private void executeUpdate(EdgeSubscriptions edge) {
+		try {
+			this.workers.execute(() -> this.update(edge));
+		} catch (Exception e) {
+			// hub was deactivated
+		}
+	}
+
+	/**
+	 * Reads the subscribed values of one Edge and sends them to the subscribers.
+	 * Updates of the same Edge never run in parallel.
+	 *
+	 * @param edge the {@link EdgeSubscriptions}
+	 */
+	private void update(EdgeSubscriptions edge) {
+		edge.isPending.set(true);
+		// if another thread is running, it picks up the pending update
+		while (edge.isPending.get() && edge.isRunning.compareAndSet(false, true)) {
+			try {
+				edge.isPending.set(false);
+				this.updateEdge(edge);
+			} catch (Exception e) {
+				this.log.warn("Unable to send SubscribedChannels for Edge [" + edge.edgeId + "]: "
+						+ e.getClass().getSimpleName() + ": " + e.getMessage());
+			} finally {
+				edge.isRunning.set(false);
+			}
+		}
+	}
+
+	private void updateEdge(EdgeSubscriptions edge) {
+		// take a snapshot of the subscriptions
+		Set<ChannelAddress> channels;
+		Map<Group, List<SubscribedChannelsWorker>> allSubscribers = new HashMap<>();
+		Map<Group, List<SubscribedChannelsWorker>> newSubscribers = new HashMap<>();
+		synchronized (this) {
+			channels = new HashSet<>(edge.channels.keySet());
+			for (Group group : edge.groups.values()) {
+				allSubscribers.put(group, new ArrayList<>(group.subscribers));
+				newSubscribers.put(group, new ArrayList<>(group.newSubscribers));
+				group.newSubscribers.clear();
+			}
+		}
+		if (allSubscribers.isEmpty()) {
+			return;
+		}
+
+		// read every subscribed value once
+		SubscribedChannelsWorker source = allSubscribers.values().iterator().next().get(0);
+		Map<ChannelAddress, JsonElement> values = source.getChannelValues(channels);
+
+		for (Map.Entry<Group, List<SubscribedChannelsWorker>> entry : allSubscribers.entrySet()) {
+			Group group = entry.getKey();
+			CurrentDataNotification currentData = new CurrentDataNotification();
+			Map<ChannelAddress, JsonElement> groupValues = new HashMap<>();
+			for (ChannelAddress channel : group.channels) {
+				JsonElement value = values.get(channel);
+				currentData.add(channel, value);
+				groupValues.put(channel, value);
+			}
+			List<SubscribedChannelsWorker> receivers;
+			if (!groupValues.equals(group.lastValues)) {
+				receivers = entry.getValue();
+				group.lastValues = groupValues;
+			} else {
+				receivers = newSubscribers.get(group);
+			}
+			if (receivers.isEmpty()) {
+				continue;
+			}
+
+			// serialize once for all receivers
+			String message = receivers.get(0).getJsonRpcNotification(currentData).toString();
+			for (SubscribedChannelsWorker receiver : receivers) {
+				this.send(receiver, message);
+			}
+		}
+	}
+
+	private void send(SubscribedChannelsWorker subscriber, String message) {
+		WebSocket ws = subscriber.wsData.getWebsocket();
+		if (ws == null || !ws.isOpen()) {
+			// disconnected
+			this.unsubscribe(subscriber);
+			return;
+		}
+		try {
+			ws.send(message);
+		} catch (Exception e) {
+			this.log.warn("Unable to send SubscribedChannels: " + e.getMessage());
+		}
+	}
+
+	private static class EdgeSubscriptions {
+		private final String edgeId;
+		private final Map<Set<ChannelAddress>, Group> groups = new HashMap<>();
+		// Index: number of Groups that subscribed a Channel
+		private final Map<ChannelAddress, Integer> channels = new HashMap<>();
+		private final AtomicBoolean isRunning = new AtomicBoolean(false);
+		private final AtomicBoolean isPending = new AtomicBoolean(false);
+
+		private EdgeSubscriptions(String edgeId) {
+			this.edgeId = edgeId;
+		}
+	}
+
+	private static class Group {
+		private final Set<ChannelAddress> channels;
+		private final Set<SubscribedChannelsWorker> subscribers = new HashSet<>();
+		private final Set<SubscribedChannelsWorker> newSubscribers = new HashSet<>();
+		// only accessed by the update of the Edge
+		private Map<ChannelAddress, JsonElement> lastValues = null;
+
+		private Group(Set<ChannelAddress> channels) {
+			this.channels = channels;
+		}
+	}
+
+}
@@ -33,6 +33,16 @@ public abstract class WsData {
 	 */
 	private final ConcurrentHashMap<UUID, CompletableFuture<JsonrpcResponseSuccess>> requestFutures = new ConcurrentHashMap<>();
 
+	/**
+	 * Holds the encoder for the negotiated {@link CompactEncoding}. Possibly null!
+	 */
+	private volatile CompactEncoder compactEncoder = null;
+
+	/**
+	 * Holds the decoder for the negotiated {@link CompactEncoding}. Possibly null!
+	 */
+	private volatile CompactDecoder compactDecoder = null;
+
 	/**
 	 * This method is called on close of the parent websocket. Use it to release
 	 * blocked resources.
@@ -59,6 +69,44 @@ public abstract class WsData {
 		return websocket;
 	}
 
+	/**
+	 * Sets the encoder for the negotiated {@link CompactEncoding}.
+	 * 
+	 * @param compactEncoder the {@link CompactEncoder}; null if the encoding is
+	 *                       not used
+	 */
+	public void setCompactEncoder(CompactEncoder compactEncoder) {
+		this.compactEncoder = compactEncoder;
+	}
+
+	/**
+	 * Gets the encoder for the negotiated {@link CompactEncoding}. Possibly null!
+	 * 
+	 * @return the {@link CompactEncoder}
+	 */
+	public CompactEncoder getCompactEncoder() {
+		return this.compactEncoder;
+	}
+
+	/**
+	 * Sets the decoder for the negotiated {@link CompactEncoding}.
+	 * 
+	 * @param compactDecoder the {@link CompactDecoder}; null if the encoding is
+	 *                       not used
+	 */
+	public void setCompactDecoder(CompactDecoder compactDecoder) {
+		this.compactDecoder = compactDecoder;
+	}
+
+	/**
+	 * Gets the decoder for the negotiated {@link CompactEncoding}. Possibly null!
+	 * 
+	 * @return the {@link CompactDecoder}
+	 */
+	public CompactDecoder getCompactDecoder() {
+		return this.compactDecoder;
+	}
+
 	/**
 	 * Sends a JSON-RPC request to a Websocket and registers a callback.
 	 * 
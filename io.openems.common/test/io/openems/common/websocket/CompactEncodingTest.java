@@ -0,0 +1,101 @@
+package io.openems.common.websocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.jsonrpc.base.GenericJsonrpcNotification;
+import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.utils.JsonUtils;
+
+public class CompactEncodingTest {
+
+	private static final ChannelAddress ESS0_SOC = new ChannelAddress("ess0", "Soc");
+	private static final ChannelAddress METER0_ENERGY = new ChannelAddress("meter0", "ActiveProductionEnergy");
+	private static final ChannelAddress METER0_FREQUENCY = new ChannelAddress("meter0", "Frequency");
+	private static final ChannelAddress SYSTEM0_IP = new ChannelAddress("system0", "PrimaryIpAddress");
+
+	@Test
+	public void testRoundtrip() throws OpenemsNamedException {
+		CompactEncoder encoder = new CompactEncoder();
+		CompactDecoder decoder = new CompactDecoder();
+
+		for (int i = 0; i < 10; i++) {
+			TimestampedDataNotification message = new TimestampedDataNotification();
+			long timestamp = 1_577_836_800_000L + i * 10_000L;
+			message.add(timestamp, ESS0_SOC, new JsonPrimitive(50 + i));
+			message.add(timestamp, METER0_ENERGY, new JsonPrimitive(123_456_789L + i * 3));
+			message.add(timestamp, METER0_FREQUENCY, new JsonPrimitive(50.01 - i / 100d));
+			message.add(timestamp, SYSTEM0_IP, new JsonPrimitive("192.168.1." + i));
+			message.add(timestamp + 1000, ESS0_SOC, JsonNull.INSTANCE);
+			message.add(timestamp + 1000, new ChannelAddress("ess0", "Float"), new JsonPrimitive(1.5f));
+			message.add(timestamp + 1000, new ChannelAddress("ess0", "Bool"), new JsonPrimitive(i % 2 == 0));
+			message.add(timestamp + 1000, new ChannelAddress("ess0", "Array"),
+					JsonUtils.buildJsonArray().add(1).add(2).build());
+
+			byte[] frame = encoder.encode(message);
+			TimestampedDataNotification decoded = decoder.decode(ByteBuffer.wrap(frame));
+			assertEquals(message.getParams(), decoded.getParams());
+
+			if (i > 0) {
+				// dictionary and deltas make the frame much smaller than JSON
+				assertTrue(frame.length * 4 < message.toString().length());
+			}
+		}
+	}
+
+	@Test
+	public void testParsedJson() throws OpenemsNamedException {
+		TimestampedDataNotification message = new TimestampedDataNotification();
+		message.add(1000, ESS0_SOC, new JsonPrimitive(50));
+		message.add(1000, METER0_FREQUENCY, new JsonPrimitive(50.0));
+		message.add(1000, METER0_ENERGY, new JsonPrimitive(-5L));
+
+		// e.g. replayed from a buffer: numbers are LazilyParsedNumbers
+		TimestampedDataNotification parsed = TimestampedDataNotification
+				.from(GenericJsonrpcNotification.from(message.toString()));
+		CompactDecoder decoder = new CompactDecoder();
+		TimestampedDataNotification decoded = decoder
+				.decode(ByteBuffer.wrap(new CompactEncoder().encode(parsed)));
+		assertEquals(message.getParams(), decoded.getParams());
+	}
+
+	@Test
+	public void testReset() throws OpenemsNamedException {
+		CompactEncoder encoder = new CompactEncoder();
+		CompactDecoder decoder = new CompactDecoder();
+
+		TimestampedDataNotification message1 = new TimestampedDataNotification();
+		message1.add(1000, ESS0_SOC, new JsonPrimitive(50));
+		decoder.decode(ByteBuffer.wrap(encoder.encode(message1)));
+
+		// frame is lost -> encoder is reset; next frame starts a new session
+		TimestampedDataNotification message2 = new TimestampedDataNotification();
+		message2.add(2000, ESS0_SOC, new JsonPrimitive(51));
+		encoder.encode(message2);
+		encoder.reset();
+
+		TimestampedDataNotification message3 = new TimestampedDataNotification();
+		message3.add(3000, METER0_ENERGY, new JsonPrimitive(7));
+		message3.add(3000, ESS0_SOC, new JsonPrimitive(52));
+		TimestampedDataNotification decoded = decoder.decode(ByteBuffer.wrap(encoder.encode(message3)));
+		assertEquals(message3.getParams(), decoded.getParams());
+	}
+
+	@Test(expected = OpenemsNamedException.class)
+	public void testInvalidFrame() throws OpenemsNamedException {
+		TimestampedDataNotification message = new TimestampedDataNotification();
+		message.add(1000, ESS0_SOC, new JsonPrimitive(50));
+		byte[] frame = new CompactEncoder().encode(message);
+		new CompactDecoder().decode(ByteBuffer.wrap(frame, 0, frame.length - 1));
+	}
+
+}
@@ -0,0 +1,216 @@
+package io.openems.common.websocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.java_websocket.WebSocket;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.jsonrpc.base.JsonrpcNotification;
+import io.openems.common.jsonrpc.notification.CurrentDataNotification;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.utils.JsonUtils;
+
+public class SubscriptionHubTest {
+
+	private static final String EDGE_ID = "edge0";
+	private static final ChannelAddress SOC = new ChannelAddress("_sum", "EssSoc");
+	private static final ChannelAddress GRID = new ChannelAddress("_sum", "GridActivePower");
+
+	private static class DummyWsData extends WsData {
+		private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+		private volatile boolean isOpen = true;
+
+		private DummyWsData() {
+			this.setWebsocket((WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(),
+					new Class<?>[] { WebSocket.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+						case "isOpen":
+							return this.isOpen;
+						case "send":
+							this.messages.add((String) args[0]);
+							return null;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+						}
+					}));
+		}
+
+		/**
+		 * Waits for the next message and returns its params.
+		 */
+		private JsonObject nextParams() throws InterruptedException, OpenemsNamedException {
+			String message = this.messages.poll(5, TimeUnit.SECONDS);
+			assertNotNull("Expected a message", message);
+			return JsonUtils.parseToJsonObject(message).getAsJsonObject("params");
+		}
+
+		@Override
+		public String toString() {
+			return "DummyWsData";
+		}
+	}
+
+	private class DummySubscriber extends SubscribedChannelsWorker {
+
+		private DummySubscriber(DummyWsData wsData) {
+			super(SubscriptionHubTest.this.hub, wsData);
+		}
+
+		@Override
+		protected String getEdgeId() {
+			return EDGE_ID;
+		}
+
+		@Override
+		protected JsonElement getChannelValue(ChannelAddress channelAddress) {
+			return SubscriptionHubTest.this.values.get(channelAddress);
+		}
+
+		@Override
+		protected Map<ChannelAddress, JsonElement> getChannelValues(Set<ChannelAddress> channelAddresses) {
+			SubscriptionHubTest.this.reads.incrementAndGet();
+			return super.getChannelValues(channelAddresses);
+		}
+
+		@Override
+		protected JsonrpcNotification getJsonRpcNotification(CurrentDataNotification currentData) {
+			SubscriptionHubTest.this.serializations.incrementAndGet();
+			return currentData;
+		}
+	}
+
+	private final Map<ChannelAddress, JsonElement> values = new ConcurrentHashMap<>();
+	private final AtomicInteger reads = new AtomicInteger();
+	private final AtomicInteger serializations = new AtomicInteger();
+	private SubscriptionHub hub;
+
+	@Before
+	public void before() {
+		// one worker thread, so updates are executed in order
+		this.hub = new SubscriptionHub("test", 1);
+		this.values.put(SOC, new JsonPrimitive(50));
+		this.values.put(GRID, new JsonPrimitive(1000));
+	}
+
+	@After
+	public void after() {
+		this.hub.deactivate();
+	}
+
+	private static Set<ChannelAddress> channels(ChannelAddress... channels) {
+		return new HashSet<>(Arrays.asList(channels));
+	}
+
+	private void awaitSubscribers(int expected) throws InterruptedException {
+		for (int i = 0; i < 500 && this.hub.getSubscribers() != expected; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, this.hub.getSubscribers());
+	}
+
+	@Test
+	public void testNewSubscriberReceivesCurrentValues() throws InterruptedException, OpenemsNamedException {
+		DummyWsData ws0 = new DummyWsData();
+		this.hub.subscribe(new DummySubscriber(ws0), EDGE_ID, channels(SOC));
+
+		JsonObject params = ws0.nextParams();
+		assertEquals(50, params.get("_sum/EssSoc").getAsInt());
+		assertEquals(1, params.size());
+	}
+
+	@Test
+	public void testSameChannelsShareOneGroup() throws InterruptedException, OpenemsNamedException {
+		DummyWsData ws0 = new DummyWsData();
+		DummyWsData ws1 = new DummyWsData();
+		DummyWsData ws2 = new DummyWsData();
+		this.hub.subscribe(new DummySubscriber(ws0), EDGE_ID, channels(SOC, GRID));
+		ws0.nextParams();
+		this.hub.subscribe(new DummySubscriber(ws1), EDGE_ID, channels(GRID, SOC));
+		ws1.nextParams();
+		this.hub.subscribe(new DummySubscriber(ws2), EDGE_ID, channels(SOC));
+		ws2.nextParams();
+		assertEquals(3, this.hub.getSubscribers());
+
+		this.reads.set(0);
+		this.serializations.set(0);
+		this.values.put(SOC, new JsonPrimitive(51));
+		this.hub.updateAll();
+		JsonObject params0 = ws0.nextParams();
+		JsonObject params1 = ws1.nextParams();
+		assertEquals(51, params0.get("_sum/EssSoc").getAsInt());
+		assertEquals(params0, params1);
+		assertEquals(51, ws2.nextParams().get("_sum/EssSoc").getAsInt());
+
+		// values are read once per Edge and serialized once per group
+		assertEquals(1, this.reads.get());
+		assertEquals(2, this.serializations.get());
+	}
+
+	@Test
+	public void testOnlyChangedValuesAreSent() throws InterruptedException, OpenemsNamedException {
+		DummyWsData ws0 = new DummyWsData();
+		DummyWsData ws1 = new DummyWsData();
+		this.hub.subscribe(new DummySubscriber(ws0), EDGE_ID, channels(SOC));
+		ws0.nextParams();
+		this.hub.subscribe(new DummySubscriber(ws1), EDGE_ID, channels(GRID));
+		ws1.nextParams();
+
+		// nothing changed
+		this.hub.updateAll();
+
+		// only 'GridActivePower' changed
+		this.values.put(GRID, new JsonPrimitive(2000));
+		this.hub.updateAll();
+		assertEquals(2000, ws1.nextParams().get("_sum/GridActivePower").getAsInt());
+		assertTrue(ws1.messages.isEmpty());
+		assertTrue(ws0.messages.isEmpty());
+	}
+
+	@Test
+	public void testUnsubscribeClosedWebsocket() throws InterruptedException, OpenemsNamedException {
+		DummyWsData ws0 = new DummyWsData();
+		DummyWsData ws1 = new DummyWsData();
+		DummySubscriber subscriber0 = new DummySubscriber(ws0);
+		DummySubscriber subscriber1 = new DummySubscriber(ws1);
+		this.hub.subscribe(subscriber0, EDGE_ID, channels(SOC));
+		ws0.nextParams();
+		this.hub.subscribe(subscriber1, EDGE_ID, channels(SOC));
+		ws1.nextParams();
+
+		// a closed session is removed on the next send
+		ws0.isOpen = false;
+		this.values.put(SOC, new JsonPrimitive(51));
+		this.hub.updateAll();
+		assertEquals(51, ws1.nextParams().get("_sum/EssSoc").getAsInt());
+		this.awaitSubscribers(1);
+		assertTrue(ws0.messages.isEmpty());
+
+		// disposing a closed or already removed session does not throw
+		subscriber0.dispose();
+		ws1.isOpen = false;
+		subscriber1.dispose();
+		subscriber1.dispose();
+		assertEquals(0, this.hub.getSubscribers());
+	}
+
+}
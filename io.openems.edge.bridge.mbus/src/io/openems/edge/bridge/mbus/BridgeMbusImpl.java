@@ -1,13 +1,7 @@
 package io.openems.edge.bridge.mbus;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-
-import org.openmuc.jmbus.DecodingException;
 import org.openmuc.jmbus.MBusConnection;
 import org.openmuc.jmbus.MBusConnection.MBusSerialBuilder;
-import org.openmuc.jmbus.VariableDataStructure;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -18,10 +12,7 @@ import org.osgi.service.event.EventConstants;
 import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import io.openems.common.exceptions.OpenemsException;
-import io.openems.common.worker.AbstractCycleWorker;
 import io.openems.edge.bridge.mbus.api.BridgeMbus;
 import io.openems.edge.bridge.mbus.api.MbusTask;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
@@ -32,11 +23,9 @@ import io.openems.edge.common.event.EdgeEventConstants;
 @Component(name = "Bridge.Mbus", //
 		immediate = true, //
 		configurationPolicy = ConfigurationPolicy.REQUIRE, //
-		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE)
+		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_BEFORE_PROCESS_IMAGE)
 public class BridgeMbusImpl extends AbstractOpenemsComponent implements BridgeMbus, EventHandler, OpenemsComponent {
 
-	private final Logger log = LoggerFactory.getLogger(BridgeMbusImpl.class);
-
 	public BridgeMbusImpl() {
 		super(//
 				OpenemsComponent.ChannelId.values(), //
@@ -44,28 +33,24 @@ public class BridgeMbusImpl extends AbstractOpenemsComponent implements BridgeMb
 		);
 	}
 
-	private final Map<String, MbusTask> tasks = new HashMap<>();
-	private final MbusWorker worker = new MbusWorker();
-
-	private MBusConnection mBusConnection;
-	private MBusSerialBuilder builder;
-	private String portName;
+	private MbusPoller poller = null;
 
 	@Activate
 	protected void activate(ComponentContext context, Config config) {
 		super.activate(context, config.id(), config.alias(), config.enabled());
-		this.portName = config.portName();
-
-		this.worker.activate(config.id());
 
-		this.builder = MBusConnection.newSerialBuilder(this.portName).setBaudrate(config.baudrate());
+		MBusSerialBuilder builder = MBusConnection.newSerialBuilder(config.portName()) //
+				.setBaudrate(config.baudrate());
+		this.poller = new MbusPoller(this, builder, config.pollInterval() * 1000L);
+		if (config.enabled()) {
+			this.poller.activate(config.id());
+		}
 	}
 
 	@Deactivate
 	protected void deactivate() {
 		super.deactivate();
-		this.mBusConnection.close();
-		this.worker.deactivate();
+		this.poller.deactivate();
 	}
 
 	@Override
@@ -74,52 +59,35 @@ public class BridgeMbusImpl extends AbstractOpenemsComponent implements BridgeMb
 			return;
 		}
 		switch (event.getTopic()) {
-		case EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE:
-			this.worker.triggerNextRun();
+		case EdgeEventConstants.TOPIC_CYCLE_BEFORE_PROCESS_IMAGE:
+			this.poller.applyResponses();
 			break;
 		}
 	}
 
+	@Override
 	public MBusConnection getmBusConnection() {
-		return this.mBusConnection;
+		return this.poller.getConnection();
 	}
 
-	private class MbusWorker extends AbstractCycleWorker {
-
-		@Override
-		protected void forever() throws OpenemsException, DecodingException {
-			// Check if time passed by, if not, do nothing
-			try {
-				BridgeMbusImpl.this.mBusConnection = BridgeMbusImpl.this.builder.build();
-
-				for (MbusTask task : BridgeMbusImpl.this.tasks.values()) {
-					try {
-						VariableDataStructure data = task.getRequest();
-						data.decode();
-						// "Before accessing elements of a variable data structure it has to be decoded
-						// using the decode method." ??
-						task.setResponse(data);
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-				}
+	@Override
+	public void addTask(String sourceId, MbusTask task) {
+		this.poller.addTask(sourceId, task);
+	}
 
-				BridgeMbusImpl.this.mBusConnection.close();
-			} catch (IOException e) {
-				BridgeMbusImpl.this.logError(BridgeMbusImpl.this.log,
-						"Connection via [" + portName + "] failed: " + e.getMessage());
-			}
-		}
+	@Override
+	public void removeTask(String sourceId) {
+		this.poller.removeTask(sourceId);
 	}
 
 	@Override
-	public void addTask(String sourceId, MbusTask task) {
-		this.tasks.put(sourceId, task);
+	protected void logWarn(Logger log, String message) {
+		super.logWarn(log, message);
 	}
 
 	@Override
-	public void removeTask(String sourceId) {
-		this.tasks.remove(sourceId);
+	protected void logError(Logger log, String message) {
+		super.logError(log, message);
 	}
 
 }
@@ -23,5 +23,8 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 	@AttributeDefinition(name = "Baudrate", description = "Serial Device Speed")
 	int baudrate() default 2400;
 
+	@AttributeDefinition(name = "Poll interval [s]", description = "Default interval in which each M-Bus device is read, if the device does not configure its own interval")
+	int pollInterval() default 10;
+
 	String webconsole_configurationFactory_nameHint() default "Bridge M-Bus [{id}]";
 }
\ No newline at end of file
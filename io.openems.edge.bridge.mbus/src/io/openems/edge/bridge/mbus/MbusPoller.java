@@ -0,0 +1,321 @@
+package io.openems.edge.bridge.mbus;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openmuc.jmbus.DecodingException;
+import org.openmuc.jmbus.MBusConnection;
+import org.openmuc.jmbus.MBusConnection.MBusSerialBuilder;
+import org.openmuc.jmbus.VariableDataStructure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openems.common.utils.Mutex;
+import io.openems.common.worker.AbstractWorker;
+import io.openems.edge.bridge.mbus.api.AbstractOpenemsMbusComponent;
+import io.openems.edge.bridge.mbus.api.BridgeMbus;
+import io.openems.edge.bridge.mbus.api.MbusComponent;
+import io.openems.edge.bridge.mbus.api.MbusTask;
+
+/**
+ * Polls the M-Bus devices independently of the Cycle.
+ *
+ * <ul>
+ * <li>The serial connection stays open; after an error it is reopened with an
+ * exponential backoff, which is not shortened by new devices
+ * <li>Every device is read in its own interval; a random jitter keeps devices
+ * with the same interval from being read in bursts
+ * <li>All devices that are due are read as one batch; devices with secondary
+ * address are deselected once after the batch
+ * <li>The Cycle only takes the latest decoded {@link VariableDataStructure}
+ * via {@link #applyResponses()}; it never waits for the bus
+ * </ul>
+ */
+public class MbusPoller extends AbstractWorker {
+
+	/**
+	 * A device is reported as failed after this number of reads in a row without
+	 * valid answer.
+	 */
+	private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+	static final long MIN_RECONNECT_DELAY = 1_000;
+	static final long MAX_RECONNECT_DELAY = 60_000;
+
+	/**
+	 * Opens the {@link MBusConnection}.
+	 */
+	interface Connector {
+		MBusConnection connect() throws IOException;
+	}
+
+	/**
+	 * The poll state of one device. Written by the poller thread; the Cycle only
+	 * reads the volatile fields.
+	 */
+	private static class Poll {
+		private final MbusTask task;
+		private final AtomicReference<VariableDataStructure> response = new AtomicReference<>();
+
+		private long nextDue;
+		private int consecutiveFailures = 0;
+		private volatile Long latency = null;
+		private volatile boolean isFailed = false;
+
+		private Poll(MbusTask task, long nextDue) {
+			this.task = task;
+			this.nextDue = nextDue;
+		}
+	}
+
+	private final Logger log = LoggerFactory.getLogger(MbusPoller.class);
+	private final BridgeMbusImpl parent;
+	private final Connector connector;
+	private final long defaultPollInterval;
+	private final Random random;
+	private final Map<String, Poll> polls = new ConcurrentHashMap<>();
+	final Mutex wakeup = new Mutex(false);
+
+	// only accessed by the poller thread; 0 if the last connect succeeded
+	private long reconnectDelay = 0;
+	private volatile MBusConnection connection = null;
+
+	/**
+	 * Creates a {@link MbusPoller}.
+	 *
+	 * @param parent              the {@link BridgeMbusImpl}
+	 * @param builder             builds the {@link MBusConnection}
+	 * @param defaultPollInterval the interval in [ms] for devices without own
+	 *                            interval
+	 */
+	public MbusPoller(BridgeMbusImpl parent, MBusSerialBuilder builder, long defaultPollInterval) {
+		this(parent, builder::build, defaultPollInterval, new Random());
+	}
+
+	MbusPoller(BridgeMbusImpl parent, Connector connector, long defaultPollInterval, Random random) {
+		this.parent = parent;
+		this.connector = connector;
+		this.defaultPollInterval = defaultPollInterval;
+		this.random = random;
+	}
+
+	@Override
+	public void deactivate() {
+		super.deactivate();
+		this.closeConnection();
+	}
+
+	/**
+	 * Adds a task; the device is read shortly afterwards.
+	 *
+	 * @param sourceId the Component-ID of the device
+	 * @param task     the {@link MbusTask}
+	 */
+	public void addTask(String sourceId, MbusTask task) {
+		this.polls.put(sourceId, new Poll(task, System.currentTimeMillis() + this.jitter(MIN_RECONNECT_DELAY)));
+		if (this.connection != null) {
+			// recalculate the sleep time; without connection the poller is backing off
+			this.wakeup.release();
+		}
+	}
+
+	/**
+	 * Removes a task.
+	 *
+	 * @param sourceId the Component-ID of the device
+	 */
+	public void removeTask(String sourceId) {
+		this.polls.remove(sourceId);
+	}
+
+	public MBusConnection getConnection() {
+		return this.connection;
+	}
+
+	/**
+	 * Gets the time when a device is read next.
+	 *
+	 * @param sourceId the Component-ID of the device
+	 * @return the time in [ms] since epoch; null if the device is unknown
+	 */
+	Long getNextDue(String sourceId) {
+		Poll poll = this.polls.get(sourceId);
+		return poll == null ? null : poll.nextDue;
+	}
+
+	/**
+	 * Gets the delay before the next connection attempt.
+	 *
+	 * @return the delay in [ms]; 0 if the last attempt succeeded
+	 */
+	long getReconnectDelay() {
+		return this.reconnectDelay;
+	}
+
+	/**
+	 * Applies the latest responses to the Channels of the devices. Called by the
+	 * Cycle; never blocks.
+	 */
+	public void applyResponses() {
+		for (Poll poll : this.polls.values()) {
+			AbstractOpenemsMbusComponent component = poll.task.getOpenemsMbusComponent();
+			VariableDataStructure response = poll.response.getAndSet(null);
+			if (response != null) {
+				poll.task.setResponse(response);
+			}
+			component.channel(MbusComponent.ChannelId.READ_LATENCY).setNextValue(poll.latency);
+			component.channel(MbusComponent.ChannelId.READ_FAILED).setNextValue(poll.isFailed);
+		}
+		this.parent.channel(BridgeMbus.ChannelId.SLAVE_COMMUNICATION_FAILED).setNextValue(this.connection == null);
+	}
+
+	@Override
+	protected void forever() throws InterruptedException {
+		MBusConnection connection = this.connection;
+		if (connection == null) {
+			connection = this.connect();
+			if (connection == null) {
+				Thread.sleep(this.reconnectDelay);
+				return;
+			}
+		}
+
+		// collect the batch of devices that are due
+		long now = System.currentTimeMillis();
+		List<Poll> due = new ArrayList<>();
+		for (Poll poll : this.polls.values()) {
+			if (poll.nextDue <= now) {
+				due.add(poll);
+			}
+		}
+
+		if (!due.isEmpty()) {
+			long start = System.nanoTime();
+			this.read(connection, due);
+			this.parent.channel(BridgeMbus.ChannelId.EXECUTION_DURATION)
+					.setNextValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+
+		// sleep till the next device is due
+		long nextDue = Long.MAX_VALUE;
+		for (Poll poll : this.polls.values()) {
+			nextDue = Math.min(nextDue, poll.nextDue);
+		}
+		long sleep = nextDue == Long.MAX_VALUE ? this.defaultPollInterval : nextDue - System.currentTimeMillis();
+		if (sleep > 0) {
+			this.wakeup.awaitOrTimeout(sleep, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Reads a batch of devices.
+	 *
+	 * @param connection the open {@link MBusConnection}
+	 * @param batch      the devices
+	 */
+	private void read(MBusConnection connection, List<Poll> batch) {
+		boolean isSelected = false;
+		for (Poll poll : batch) {
+			MbusTask task = poll.task;
+			long start = System.nanoTime();
+			poll.nextDue = System.currentTimeMillis() + this.getInterval(task.getPollInterval());
+			try {
+				isSelected |= task.hasSecondaryAddress();
+				VariableDataStructure response = task.read(connection);
+				// "Before accessing elements of a variable data structure it has to be decoded
+				// using the decode method."
+				response.decode();
+				poll.latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				poll.consecutiveFailures = 0;
+				poll.isFailed = false;
+				poll.response.set(response);
+
+			} catch (InterruptedIOException | DecodingException e) {
+				// no or invalid answer from this device; the connection is still fine
+				this.onFailure(poll, e);
+
+			} catch (IOException e) {
+				this.onFailure(poll, e);
+				this.parent.logError(this.log, "M-Bus connection failed: " + e.getMessage());
+				this.closeConnection();
+				return;
+			}
+		}
+		if (isSelected) {
+			try {
+				connection.deselectComponent();
+			} catch (IOException e) {
+				this.parent.logWarn(this.log, "Unable to deselect M-Bus devices: " + e.getMessage());
+			}
+		}
+	}
+
+	private void onFailure(Poll poll, Exception e) {
+		poll.consecutiveFailures++;
+		if (poll.consecutiveFailures >= MAX_CONSECUTIVE_FAILURES && !poll.isFailed) {
+			poll.isFailed = true;
+			this.parent.logWarn(this.log, "Unable to read M-Bus device [" + poll.task.getOpenemsMbusComponent().id()
+					+ "]: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Opens the serial connection. On error the delay before the next attempt is
+	 * doubled, from {@link #MIN_RECONNECT_DELAY} up to
+	 * {@link #MAX_RECONNECT_DELAY}.
+	 *
+	 * @return the {@link MBusConnection}; null on error
+	 */
+	MBusConnection connect() {
+		try {
+			MBusConnection connection = this.connector.connect();
+			this.connection = connection;
+			this.reconnectDelay = 0;
+			return connection;
+		} catch (IOException e) {
+			this.reconnectDelay = this.reconnectDelay == 0 ? MIN_RECONNECT_DELAY
+					: Math.min(this.reconnectDelay * 2, MAX_RECONNECT_DELAY);
+			this.parent.logError(this.log, "Unable to open M-Bus connection. Retry in [" + this.reconnectDelay
+					+ " ms]: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private void closeConnection() {
+		MBusConnection connection = this.connection;
+		this.connection = null;
+		if (connection != null) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Gets the poll interval of a device including a random jitter of up to 10 %.
+	 *
+	 * @param pollInterval the configured interval of the device in [s]; 0 for
+	 *                     the default
+	 * @return the interval in [ms]
+	 */
+	long getInterval(int pollInterval) {
+		long interval = pollInterval > 0 ? pollInterval * 1000L : this.defaultPollInterval;
+		return interval + this.jitter(interval / 10);
+	}
+
+	private long jitter(long max) {
+		return max > 0 ? (long) (this.random.nextDouble() * max) : 0;
+	}
+
+	@Override
+	protected int getCycleTime() {
+		// forever() waits till the next device is due
+		return DO_NOT_WAIT;
+	}
+
+}
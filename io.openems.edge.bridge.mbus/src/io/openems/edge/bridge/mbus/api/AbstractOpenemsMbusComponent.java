@@ -2,22 +2,27 @@ package io.openems.edge.bridge.mbus.api;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import org.openmuc.jmbus.SecondaryAddress;
 import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.component.ComponentContext;
 
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
 
-public abstract class AbstractOpenemsMbusComponent extends AbstractOpenemsComponent {
+public abstract class AbstractOpenemsMbusComponent extends AbstractOpenemsComponent implements MbusComponent {
 
 	protected final List<ChannelRecord> channelDataRecordsList = new ArrayList<ChannelRecord>();
 
 	private Integer primaryAddress = null;
+	private SecondaryAddress secondaryAddress = null;
+	private int pollInterval = 0;
 
 	protected AbstractOpenemsMbusComponent(io.openems.edge.common.channel.ChannelId[] firstInitialChannelIds,
 			io.openems.edge.common.channel.ChannelId[]... furtherInitialChannelIds) {
 		super(firstInitialChannelIds, furtherInitialChannelIds);
+		this.addChannels(MbusComponent.ChannelId.values());
 	}
 
 	public List<ChannelRecord> getChannelDataRecordsList() {
@@ -28,6 +33,25 @@ public abstract class AbstractOpenemsMbusComponent extends AbstractOpenemsCompon
 		return this.primaryAddress;
 	}
 
+	/**
+	 * Gets the secondary address of the M-Bus device.
+	 * 
+	 * @return the secondary address; empty to address the device by its primary
+	 *         address
+	 */
+	public Optional<SecondaryAddress> getSecondaryAddress() {
+		return Optional.ofNullable(this.secondaryAddress);
+	}
+
+	/**
+	 * Gets the interval in which the M-Bus device is read.
+	 * 
+	 * @return the interval in [s]; 0 for the default of the Bridge
+	 */
+	public int getPollInterval() {
+		return this.pollInterval;
+	}
+
 	/**
 	 * Call this method from Component implementations activate().
 	 * 
@@ -51,8 +75,44 @@ public abstract class AbstractOpenemsMbusComponent extends AbstractOpenemsCompon
 	 */
 	protected boolean activate(ComponentContext context, String id, String alias, boolean enabled, int primaryAddress,
 			ConfigurationAdmin cm, String mbusReference, String mbusId) {
+		return this.activate(context, id, alias, enabled, primaryAddress, "", 0, cm, mbusReference, mbusId);
+	}
+
+	/**
+	 * Call this method from Component implementations activate().
+	 * 
+	 * @param context          ComponentContext of this component. Receive it from
+	 *                         parameter for @Activate
+	 * @param id               ID of this component. Typically 'config.id()'
+	 * @param alias            Human-readable name of this Component. Typically
+	 *                         'config.alias()'. Defaults to 'id' if empty
+	 * @param enabled          Whether the component should be enabled. Typically
+	 *                         'config.enabled()'
+	 * @param primaryAddress   Primary address of the M-Bus device. Typically
+	 *                         'config.primaryAddress'
+	 * @param secondaryAddress Secondary address of the M-Bus device as 16
+	 *                         hexadecimal digits in transmission order (ID,
+	 *                         manufacturer, version, medium); if set, the device
+	 *                         is read via this address instead of the primary
+	 *                         address. Typically 'config.secondaryAddress'
+	 * @param pollInterval     Interval in [s] in which the device is read; 0 for
+	 *                         the default of the Bridge. Typically
+	 *                         'config.pollInterval'
+	 * @param cm               An instance of ConfigurationAdmin. Receive it
+	 *                         using @Reference
+	 * @param mbusReference    The name of the @Reference setter method for the
+	 *                         M-Bus bridge
+	 * @param mbusId           The ID of the M-Bus bridge. Typically
+	 *                         'config.mbus_id()'
+	 * @return true if the target filter was updated. You may use it to abort the
+	 *         activate() method.
+	 */
+	protected boolean activate(ComponentContext context, String id, String alias, boolean enabled, int primaryAddress,
+			String secondaryAddress, int pollInterval, ConfigurationAdmin cm, String mbusReference, String mbusId) {
 		super.activate(context, id, alias, enabled);
 		this.primaryAddress = primaryAddress;
+		this.secondaryAddress = parseSecondaryAddress(secondaryAddress);
+		this.pollInterval = Math.max(0, pollInterval);
 
 		if (OpenemsComponent.updateReferenceFilter(cm, this.servicePid(), "mbus", mbusId)) {
 			return true;
@@ -61,6 +121,33 @@ public abstract class AbstractOpenemsMbusComponent extends AbstractOpenemsCompon
 		return false;
 	}
 
+	/**
+	 * Parses a secondary address like '7856341277040207'.
+	 * 
+	 * @param secondaryAddress the 8 bytes of the address as hexadecimal digits;
+	 *                         whitespace is ignored
+	 * @return the {@link SecondaryAddress}; null if empty
+	 * @throws IllegalArgumentException if the address is invalid
+	 */
+	private static SecondaryAddress parseSecondaryAddress(String secondaryAddress) {
+		if (secondaryAddress == null) {
+			return null;
+		}
+		String hex = secondaryAddress.replaceAll("\\s", "");
+		if (hex.isEmpty()) {
+			return null;
+		}
+		if (!hex.matches("[0-9a-fA-F]{16}")) {
+			throw new IllegalArgumentException(
+					"Secondary address [" + secondaryAddress + "] must consist of 16 hexadecimal digits");
+		}
+		byte[] bytes = new byte[8];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return SecondaryAddress.newFromLongHeader(bytes, 0);
+	}
+
 	/**
 	 * Define channels of the mbus device and the record position of its
 	 * corresponding values or the datatype if the channel displays secondary
@@ -0,0 +1,38 @@
+package io.openems.edge.bridge.mbus.api;
+
+import io.openems.common.channel.Level;
+import io.openems.common.channel.Unit;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Doc;
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Channels that the M-Bus Bridge provides for every M-Bus device.
+ */
+public interface MbusComponent extends OpenemsComponent {
+
+	public enum ChannelId implements io.openems.edge.common.channel.ChannelId {
+		/**
+		 * Duration of the latest successful read of this device.
+		 */
+		READ_LATENCY(Doc.of(OpenemsType.LONG) //
+				.unit(Unit.MILLISECONDS)), //
+		/**
+		 * The device did not answer the latest reads.
+		 */
+		READ_FAILED(Doc.of(Level.WARNING) //
+				.text("Reading the M-Bus device failed"));
+
+		private final Doc doc;
+
+		private ChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		@Override
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+}
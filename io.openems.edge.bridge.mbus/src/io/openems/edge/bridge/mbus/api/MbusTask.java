@@ -2,21 +2,45 @@ package io.openems.edge.bridge.mbus.api;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.util.Optional;
 
+import org.openmuc.jmbus.MBusConnection;
+import org.openmuc.jmbus.SecondaryAddress;
 import org.openmuc.jmbus.VariableDataStructure;
 
 public class MbusTask {
 
+	/**
+	 * Primary address that addresses the device selected via its secondary
+	 * address.
+	 */
+	public static final int SELECTED_DEVICE_ADDRESS = 0xFD;
+
 	private final AbstractOpenemsMbusComponent openemsMbusComponent; // creator of this task instance
-	private final BridgeMbus bridgeMbus;
 
-	public MbusTask(BridgeMbus bridgeMbus, AbstractOpenemsMbusComponent openemsMbusComponent) {
+	public MbusTask(AbstractOpenemsMbusComponent openemsMbusComponent) {
 		this.openemsMbusComponent = openemsMbusComponent;
-		this.bridgeMbus = bridgeMbus;
 	}
 
-	public VariableDataStructure getRequest() throws InterruptedIOException, IOException {
-		return this.bridgeMbus.getmBusConnection().read(this.openemsMbusComponent.getPrimaryAddress());
+	/**
+	 * Reads the device on an open connection.
+	 * 
+	 * <p>
+	 * A device with secondary address is selected first and stays selected; the
+	 * caller deselects it once after reading a batch of devices.
+	 * 
+	 * @param connection the open {@link MBusConnection}
+	 * @return the undecoded response
+	 * @throws InterruptedIOException if the device did not answer in time
+	 * @throws IOException            on connection error
+	 */
+	public VariableDataStructure read(MBusConnection connection) throws InterruptedIOException, IOException {
+		Optional<SecondaryAddress> secondaryAddress = this.openemsMbusComponent.getSecondaryAddress();
+		if (secondaryAddress.isPresent()) {
+			connection.selectComponent(secondaryAddress.get());
+			return connection.read(SELECTED_DEVICE_ADDRESS);
+		}
+		return connection.read(this.openemsMbusComponent.getPrimaryAddress());
 	}
 
 	public void setResponse(VariableDataStructure data) {
@@ -27,4 +51,16 @@ public class MbusTask {
 		return this.openemsMbusComponent.getPrimaryAddress();
 	}
 
-}
\ No newline at end of file
+	public boolean hasSecondaryAddress() {
+		return this.openemsMbusComponent.getSecondaryAddress().isPresent();
+	}
+
+	public int getPollInterval() {
+		return this.openemsMbusComponent.getPollInterval();
+	}
+
+	public AbstractOpenemsMbusComponent getOpenemsMbusComponent() {
+		return this.openemsMbusComponent;
+	}
+
+}
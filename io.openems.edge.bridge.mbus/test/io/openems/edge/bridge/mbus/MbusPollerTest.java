@@ -0,0 +1,99 @@
+package io.openems.edge.bridge.mbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.openems.edge.bridge.mbus.api.AbstractOpenemsMbusComponent;
+import io.openems.edge.bridge.mbus.api.MbusTask;
+import io.openems.edge.common.component.OpenemsComponent;
+
+public class MbusPollerTest {
+
+	private static final long DEFAULT_POLL_INTERVAL = 5_000;
+
+	private static class DummyMbusComponent extends AbstractOpenemsMbusComponent {
+		private DummyMbusComponent() {
+			super(OpenemsComponent.ChannelId.values());
+		}
+
+		@Override
+		protected void addChannelDataRecords() {
+		}
+	}
+
+	private static MbusPoller createPoller() {
+		return new MbusPoller(new BridgeMbusImpl(), () -> {
+			throw new IOException("port not available");
+		}, DEFAULT_POLL_INTERVAL, new Random(0));
+	}
+
+	@Test
+	public void testInterval() {
+		MbusPoller poller = createPoller();
+		Set<Long> defaultIntervals = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			// default of the Bridge plus up to 10 % jitter
+			long interval = poller.getInterval(0);
+			assertTrue(interval >= DEFAULT_POLL_INTERVAL && interval < DEFAULT_POLL_INTERVAL * 11 / 10);
+			defaultIntervals.add(interval);
+
+			// own interval of the device in [s]
+			interval = poller.getInterval(2);
+			assertTrue(interval >= 2_000 && interval < 2_200);
+		}
+		// devices with the same interval are spread
+		assertTrue(defaultIntervals.size() > 10);
+	}
+
+	@Test
+	public void testFirstReadIsDueSoon() {
+		MbusPoller poller = createPoller();
+		long before = System.currentTimeMillis();
+		poller.addTask("meter0", new MbusTask(new DummyMbusComponent()));
+		poller.addTask("meter1", new MbusTask(new DummyMbusComponent()));
+		long after = System.currentTimeMillis();
+
+		for (String id : new String[] { "meter0", "meter1" }) {
+			long nextDue = poller.getNextDue(id);
+			assertTrue(nextDue >= before && nextDue < after + MbusPoller.MIN_RECONNECT_DELAY);
+		}
+
+		poller.removeTask("meter0");
+		assertNull(poller.getNextDue("meter0"));
+	}
+
+	@Test
+	public void testReconnectBackoff() {
+		MbusPoller poller = createPoller();
+		assertEquals(0, poller.getReconnectDelay());
+
+		long[] expected = { 1_000, 2_000, 4_000, 8_000, 16_000, 32_000, 60_000, 60_000 };
+		for (long delay : expected) {
+			assertNull(poller.connect());
+			assertEquals(delay, poller.getReconnectDelay());
+		}
+	}
+
+	@Test
+	public void testAddTaskDoesNotShortenBackoff() throws InterruptedException {
+		MbusPoller poller = createPoller();
+		assertNull(poller.connect());
+
+		poller.addTask("meter0", new MbusTask(new DummyMbusComponent()));
+
+		// no permit was released -> the wait runs into the timeout
+		long start = System.nanoTime();
+		poller.wakeup.awaitOrTimeout(100, TimeUnit.MILLISECONDS);
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+	}
+
+}
@@ -8,6 +8,7 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.event.Event;
 import org.osgi.service.event.EventConstants;
 import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
@@ -17,7 +18,9 @@ import com.ghgande.j2mod.modbus.io.ModbusTCPTransaction;
 import com.ghgande.j2mod.modbus.io.ModbusTransaction;
 import com.ghgande.j2mod.modbus.net.TCPMasterConnection;
 
+import io.openems.common.channel.Unit;
 import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.OpenemsType;
 import io.openems.edge.bridge.modbus.api.AbstractModbusBridge;
 import io.openems.edge.bridge.modbus.api.BridgeModbus;
 import io.openems.edge.bridge.modbus.api.BridgeModbusTcp;
@@ -48,8 +51,25 @@ public class BridgeModbusTcpImpl extends AbstractModbusBridge
 	 */
 	private InetAddress ipAddress = null;
 
+	/**
+	 * Pipelined connections; null if pipelining is disabled.
+	 */
+	private ModbusTcpPipeline[] pipelines = null;
+	private final ModbusTcpPipeline.Statistics pipelineStatistics = new ModbusTcpPipeline.Statistics();
+
 	public enum ChannelId implements io.openems.edge.common.channel.ChannelId {
-		;
+		/**
+		 * Maximum number of simultaneously outstanding transactions during the last
+		 * Cycle. Only available if pipelining is enabled.
+		 */
+		IN_FLIGHT_TRANSACTIONS(Doc.of(OpenemsType.INTEGER)), //
+		/**
+		 * Average response latency of the transactions during the last Cycle. Only
+		 * available if pipelining is enabled.
+		 */
+		TRANSACTION_LATENCY(Doc.of(OpenemsType.LONG) //
+				.unit(Unit.MILLISECONDS));
+
 		private final Doc doc;
 
 		private ChannelId(Doc doc) {
@@ -73,17 +93,61 @@ public class BridgeModbusTcpImpl extends AbstractModbusBridge
 	@Activate
 	protected void activate(ComponentContext context, ConfigTcp config) throws UnknownHostException {
 		super.activate(context, config.id(), config.alias(), config.enabled(), config.logVerbosity(),
-				config.invalidateElementsAfterReadErrors());
+				config.invalidateElementsAfterReadErrors(), config.readTasksMaxGap());
 		this.setIpAddress(InetAddress.getByName(config.ip()));
+		int window = Math.max(1, config.pipelineWindow());
+		int connections = Math.max(1, config.connections());
+		if (window > 1 || connections > 1) {
+			this.pipelines = new ModbusTcpPipeline[connections];
+			for (int i = 0; i < connections; i++) {
+				this.pipelines[i] = new ModbusTcpPipeline(config.id() + ":Pipeline-" + i, this.getIpAddress(),
+						Modbus.DEFAULT_PORT, window, AbstractModbusBridge.DEFAULT_TIMEOUT, this.pipelineStatistics);
+			}
+		}
 	}
 
 	@Deactivate
 	protected void deactivate() {
 		super.deactivate();
+		if (this.pipelines != null) {
+			for (ModbusTcpPipeline pipeline : this.pipelines) {
+				pipeline.close();
+			}
+		}
+	}
+
+	@Override
+	public void handleEvent(Event event) {
+		if (this.pipelines != null
+				&& event.getTopic().equals(EdgeEventConstants.TOPIC_CYCLE_BEFORE_PROCESS_IMAGE)) {
+			this.channel(ChannelId.IN_FLIGHT_TRANSACTIONS)
+					.setNextValue(this.pipelineStatistics.getAndResetMaxInFlight());
+			this.channel(ChannelId.TRANSACTION_LATENCY)
+					.setNextValue(this.pipelineStatistics.getAndResetAverageLatency());
+		}
+		super.handleEvent(event);
+	}
+
+	@Override
+	public int getMaxConcurrentTasks() {
+		if (this.pipelines == null) {
+			return 1;
+		}
+		int result = 0;
+		for (ModbusTcpPipeline pipeline : this.pipelines) {
+			result += pipeline.getWindow();
+		}
+		return result;
 	}
 
 	@Override
 	public void closeModbusConnection() {
+		if (this.pipelines != null) {
+			// keep healthy connections with outstanding transactions of other tasks
+			for (ModbusTcpPipeline pipeline : this.pipelines) {
+				pipeline.closeOnErrors();
+			}
+		}
 		if (this._connection != null) {
 			this._connection.close();
 			this._connection = null;
@@ -92,6 +156,9 @@ public class BridgeModbusTcpImpl extends AbstractModbusBridge
 
 	@Override
 	public ModbusTransaction getNewModbusTransaction() throws OpenemsException {
+		if (this.pipelines != null) {
+			return new PipelinedModbusTransaction(this.pipelines);
+		}
 		TCPMasterConnection connection = this.getModbusConnection();
 		ModbusTCPTransaction transaction = new ModbusTCPTransaction(connection);
 		transaction.setRetries(AbstractModbusBridge.DEFAULT_RETRIES);
@@ -27,6 +27,15 @@ import io.openems.edge.bridge.modbus.api.LogVerbosity;
 
 	@AttributeDefinition(name = "Invalidate elements after how many read Errors?", description = "Increase this value if modbus read errors happen frequently.")
 	int invalidateElementsAfterReadErrors() default 1;
-	
+
+	@AttributeDefinition(name = "Merge read-tasks up to register gap", description = "Combines read-tasks of the same device into one request if the gap between their registers is at most this value; -1 disables merging.")
+	int readTasksMaxGap() default -1;
+
+	@AttributeDefinition(name = "Transactions in flight", description = "Max. number of outstanding requests per connection. Values above 1 enable pipelining; the device has to support it.")
+	int pipelineWindow() default 1;
+
+	@AttributeDefinition(name = "Number of connections", description = "Number of parallel TCP connections to the device. Values above 1 enable pipelining.")
+	int connections() default 1;
+
 	String webconsole_configurationFactory_nameHint() default "Bridge Modbus/TCP [{id}]";
 }
\ No newline at end of file
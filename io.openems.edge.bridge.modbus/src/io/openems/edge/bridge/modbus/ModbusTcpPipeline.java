@@ -0,0 +1,372 @@
+package io.openems.edge.bridge.modbus;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ghgande.j2mod.modbus.ModbusException;
+import com.ghgande.j2mod.modbus.ModbusIOException;
+import com.ghgande.j2mod.modbus.ModbusSlaveException;
+import com.ghgande.j2mod.modbus.msg.ModbusRequest;
+import com.ghgande.j2mod.modbus.msg.ModbusResponse;
+
+/**
+ * A Modbus/TCP connection that keeps multiple transactions in flight.
+ *
+ * <p>
+ * Requests are written to the socket immediately, up to the configured
+ * window. A reader thread matches the responses to the waiting requests by
+ * the transaction identifier of the MBAP header, so the responses may arrive
+ * in any order.
+ */
+public class ModbusTcpPipeline {
+
+	private static final int MBAP_HEADER_LENGTH = 7;
+	private static final int MAX_TRANSACTION_ID = 0xFFFF;
+
+	private final Logger log = LoggerFactory.getLogger(ModbusTcpPipeline.class);
+
+	private final String name;
+	private final InetAddress ipAddress;
+	private final int port;
+	private final int timeout;
+	private final int windowSize;
+	private final Semaphore window;
+	private final Statistics statistics;
+	private final AtomicInteger nextTransactionId = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private Connection connection = null;
+
+	/**
+	 * Creates a {@link ModbusTcpPipeline}.
+	 *
+	 * @param name       the name of the reader thread
+	 * @param ipAddress  the IP address of the Modbus/TCP device
+	 * @param port       the port of the Modbus/TCP device
+	 * @param window     the maximum number of outstanding transactions
+	 * @param timeout    the response timeout in [ms]
+	 * @param statistics the {@link Statistics} to record to
+	 */
+	public ModbusTcpPipeline(String name, InetAddress ipAddress, int port, int window, int timeout,
+			Statistics statistics) {
+		this.name = name;
+		this.ipAddress = ipAddress;
+		this.port = port;
+		this.timeout = timeout;
+		this.windowSize = Math.max(1, window);
+		this.window = new Semaphore(this.windowSize, true);
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Sends the request and waits for the matching response.
+	 *
+	 * @param request the {@link ModbusRequest}
+	 * @return the {@link ModbusResponse}
+	 * @throws ModbusException on error; {@link ModbusSlaveException} if the
+	 *                         device answered with an exception response
+	 */
+	public ModbusResponse execute(ModbusRequest request) throws ModbusException {
+		try {
+			if (!this.window.tryAcquire(this.timeout, TimeUnit.MILLISECONDS)) {
+				throw new ModbusIOException("No free transaction slot within [" + this.timeout + "ms]");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ModbusIOException("Interrupted while waiting for a transaction slot");
+		}
+		this.statistics.onBegin(this.inFlight.incrementAndGet());
+		try {
+			Connection connection = this.getConnection();
+			int transactionId = this.nextTransactionId.updateAndGet(id -> id >= MAX_TRANSACTION_ID ? 1 : id + 1);
+			CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+			connection.pending.put(transactionId, future);
+			long start = System.nanoTime();
+			try {
+				connection.send(transactionId, request);
+				ModbusResponse response = future.get(this.timeout, TimeUnit.MILLISECONDS);
+				this.statistics.onResponse(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				return response;
+
+			} catch (IOException e) {
+				connection.fail(e);
+				throw new ModbusIOException("Sending transaction [" + transactionId + "] failed: " + e.getMessage());
+
+			} catch (TimeoutException e) {
+				connection.hasErrors = true;
+				throw new ModbusIOException(
+						"No response for transaction [" + transactionId + "] within [" + this.timeout + "ms]");
+
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof ModbusException) {
+					throw (ModbusException) e.getCause();
+				}
+				throw new ModbusIOException("Transaction [" + transactionId + "] failed: " + e.getCause());
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ModbusIOException("Interrupted while waiting for transaction [" + transactionId + "]");
+
+			} finally {
+				connection.pending.remove(transactionId);
+			}
+
+		} finally {
+			this.inFlight.decrementAndGet();
+			this.window.release();
+		}
+	}
+
+	/**
+	 * Gets the maximum number of outstanding transactions.
+	 *
+	 * @return the window size
+	 */
+	public int getWindow() {
+		return this.windowSize;
+	}
+
+	/**
+	 * Gets the number of currently outstanding transactions.
+	 *
+	 * @return the number of transactions
+	 */
+	public int getInFlight() {
+		return this.inFlight.get();
+	}
+
+	/**
+	 * Closes the connection if a transaction failed on it. Outstanding
+	 * transactions of a healthy connection are not affected.
+	 */
+	public synchronized void closeOnErrors() {
+		if (this.connection != null && this.connection.hasErrors) {
+			this.close();
+		}
+	}
+
+	/**
+	 * Closes the connection. Outstanding transactions fail.
+	 */
+	public synchronized void close() {
+		if (this.connection != null) {
+			this.connection.fail(new IOException("Connection closed"));
+			this.connection = null;
+		}
+	}
+
+	private synchronized Connection getConnection() throws ModbusIOException {
+		if (this.connection == null || this.connection.isClosed()) {
+			Socket socket = new Socket();
+			try {
+				socket.setTcpNoDelay(true);
+				socket.connect(new InetSocketAddress(this.ipAddress, this.port), this.timeout);
+				this.connection = new Connection(socket);
+			} catch (IOException e) {
+				try {
+					socket.close();
+				} catch (IOException e2) {
+					// ignore
+				}
+				throw new ModbusIOException("Connection to [" + this.ipAddress.getHostAddress() + ":" + this.port
+						+ "] failed: " + e.getMessage());
+			}
+		}
+		return this.connection;
+	}
+
+	/**
+	 * One socket with its reader thread and the transactions waiting for a
+	 * response.
+	 */
+	private class Connection implements Runnable {
+
+		private final Socket socket;
+		private final DataOutputStream out;
+		private final DataInputStream in;
+		private final Map<Integer, CompletableFuture<ModbusResponse>> pending = new ConcurrentHashMap<>();
+		private volatile boolean hasErrors = false;
+
+		private Connection(Socket socket) throws IOException {
+			this.socket = socket;
+			this.out = new DataOutputStream(socket.getOutputStream());
+			this.in = new DataInputStream(socket.getInputStream());
+			Thread reader = new Thread(this, ModbusTcpPipeline.this.name);
+			reader.setDaemon(true);
+			reader.start();
+		}
+
+		private boolean isClosed() {
+			return this.socket.isClosed();
+		}
+
+		/**
+		 * Writes the request with MBAP header.
+		 *
+		 * @param transactionId the transaction identifier
+		 * @param request       the {@link ModbusRequest}
+		 * @throws IOException on error
+		 */
+		private void send(int transactionId, ModbusRequest request) throws IOException {
+			byte[] data = request.getMessage();
+			byte[] frame = new byte[MBAP_HEADER_LENGTH + 1 + data.length];
+			frame[0] = (byte) (transactionId >> 8);
+			frame[1] = (byte) transactionId;
+			// frame[2..3]: protocol identifier = 0
+			int length = data.length + 2; // unit identifier + function code + data
+			frame[4] = (byte) (length >> 8);
+			frame[5] = (byte) length;
+			frame[6] = (byte) request.getUnitID();
+			frame[7] = (byte) request.getFunctionCode();
+			System.arraycopy(data, 0, frame, 8, data.length);
+			synchronized (this.out) {
+				this.out.write(frame);
+				this.out.flush();
+			}
+		}
+
+		@Override
+		public void run() {
+			byte[] header = new byte[MBAP_HEADER_LENGTH];
+			try {
+				while (!this.socket.isClosed()) {
+					this.in.readFully(header);
+					int transactionId = ((header[0] & 0xFF) << 8) | (header[1] & 0xFF);
+					int length = ((header[4] & 0xFF) << 8) | (header[5] & 0xFF);
+					int unitId = header[6] & 0xFF;
+					if (length < 2 || length > 254) {
+						throw new IOException("Invalid MBAP length [" + length + "]");
+					}
+					byte[] pdu = new byte[length - 1];
+					this.in.readFully(pdu);
+
+					CompletableFuture<ModbusResponse> future = this.pending.remove(transactionId);
+					if (future == null) {
+						// e.g. a response that arrived after the timeout
+						ModbusTcpPipeline.this.log.info("Ignoring response for unknown transaction [" + transactionId
+								+ "] from [" + ModbusTcpPipeline.this.name + "]");
+						continue;
+					}
+					try {
+						future.complete(parseResponse(transactionId, unitId, pdu));
+					} catch (ModbusException | IOException e) {
+						future.completeExceptionally(e);
+					}
+				}
+			} catch (IOException e) {
+				this.fail(e);
+			}
+		}
+
+		/**
+		 * Closes the socket and fails all outstanding transactions.
+		 *
+		 * @param cause the cause
+		 */
+		private void fail(IOException cause) {
+			this.hasErrors = true;
+			try {
+				this.socket.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			for (Integer transactionId : this.pending.keySet()) {
+				CompletableFuture<ModbusResponse> future = this.pending.remove(transactionId);
+				if (future != null) {
+					future.completeExceptionally(new ModbusIOException(cause.getMessage()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Parses the PDU of a response.
+	 *
+	 * @param transactionId the transaction identifier
+	 * @param unitId        the unit identifier
+	 * @param pdu           function code and data
+	 * @return the {@link ModbusResponse}
+	 * @throws ModbusException on exception response
+	 * @throws IOException     on invalid data
+	 */
+	private static ModbusResponse parseResponse(int transactionId, int unitId, byte[] pdu)
+			throws ModbusException, IOException {
+		int functionCode = pdu[0] & 0xFF;
+		if ((functionCode & 0x80) != 0) {
+			if (pdu.length < 2) {
+				throw new IOException("Exception response without exception code");
+			}
+			throw new ModbusSlaveException(pdu[1] & 0xFF);
+		}
+		ModbusResponse response = ModbusResponse.createModbusResponse(functionCode);
+		response.setHeadless();
+		response.setUnitID(unitId);
+		response.setTransactionID(transactionId);
+		InputStream data = new ByteArrayInputStream(pdu, 1, pdu.length - 1);
+		response.readData(new DataInputStream(data));
+		return response;
+	}
+
+	/**
+	 * Collects in-flight and latency statistics of one or more
+	 * {@link ModbusTcpPipeline}s.
+	 */
+	public static class Statistics {
+
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+		private final AtomicLong latencySum = new AtomicLong();
+		private final AtomicInteger responses = new AtomicInteger();
+
+		private void onBegin(int inFlight) {
+			this.maxInFlight.accumulateAndGet(inFlight, Math::max);
+		}
+
+		private void onResponse(long latency) {
+			this.latencySum.addAndGet(latency);
+			this.responses.incrementAndGet();
+		}
+
+		/**
+		 * Gets and resets the maximum number of simultaneously outstanding
+		 * transactions.
+		 *
+		 * @return the number of transactions
+		 */
+		public int getAndResetMaxInFlight() {
+			return this.maxInFlight.getAndSet(0);
+		}
+
+		/**
+		 * Gets and resets the average response latency.
+		 *
+		 * @return the latency in [ms]; null if there was no response
+		 */
+		public Long getAndResetAverageLatency() {
+			int responses = this.responses.getAndSet(0);
+			long latencySum = this.latencySum.getAndSet(0);
+			if (responses == 0) {
+				return null;
+			}
+			return latencySum / responses;
+		}
+	}
+
+}
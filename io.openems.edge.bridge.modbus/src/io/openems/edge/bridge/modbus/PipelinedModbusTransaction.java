@@ -0,0 +1,33 @@
+package io.openems.edge.bridge.modbus;
+
+import com.ghgande.j2mod.modbus.ModbusException;
+import com.ghgande.j2mod.modbus.ModbusIOException;
+import com.ghgande.j2mod.modbus.io.ModbusTransaction;
+
+/**
+ * A {@link ModbusTransaction} that is executed on the least busy of one or
+ * more {@link ModbusTcpPipeline}s.
+ */
+public class PipelinedModbusTransaction extends ModbusTransaction {
+
+	private final ModbusTcpPipeline[] pipelines;
+
+	public PipelinedModbusTransaction(ModbusTcpPipeline[] pipelines) {
+		this.pipelines = pipelines;
+	}
+
+	@Override
+	public void execute() throws ModbusException {
+		if (this.request == null) {
+			throw new ModbusIOException("Request is not set");
+		}
+		ModbusTcpPipeline pipeline = this.pipelines[0];
+		for (int i = 1; i < this.pipelines.length; i++) {
+			if (this.pipelines[i].getInFlight() < pipeline.getInFlight()) {
+				pipeline = this.pipelines[i];
+			}
+		}
+		this.response = pipeline.execute(this.request);
+	}
+
+}
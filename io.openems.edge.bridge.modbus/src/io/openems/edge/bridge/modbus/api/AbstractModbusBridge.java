@@ -1,5 +1,7 @@
 package io.openems.edge.bridge.modbus.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
@@ -7,16 +9,26 @@ import org.slf4j.Logger;
 
 import com.ghgande.j2mod.modbus.io.ModbusTransaction;
 
+import io.openems.common.exceptions.OpenemsError;
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
 import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.jsonrpc.base.JsonrpcRequest;
+import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
+import io.openems.common.session.Role;
+import io.openems.common.session.User;
 import io.openems.edge.bridge.modbus.api.ModbusWorker;
+import io.openems.edge.bridge.modbus.api.jsonrpc.GetModbusStatisticsRequest;
+import io.openems.edge.bridge.modbus.api.jsonrpc.GetModbusStatisticsResponse;
 import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.jsonapi.JsonApi;
 
 /**
  * Abstract service for connecting to, querying and writing to a Modbus device.
  */
-public abstract class AbstractModbusBridge extends AbstractOpenemsComponent implements BridgeModbus, EventHandler {
+public abstract class AbstractModbusBridge extends AbstractOpenemsComponent
+		implements BridgeModbus, EventHandler, JsonApi {
 
 	/**
 	 * Default Modbus timeout in [ms].
@@ -36,10 +48,12 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 
 	private LogVerbosity logVerbosity = LogVerbosity.NONE;
 	private int invalidateElementsAfterReadErrors = 1;
+	private int readTasksMaxGap = -1;
 
 	// private final Logger log =
 	// LoggerFactory.getLogger(AbstractModbusBridge.class);
 	private final ModbusWorker worker = new ModbusWorker(this);
+	private final TransactionStatistics transactionStatistics = new TransactionStatistics();
 
 	protected AbstractModbusBridge(io.openems.edge.common.channel.ChannelId[] firstInitialChannelIds,
 			io.openems.edge.common.channel.ChannelId[]... furtherInitialChannelIds) {
@@ -48,9 +62,15 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 
 	protected void activate(ComponentContext context, String id, String alias, boolean enabled,
 			LogVerbosity logVerbosity, int invalidateElementsAfterReadErrors) {
+		this.activate(context, id, alias, enabled, logVerbosity, invalidateElementsAfterReadErrors, -1);
+	}
+
+	protected void activate(ComponentContext context, String id, String alias, boolean enabled,
+			LogVerbosity logVerbosity, int invalidateElementsAfterReadErrors, int readTasksMaxGap) {
 		super.activate(context, id, alias, enabled);
 		this.logVerbosity = logVerbosity;
 		this.invalidateElementsAfterReadErrors = invalidateElementsAfterReadErrors;
+		this.readTasksMaxGap = readTasksMaxGap;
 		if (this.isEnabled()) {
 			this.worker.activate(id);
 		}
@@ -142,4 +162,61 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 	public int invalidateElementsAfterReadErrors() {
 		return this.invalidateElementsAfterReadErrors;
 	}
+
+	/**
+	 * Gets the latency and error statistics of the Modbus transactions.
+	 * 
+	 * @return the {@link TransactionStatistics}
+	 */
+	public TransactionStatistics getTransactionStatistics() {
+		return this.transactionStatistics;
+	}
+
+	@Override
+	public CompletableFuture<? extends JsonrpcResponseSuccess> handleJsonrpcRequest(User user, JsonrpcRequest request)
+			throws OpenemsNamedException {
+		user.assertRoleIsAtLeast("handleJsonrpcRequest", Role.GUEST);
+
+		switch (request.getMethod()) {
+
+		case GetModbusStatisticsRequest.METHOD:
+			return this.handleGetModbusStatisticsRequest(user, GetModbusStatisticsRequest.from(request));
+
+		default:
+			throw OpenemsError.JSONRPC_UNHANDLED_METHOD.exception(request.getMethod());
+		}
+	}
+
+	/**
+	 * Handles a GetModbusStatisticsRequest.
+	 * 
+	 * @param user    the User
+	 * @param request the GetModbusStatisticsRequest
+	 * @return the Future JSON-RPC Response
+	 * @throws OpenemsNamedException on error
+	 */
+	private CompletableFuture<JsonrpcResponseSuccess> handleGetModbusStatisticsRequest(User user,
+			GetModbusStatisticsRequest request) throws OpenemsNamedException {
+		return CompletableFuture.completedFuture(new GetModbusStatisticsResponse(request.getId(),
+				this.transactionStatistics, this.worker.getAllTasksBySourceId()));
+	}
+
+	/**
+	 * Gets the maximum number of Tasks that may be executed in parallel. Bridges
+	 * that are able to handle multiple transactions at once override this method.
+	 * 
+	 * @return the number of Tasks; 1 for sequential execution
+	 */
+	public int getMaxConcurrentTasks() {
+		return 1;
+	}
+
+	/**
+	 * Up to which register gap should Read-Tasks be merged? -1 disables merging.
+	 * 
+	 * @return value
+	 */
+	public int getReadTasksMaxGap() {
+		return this.readTasksMaxGap;
+	}
 }
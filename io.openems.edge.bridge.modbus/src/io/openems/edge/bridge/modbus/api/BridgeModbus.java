@@ -4,6 +4,7 @@ import org.osgi.annotation.versioning.ProviderType;
 
 import io.openems.common.channel.Debounce;
 import io.openems.common.channel.Level;
+import io.openems.common.channel.Unit;
 import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.Doc;
 import io.openems.edge.common.component.OpenemsComponent;
@@ -16,7 +17,24 @@ public interface BridgeModbus extends OpenemsComponent {
 				.debounce(10, Debounce.TRUE_VALUES_IN_A_ROW_TO_SET_TRUE)), //
 		CYCLE_TIME_IS_TOO_SHORT(Doc.of(Level.WARNING) //
 				.debounce(10, Debounce.TRUE_VALUES_IN_A_ROW_TO_SET_TRUE)), //
-		EXECUTION_DURATION(Doc.of(OpenemsType.LONG));
+		EXECUTION_DURATION(Doc.of(OpenemsType.LONG)), //
+		/**
+		 * 95th percentile of the recent transaction durations.
+		 */
+		TRANSACTION_DURATION_P95(Doc.of(OpenemsType.LONG) //
+				.unit(Unit.MILLISECONDS)), //
+		/**
+		 * Number of transactions without valid response since activation.
+		 */
+		TIMEOUTS(Doc.of(OpenemsType.LONG)), //
+		/**
+		 * Number of Modbus exception responses since activation.
+		 */
+		EXCEPTION_RESPONSES(Doc.of(OpenemsType.LONG)), //
+		/**
+		 * Number of Task retries since activation.
+		 */
+		RETRIES(Doc.of(OpenemsType.LONG));
 
 		private final Doc doc;
 
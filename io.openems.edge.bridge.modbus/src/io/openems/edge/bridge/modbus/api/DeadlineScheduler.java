@@ -0,0 +1,304 @@
+package io.openems.edge.bridge.modbus.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.openems.edge.bridge.modbus.api.task.ReadTask;
+import io.openems.edge.bridge.modbus.api.task.Task;
+import io.openems.edge.bridge.modbus.api.task.WaitTask;
+import io.openems.edge.bridge.modbus.api.task.WriteTask;
+import io.openems.edge.common.taskmanager.Priority;
+
+/**
+ * Plans the Modbus-Tasks of one Cycle by deadlines.
+ *
+ * <p>
+ * Every Read-Task has a freshness target that is derived from its
+ * {@link Priority}: HIGH tasks are read every Cycle, LOW tasks at least every
+ * {@link #DEFAULT_LOW_PRIORITY_FRESHNESS} Cycles and ONCE tasks as soon as
+ * possible until they were executed successfully. The urgency of a LOW or ONCE
+ * task is its age relative to its freshness target, i.e. it grows ('ages') with
+ * every Cycle in which it is not scheduled.
+ *
+ * <p>
+ * The time of a Cycle that is not required by HIGH tasks and Write-Tasks is
+ * filled with the most urgent LOW and ONCE tasks. On a saturated bus, the most
+ * urgent overdue task is still scheduled once per Cycle, so no task starves.
+ *
+ * <p>
+ * Within the Cycle, LOW and ONCE tasks are executed first, Write-Tasks directly
+ * after the TOPIC_CYCLE_EXECUTE_WRITE event and HIGH tasks last, to have their
+ * values as fresh as possible at the next TOPIC_CYCLE_BEFORE_PROCESS_IMAGE
+ * event.
+ *
+ * <p>
+ * This class is not thread-safe; it is called once per Cycle by the
+ * {@link ModbusWorker}.
+ */
+public class DeadlineScheduler {
+
+	/**
+	 * Default freshness target of LOW priority tasks in [Cycles].
+	 */
+	public static final int DEFAULT_LOW_PRIORITY_FRESHNESS = 30;
+
+	/**
+	 * Buffer in [ms] that is kept free in every Cycle.
+	 */
+	public static final long TASK_DURATION_BUFFER = 50;
+
+	/**
+	 * Tasks are used to fill idle time once they reached this share of their
+	 * freshness target.
+	 */
+	private static final double FILL_URGENCY = 0.5;
+
+	/**
+	 * The result of {@link DeadlineScheduler#plan(long, long, List, List)}.
+	 */
+	public static class Schedule {
+
+		private final List<Task> tasks;
+		private final long duration;
+		private final long requiredCycles;
+
+		private Schedule(List<Task> tasks, long duration, long requiredCycles) {
+			this.tasks = Collections.unmodifiableList(tasks);
+			this.duration = duration;
+			this.requiredCycles = requiredCycles;
+		}
+
+		/**
+		 * Gets the Tasks in the order of their execution.
+		 *
+		 * @return the list of Tasks, including {@link WaitTask}s
+		 */
+		public List<Task> getTasks() {
+			return this.tasks;
+		}
+
+		/**
+		 * Gets the expected duration of all Read- and Write-Tasks.
+		 *
+		 * @return the duration in [ms]
+		 */
+		public long getDuration() {
+			return this.duration;
+		}
+
+		/**
+		 * Gets the number of Cycles that are required to execute all Tasks.
+		 *
+		 * @return the number of Cycles
+		 */
+		public long getRequiredCycles() {
+			return this.requiredCycles;
+		}
+	}
+
+	private final int lowPriorityFreshness;
+
+	// Time of the last scheduling per LOW and ONCE task
+	private final Map<ReadTask, Long> lastScheduled = new WeakHashMap<>();
+
+	public DeadlineScheduler() {
+		this(DEFAULT_LOW_PRIORITY_FRESHNESS);
+	}
+
+	/**
+	 * Creates a {@link DeadlineScheduler}.
+	 *
+	 * @param lowPriorityFreshness the freshness target of LOW priority tasks in
+	 *                             [Cycles]
+	 */
+	public DeadlineScheduler(int lowPriorityFreshness) {
+		this.lowPriorityFreshness = Math.max(1, lowPriorityFreshness);
+	}
+
+	/**
+	 * Gets the freshness target of a Task, i.e. the maximum desired time between
+	 * two executions.
+	 *
+	 * @param priority  the {@link Priority} of the Task
+	 * @param cycleTime the Cycle-Time in [ms]
+	 * @return the freshness target in [ms]
+	 */
+	public long getFreshnessTarget(Priority priority, long cycleTime) {
+		switch (priority) {
+		case HIGH:
+		case ONCE:
+			return cycleTime;
+		case LOW:
+			return this.lowPriorityFreshness * cycleTime;
+		}
+		return cycleTime;
+	}
+
+	/**
+	 * Selects the Read-Tasks for the next Cycle.
+	 *
+	 * <p>
+	 * All HIGH tasks are selected. The remaining time of the Cycle is filled with
+	 * LOW and ONCE tasks in the order of their urgency.
+	 *
+	 * @param now        the current time in [ms]
+	 * @param cycleTime  the Cycle-Time in [ms]
+	 * @param highTasks  the HIGH priority Read-Tasks
+	 * @param lowTasks   the LOW priority Read-Tasks
+	 * @param onceTasks  the ONCE priority Read-Tasks
+	 * @param writeTasks the Write-Tasks of the next Cycle
+	 * @return the selected Read-Tasks; LOW and ONCE tasks first
+	 */
+	public List<ReadTask> selectReadTasks(long now, long cycleTime, Collection<ReadTask> highTasks,
+			Collection<ReadTask> lowTasks, Collection<ReadTask> onceTasks, Collection<WriteTask> writeTasks) {
+		long budget = cycleTime - TASK_DURATION_BUFFER - sumExecuteDurations(highTasks)
+				- sumExecuteDurations(writeTasks);
+
+		// Collect candidates with their urgency; ONCE tasks only until they succeeded
+		List<Candidate> candidates = new ArrayList<>();
+		for (ReadTask task : onceTasks) {
+			if (!task.hasBeenExecuted()) {
+				candidates.add(new Candidate(task, this.getUrgency(task, now, cycleTime)));
+			}
+		}
+		for (ReadTask task : lowTasks) {
+			candidates.add(new Candidate(task, this.getUrgency(task, now, cycleTime)));
+		}
+		// stable sort keeps the original order for equal urgencies
+		candidates.sort(Comparator.comparingDouble((Candidate c) -> c.urgency).reversed());
+
+		List<ReadTask> result = new ArrayList<>();
+		for (Candidate candidate : candidates) {
+			long duration = candidate.task.getExecuteDuration();
+			if (result.isEmpty() && candidate.urgency >= 1) {
+				// overdue tasks get at least one slot per Cycle, even on a saturated bus
+				result.add(candidate.task);
+				budget -= duration;
+
+			} else if (candidate.urgency >= FILL_URGENCY && duration <= budget) {
+				// fill idle time
+				result.add(candidate.task);
+				budget -= duration;
+			}
+		}
+		for (ReadTask task : result) {
+			this.lastScheduled.put(task, now);
+		}
+
+		result.addAll(highTasks);
+		return result;
+	}
+
+	/**
+	 * Plans the execution order of the Tasks of the next Cycle.
+	 *
+	 * <p>
+	 * Read-Tasks that fit before the TOPIC_CYCLE_EXECUTE_WRITE event are executed
+	 * first, followed by the Write-Tasks and the remaining Read-Tasks. A leading
+	 * {@link WaitTask} delays the execution, so that the Write-Tasks start right
+	 * after - and never before - the TOPIC_CYCLE_EXECUTE_WRITE event.
+	 *
+	 * @param cycleTime                the Cycle-Time in [ms]
+	 * @param durationTillExecuteWrite the measured duration between
+	 *                                 TOPIC_CYCLE_BEFORE_PROCESS_IMAGE and
+	 *                                 TOPIC_CYCLE_EXECUTE_WRITE events in [ms]
+	 * @param readTasks                the Read-Tasks as returned by
+	 *                                 {@link #selectReadTasks(long, long, Collection, Collection, Collection, Collection)}
+	 * @param writeTasks               the Write-Tasks
+	 * @return the {@link Schedule}
+	 */
+	public Schedule plan(long cycleTime, long durationTillExecuteWrite, List<ReadTask> readTasks,
+			List<WriteTask> writeTasks) {
+		long duration = sumExecuteDurations(readTasks) + sumExecuteDurations(writeTasks);
+		long durationWithBuffer = duration + TASK_DURATION_BUFFER;
+		long requiredCycles = ceilDiv(durationWithBuffer, cycleTime);
+
+		// Read-Tasks that are executed before the ExecuteWrite event
+		int noOfTasksBeforeExecuteWrite = 0;
+		long durationBeforeExecuteWrite = 0;
+		for (ReadTask task : readTasks) {
+			if (durationBeforeExecuteWrite + task.getExecuteDuration() > durationTillExecuteWrite) {
+				break;
+			}
+			noOfTasksBeforeExecuteWrite++;
+			durationBeforeExecuteWrite += task.getExecuteDuration();
+		}
+
+		// Wait till the Write-Tasks can start right after the ExecuteWrite event, but
+		// never longer than the idle time of the planned Cycles. Without enough idle
+		// time, another Read-Task is executed first: Write-Tasks must not start before
+		// the ExecuteWrite event, as they would write the values of the last Cycle.
+		long idleTime = requiredCycles * cycleTime - durationWithBuffer;
+		while (durationTillExecuteWrite - durationBeforeExecuteWrite > idleTime
+				&& noOfTasksBeforeExecuteWrite < readTasks.size()) {
+			durationBeforeExecuteWrite += readTasks.get(noOfTasksBeforeExecuteWrite).getExecuteDuration();
+			noOfTasksBeforeExecuteWrite++;
+		}
+		long wait = Math.min(idleTime, durationTillExecuteWrite - durationBeforeExecuteWrite);
+
+		List<Task> tasks = new ArrayList<>(readTasks.size() + writeTasks.size() + 1);
+		if (wait > 0) {
+			tasks.add(new WaitTask(wait));
+		}
+		tasks.addAll(readTasks.subList(0, noOfTasksBeforeExecuteWrite));
+		tasks.addAll(writeTasks);
+		tasks.addAll(readTasks.subList(noOfTasksBeforeExecuteWrite, readTasks.size()));
+		return new Schedule(tasks, duration, requiredCycles);
+	}
+
+	/**
+	 * Gets the urgency of a LOW or ONCE task, i.e. its age relative to its
+	 * freshness target. Tasks that were never scheduled are most urgent.
+	 *
+	 * @param task      the Read-Task
+	 * @param now       the current time in [ms]
+	 * @param cycleTime the Cycle-Time in [ms]
+	 * @return the urgency; values greater or equal 1 mean 'overdue'
+	 */
+	private double getUrgency(ReadTask task, long now, long cycleTime) {
+		Long lastScheduled = this.lastScheduled.get(task);
+		if (lastScheduled == null) {
+			return Double.MAX_VALUE;
+		}
+		return (double) (now - lastScheduled) / this.getFreshnessTarget(task.getPriority(), cycleTime);
+	}
+
+	private static long sumExecuteDurations(Collection<? extends Task> tasks) {
+		long result = 0;
+		for (Task task : tasks) {
+			result += task.getExecuteDuration();
+		}
+		return result;
+	}
+
+	/**
+	 * This is a helper function. It calculates the opposite of Math.floorDiv().
+	 *
+	 * <p>
+	 * Source:
+	 * https://stackoverflow.com/questions/27643616/ceil-conterpart-for-math-floordiv-in-java
+	 *
+	 * @param x the dividend
+	 * @param y the divisor
+	 * @return the result of the division, rounded up
+	 */
+	private static long ceilDiv(long x, long y) {
+		return -Math.floorDiv(-x, y);
+	}
+
+	private static class Candidate {
+		private final ReadTask task;
+		private final double urgency;
+
+		private Candidate(ReadTask task, double urgency) {
+			this.task = task;
+			this.urgency = urgency;
+		}
+	}
+
+}
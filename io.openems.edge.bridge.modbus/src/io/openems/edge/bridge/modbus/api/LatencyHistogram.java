@@ -0,0 +1,149 @@
+package io.openems.edge.bridge.modbus.api;
+
+/**
+ * A compact histogram for latencies in milliseconds, similar to an
+ * HdrHistogram with 3 significant bits.
+ *
+ * <p>
+ * Values below 16 ms are counted exactly; above, each power of two is split
+ * into 8 buckets, i.e. the relative error is at most 12.5 %. Values above
+ * {@link #MAX_VALUE} are counted in the last bucket.
+ *
+ * <p>
+ * Once {@link #MAX_COUNT} values are recorded, all bucket counts are halved,
+ * i.e. older samples lose half of their weight with every
+ * {@link #MAX_COUNT}/2 new samples. Percentiles therefore follow changes of
+ * the device behaviour within several hundred samples.
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Highest value with its own bucket: 2^20 ms, approx. 17 minutes.
+	 */
+	public static final long MAX_VALUE = (1L << 20) - 1;
+
+	/**
+	 * Number of samples after which the counts decay.
+	 */
+	public static final int MAX_COUNT = 256;
+
+	private static final int LINEAR_BUCKETS = 16;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int NO_OF_BUCKETS = getIndex(MAX_VALUE) + 1;
+
+	private final int[] counts = new int[NO_OF_BUCKETS];
+	private int count = 0;
+	private long totalCount = 0;
+	private long max = 0;
+	private long last = 0;
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value the latency in [ms]
+	 */
+	public synchronized void record(long value) {
+		value = Math.max(0, value);
+		this.counts[getIndex(Math.min(value, MAX_VALUE))]++;
+		this.count++;
+		this.totalCount++;
+		this.max = Math.max(this.max, value);
+		this.last = value;
+		if (this.count >= MAX_COUNT) {
+			this.decay();
+		}
+	}
+
+	/**
+	 * Gets the value at the given percentile. The upper bound of the matching
+	 * bucket is returned, i.e. the result errs on the safe side.
+	 *
+	 * @param percentile the percentile, e.g. 95
+	 * @return the latency in [ms]; 0 if no value was recorded
+	 */
+	public synchronized long getPercentile(double percentile) {
+		if (this.count == 0) {
+			return 0;
+		}
+		long threshold = (long) Math.ceil(this.count * Math.min(100, Math.max(0, percentile)) / 100.);
+		threshold = Math.max(1, threshold);
+		long sum = 0;
+		for (int i = 0; i < NO_OF_BUCKETS; i++) {
+			sum += this.counts[i];
+			if (sum >= threshold) {
+				return Math.min(getUpperBound(i), this.max);
+			}
+		}
+		return this.max;
+	}
+
+	/**
+	 * Gets the number of values that are currently weighted in the histogram.
+	 *
+	 * @return the number of values
+	 */
+	public synchronized int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Gets the total number of recorded values since creation.
+	 *
+	 * @return the number of values
+	 */
+	public synchronized long getTotalCount() {
+		return this.totalCount;
+	}
+
+	/**
+	 * Gets the highest recorded value since creation.
+	 *
+	 * @return the latency in [ms]
+	 */
+	public synchronized long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Gets the last recorded value.
+	 *
+	 * @return the latency in [ms]
+	 */
+	public synchronized long getLast() {
+		return this.last;
+	}
+
+	/**
+	 * Halves all counts.
+	 */
+	private void decay() {
+		int count = 0;
+		for (int i = 0; i < NO_OF_BUCKETS; i++) {
+			this.counts[i] = this.counts[i] >> 1;
+			count += this.counts[i];
+		}
+		this.count = count;
+	}
+
+	protected static int getIndex(long value) {
+		if (value < LINEAR_BUCKETS) {
+			return (int) value;
+		}
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		int shift = msb - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >> shift) - SUB_BUCKETS;
+		return LINEAR_BUCKETS + (msb - 4) * SUB_BUCKETS + subBucket;
+	}
+
+	protected static long getUpperBound(int index) {
+		if (index < LINEAR_BUCKETS) {
+			return index;
+		}
+		int msb = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+		int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+		int shift = msb - SUB_BUCKET_BITS;
+		return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -2,28 +2,32 @@ package io.openems.edge.bridge.modbus.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.worker.AbstractImmediateWorker;
 import io.openems.edge.bridge.modbus.api.element.ModbusElement;
 import io.openems.edge.bridge.modbus.api.task.ReadTask;
+import io.openems.edge.bridge.modbus.api.task.ReadTaskOptimizer;
 import io.openems.edge.bridge.modbus.api.task.Task;
-import io.openems.edge.bridge.modbus.api.task.WaitTask;
 import io.openems.edge.bridge.modbus.api.task.WriteTask;
 import io.openems.edge.common.channel.LongReadChannel;
 import io.openems.edge.common.channel.StateChannel;
@@ -38,25 +42,31 @@ import io.openems.edge.common.taskmanager.Priority;
  * It tries to execute all Write-Tasks as early as possible (directly after the
  * TOPIC_CYCLE_EXECUTE_WRITE event) and all Read-Tasks as late as possible to
  * have correct values available exactly when they are needed (i.e. at the
- * TOPIC_CYCLE_BEFORE_PROCESS_IMAGE event).
+ * TOPIC_CYCLE_BEFORE_PROCESS_IMAGE event). The Tasks of each Cycle are planned
+ * by the {@link DeadlineScheduler}.
  */
 public class ModbusWorker extends AbstractImmediateWorker {
 
-	private static final long TASK_DURATION_BUFFER = 50;
-
 	private final Logger log = LoggerFactory.getLogger(ModbusWorker.class);
 	// Measures the Cycle-Length between two consecutive BeforeProcessImage events
 	private final Stopwatch cycleStopwatch = Stopwatch.createUnstarted();
 	private final LinkedBlockingDeque<Task> tasksQueue = new LinkedBlockingDeque<>();
 	private final MetaTasksManager<ReadTask> readTasksManager = new MetaTasksManager<>();
 	private final MetaTasksManager<WriteTask> writeTasksManager = new MetaTasksManager<>();
+	private final ReadTaskOptimizer readTaskOptimizer = new ReadTaskOptimizer();
+	private final DeadlineScheduler scheduler = new DeadlineScheduler();
 	// Holds source Component-IDs that are known to have errors.
-	private final Set<String> defectiveComponents = new HashSet<>();
+	private final Set<String> defectiveComponents = ConcurrentHashMap.newKeySet();
 	private final AbstractModbusBridge parent;
 
 	// The measured duration between BeforeProcessImage event and ExecuteWrite event
 	private long durationBetweenBeforeProcessImageTillExecuteWrite = 0;
 
+	// Executes ReadTasks in parallel if the Bridge supports multiple transactions
+	private ExecutorService readTasksExecutor = null;
+	private Semaphore readTasksPermits = null;
+	private int maxConcurrentTasks = 1;
+
 	protected ModbusWorker(AbstractModbusBridge parent) {
 		this.parent = parent;
 	}
@@ -79,34 +89,48 @@ public class ModbusWorker extends AbstractImmediateWorker {
 			return;
 		}
 
-		// Collect the next read-tasks
-		List<ReadTask> nextReadTasks = new ArrayList<>();
-		ReadTask lowPriorityTask = this.getOneLowPriorityReadTask();
-		if (lowPriorityTask != null) {
-			nextReadTasks.add(lowPriorityTask);
-		}
-		nextReadTasks.addAll(this.getAllHighPriorityReadTasks());
-		long readTasksDuration = 0;
-		for (ReadTask task : nextReadTasks) {
-			readTasksDuration += task.getExecuteDuration();
-		}
-
 		// collect the next write-tasks
-		long writeTasksDuration = 0;
 		List<WriteTask> nextWriteTasks = this.getAllWriteTasks();
-		for (WriteTask task : nextWriteTasks) {
-			writeTasksDuration += task.getExecuteDuration();
-		}
+
+		// Select the next read-tasks by their deadlines; defective Components are
+		// probed with only one read-task of any priority
+		Set<String> probedComponents = new HashSet<>();
+		List<ReadTask> highTasks = this.filterDefectiveComponents(
+				this.readTasksManager.getAllTasksBySourceId(Priority.HIGH), probedComponents);
+		List<ReadTask> lowTasks = this.filterDefectiveComponents(
+				this.readTasksManager.getAllTasksBySourceId(Priority.LOW), probedComponents);
+		List<ReadTask> onceTasks = this.filterDefectiveComponents(
+				this.readTasksManager.getAllTasksBySourceId(Priority.ONCE), probedComponents);
+		List<ReadTask> nextReadTasks = this.scheduler.selectReadTasks(System.currentTimeMillis(), cycleTime,
+				highTasks, lowTasks, onceTasks, nextWriteTasks);
+
+		// merge read-tasks with small register gaps to reduce the number of requests
+		nextReadTasks = this.readTaskOptimizer.optimize(nextReadTasks, this.parent.getReadTasksMaxGap());
 
 		// plan the execution for the next cycles
-		long totalDuration = readTasksDuration + writeTasksDuration;
-		long totalDurationWithBuffer = totalDuration + TASK_DURATION_BUFFER;
-		long noOfRequiredCycles = ceilDiv(totalDurationWithBuffer, cycleTime);
+		DeadlineScheduler.Schedule schedule = this.scheduler.plan(cycleTime,
+				this.durationBetweenBeforeProcessImageTillExecuteWrite, nextReadTasks, nextWriteTasks);
+		long totalDuration = schedule.getDuration();
+		long noOfRequiredCycles = schedule.getRequiredCycles();
 
 		// Set EXECUTION_DURATION channel
 		LongReadChannel executionDurationChannel = this.parent.channel(BridgeModbus.ChannelId.EXECUTION_DURATION);
 		executionDurationChannel.setNextValue(totalDuration);
 
+		// Set transaction statistics channels
+		TransactionStatistics statistics = this.parent.getTransactionStatistics();
+		if (statistics.getTotal().getLatencies().getCount() > 0) {
+			LongReadChannel transactionDurationChannel = this.parent
+					.channel(BridgeModbus.ChannelId.TRANSACTION_DURATION_P95);
+			transactionDurationChannel.setNextValue(statistics.getTotal().getLatencies().getPercentile(95));
+		}
+		LongReadChannel timeoutsChannel = this.parent.channel(BridgeModbus.ChannelId.TIMEOUTS);
+		timeoutsChannel.setNextValue(statistics.getTotal().getTimeouts());
+		LongReadChannel exceptionResponsesChannel = this.parent.channel(BridgeModbus.ChannelId.EXCEPTION_RESPONSES);
+		exceptionResponsesChannel.setNextValue(statistics.getTotal().getExceptionResponses());
+		LongReadChannel retriesChannel = this.parent.channel(BridgeModbus.ChannelId.RETRIES);
+		retriesChannel.setNextValue(statistics.getRetries());
+
 		// Set CYCLE_TIME_IS_TOO_SHORT state-channel if more than one cycle is required;
 		// but only if SlaveCommunicationFailed-Channel is not set
 		StateChannel cycleTimeIsTooShortChannel = this.parent.channel(BridgeModbus.ChannelId.CYCLE_TIME_IS_TOO_SHORT);
@@ -116,43 +140,11 @@ public class ModbusWorker extends AbstractImmediateWorker {
 			cycleTimeIsTooShortChannel.setNextValue(false);
 		}
 
-		long durationOfTasksBeforeExecuteWriteEvent = 0;
-		int noOfTasksBeforeExecuteWriteEvent = 0;
-		for (ReadTask task : nextReadTasks) {
-			if (durationOfTasksBeforeExecuteWriteEvent > this.durationBetweenBeforeProcessImageTillExecuteWrite) {
-				break;
-			}
-			noOfTasksBeforeExecuteWriteEvent++;
-			durationOfTasksBeforeExecuteWriteEvent += task.getExecuteDuration();
-		}
-
-		// Build Queue
-		Deque<Task> tasksQueue = new LinkedList<>();
-
-		// Add all write-tasks to the queue
-		tasksQueue.addAll(nextWriteTasks);
-
-		// Add all read-tasks to the queue
-		for (int i = 0; i < nextReadTasks.size(); i++) {
-			ReadTask task = nextReadTasks.get(i);
-			if (i < noOfTasksBeforeExecuteWriteEvent) {
-				// this Task will be executed before ExecuteWrite event -> add it to the end of
-				// the queue
-				tasksQueue.addLast(task);
-			} else {
-				// this Task will be executed after ExecuteWrite event -> add it to the
-				// beginning of the queue
-				tasksQueue.addFirst(task);
-			}
-		}
-
-		// Add a waiting-task to the end of the queue
-		long waitTillStart = noOfRequiredCycles * cycleTime - totalDurationWithBuffer;
-		tasksQueue.addLast(new WaitTask(waitTillStart));
-
-		// Copy all Tasks to the global tasks-queue
+		// Copy all Tasks to the global tasks-queue; it is executed from its end
 		this.tasksQueue.clear();
-		this.tasksQueue.addAll(tasksQueue);
+		for (Task task : schedule.getTasks()) {
+			this.tasksQueue.addFirst(task);
+		}
 	}
 
 	/**
@@ -171,6 +163,49 @@ public class ModbusWorker extends AbstractImmediateWorker {
 	@Override
 	protected void forever() throws InterruptedException {
 		Task task = this.tasksQueue.takeLast();
+		int maxConcurrentTasks = this.parent.getMaxConcurrentTasks();
+		if (maxConcurrentTasks > 1 && task instanceof ReadTask) {
+			// execute ReadTasks in parallel; the bridge pipelines the transactions
+			Semaphore permits = this.getReadTasksPermits(maxConcurrentTasks);
+			permits.acquire();
+			try {
+				this.readTasksExecutor.execute(() -> {
+					try {
+						this.execute(task);
+					} finally {
+						permits.release();
+					}
+				});
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+
+		} else {
+			// wait for parallel ReadTasks to finish; WriteTasks and WaitTasks keep their
+			// order
+			if (this.readTasksPermits != null) {
+				this.readTasksPermits.acquire(this.maxConcurrentTasks);
+				this.readTasksPermits.release(this.maxConcurrentTasks);
+			}
+			this.execute(task);
+		}
+	}
+
+	@Override
+	public void deactivate() {
+		super.deactivate();
+		if (this.readTasksExecutor != null) {
+			this.readTasksExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Executes a Task and handles errors.
+	 * 
+	 * @param task the Task
+	 */
+	private void execute(Task task) {
 		try {
 			// execute the task
 			int noOfExecutedSubTasks = task.execute(this.parent);
@@ -204,38 +239,31 @@ public class ModbusWorker extends AbstractImmediateWorker {
 	}
 
 	/**
-	 * Gets one Read-Tasks with priority Low or Once.
+	 * Gets the Semaphore that limits the number of parallel ReadTasks. Creates the
+	 * thread-pool on first use.
 	 * 
-	 * @return a list of ReadTasks by Source-ID
+	 * @param maxConcurrentTasks the maximum number of parallel ReadTasks
+	 * @return the Semaphore
+	 * @throws InterruptedException on interrupt while waiting for running tasks
 	 */
-	private ReadTask getOneLowPriorityReadTask() {
-		// Get next Priority ONCE task
-		ReadTask oncePriorityTask = this.readTasksManager.getOneTask(Priority.ONCE);
-		if (oncePriorityTask != null && !oncePriorityTask.hasBeenExecuted()) {
-			return oncePriorityTask;
-
-		} else {
-			// No more Priority ONCE tasks available -> add Priority LOW task
-			ReadTask lowPriorityTask = this.readTasksManager.getOneTask(Priority.LOW);
-			if (lowPriorityTask != null) {
-				return lowPriorityTask;
-			}
+	private Semaphore getReadTasksPermits(int maxConcurrentTasks) throws InterruptedException {
+		if (this.readTasksExecutor != null && this.maxConcurrentTasks == maxConcurrentTasks) {
+			return this.readTasksPermits;
 		}
-		return null;
-	}
-
-	/**
-	 * Gets all the High-Priority Read-Tasks.
-	 * 
-	 * <p>
-	 * This checks if a device is listed as defective and - if it is - adds only one
-	 * ReadTask of this Source-Component to the queue
-	 * 
-	 * @return a list of ReadTasks
-	 */
-	private List<ReadTask> getAllHighPriorityReadTasks() {
-		Multimap<String, ReadTask> tasks = this.readTasksManager.getAllTasksBySourceId(Priority.HIGH);
-		return this.filterDefectiveComponents(tasks);
+		if (this.readTasksExecutor != null) {
+			// configuration changed -> wait for running tasks and replace the pool
+			this.readTasksPermits.acquire(this.maxConcurrentTasks);
+			this.readTasksExecutor.shutdown();
+		}
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.readTasksExecutor = Executors.newFixedThreadPool(maxConcurrentTasks, runnable -> {
+			Thread thread = new Thread(runnable, this.parent.id() + ":ReadTask-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.readTasksPermits = new Semaphore(maxConcurrentTasks);
+		this.maxConcurrentTasks = maxConcurrentTasks;
+		return this.readTasksPermits;
 	}
 
 	/**
@@ -249,7 +277,7 @@ public class ModbusWorker extends AbstractImmediateWorker {
 	 */
 	private List<WriteTask> getAllWriteTasks() {
 		Multimap<String, WriteTask> tasks = this.writeTasksManager.getAllTasksBySourceId();
-		return this.filterDefectiveComponents(tasks);
+		return this.filterDefectiveComponents(tasks, new HashSet<>());
 	}
 
 	/**
@@ -257,11 +285,14 @@ public class ModbusWorker extends AbstractImmediateWorker {
 	 * to be defective, only one task is added; otherwise all tasks are added to the
 	 * result. The idea is to not execute tasks that are known to fail.
 	 * 
-	 * @param <T>   the Task type
-	 * @param tasks Tasks by Component-ID
+	 * @param <T>              the Task type
+	 * @param tasks            Tasks by Component-ID
+	 * @param probedComponents the IDs of defective Components that already got
+	 *                         their one task; no further task is added for them
 	 * @return a list of filtered tasks
 	 */
-	private <T extends Task> List<T> filterDefectiveComponents(Multimap<String, T> tasks) {
+	private <T extends Task> List<T> filterDefectiveComponents(Multimap<String, T> tasks,
+			Set<String> probedComponents) {
 		List<T> result = new ArrayList<>();
 		for (Entry<String, Collection<T>> entry : tasks.asMap().entrySet()) {
 			String componentId = entry.getKey();
@@ -269,7 +300,7 @@ public class ModbusWorker extends AbstractImmediateWorker {
 			if (this.defectiveComponents.contains(componentId)) {
 				// Component is known to be erroneous -> add only one Task
 				Iterator<T> iterator = entry.getValue().iterator();
-				if (iterator.hasNext()) {
+				if (iterator.hasNext() && probedComponents.add(componentId)) {
 					result.add(iterator.next());
 				}
 
@@ -281,6 +312,18 @@ public class ModbusWorker extends AbstractImmediateWorker {
 		return result;
 	}
 
+	/**
+	 * Gets all Read- and Write-Tasks by Source-ID.
+	 * 
+	 * @return the Tasks
+	 */
+	public Multimap<String, Task> getAllTasksBySourceId() {
+		Multimap<String, Task> result = ArrayListMultimap.create();
+		result.putAll(this.readTasksManager.getAllTasksBySourceId());
+		result.putAll(this.writeTasksManager.getAllTasksBySourceId());
+		return result;
+	}
+
 	/**
 	 * Adds the protocol.
 	 * 
@@ -301,19 +344,4 @@ public class ModbusWorker extends AbstractImmediateWorker {
 		this.readTasksManager.removeTasksManager(sourceId);
 		this.writeTasksManager.removeTasksManager(sourceId);
 	}
-
-	/**
-	 * This is a helper function. It calculates the opposite of Math.floorDiv().
-	 * 
-	 * <p>
-	 * Source:
-	 * https://stackoverflow.com/questions/27643616/ceil-conterpart-for-math-floordiv-in-java
-	 * 
-	 * @param x the dividend
-	 * @param y the divisor
-	 * @return the result of the division, rounded up
-	 */
-	private static long ceilDiv(long x, long y) {
-		return -Math.floorDiv(-x, y);
-	}
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package io.openems.edge.bridge.modbus.api;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects latencies and error counters of all Modbus transactions of a
+ * {@link AbstractModbusBridge}, in total and per Unit-ID and Function-Code.
+ */
+public class TransactionStatistics {
+
+	/**
+	 * Statistics for one Unit-ID or one Function-Code.
+	 */
+	public static class Entry {
+
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private final AtomicLong timeouts = new AtomicLong();
+		private final AtomicLong exceptionResponses = new AtomicLong();
+
+		public LatencyHistogram getLatencies() {
+			return this.latencies;
+		}
+
+		/**
+		 * Gets the number of transactions without valid response, i.e. timeouts and
+		 * I/O errors.
+		 *
+		 * @return the number of transactions
+		 */
+		public long getTimeouts() {
+			return this.timeouts.get();
+		}
+
+		/**
+		 * Gets the number of Modbus exception responses.
+		 *
+		 * @return the number of transactions
+		 */
+		public long getExceptionResponses() {
+			return this.exceptionResponses.get();
+		}
+	}
+
+	private final Entry total = new Entry();
+	private final Map<Integer, Entry> byUnitId = new ConcurrentHashMap<>();
+	private final Map<Integer, Entry> byFunctionCode = new ConcurrentHashMap<>();
+	private final AtomicLong retries = new AtomicLong();
+
+	/**
+	 * Records a successful transaction.
+	 *
+	 * @param unitId       the Unit-ID
+	 * @param functionCode the Function-Code
+	 * @param latency      the duration in [ms]
+	 */
+	public void onResponse(int unitId, int functionCode, long latency) {
+		this.total.latencies.record(latency);
+		this.getUnitId(unitId).latencies.record(latency);
+		this.getFunctionCode(functionCode).latencies.record(latency);
+	}
+
+	/**
+	 * Records a transaction without valid response.
+	 *
+	 * @param unitId       the Unit-ID
+	 * @param functionCode the Function-Code
+	 */
+	public void onTimeout(int unitId, int functionCode) {
+		this.total.timeouts.incrementAndGet();
+		this.getUnitId(unitId).timeouts.incrementAndGet();
+		this.getFunctionCode(functionCode).timeouts.incrementAndGet();
+	}
+
+	/**
+	 * Records a Modbus exception response.
+	 *
+	 * @param unitId       the Unit-ID
+	 * @param functionCode the Function-Code
+	 */
+	public void onExceptionResponse(int unitId, int functionCode) {
+		this.total.exceptionResponses.incrementAndGet();
+		this.getUnitId(unitId).exceptionResponses.incrementAndGet();
+		this.getFunctionCode(functionCode).exceptionResponses.incrementAndGet();
+	}
+
+	/**
+	 * Records the retry of a Task after a failed transaction.
+	 */
+	public void onRetry() {
+		this.retries.incrementAndGet();
+	}
+
+	public Entry getTotal() {
+		return this.total;
+	}
+
+	public long getRetries() {
+		return this.retries.get();
+	}
+
+	/**
+	 * Gets the statistics per Unit-ID.
+	 *
+	 * @return a sorted copy of the map
+	 */
+	public Map<Integer, Entry> getByUnitId() {
+		return new TreeMap<>(this.byUnitId);
+	}
+
+	/**
+	 * Gets the statistics per Function-Code.
+	 *
+	 * @return a sorted copy of the map
+	 */
+	public Map<Integer, Entry> getByFunctionCode() {
+		return new TreeMap<>(this.byFunctionCode);
+	}
+
+	private Entry getUnitId(int unitId) {
+		return this.byUnitId.computeIfAbsent(unitId, k -> new Entry());
+	}
+
+	private Entry getFunctionCode(int functionCode) {
+		return this.byFunctionCode.computeIfAbsent(functionCode, k -> new Entry());
+	}
+
+}
@@ -0,0 +1,43 @@
+package io.openems.edge.bridge.modbus.api.jsonrpc;
+
+import java.util.UUID;
+
+import com.google.gson.JsonObject;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.jsonrpc.base.JsonrpcRequest;
+
+/**
+ * Represents a JSON-RPC Request for 'getModbusStatistics'.
+ * 
+ * <pre>
+ * {
+ *   "jsonrpc": "2.0",
+ *   "id": "UUID",
+ *   "method": "getModbusStatistics",
+ *   "params": {}
+ * }
+ * </pre>
+ */
+public class GetModbusStatisticsRequest extends JsonrpcRequest {
+
+	public static GetModbusStatisticsRequest from(JsonrpcRequest r) throws OpenemsException {
+		return new GetModbusStatisticsRequest(r.getId());
+	}
+
+	public static final String METHOD = "getModbusStatistics";
+
+	public GetModbusStatisticsRequest() {
+		this(UUID.randomUUID());
+	}
+
+	public GetModbusStatisticsRequest(UUID id) {
+		super(id, METHOD);
+	}
+
+	@Override
+	public JsonObject getParams() {
+		return new JsonObject();
+	}
+
+}
@@ -0,0 +1,115 @@
+package io.openems.edge.bridge.modbus.api.jsonrpc;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+import com.google.common.collect.Multimap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
+import io.openems.common.utils.JsonUtils;
+import io.openems.edge.bridge.modbus.api.LatencyHistogram;
+import io.openems.edge.bridge.modbus.api.TransactionStatistics;
+import io.openems.edge.bridge.modbus.api.task.AbstractTask;
+import io.openems.edge.bridge.modbus.api.task.Task;
+
+/**
+ * Represents a JSON-RPC Response for 'getModbusStatistics'.
+ * 
+ * <p>
+ * Latencies are in [ms]. 'p50', 'p95' and 'p99' are calculated over the recent
+ * samples, 'max' and 'count' since activation.
+ * 
+ * <pre>
+ * {
+ *   "jsonrpc": "2.0",
+ *   "id": "UUID",
+ *   "result": {
+ *     "retries": number,
+ *     "total": Entry,
+ *     "unitIds": [{ "unitId": number, ...Entry }],
+ *     "functionCodes": [{ "functionCode": number, ...Entry }],
+ *     "tasks": [{
+ *       "componentId": string, "task": string,
+ *       "count": number, "p50": number, "p95": number, "p99": number, "max": number, "last": number
+ *     }]
+ *   }
+ * }
+ * 
+ * Entry: {
+ *   "count": number, "p50": number, "p95": number, "p99": number, "max": number,
+ *   "timeouts": number, "exceptionResponses": number
+ * }
+ * </pre>
+ */
+public class GetModbusStatisticsResponse extends JsonrpcResponseSuccess {
+
+	private final TransactionStatistics statistics;
+	private final Multimap<String, Task> tasks;
+
+	public GetModbusStatisticsResponse(TransactionStatistics statistics, Multimap<String, Task> tasks) {
+		this(UUID.randomUUID(), statistics, tasks);
+	}
+
+	public GetModbusStatisticsResponse(UUID id, TransactionStatistics statistics, Multimap<String, Task> tasks) {
+		super(id);
+		this.statistics = statistics;
+		this.tasks = tasks;
+	}
+
+	@Override
+	public JsonObject getResult() {
+		JsonArray unitIds = new JsonArray();
+		for (Map.Entry<Integer, TransactionStatistics.Entry> entry : this.statistics.getByUnitId().entrySet()) {
+			JsonObject j = toJson(entry.getValue());
+			j.addProperty("unitId", entry.getKey());
+			unitIds.add(j);
+		}
+		JsonArray functionCodes = new JsonArray();
+		for (Map.Entry<Integer, TransactionStatistics.Entry> entry : this.statistics.getByFunctionCode()
+				.entrySet()) {
+			JsonObject j = toJson(entry.getValue());
+			j.addProperty("functionCode", entry.getKey());
+			functionCodes.add(j);
+		}
+		JsonArray tasks = new JsonArray();
+		for (Entry<String, Task> entry : this.tasks.entries()) {
+			if (!(entry.getValue() instanceof AbstractTask)) {
+				continue;
+			}
+			AbstractTask task = (AbstractTask) entry.getValue();
+			JsonObject j = toJson(task.getExecuteDurations());
+			j.addProperty("componentId", entry.getKey());
+			j.addProperty("task", task.toString());
+			j.addProperty("last", task.getExecuteDurations().getLast());
+			tasks.add(j);
+		}
+		return JsonUtils.buildJsonObject() //
+				.addProperty("retries", this.statistics.getRetries()) //
+				.add("total", toJson(this.statistics.getTotal())) //
+				.add("unitIds", unitIds) //
+				.add("functionCodes", functionCodes) //
+				.add("tasks", tasks) //
+				.build();
+	}
+
+	private static JsonObject toJson(TransactionStatistics.Entry entry) {
+		JsonObject j = toJson(entry.getLatencies());
+		j.addProperty("timeouts", entry.getTimeouts());
+		j.addProperty("exceptionResponses", entry.getExceptionResponses());
+		return j;
+	}
+
+	private static JsonObject toJson(LatencyHistogram histogram) {
+		return JsonUtils.buildJsonObject() //
+				.addProperty("count", histogram.getTotalCount()) //
+				.addProperty("p50", histogram.getPercentile(50)) //
+				.addProperty("p95", histogram.getPercentile(95)) //
+				.addProperty("p99", histogram.getPercentile(99)) //
+				.addProperty("max", histogram.getMax()) //
+				.build();
+	}
+
+}
@@ -46,6 +46,7 @@ public abstract class AbstractReadTask<T> extends AbstractTask implements ReadTa
 			 * Second try: with new connection
 			 */
 			bridge.closeModbusConnection();
+			bridge.getTransactionStatistics().onRetry();
 			try {
 				response = this.readElements(bridge);
 
@@ -7,6 +7,7 @@ import com.google.common.base.Stopwatch;
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.edge.bridge.modbus.api.AbstractModbusBridge;
 import io.openems.edge.bridge.modbus.api.AbstractOpenemsModbusComponent;
+import io.openems.edge.bridge.modbus.api.LatencyHistogram;
 import io.openems.edge.bridge.modbus.api.LogVerbosity;
 import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
 import io.openems.edge.bridge.modbus.api.element.ModbusElement;
@@ -19,15 +20,16 @@ import io.openems.edge.bridge.modbus.api.element.ModbusElement;
 public abstract class AbstractTask implements Task {
 
 	private static final long DEFAULT_EXECUTION_DURATION = 300;
+	private static final double PLANNING_PERCENTILE = 95;
 
 	private final int length;
 	private final int startAddress;
 	private final Stopwatch stopwatch = Stopwatch.createUnstarted();
+	private final LatencyHistogram executeDurations = new LatencyHistogram();
 
 	private ModbusElement<?>[] elements;
 	private AbstractOpenemsModbusComponent parent = null; // this is always set by ModbusProtocol.addTask()
 	private boolean hasBeenExecutedSuccessfully = false;
-	private long lastExecuteDuration = DEFAULT_EXECUTION_DURATION; // initialize to some default
 
 	public AbstractTask(int startAddress, AbstractModbusElement<?>... elements) {
 		this.startAddress = startAddress;
@@ -85,12 +87,23 @@ public abstract class AbstractTask implements Task {
 			return noOfSubTasksExecuted;
 
 		} finally {
-			this.lastExecuteDuration = this.stopwatch.elapsed(TimeUnit.MILLISECONDS);
+			this.executeDurations.record(this.stopwatch.elapsed(TimeUnit.MILLISECONDS));
 		}
 	}
 
 	protected abstract int _execute(AbstractModbusBridge bridge) throws OpenemsException;
 
+	/**
+	 * Marks this task as successfully executed on behalf of a
+	 * {@link MergedReadRegistersTask}.
+	 *
+	 * @param executeDuration the duration of the combined execution
+	 */
+	synchronized void markExecutedSuccessfully(long executeDuration) {
+		this.hasBeenExecutedSuccessfully = true;
+		this.executeDurations.record(executeDuration);
+	}
+
 	/*
 	 * Enable Debug mode for this Element. Activates verbose logging. TODO:
 	 * implement debug write in all implementations (FC16 is already done)
@@ -149,8 +162,21 @@ public abstract class AbstractTask implements Task {
 		return sb.toString();
 	}
 
+	@Override
 	public long getExecuteDuration() {
-		return lastExecuteDuration;
+		if (this.executeDurations.getCount() == 0) {
+			return DEFAULT_EXECUTION_DURATION; // initialize to some default
+		}
+		return this.executeDurations.getPercentile(PLANNING_PERCENTILE);
+	}
+
+	/**
+	 * Gets the histogram of the execution durations.
+	 * 
+	 * @return the {@link LatencyHistogram}
+	 */
+	public LatencyHistogram getExecuteDurations() {
+		return this.executeDurations;
 	}
 
 	protected abstract String getActiondescription();
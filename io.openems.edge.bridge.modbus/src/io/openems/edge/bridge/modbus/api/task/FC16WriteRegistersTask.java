@@ -73,6 +73,7 @@ public class FC16WriteRegistersTask extends AbstractTask implements WriteTask {
 				 * Second try: with new connection
 				 */
 				bridge.closeModbusConnection();
+				bridge.getTransactionStatistics().onRetry();
 				try {
 					this.writeMultipleRegisters(bridge, this.getParent().getUnitId(), write.startAddress,
 							write.getRegisters());
@@ -48,6 +48,7 @@ public class FC5WriteCoilTask extends AbstractTask implements WriteTask {
 					 * Second try: with new connection
 					 */
 					bridge.closeModbusConnection();
+					bridge.getTransactionStatistics().onRetry();
 					try {
 						this.writeCoil(bridge, this.getParent().getUnitId(), this.getStartAddress(), value);
 						noOfWrittenCoils = 1;
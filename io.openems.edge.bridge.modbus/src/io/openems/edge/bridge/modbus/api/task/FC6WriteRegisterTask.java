@@ -52,6 +52,7 @@ public class FC6WriteRegisterTask extends AbstractTask implements WriteTask {
 						 * Second try: with new connection
 						 */
 						bridge.closeModbusConnection();
+						bridge.getTransactionStatistics().onRetry();
 						try {
 							this.writeSingleRegister(bridge, this.getParent().getUnitId(), this.getStartAddress(),
 									register);
@@ -0,0 +1,263 @@
+package io.openems.edge.bridge.modbus.api.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ghgande.j2mod.modbus.Modbus;
+import com.ghgande.j2mod.modbus.ModbusException;
+import com.ghgande.j2mod.modbus.ModbusSlaveException;
+import com.ghgande.j2mod.modbus.msg.ModbusRequest;
+import com.ghgande.j2mod.modbus.msg.ModbusResponse;
+import com.ghgande.j2mod.modbus.msg.ReadInputRegistersRequest;
+import com.ghgande.j2mod.modbus.msg.ReadMultipleRegistersRequest;
+import com.ghgande.j2mod.modbus.procimg.InputRegister;
+import com.google.common.base.Stopwatch;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.bridge.modbus.api.AbstractModbusBridge;
+import io.openems.edge.bridge.modbus.api.AbstractOpenemsModbusComponent;
+import io.openems.edge.bridge.modbus.api.LatencyHistogram;
+import io.openems.edge.bridge.modbus.api.element.ModbusElement;
+import io.openems.edge.common.taskmanager.Priority;
+
+/**
+ * Combines multiple {@link FC3ReadRegistersTask}s or
+ * {@link FC4ReadInputRegistersTask}s of the same Unit-ID into one Modbus
+ * request. Registers in gaps between the combined Tasks are read but ignored.
+ *
+ * <p>
+ * MergedReadRegistersTasks are created by the {@link ReadTaskOptimizer}. If the
+ * device rejects the combined request with an 'Illegal Data Address' exception,
+ * the ReadTaskOptimizer is informed and the original Tasks are executed one by
+ * one.
+ */
+public class MergedReadRegistersTask implements ReadTask {
+
+	private final Logger log = LoggerFactory.getLogger(MergedReadRegistersTask.class);
+
+	private final ReadTaskOptimizer optimizer;
+	private final int functionCode;
+	private final int unitId;
+	private final int startAddress;
+	private final int length;
+	private final List<AbstractReadInputRegistersTask> tasks;
+	private final ModbusElement<?>[] elements;
+	private final Stopwatch stopwatch = Stopwatch.createUnstarted();
+	private final LatencyHistogram executeDurations = new LatencyHistogram();
+	private final long initialExecuteDuration;
+
+	private boolean hasBeenExecutedSuccessfully = false;
+
+	protected MergedReadRegistersTask(ReadTaskOptimizer optimizer, int functionCode, int unitId,
+			List<AbstractReadInputRegistersTask> tasks) {
+		this.optimizer = optimizer;
+		this.functionCode = functionCode;
+		this.unitId = unitId;
+		this.tasks = tasks;
+
+		AbstractReadInputRegistersTask first = tasks.get(0);
+		AbstractReadInputRegistersTask last = tasks.get(tasks.size() - 1);
+		this.startAddress = first.getStartAddress();
+		this.length = last.getStartAddress() + last.getLength() - this.startAddress;
+
+		List<ModbusElement<?>> elements = new ArrayList<>();
+		long duration = 0;
+		for (AbstractReadInputRegistersTask task : tasks) {
+			elements.addAll(Arrays.asList(task.getElements()));
+			duration = Math.max(duration, task.getExecuteDuration());
+		}
+		this.elements = elements.toArray(new ModbusElement<?>[elements.size()]);
+		// initialize with the slowest of the merged Tasks
+		this.initialExecuteDuration = duration;
+	}
+
+	@Override
+	public synchronized <T> int execute(AbstractModbusBridge bridge) throws OpenemsException {
+		this.stopwatch.reset();
+		this.stopwatch.start();
+		try {
+			InputRegister[] registers;
+			try {
+				/*
+				 * First try
+				 */
+				registers = this.readRegisters(bridge);
+
+			} catch (ModbusSlaveException e) {
+				return this.handleSlaveException(bridge, e);
+
+			} catch (OpenemsException | ModbusException e) {
+				/*
+				 * Second try: with new connection
+				 */
+				bridge.closeModbusConnection();
+				bridge.getTransactionStatistics().onRetry();
+				try {
+					registers = this.readRegisters(bridge);
+
+				} catch (ModbusSlaveException e2) {
+					return this.handleSlaveException(bridge, e2);
+
+				} catch (OpenemsException | ModbusException e2) {
+					for (ModbusElement<?> elem : this.elements) {
+						if (!elem.isIgnored()) {
+							elem.invalidate(bridge);
+						}
+					}
+					throw new OpenemsException("Transaction failed: " + e2.getMessage(), e2);
+				}
+			}
+
+			// Verify response length
+			if (registers.length < this.length) {
+				throw new OpenemsException("Received message is too short. Expected [" + this.length + "], got ["
+						+ registers.length + "]");
+			}
+
+			// Distribute the registers to the original Tasks
+			long duration = this.stopwatch.elapsed(TimeUnit.MILLISECONDS);
+			for (AbstractReadInputRegistersTask task : this.tasks) {
+				int offset = task.getStartAddress() - this.startAddress;
+				task.fillElements(Arrays.copyOfRange(registers, offset, offset + task.getLength()));
+				task.markExecutedSuccessfully(duration);
+			}
+			this.hasBeenExecutedSuccessfully = true;
+			return this.tasks.size();
+
+		} finally {
+			this.executeDurations.record(this.stopwatch.elapsed(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Handles an exception response of the device. On 'Illegal Data Address' the
+	 * original Tasks are executed one by one.
+	 *
+	 * @param bridge the Modbus-Bridge
+	 * @param e      the {@link ModbusSlaveException}
+	 * @return the number of executed Sub-Tasks
+	 * @throws OpenemsException on error
+	 */
+	private int handleSlaveException(AbstractModbusBridge bridge, ModbusSlaveException e) throws OpenemsException {
+		if (!e.isType(Modbus.ILLEGAL_ADDRESS_EXCEPTION)) {
+			throw new OpenemsException("Transaction failed: " + e.getMessage(), e);
+		}
+		bridge.logInfo(this.log, this.toString() + " was rejected with 'Illegal Data Address'. Splitting it up.");
+		this.optimizer.onIllegalAddress(this);
+
+		int noOfExecutedSubTasks = 0;
+		OpenemsException lastException = null;
+		for (AbstractReadInputRegistersTask task : this.tasks) {
+			try {
+				noOfExecutedSubTasks += task.execute(bridge);
+			} catch (OpenemsException e2) {
+				lastException = e2;
+			}
+		}
+		if (lastException != null) {
+			throw lastException;
+		}
+		return noOfExecutedSubTasks;
+	}
+
+	private InputRegister[] readRegisters(AbstractModbusBridge bridge) throws OpenemsException, ModbusException {
+		ModbusRequest request;
+		if (this.functionCode == ReadTaskOptimizer.FC3) {
+			request = new ReadMultipleRegistersRequest(this.startAddress, this.length);
+		} else {
+			request = new ReadInputRegistersRequest(this.startAddress, this.length);
+		}
+		ModbusResponse response = Utils.getResponse(request, this.unitId, bridge);
+		// the first Task knows how to parse the response
+		return this.tasks.get(0).handleResponse(response);
+	}
+
+	/**
+	 * Gets the original Tasks.
+	 *
+	 * @return a list of Tasks, sorted by start address
+	 */
+	public List<AbstractReadInputRegistersTask> getTasks() {
+		return this.tasks;
+	}
+
+	protected int getFunctionCode() {
+		return this.functionCode;
+	}
+
+	protected int getUnitId() {
+		return this.unitId;
+	}
+
+	public int getLength() {
+		return this.length;
+	}
+
+	@Override
+	public ModbusElement<?>[] getElements() {
+		return this.elements;
+	}
+
+	@Override
+	public int getStartAddress() {
+		return this.startAddress;
+	}
+
+	@Override
+	public void setParent(AbstractOpenemsModbusComponent parent) {
+		// the parents are set on the original Tasks
+	}
+
+	@Override
+	public AbstractOpenemsModbusComponent getParent() {
+		return this.tasks.get(0).getParent();
+	}
+
+	@Override
+	public Priority getPriority() {
+		return this.tasks.get(0).getPriority();
+	}
+
+	@Override
+	public void deactivate() {
+		// the original Tasks are deactivated by their ModbusProtocol
+	}
+
+	@Override
+	public boolean hasBeenExecuted() {
+		return this.hasBeenExecutedSuccessfully;
+	}
+
+	@Override
+	public long getExecuteDuration() {
+		if (this.executeDurations.getCount() == 0) {
+			return this.initialExecuteDuration;
+		}
+		return this.executeDurations.getPercentile(95);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append("MergedFC");
+		sb.append(this.functionCode);
+		sb.append("ReadRegisters [unitid=");
+		sb.append(this.unitId);
+		sb.append(";ref=");
+		sb.append(this.startAddress);
+		sb.append("/0x");
+		sb.append(Integer.toHexString(this.startAddress));
+		sb.append(";length=");
+		sb.append(this.length);
+		sb.append(";tasks=");
+		sb.append(this.tasks.size());
+		sb.append("]");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,246 @@
+package io.openems.edge.bridge.modbus.api.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.openems.edge.bridge.modbus.api.AbstractOpenemsModbusComponent;
+import io.openems.edge.common.taskmanager.Priority;
+
+/**
+ * Reduces the number of Modbus requests per Cycle by merging
+ * {@link FC3ReadRegistersTask}s and {@link FC4ReadInputRegistersTask}s of the
+ * same Component and Priority to {@link MergedReadRegistersTask}s, if the gap
+ * between their registers is small enough.
+ *
+ * <p>
+ * Some devices reject requests that span undefined registers with an 'Illegal
+ * Data Address' exception. Those boundaries are learned at runtime (see
+ * {@link #onIllegalAddress(MergedReadRegistersTask)}) and never merged again.
+ */
+public class ReadTaskOptimizer {
+
+	/**
+	 * Maximum number of registers per FC3/FC4 request as defined by the Modbus
+	 * specification.
+	 */
+	public static final int MAX_REGISTERS = 125;
+
+	protected static final int FC3 = 3;
+	protected static final int FC4 = 4;
+
+	// Learned addresses in front of which tasks must not be merged
+	private final Set<SplitPoint> splitPoints = ConcurrentHashMap.newKeySet();
+
+	// MergedReadRegistersTasks of the last Cycle; to keep their execute duration
+	private Map<List<AbstractReadInputRegistersTask>, MergedReadRegistersTask> mergedTasks = new HashMap<>();
+
+	/**
+	 * Merges the given Read-Tasks where possible.
+	 *
+	 * <p>
+	 * The order of the Tasks is kept: a merged Task takes the position of its
+	 * first original Task.
+	 *
+	 * @param tasks  the Read-Tasks of this Cycle
+	 * @param maxGap the maximum number of unused registers between two Tasks; -1
+	 *               disables merging
+	 * @return the optimized list of Read-Tasks
+	 */
+	public synchronized List<ReadTask> optimize(List<ReadTask> tasks, int maxGap) {
+		if (maxGap < 0) {
+			this.mergedTasks.clear();
+			return tasks;
+		}
+
+		// Group candidates by Component, Function-Code and Priority
+		Map<GroupKey, List<AbstractReadInputRegistersTask>> groups = new LinkedHashMap<>();
+		for (ReadTask task : tasks) {
+			int functionCode = getFunctionCode(task);
+			if (functionCode < 0 || task.getParent() == null || task.getParent().getUnitId() == null) {
+				continue;
+			}
+			GroupKey key = new GroupKey(task.getParent(), functionCode, task.getPriority());
+			groups.computeIfAbsent(key, k -> new ArrayList<>()).add((AbstractReadInputRegistersTask) task);
+		}
+
+		// Merge Tasks of each group
+		Map<List<AbstractReadInputRegistersTask>, MergedReadRegistersTask> mergedTasks = new HashMap<>();
+		Map<ReadTask, ReadTask> replacements = new IdentityHashMap<>();
+		for (Map.Entry<GroupKey, List<AbstractReadInputRegistersTask>> entry : groups.entrySet()) {
+			GroupKey key = entry.getKey();
+			List<AbstractReadInputRegistersTask> group = entry.getValue();
+			if (group.size() < 2) {
+				continue;
+			}
+			int unitId = key.component.getUnitId();
+			group.sort(Comparator.comparingInt(AbstractReadInputRegistersTask::getStartAddress));
+
+			for (List<AbstractReadInputRegistersTask> members : this.split(group, unitId, key.functionCode,
+					maxGap)) {
+				if (members.size() < 2) {
+					continue;
+				}
+				MergedReadRegistersTask mergedTask = this.mergedTasks.get(members);
+				if (mergedTask == null) {
+					mergedTask = new MergedReadRegistersTask(this, key.functionCode, unitId, members);
+				}
+				mergedTasks.put(members, mergedTask);
+				for (AbstractReadInputRegistersTask member : members) {
+					replacements.put(member, mergedTask);
+				}
+			}
+		}
+		this.mergedTasks = mergedTasks;
+
+		if (replacements.isEmpty()) {
+			return tasks;
+		}
+
+		// Build result in original order
+		List<ReadTask> result = new ArrayList<>(tasks.size());
+		Set<ReadTask> added = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (ReadTask task : tasks) {
+			ReadTask replacement = replacements.getOrDefault(task, task);
+			if (added.add(replacement)) {
+				result.add(replacement);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Splits a sorted group of Tasks into ranges that can be read with one
+	 * request.
+	 *
+	 * @param group        the Tasks, sorted by start address
+	 * @param unitId       the Unit-ID
+	 * @param functionCode the Function-Code
+	 * @param maxGap       the maximum number of unused registers between two Tasks
+	 * @return a list of ranges
+	 */
+	protected List<List<AbstractReadInputRegistersTask>> split(List<AbstractReadInputRegistersTask> group, int unitId,
+			int functionCode, int maxGap) {
+		List<List<AbstractReadInputRegistersTask>> result = new ArrayList<>();
+		List<AbstractReadInputRegistersTask> current = new ArrayList<>();
+		int rangeStart = 0;
+		int rangeEnd = 0; // exclusive
+		for (AbstractReadInputRegistersTask task : group) {
+			int start = task.getStartAddress();
+			int end = start + task.getLength();
+			if (!current.isEmpty()) {
+				int gap = start - rangeEnd;
+				if (gap < 0 // overlapping
+						|| gap > maxGap //
+						|| Math.max(end, rangeEnd) - rangeStart > MAX_REGISTERS //
+						|| this.splitPoints.contains(new SplitPoint(unitId, functionCode, start))) {
+					result.add(current);
+					current = new ArrayList<>();
+				}
+			}
+			if (current.isEmpty()) {
+				rangeStart = start;
+			}
+			current.add(task);
+			rangeEnd = end;
+		}
+		if (!current.isEmpty()) {
+			result.add(current);
+		}
+		return result;
+	}
+
+	/**
+	 * Callback for a {@link MergedReadRegistersTask} that was rejected by the
+	 * device with an 'Illegal Data Address' exception. The Tasks will not be
+	 * merged again.
+	 *
+	 * @param mergedTask the rejected {@link MergedReadRegistersTask}
+	 */
+	protected void onIllegalAddress(MergedReadRegistersTask mergedTask) {
+		List<AbstractReadInputRegistersTask> tasks = mergedTask.getTasks();
+		for (int i = 1; i < tasks.size(); i++) {
+			this.splitPoints.add(new SplitPoint(mergedTask.getUnitId(), mergedTask.getFunctionCode(),
+					tasks.get(i).getStartAddress()));
+		}
+	}
+
+	/**
+	 * Gets the Function-Code of a Task that can be merged.
+	 *
+	 * @param task the {@link ReadTask}
+	 * @return the Function-Code; -1 if the Task cannot be merged
+	 */
+	private static int getFunctionCode(ReadTask task) {
+		// Subclasses might override the request handling -> only exact classes
+		if (task.getClass() == FC3ReadRegistersTask.class) {
+			return FC3;
+		} else if (task.getClass() == FC4ReadInputRegistersTask.class) {
+			return FC4;
+		}
+		return -1;
+	}
+
+	private static class GroupKey {
+		private final AbstractOpenemsModbusComponent component;
+		private final int functionCode;
+		private final Priority priority;
+
+		private GroupKey(AbstractOpenemsModbusComponent component, int functionCode, Priority priority) {
+			this.component = component;
+			this.functionCode = functionCode;
+			this.priority = priority;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(this.component), this.functionCode, this.priority);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof GroupKey)) {
+				return false;
+			}
+			GroupKey other = (GroupKey) obj;
+			return this.component == other.component && this.functionCode == other.functionCode
+					&& this.priority == other.priority;
+		}
+	}
+
+	private static class SplitPoint {
+		private final int unitId;
+		private final int functionCode;
+		private final int address;
+
+		private SplitPoint(int unitId, int functionCode, int address) {
+			this.unitId = unitId;
+			this.functionCode = functionCode;
+			this.address = address;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.unitId, this.functionCode, this.address);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SplitPoint)) {
+				return false;
+			}
+			SplitPoint other = (SplitPoint) obj;
+			return this.unitId == other.unitId && this.functionCode == other.functionCode
+					&& this.address == other.address;
+		}
+	}
+
+}
@@ -61,8 +61,9 @@ public interface Task extends ManagedTask {
 	boolean hasBeenExecuted();
 
 	/**
-	 * Gets the execution duration of the last execution (successful or not not
-	 * successful) in [ms].
+	 * Gets the expected execution duration in [ms], i.e. the 95th percentile of
+	 * the recent executions (successful or not successful). This value is used
+	 * for planning.
 	 * 
 	 * @return the duration in [ms]
 	 */
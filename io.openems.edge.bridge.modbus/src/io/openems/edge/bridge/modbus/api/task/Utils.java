@@ -1,10 +1,12 @@
 package io.openems.edge.bridge.modbus.api.task;
 
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import com.ghgande.j2mod.modbus.ModbusException;
+import com.ghgande.j2mod.modbus.ModbusSlaveException;
 import com.ghgande.j2mod.modbus.io.ModbusTransaction;
 import com.ghgande.j2mod.modbus.msg.ModbusRequest;
 import com.ghgande.j2mod.modbus.msg.ModbusResponse;
@@ -13,6 +15,7 @@ import com.ghgande.j2mod.modbus.util.BitVector;
 
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.edge.bridge.modbus.api.AbstractModbusBridge;
+import io.openems.edge.bridge.modbus.api.TransactionStatistics;
 
 public class Utils {
 
@@ -38,7 +41,19 @@ public class Utils {
 		request.setUnitID(unitId);
 		ModbusTransaction transaction = bridge.getNewModbusTransaction();
 		transaction.setRequest(request);
-		transaction.execute();
+		TransactionStatistics statistics = bridge.getTransactionStatistics();
+		long start = System.nanoTime();
+		try {
+			transaction.execute();
+		} catch (ModbusSlaveException e) {
+			statistics.onExceptionResponse(unitId, request.getFunctionCode());
+			throw e;
+		} catch (ModbusException e) {
+			statistics.onTimeout(unitId, request.getFunctionCode());
+			throw e;
+		}
+		statistics.onResponse(unitId, request.getFunctionCode(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 		ModbusResponse response = transaction.getResponse();
 		return response;
 	}
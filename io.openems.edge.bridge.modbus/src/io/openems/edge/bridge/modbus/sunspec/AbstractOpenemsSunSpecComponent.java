@@ -1,5 +1,6 @@
 package io.openems.edge.bridge.modbus.sunspec;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -7,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,6 +29,7 @@ import io.openems.edge.bridge.modbus.api.element.UnsignedWordElement;
 import io.openems.edge.bridge.modbus.api.task.FC16WriteRegistersTask;
 import io.openems.edge.bridge.modbus.api.task.FC3ReadRegistersTask;
 import io.openems.edge.bridge.modbus.api.task.Task;
+import io.openems.edge.bridge.modbus.sunspec.SunSpecDiscoveryCache.Block;
 import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.taskmanager.Priority;
 
@@ -37,11 +40,36 @@ public abstract class AbstractOpenemsSunSpecComponent extends AbstractOpenemsMod
 
 	private final Logger log = LoggerFactory.getLogger(AbstractOpenemsSunSpecComponent.class);
 
+	/**
+	 * The SunSpec model map starts here with 0x53756e53 ("SunS").
+	 */
+	private static final int SUNSPEC_START_ADDRESS = 40_000;
+
+	/**
+	 * Registers from the start to the end of the serial number in the Common
+	 * block: 'SunS', block header, Manufacturer, Model, Options, Version and
+	 * Serial Number.
+	 */
+	private static final int IDENTITY_LENGTH = 2 + 2 + 16 + 16 + 8 + 8 + 16;
+
+	/**
+	 * Number of registers that are read at once while walking the block headers;
+	 * the maximum of one FC3 request.
+	 */
+	private static final int HEADER_WINDOW = 125;
+
+	/**
+	 * Number of attempts for a larger read before falling back to smaller reads,
+	 * so that a single transmission error does not disable the larger reads.
+	 */
+	private static final int LARGE_READ_ATTEMPTS = 2;
+
 	private final Set<SunSpecModelType> modelTypes;
 	private final ModbusProtocol modbusProtocol;
+	private final SunSpecDiscoveryCache discoveryCache;
 
 	private int readFromCommonBlockNo = 1;
-	private int commonBlockCounter = 0;
+	private boolean isHeaderWindowSupported = true;
 
 	private boolean isSunSpecInitializationCompleted = false;
 
@@ -61,6 +89,7 @@ public abstract class AbstractOpenemsSunSpecComponent extends AbstractOpenemsMod
 		super(firstInitialChannelIds, furtherInitialChannelIds);
 		this.modelTypes = new HashSet<SunSpecModelType>(Arrays.asList(modelTypes));
 		this.modbusProtocol = new ModbusProtocol(this);
+		this.discoveryCache = SunSpecDiscoveryCache.getDefault();
 	}
 
 	@Override
@@ -74,19 +103,92 @@ public abstract class AbstractOpenemsSunSpecComponent extends AbstractOpenemsMod
 		this.readFromCommonBlockNo = readFromCommonBlockNo;
 
 		// Start the SunSpec read procedure...
-		this.isSunSpec().thenAccept(isSunSpec -> {
-			if (!isSunSpec) {
+		this.readWords(SUNSPEC_START_ADDRESS, IDENTITY_LENGTH, LARGE_READ_ATTEMPTS).thenAccept(words -> {
+			if (words == null) {
+				// device does not support the larger read -> discover step by step
+				this.isHeaderWindowSupported = false;
+				this.isSunSpec().thenAccept(isSunSpec -> {
+					if (!isSunSpec) {
+						throw new IllegalArgumentException("This modbus device is not SunSpec!");
+					}
+					this.discover(modbusId, unitId, "");
+				});
+				return;
+			}
+			if ((words[0] << 16 | words[1]) != 0x53756e53) {
 				throw new IllegalArgumentException("This modbus device is not SunSpec!");
 			}
-
-			this.readNextBlock(40_002).thenRun(() -> {
-				this.isSunSpecInitializationCompleted = true;
-				this.onSunSpecInitializationCompleted();
-			});
+			String serialNumber = words[2] == 1 /* SunSpecModel.S_1 */ ? toString(words, 52, 16) : "";
+			Optional<List<Block>> cached = serialNumber.isEmpty() ? Optional.empty()
+					: this.discoveryCache.get(modbusId, unitId, serialNumber);
+			if (cached.isPresent()) {
+				this.logInfo(this.log, "Using cached SunSpec model map for serial number [" + serialNumber + "]");
+				this.applyBlocks(cached.get(), true).thenAccept(blocks -> {
+					this.completeSunSpecInitialization();
+					this.validate(modbusId, unitId, serialNumber, blocks, !blocks.equals(cached.get()));
+				});
+			} else {
+				this.discover(modbusId, unitId, serialNumber);
+			}
 		});
 		return super.activate(context, id, alias, enabled, unitId, cm, modbusReference, modbusId);
 	}
 
+	/**
+	 * Walks the model map, creates the Modbus Tasks and stores the model map in
+	 * the {@link SunSpecDiscoveryCache}.
+	 *
+	 * @param modbusId     the ID of the Modbus-Bridge
+	 * @param unitId       the Modbus Unit-ID
+	 * @param serialNumber the serial number; empty to not use the cache
+	 */
+	private void discover(String modbusId, int unitId, String serialNumber) {
+		this.readBlockHeaders(SUNSPEC_START_ADDRESS + 2, new ArrayList<>()) //
+				.thenCompose(headers -> this.applyBlocks(headers, true)) //
+				.thenAccept(blocks -> {
+					this.completeSunSpecInitialization();
+					if (!serialNumber.isEmpty()) {
+						CompletableFuture.runAsync(//
+								() -> this.discoveryCache.put(modbusId, unitId, serialNumber, blocks));
+					}
+				});
+	}
+
+	/**
+	 * Walks the model map again in the background and compares it to the cached
+	 * one. A changed model map - e.g. after a firmware update - is stored and
+	 * applies after the next restart.
+	 *
+	 * @param modbusId     the ID of the Modbus-Bridge
+	 * @param unitId       the Modbus Unit-ID
+	 * @param serialNumber the serial number
+	 * @param cached       the model map that is in use
+	 * @param isIncomplete true if the cache missed points of a considered block,
+	 *                     e.g. after a configuration change
+	 */
+	private void validate(String modbusId, int unitId, String serialNumber, List<Block> cached,
+			boolean isIncomplete) {
+		this.readBlockHeaders(SUNSPEC_START_ADDRESS + 2, new ArrayList<>()) //
+				.thenCompose(headers -> this.applyBlocks(headers, false)) //
+				.thenAccept(blocks -> {
+					if (blocks.equals(cached)) {
+						if (!isIncomplete) {
+							return;
+						}
+					} else {
+						this.logWarn(this.log, "SunSpec model map changed for serial number [" + serialNumber
+								+ "]. Restart the Component to apply it.");
+					}
+					CompletableFuture.runAsync(//
+							() -> this.discoveryCache.put(modbusId, unitId, serialNumber, blocks));
+				});
+	}
+
+	private void completeSunSpecInitialization() {
+		this.isSunSpecInitializationCompleted = true;
+		this.onSunSpecInitializationCompleted();
+	}
+
 	@Override
 	protected final ModbusProtocol defineModbusProtocol() {
 		return this.modbusProtocol;
@@ -113,74 +215,145 @@ public abstract class AbstractOpenemsSunSpecComponent extends AbstractOpenemsMod
 	}
 
 	/**
-	 * Reads the next SunSpec block.
-	 * 
-	 * @param startAddress the startAddress
-	 * @return a future that completes once reading the block finished
+	 * Reads the block headers of the model map, starting from startAddress.
+	 *
+	 * <p>
+	 * A window of {@link #HEADER_WINDOW} registers is read at once and all headers
+	 * within it are parsed, so short blocks cost no extra Modbus cycle. If the
+	 * larger read fails repeatedly, the headers are read two words at a time.
+	 *
+	 * @param startAddress the address of the next block header
+	 * @param blocks       the blocks read so far; is completed
+	 * @return a future with all blocks
 	 */
-	private CompletableFuture<Void> readNextBlock(int startAddress) {
-		final CompletableFuture<Void> finished = new CompletableFuture<Void>();
-		this.readElementsOnceTyped(new UnsignedWordElement(startAddress), new UnsignedWordElement(startAddress + 1))
-				.thenAccept(values -> {
-					int blockId = values.get(0);
-
-					// END_OF_MAP
-					if (blockId == 0xFFFF) {
-						finished.complete(null);
-						return;
-					}
+	private CompletableFuture<List<Block>> readBlockHeaders(int startAddress, List<Block> blocks) {
+		final CompletableFuture<int[]> window;
+		if (this.isHeaderWindowSupported) {
+			window = this.readWords(startAddress, HEADER_WINDOW, LARGE_READ_ATTEMPTS);
+		} else {
+			window = this.readHeader(startAddress);
+		}
+		return window.thenCompose(words -> {
+			if (words == null) {
+				// larger read not supported (e.g. beyond the end of the map) -> fall back
+				this.isHeaderWindowSupported = false;
+				return this.readHeader(startAddress);
+			}
+			return CompletableFuture.completedFuture(words);
+		}).thenCompose(words -> {
+			int nextAddress = parseBlockHeaders(startAddress, words, blocks);
+			if (nextAddress < 0) {
+				return CompletableFuture.completedFuture(blocks);
+			}
+			return this.readBlockHeaders(nextAddress, blocks);
+		});
+	}
 
-					// Handle SunSpec Block
-					int length = values.get(1);
+	/**
+	 * Reads one block header.
+	 *
+	 * @param startAddress the address of the block header
+	 * @return a future with the two header words
+	 */
+	private CompletableFuture<int[]> readHeader(int startAddress) {
+		return this
+				.readElementsOnceTyped(new UnsignedWordElement(startAddress), new UnsignedWordElement(startAddress + 1))
+				.thenApply(values -> new int[] { values.get(0), values.get(1) });
+	}
 
-					final CompletableFuture<Void> readBlockFuture;
+	/**
+	 * Parses all complete block headers within the given registers.
+	 *
+	 * @param startAddress the address of the first register, which is a block
+	 *                     header
+	 * @param words        the registers
+	 * @param blocks       the parsed {@link Block}s are added here
+	 * @return the address of the next block header; -1 at the end of the map
+	 */
+	static int parseBlockHeaders(int startAddress, int[] words, List<Block> blocks) {
+		int offset = 0;
+		while (offset + 1 < words.length) {
+			int blockId = words[offset];
+			if (blockId == 0xFFFF) {
+				// END_OF_MAP
+				return -1;
+			}
+			int length = words[offset + 1];
+			blocks.add(new Block(blockId, startAddress + offset, length, null));
+			offset += 2 + length;
+		}
+		return startAddress + offset;
+	}
 
-					if (blockId == 1 /* SunSpecModel.S_1 */) {
-						this.commonBlockCounter++;
-					}
+	/**
+	 * Creates the Tasks and Channels for the considered blocks.
+	 *
+	 * <p>
+	 * The points of a block are read once to find out which ones the device
+	 * implements - unless this is already known from the
+	 * {@link SunSpecDiscoveryCache}.
+	 *
+	 * @param blocks     the model map
+	 * @param isAddTasks true to add Tasks and Channels; false to only read the
+	 *                   points
+	 * @return a future with the model map, completed with the undefined points of
+	 *         the considered blocks
+	 */
+	private CompletableFuture<List<Block>> applyBlocks(List<Block> blocks, boolean isAddTasks) {
+		@SuppressWarnings("unchecked")
+		final CompletableFuture<Block>[] futures = (CompletableFuture<Block>[]) new CompletableFuture<?>[blocks
+				.size()];
+		int commonBlockCounter = 0;
+		for (int i = 0; i < futures.length; i++) {
+			Block block = blocks.get(i);
+			if (block.getBlockId() == 1 /* SunSpecModel.S_1 */) {
+				commonBlockCounter++;
+			}
 
-					if (this.commonBlockCounter != this.readFromCommonBlockNo) {
-						// ignore all SunSpec blocks before 'startFromCommonBlockNo' was passed
-						readBlockFuture = CompletableFuture.completedFuture(null);
+			if (commonBlockCounter != this.readFromCommonBlockNo
+					|| !this.modelTypes.contains(SunSpecModelType.getModelType(block.getBlockId()))) {
+				// ignore all SunSpec blocks before 'startFromCommonBlockNo' was passed and
+				// blocks whose ModelType is not considered
+				futures[i] = CompletableFuture.completedFuture(block);
+				continue;
+			}
 
-					} else {
+			// Is this SunSpecModel block supported?
+			SunSpecModel sunSpecModel = null;
+			try {
+				sunSpecModel = SunSpecModel.valueOf("S_" + block.getBlockId());
+			} catch (IllegalArgumentException e) {
+				// checked later
+			}
+			final SunSpecModel model = sunSpecModel;
 
-						// Should the ModelType of this Block be considered?
-						if (this.modelTypes.contains(SunSpecModelType.getModelType(blockId))) {
-
-							// Is this SunSpecModel block supported?
-							SunSpecModel sunSpecModel = null;
-							try {
-								sunSpecModel = SunSpecModel.valueOf("S_" + blockId);
-							} catch (IllegalArgumentException e) {
-								// checked later
-							}
-
-							// Read block
-							if (sunSpecModel != null) {
-								readBlockFuture = this.addBlock(startAddress, sunSpecModel);
-							} else {
-								this.addUnknownBlock(startAddress, blockId);
-								readBlockFuture = CompletableFuture.completedFuture(null);
-							}
-
-						} else {
-							// This block is not considered, because the ModelType is ignored
-							readBlockFuture = CompletableFuture.completedFuture(null);
-						}
-					}
+			if (model == null) {
+				if (isAddTasks) {
+					this.addUnknownBlock(block.getStartAddress(), block.getBlockId());
+				}
+				futures[i] = CompletableFuture.completedFuture(block);
 
-					// Read next block recursively
-					int nextBlockStartAddress = startAddress + 2 + length;
-					final CompletableFuture<Void> readNextBlockFuture = this.readNextBlock(nextBlockStartAddress);
+			} else if (block.getUndefinedPoints().isPresent()) {
+				// known from the cache -> no need to read
+				if (isAddTasks) {
+					this.addBlock(block.getStartAddress(), model, block.getUndefinedPoints().get());
+				}
+				futures[i] = CompletableFuture.completedFuture(block);
 
-					// Announce finished when this block and next block (recursively) are finished
-					CompletableFuture.allOf(readBlockFuture, readNextBlockFuture).thenRun(() -> {
-						finished.complete(null);
-					});
+			} else {
+				futures[i] = this.readUndefinedPoints(block.getStartAddress(), model).thenApply(undefinedPoints -> {
+					if (isAddTasks) {
+						this.addBlock(block.getStartAddress(), model, undefinedPoints);
+					}
+					return block.withUndefinedPoints(undefinedPoints);
 				});
-		return finished;
+			}
+		}
 
+		// Announce finished when all blocks are finished
+		return CompletableFuture.allOf(futures).thenApply(ignore -> Stream.of(futures) //
+				.map(future -> future.join()) //
+				.collect(Collectors.toList()));
 	}
 
 	/**
@@ -217,17 +390,28 @@ public abstract class AbstractOpenemsSunSpecComponent extends AbstractOpenemsMod
 	protected abstract void onSunSpecInitializationCompleted();
 
 	/**
-	 * Reads the block starting from startAddress.
+	 * Reads the points of a block once to find out which ones are not implemented
+	 * by the device.
 	 * 
-	 * @param startAddress the address to start reading from
+	 * @param startAddress the address of the block header
 	 * @param model        the SunSpecModel
-	 * @return future that gets completed when the Block elements are read
+	 * @return future with the names of the undefined points
 	 */
-	private CompletableFuture<Void> addBlock(int startAddress, SunSpecModel model) {
-		this.logInfo(this.log, "Adding SunSpec-Model [" + model.name().substring(2) + ":" + model.label
-				+ "] starting at [" + startAddress + "]");
+	private CompletableFuture<Set<String>> readUndefinedPoints(int startAddress, SunSpecModel model) {
+		AbstractModbusElement<?>[] elements = this.generateElements(startAddress, model);
+		return this.readElementsOnce(elements).thenApply(values -> {
+			Set<String> result = new HashSet<>();
+			for (int i = 0; i < values.size(); i++) {
+				SunSpecPoint point = model.points[i];
+				if (!point.isDefined(values.get(i))) {
+					result.add(point.name());
+				}
+			}
+			return result;
+		});
+	}
 
-		final CompletableFuture<Void> finished = new CompletableFuture<Void>();
+	private AbstractModbusElement<?>[] generateElements(int startAddress, SunSpecModel model) {
 		AbstractModbusElement<?>[] elements = new AbstractModbusElement[model.points.length];
 		startAddress += 2;
 		for (int i = 0; i < model.points.length; i++) {
@@ -236,79 +420,160 @@ public abstract class AbstractOpenemsSunSpecComponent extends AbstractOpenemsMod
 			startAddress += element.getLength();
 			elements[i] = element;
 		}
+		return elements;
+	}
 
-		this.readElementsOnce(elements).thenAccept(values -> {
-			/*
-			 * Use results to prepare final Modbus Task
-			 * 
-			 * -> register Channels to defined SunSpec points
-			 * 
-			 * -> ignore non-defined SunSpec points with DummyElement
-			 */
-			for (int i = 0; i < values.size(); i++) {
-				SunSpecPoint point = model.points[i];
-				Object value = values.get(i);
-				AbstractModbusElement<?> element = elements[i];
-
-				if (point.isDefined(value)) {
-					// Point is available -> create Channel
-					SunSChannelId<?> channelId = point.getChannelId();
-					this.addChannel(channelId);
-
-					if (point.get().scaleFactor.isPresent()) {
-						// This Point needs a ScaleFactor
-						// - find the ScaleFactor-Point
-						String scaleFactorName = SunSpecCodeGenerator.toUpperUnderscore(point.get().scaleFactor.get());
-						SunSpecPoint scaleFactorPoint = null;
-						for (SunSpecPoint sfPoint : model.points) {
-							if (sfPoint.name().equals(scaleFactorName)) {
-								scaleFactorPoint = sfPoint;
-								continue;
-							}
-						}
-						if (scaleFactorPoint == null) {
-							// Unable to find ScaleFactor-Point
-							this.logError(this.log, "Unable to find ScaleFactor [" + scaleFactorName + "] for Point ["
-									+ point.name() + "]");
-						}
+	/**
+	 * Adds the Tasks and Channels for the block starting from startAddress.
+	 * 
+	 * @param startAddress    the address of the block header
+	 * @param model           the SunSpecModel
+	 * @param undefinedPoints the names of the points that are not implemented by
+	 *                        the device
+	 */
+	private void addBlock(int startAddress, SunSpecModel model, Set<String> undefinedPoints) {
+		this.logInfo(this.log, "Adding SunSpec-Model [" + model.name().substring(2) + ":" + model.label
+				+ "] starting at [" + startAddress + "]");
 
-						// Add a scale-factor mapping between Element and Channel
-						element = m(channelId, element,
-								new ElementToChannelScaleFactorConverter(this, scaleFactorPoint.getChannelId()));
+		AbstractModbusElement<?>[] elements = this.generateElements(startAddress, model);
+		/*
+		 * Prepare final Modbus Task
+		 * 
+		 * -> register Channels to defined SunSpec points
+		 * 
+		 * -> ignore non-defined SunSpec points with DummyElement
+		 */
+		for (int i = 0; i < elements.length; i++) {
+			SunSpecPoint point = model.points[i];
+			AbstractModbusElement<?> element = elements[i];
 
-					} else {
-						// Add a direct mapping between Element and Channel
-						element = m(channelId, element);
+			if (!undefinedPoints.contains(point.name())) {
+				// Point is available -> create Channel
+				SunSChannelId<?> channelId = point.getChannelId();
+				this.addChannel(channelId);
+
+				if (point.get().scaleFactor.isPresent()) {
+					// This Point needs a ScaleFactor
+					// - find the ScaleFactor-Point
+					String scaleFactorName = SunSpecCodeGenerator.toUpperUnderscore(point.get().scaleFactor.get());
+					SunSpecPoint scaleFactorPoint = null;
+					for (SunSpecPoint sfPoint : model.points) {
+						if (sfPoint.name().equals(scaleFactorName)) {
+							scaleFactorPoint = sfPoint;
+							continue;
+						}
 					}
-
-					// Evaluate Access-Mode of the Channel
-					switch (point.get().accessMode) {
-					case READ_ONLY:
-						// Read-Only -> replace element with dummy
-						element = new DummyRegisterElement(element.getStartAddress(),
-								element.getStartAddress() + point.get().type.length - 1);
-						break;
-					case READ_WRITE:
-					case WRITE_ONLY:
-						// Add a Write-Task
-						final Task writeTask = new FC16WriteRegistersTask(element.getStartAddress(), element);
-						this.modbusProtocol.addTask(writeTask);
-						break;
+					if (scaleFactorPoint == null) {
+						// Unable to find ScaleFactor-Point
+						this.logError(this.log, "Unable to find ScaleFactor [" + scaleFactorName + "] for Point ["
+								+ point.name() + "]");
 					}
 
+					// Add a scale-factor mapping between Element and Channel
+					element = m(channelId, element,
+							new ElementToChannelScaleFactorConverter(this, scaleFactorPoint.getChannelId()));
+
 				} else {
-					// Point is not available -> replace element with dummy
+					// Add a direct mapping between Element and Channel
+					element = m(channelId, element);
+				}
+
+				// Evaluate Access-Mode of the Channel
+				switch (point.get().accessMode) {
+				case READ_ONLY:
+					// Read-Only -> replace element with dummy
 					element = new DummyRegisterElement(element.getStartAddress(),
 							element.getStartAddress() + point.get().type.length - 1);
+					break;
+				case READ_WRITE:
+				case WRITE_ONLY:
+					// Add a Write-Task
+					final Task writeTask = new FC16WriteRegistersTask(element.getStartAddress(), element);
+					this.modbusProtocol.addTask(writeTask);
+					break;
 				}
+
+			} else {
+				// Point is not available -> replace element with dummy
+				element = new DummyRegisterElement(element.getStartAddress(),
+						element.getStartAddress() + point.get().type.length - 1);
 			}
-			final Task readTask = new FC3ReadRegistersTask(elements[0].getStartAddress(), Priority.HIGH, elements);
-			this.modbusProtocol.addTask(readTask);
+		}
+		final Task readTask = new FC3ReadRegistersTask(elements[0].getStartAddress(), Priority.HIGH, elements);
+		this.modbusProtocol.addTask(readTask);
+	}
 
-			finished.complete(null);
+	/**
+	 * Reads consecutive registers from Modbus; tries again on error, up to the
+	 * given number of attempts.
+	 *
+	 * @param startAddress the address of the first register
+	 * @param length       the number of registers
+	 * @param attempts     the maximum number of attempts
+	 * @return a future with the register values; null if all attempts failed
+	 */
+	private CompletableFuture<int[]> readWords(int startAddress, int length, int attempts) {
+		return this.readWordsOnce(startAddress, length).thenCompose(words -> {
+			if (words == null && attempts > 1) {
+				return this.readWords(startAddress, length, attempts - 1);
+			}
+			return CompletableFuture.completedFuture(words);
 		});
-		return finished;
+	}
 
+	/**
+	 * Reads consecutive registers once from Modbus. Unlike the other read
+	 * methods, this is not retried: the future completes with null on the first
+	 * error, e.g. if the device does not support reads of this size.
+	 * 
+	 * @param startAddress the address of the first register
+	 * @param length       the number of registers
+	 * @return a future with the register values; null on error
+	 */
+	private CompletableFuture<int[]> readWordsOnce(int startAddress, int length) {
+		final CompletableFuture<int[]> result = new CompletableFuture<int[]>();
+		final int[] words = new int[length];
+		final UnsignedWordElement[] elements = new UnsignedWordElement[length];
+		final AtomicInteger remaining = new AtomicInteger(length);
+		for (int i = 0; i < length; i++) {
+			final int index = i;
+			elements[i] = new UnsignedWordElement(startAddress + i);
+			elements[i].onUpdateCallback(value -> {
+				if (value == null) {
+					result.complete(null);
+					return;
+				}
+				words[index] = value;
+				if (remaining.decrementAndGet() == 0) {
+					result.complete(words);
+				}
+			});
+		}
+
+		// Activate task
+		final Task task = new FC3ReadRegistersTask(startAddress, Priority.HIGH, elements);
+		this.modbusProtocol.addTask(task);
+
+		// do not try again
+		result.thenRun(() -> this.modbusProtocol.removeTask(task));
+		return result;
+	}
+
+	/**
+	 * Decodes a SunSpec String.
+	 * 
+	 * @param words  the registers
+	 * @param offset the index of the first register of the String
+	 * @param length the length of the String in registers
+	 * @return the trimmed String
+	 */
+	static String toString(int[] words, int offset, int length) {
+		byte[] bytes = new byte[length * 2];
+		for (int i = 0; i < length; i++) {
+			bytes[i * 2] = (byte) (words[offset + i] >> 8);
+			bytes[i * 2 + 1] = (byte) words[offset + i];
+		}
+		return new String(bytes, StandardCharsets.US_ASCII).replace('\0', ' ').trim();
 	}
 
 	/**
@@ -0,0 +1,239 @@
+package io.openems.edge.bridge.modbus.sunspec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import io.openems.common.OpenemsConstants;
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.utils.JsonUtils;
+
+/**
+ * Persists the SunSpec model map of devices, so that a
+ * {@link AbstractOpenemsSunSpecComponent} can create its Modbus Tasks right
+ * after a restart instead of walking the model map block by block.
+ *
+ * <p>
+ * One file is kept per Modbus-Bridge and Unit-ID. It is only used if the
+ * serial number in the Common block still matches, i.e. if the device was not
+ * replaced.
+ */
+public class SunSpecDiscoveryCache {
+
+	private static final String CACHE_PATH = "sunspec";
+
+	private static SunSpecDiscoveryCache instance = null;
+
+	/**
+	 * Gets the cache in the OpenEMS Data Directory.
+	 *
+	 * @return the {@link SunSpecDiscoveryCache}
+	 */
+	public static synchronized SunSpecDiscoveryCache getDefault() {
+		if (instance == null) {
+			instance = new SunSpecDiscoveryCache(Paths.get(OpenemsConstants.getOpenemsDataDir(), CACHE_PATH));
+		}
+		return instance;
+	}
+
+	/**
+	 * One block of the SunSpec model map.
+	 */
+	public static class Block {
+
+		private final int blockId;
+		private final int startAddress;
+		private final int length;
+		private final Set<String> undefinedPoints;
+
+		/**
+		 * Creates a {@link Block}.
+		 *
+		 * @param blockId         the SunSpec block/model-ID
+		 * @param startAddress    the address of the block header
+		 * @param length          the length of the block without header
+		 * @param undefinedPoints the names of the points that are not implemented
+		 *                        by the device; null if unknown
+		 */
+		public Block(int blockId, int startAddress, int length, Set<String> undefinedPoints) {
+			this.blockId = blockId;
+			this.startAddress = startAddress;
+			this.length = length;
+			this.undefinedPoints = undefinedPoints == null ? null
+					: Collections.unmodifiableSet(new TreeSet<>(undefinedPoints));
+		}
+
+		public int getBlockId() {
+			return this.blockId;
+		}
+
+		public int getStartAddress() {
+			return this.startAddress;
+		}
+
+		public int getLength() {
+			return this.length;
+		}
+
+		/**
+		 * Gets the names of the points that are not implemented by the device.
+		 *
+		 * @return the point names; empty if the points of the block were never read
+		 */
+		public Optional<Set<String>> getUndefinedPoints() {
+			return Optional.ofNullable(this.undefinedPoints);
+		}
+
+		/**
+		 * Creates a copy of this block with the given undefined points.
+		 *
+		 * @param undefinedPoints the names of the points
+		 * @return a new {@link Block}
+		 */
+		public Block withUndefinedPoints(Set<String> undefinedPoints) {
+			return new Block(this.blockId, this.startAddress, this.length, undefinedPoints);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.blockId, this.startAddress, this.length, this.undefinedPoints);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Block)) {
+				return false;
+			}
+			Block other = (Block) obj;
+			return this.blockId == other.blockId && this.startAddress == other.startAddress
+					&& this.length == other.length && Objects.equals(this.undefinedPoints, other.undefinedPoints);
+		}
+
+		@Override
+		public String toString() {
+			return this.blockId + "@" + this.startAddress;
+		}
+
+		private JsonObject toJson() {
+			JsonObject j = JsonUtils.buildJsonObject() //
+					.addProperty("id", this.blockId) //
+					.addProperty("address", this.startAddress) //
+					.addProperty("length", this.length) //
+					.build();
+			if (this.undefinedPoints != null) {
+				JsonArray undefined = new JsonArray();
+				for (String point : this.undefinedPoints) {
+					undefined.add(point);
+				}
+				j.add("undefined", undefined);
+			}
+			return j;
+		}
+
+		private static Block fromJson(JsonElement j) throws OpenemsNamedException {
+			Set<String> undefinedPoints = null;
+			Optional<JsonArray> undefined = JsonUtils.getAsOptionalJsonArray(j, "undefined");
+			if (undefined.isPresent()) {
+				undefinedPoints = new TreeSet<>();
+				for (JsonElement point : undefined.get()) {
+					undefinedPoints.add(JsonUtils.getAsString(point));
+				}
+			}
+			return new Block(JsonUtils.getAsInt(j, "id"), JsonUtils.getAsInt(j, "address"),
+					JsonUtils.getAsInt(j, "length"), undefinedPoints);
+		}
+	}
+
+	private final Logger log = LoggerFactory.getLogger(SunSpecDiscoveryCache.class);
+	private final Path directory;
+
+	public SunSpecDiscoveryCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the cached model map of a device.
+	 *
+	 * @param modbusId     the ID of the Modbus-Bridge
+	 * @param unitId       the Modbus Unit-ID
+	 * @param serialNumber the serial number from the SunSpec Common block
+	 * @return the blocks; empty if nothing is cached for this device
+	 */
+	public synchronized Optional<List<Block>> get(String modbusId, int unitId, String serialNumber) {
+		Path file = this.getFile(modbusId, unitId);
+		try {
+			String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			JsonObject j = JsonUtils.parseToJsonObject(content);
+			if (!serialNumber.equals(JsonUtils.getAsString(j, "serialNumber"))) {
+				// device was replaced
+				return Optional.empty();
+			}
+			List<Block> result = new ArrayList<>();
+			for (JsonElement block : JsonUtils.getAsJsonArray(j, "blocks")) {
+				result.add(Block.fromJson(block));
+			}
+			return Optional.of(result);
+
+		} catch (NoSuchFileException e) {
+			return Optional.empty();
+		} catch (IOException | OpenemsNamedException | RuntimeException e) {
+			this.log.warn("Unable to read SunSpec discovery cache [" + file + "]: " + e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Stores the model map of a device; replaces any previous entry.
+	 *
+	 * @param modbusId     the ID of the Modbus-Bridge
+	 * @param unitId       the Modbus Unit-ID
+	 * @param serialNumber the serial number from the SunSpec Common block
+	 * @param blocks       the blocks
+	 */
+	public synchronized void put(String modbusId, int unitId, String serialNumber, List<Block> blocks) {
+		JsonArray jBlocks = new JsonArray();
+		for (Block block : blocks) {
+			jBlocks.add(block.toJson());
+		}
+		JsonObject j = JsonUtils.buildJsonObject() //
+				.addProperty("serialNumber", serialNumber) //
+				.add("blocks", jBlocks) //
+				.build();
+		Path file = this.getFile(modbusId, unitId);
+		try {
+			Files.createDirectories(this.directory);
+			// write atomically, so a crash never leaves a partial file
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.write(tmp, j.toString().getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			this.log.warn("Unable to write SunSpec discovery cache [" + file + "]: " + e.getMessage());
+		}
+	}
+
+	private Path getFile(String modbusId, int unitId) {
+		return this.directory.resolve(modbusId.replaceAll("[^A-Za-z0-9_.-]", "_") + "-" + unitId + ".json");
+	}
+
+}
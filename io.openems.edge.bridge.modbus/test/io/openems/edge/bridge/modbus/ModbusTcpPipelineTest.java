@@ -0,0 +1,98 @@
+package io.openems.edge.bridge.modbus;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import com.ghgande.j2mod.modbus.msg.ReadMultipleRegistersRequest;
+import com.ghgande.j2mod.modbus.msg.ReadMultipleRegistersResponse;
+
+public class ModbusTcpPipelineTest {
+
+	/**
+	 * Reads two requests and answers them in reverse order. The value of the
+	 * response register is the requested start address.
+	 *
+	 * @param server the {@link ServerSocket}
+	 * @throws Exception on error
+	 */
+	private static void answerReversed(ServerSocket server) throws Exception {
+		try (Socket socket = server.accept()) {
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			int[] transactionIds = new int[2];
+			int[] addresses = new int[2];
+			for (int i = 0; i < 2; i++) {
+				transactionIds[i] = in.readUnsignedShort();
+				in.readUnsignedShort(); // protocol
+				in.readUnsignedShort(); // length
+				in.readUnsignedByte(); // unit-id
+				in.readUnsignedByte(); // function code
+				addresses[i] = in.readUnsignedShort();
+				in.readUnsignedShort(); // count
+			}
+			for (int i = 1; i >= 0; i--) {
+				out.writeShort(transactionIds[i]);
+				out.writeShort(0);
+				out.writeShort(5);
+				out.writeByte(1);
+				out.writeByte(3);
+				out.writeByte(2);
+				out.writeShort(addresses[i]);
+			}
+			out.flush();
+			// wait till the client closes the connection
+			in.read();
+		}
+	}
+
+	@Test
+	public void testOutOfOrderResponses() throws Exception {
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			CompletableFuture<Void> device = CompletableFuture.runAsync(() -> {
+				try {
+					answerReversed(server);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+
+			ModbusTcpPipeline.Statistics statistics = new ModbusTcpPipeline.Statistics();
+			ModbusTcpPipeline pipeline = new ModbusTcpPipeline("test", InetAddress.getLoopbackAddress(),
+					server.getLocalPort(), 2, 5000, statistics);
+			ModbusTcpPipeline[] pipelines = new ModbusTcpPipeline[] { pipeline };
+
+			CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> read(pipelines, 100));
+			CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> read(pipelines, 200));
+			assertEquals(100, (int) first.get());
+			assertEquals(200, (int) second.get());
+
+			assertEquals(2, statistics.getAndResetMaxInFlight());
+			assertEquals(0, pipeline.getInFlight());
+
+			pipeline.close();
+			device.get();
+		}
+	}
+
+	private static int read(ModbusTcpPipeline[] pipelines, int address) {
+		try {
+			ReadMultipleRegistersRequest request = new ReadMultipleRegistersRequest(address, 1);
+			request.setUnitID(1);
+			PipelinedModbusTransaction transaction = new PipelinedModbusTransaction(pipelines);
+			transaction.setRequest(request);
+			transaction.execute();
+			return ((ReadMultipleRegistersResponse) transaction.getResponse()).getRegisterValue(0);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
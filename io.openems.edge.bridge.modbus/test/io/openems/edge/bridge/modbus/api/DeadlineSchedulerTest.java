@@ -0,0 +1,82 @@
+package io.openems.edge.bridge.modbus.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.openems.edge.common.taskmanager.Priority;
+
+public class DeadlineSchedulerTest {
+
+	private static final long CYCLE_TIME = 1000;
+	private static final int FRESHNESS = DeadlineScheduler.DEFAULT_LOW_PRIORITY_FRESHNESS;
+
+	@Test
+	public void testBusyBus() {
+		ScheduleSimulator simulator = new ScheduleSimulator(new DeadlineScheduler());
+		for (int i = 0; i < 8; i++) {
+			simulator.addReadTask("high" + i, Priority.HIGH, 95, 100, 90);
+		}
+		for (int i = 0; i < 40; i++) {
+			simulator.addReadTask("low" + i, Priority.LOW, 60);
+		}
+		ScheduleSimulator.Result result = simulator.run(300, CYCLE_TIME, 0);
+
+		assertEquals(0, result.getSkippedCycles());
+		for (int i = 0; i < 8; i++) {
+			assertTrue(result.toString(), result.getMaxAge("high" + i) <= 2 * CYCLE_TIME);
+		}
+		// one LOW task per Cycle would take 40 Cycles; the idle time is used instead
+		for (int i = 0; i < 40; i++) {
+			assertTrue(result.toString(), result.getMaxAge("low" + i) <= FRESHNESS * CYCLE_TIME);
+		}
+	}
+
+	@Test
+	public void testSaturatedBus() {
+		ScheduleSimulator simulator = new ScheduleSimulator(new DeadlineScheduler(5));
+		for (int i = 0; i < 10; i++) {
+			simulator.addReadTask("high" + i, Priority.HIGH, 100);
+		}
+		for (int i = 0; i < 3; i++) {
+			simulator.addReadTask("low" + i, Priority.LOW, 100);
+		}
+		ScheduleSimulator.Result result = simulator.run(200, CYCLE_TIME, 0);
+
+		// HIGH tasks do not fit in one Cycle; LOW tasks still age and get executed
+		assertTrue(result.getSkippedCycles() > 0);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(result.toString(), result.getMaxAge("low" + i) <= 3 * 5 * CYCLE_TIME);
+		}
+	}
+
+	@Test
+	public void testWritesAfterExecuteWrite() {
+		ScheduleSimulator simulator = new ScheduleSimulator(new DeadlineScheduler());
+		for (int i = 0; i < 3; i++) {
+			simulator.addReadTask("high" + i, Priority.HIGH, 100);
+		}
+		for (int i = 0; i < 20; i++) {
+			simulator.addReadTask("low" + i, Priority.LOW, 40);
+		}
+		simulator.addWriteTask("write", 50);
+		ScheduleSimulator.Result result = simulator.run(100, CYCLE_TIME, 300);
+
+		assertEquals(0, result.getWritesBeforeExecuteWrite());
+		assertTrue(result.toString(), result.getMaxWriteDelay() < 40);
+	}
+
+	@Test
+	public void testOnce() {
+		ScheduleSimulator simulator = new ScheduleSimulator(new DeadlineScheduler());
+		simulator.addReadTask("high", Priority.HIGH, 900);
+		simulator.addReadTask("once0", Priority.ONCE, 100);
+		simulator.addReadTask("once1", Priority.ONCE, 100);
+		ScheduleSimulator.Result result = simulator.run(50, CYCLE_TIME, 0);
+
+		assertEquals(1, result.getExecutions("once0"));
+		assertEquals(1, result.getExecutions("once1"));
+	}
+
+}
@@ -0,0 +1,58 @@
+package io.openems.edge.bridge.modbus.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBuckets() {
+		for (long value = 0; value < 100_000; value++) {
+			int index = LatencyHistogram.getIndex(value);
+			long upperBound = LatencyHistogram.getUpperBound(index);
+			assertTrue(value <= upperBound);
+			// relative error is at most 12.5 %
+			assertTrue(upperBound - value <= value / 8 + 1);
+			if (index > 0) {
+				assertTrue(value > LatencyHistogram.getUpperBound(index - 1));
+			}
+		}
+	}
+
+	@Test
+	public void testPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(95));
+
+		for (int i = 0; i < 95; i++) {
+			histogram.record(10);
+		}
+		for (int i = 0; i < 5; i++) {
+			histogram.record(500);
+		}
+		assertEquals(10, histogram.getPercentile(50));
+		assertEquals(10, histogram.getPercentile(95));
+		assertEquals(500, histogram.getPercentile(99));
+		assertEquals(500, histogram.getMax());
+		assertEquals(500, histogram.getLast());
+		assertEquals(100, histogram.getCount());
+	}
+
+	@Test
+	public void testDecay() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < LatencyHistogram.MAX_COUNT; i++) {
+			histogram.record(1000);
+		}
+		// device got faster: the percentile follows within a limited number of samples
+		for (int i = 0; i < 4 * LatencyHistogram.MAX_COUNT; i++) {
+			histogram.record(20);
+		}
+		assertTrue(histogram.getPercentile(95) <= 21);
+		assertEquals(5 * LatencyHistogram.MAX_COUNT, histogram.getTotalCount());
+		assertEquals(1000, histogram.getMax());
+	}
+
+}
@@ -0,0 +1,307 @@
+package io.openems.edge.bridge.modbus.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.bridge.modbus.api.element.ModbusElement;
+import io.openems.edge.bridge.modbus.api.task.ReadTask;
+import io.openems.edge.bridge.modbus.api.task.Task;
+import io.openems.edge.bridge.modbus.api.task.WaitTask;
+import io.openems.edge.bridge.modbus.api.task.WriteTask;
+import io.openems.edge.common.taskmanager.Priority;
+
+/**
+ * Replays recorded Task durations through a {@link DeadlineScheduler} on a
+ * virtual clock, to compare schedules offline.
+ *
+ * <p>
+ * Like the {@link ModbusWorker}, a new schedule is planned on every
+ * TOPIC_CYCLE_BEFORE_PROCESS_IMAGE event, unless the Tasks of the previous
+ * schedule are still running.
+ */
+public class ScheduleSimulator {
+
+	/**
+	 * The outcome of a simulation run.
+	 */
+	public static class Result {
+
+		private final Map<String, Long> maxAge = new LinkedHashMap<>();
+		private final Map<String, Integer> executions = new LinkedHashMap<>();
+		private int skippedCycles = 0;
+		private int writesBeforeExecuteWrite = 0;
+		private long maxWriteDelay = 0;
+
+		/**
+		 * Gets the maximum time between two executions of a Task (or between start of
+		 * the simulation and its first execution).
+		 *
+		 * @param name the name of the Task
+		 * @return the age in [ms]
+		 */
+		public long getMaxAge(String name) {
+			return this.maxAge.getOrDefault(name, Long.MAX_VALUE);
+		}
+
+		/**
+		 * Gets the number of executions of a Task.
+		 *
+		 * @param name the name of the Task
+		 * @return the number of executions
+		 */
+		public int getExecutions(String name) {
+			return this.executions.getOrDefault(name, 0);
+		}
+
+		/**
+		 * Gets the number of Cycles in which no new schedule was planned, because
+		 * the previous one was still running.
+		 *
+		 * @return the number of Cycles
+		 */
+		public int getSkippedCycles() {
+			return this.skippedCycles;
+		}
+
+		/**
+		 * Gets the number of Write-Tasks that started before the
+		 * TOPIC_CYCLE_EXECUTE_WRITE event.
+		 *
+		 * @return the number of Write-Tasks
+		 */
+		public int getWritesBeforeExecuteWrite() {
+			return this.writesBeforeExecuteWrite;
+		}
+
+		/**
+		 * Gets the maximum delay between the TOPIC_CYCLE_EXECUTE_WRITE event and the
+		 * start of a Write-Task.
+		 *
+		 * @return the delay in [ms]
+		 */
+		public long getMaxWriteDelay() {
+			return this.maxWriteDelay;
+		}
+
+		@Override
+		public String toString() {
+			return this.maxAge.keySet().stream() //
+					.map(name -> name + ": maxAge=" + this.maxAge.get(name) + " executions="
+							+ this.executions.get(name)) //
+					.collect(Collectors.joining(", ", "[", "]")) //
+					+ " skippedCycles=" + this.skippedCycles //
+					+ " maxWriteDelay=" + this.maxWriteDelay;
+		}
+	}
+
+	private final DeadlineScheduler scheduler;
+	private final List<SimulatedTask> tasks = new ArrayList<>();
+
+	public ScheduleSimulator(DeadlineScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Adds a Read-Task.
+	 *
+	 * @param name      the name of the Task
+	 * @param priority  the {@link Priority}
+	 * @param durations the recorded durations in [ms]; replayed in a loop
+	 * @return myself
+	 */
+	public ScheduleSimulator addReadTask(String name, Priority priority, long... durations) {
+		this.tasks.add(new SimulatedReadTask(name, priority, durations));
+		return this;
+	}
+
+	/**
+	 * Adds a Write-Task.
+	 *
+	 * @param name      the name of the Task
+	 * @param durations the recorded durations in [ms]; replayed in a loop
+	 * @return myself
+	 */
+	public ScheduleSimulator addWriteTask(String name, long... durations) {
+		this.tasks.add(new SimulatedWriteTask(name, durations));
+		return this;
+	}
+
+	/**
+	 * Runs the simulation.
+	 *
+	 * @param cycles                   the number of Cycles
+	 * @param cycleTime                the Cycle-Time in [ms]
+	 * @param durationTillExecuteWrite the duration between
+	 *                                 TOPIC_CYCLE_BEFORE_PROCESS_IMAGE and
+	 *                                 TOPIC_CYCLE_EXECUTE_WRITE events in [ms]
+	 * @return the {@link Result}
+	 */
+	public Result run(int cycles, long cycleTime, long durationTillExecuteWrite) {
+		Result result = new Result();
+		Map<String, Long> lastExecution = new LinkedHashMap<>();
+		for (SimulatedTask task : this.tasks) {
+			lastExecution.put(task.name, 0L);
+			result.maxAge.put(task.name, 0L);
+			result.executions.put(task.name, 0);
+		}
+
+		Deque<Task> queue = new ArrayDeque<>();
+		long time = 0; // the bus is busy till this time
+		for (int cycle = 0; cycle < cycles; cycle++) {
+			long beforeProcessImage = cycle * cycleTime;
+			long executeWrite = beforeProcessImage + durationTillExecuteWrite;
+
+			// execute Tasks that start before this event
+			while (!queue.isEmpty() && time < beforeProcessImage) {
+				time = this.execute(queue.poll(), time, executeWrite - cycleTime, lastExecution, result);
+			}
+			time = Math.max(time, beforeProcessImage);
+
+			if (!queue.isEmpty()) {
+				result.skippedCycles++;
+				continue;
+			}
+
+			List<WriteTask> writeTasks = this.getTasks(WriteTask.class, null);
+			List<ReadTask> readTasks = this.scheduler.selectReadTasks(time, cycleTime,
+					this.getTasks(ReadTask.class, Priority.HIGH), this.getTasks(ReadTask.class, Priority.LOW),
+					this.getTasks(ReadTask.class, Priority.ONCE), writeTasks);
+			queue.addAll(this.scheduler.plan(cycleTime, durationTillExecuteWrite, readTasks, writeTasks).getTasks());
+		}
+
+		// ages of Tasks that were not executed till the end of the simulation
+		long end = cycles * cycleTime;
+		for (SimulatedTask task : this.tasks) {
+			result.maxAge.merge(task.name, end - lastExecution.get(task.name), Math::max);
+		}
+		return result;
+	}
+
+	private long execute(Task task, long time, long executeWrite, Map<String, Long> lastExecution,
+			Result result) {
+		if (task instanceof WaitTask) {
+			return time + task.getExecuteDuration();
+		}
+		SimulatedTask simulatedTask = (SimulatedTask) task;
+		if (task instanceof WriteTask) {
+			if (time < executeWrite) {
+				result.writesBeforeExecuteWrite++;
+			} else {
+				result.maxWriteDelay = Math.max(result.maxWriteDelay, time - executeWrite);
+			}
+		}
+		long end = time + simulatedTask.replay();
+		result.maxAge.merge(simulatedTask.name, end - lastExecution.get(simulatedTask.name), Math::max);
+		result.executions.merge(simulatedTask.name, 1, Integer::sum);
+		lastExecution.put(simulatedTask.name, end);
+		return end;
+	}
+
+	private <T extends Task> List<T> getTasks(Class<T> type, Priority priority) {
+		List<T> result = new ArrayList<>();
+		for (SimulatedTask task : this.tasks) {
+			if (type.isInstance(task) && (priority == null || task.getPriority() == priority)) {
+				result.add(type.cast(task));
+			}
+		}
+		return result;
+	}
+
+	private abstract static class SimulatedTask implements Task {
+
+		private final String name;
+		private final Priority priority;
+		private final long[] durations;
+		private final LatencyHistogram executeDurations = new LatencyHistogram();
+		private int nextDuration = 0;
+
+		private SimulatedTask(String name, Priority priority, long[] durations) {
+			this.name = name;
+			this.priority = priority;
+			this.durations = durations;
+		}
+
+		private long replay() {
+			long duration = this.durations[this.nextDuration++ % this.durations.length];
+			this.executeDurations.record(duration);
+			return duration;
+		}
+
+		@Override
+		public Priority getPriority() {
+			return this.priority;
+		}
+
+		@Override
+		public ModbusElement<?>[] getElements() {
+			return new ModbusElement[0];
+		}
+
+		@Override
+		public int getStartAddress() {
+			return 0;
+		}
+
+		@Override
+		public void setParent(AbstractOpenemsModbusComponent parent) {
+		}
+
+		@Override
+		public AbstractOpenemsModbusComponent getParent() {
+			return null;
+		}
+
+		@Override
+		public void deactivate() {
+		}
+
+		@Override
+		public <T> int execute(AbstractModbusBridge bridge) throws OpenemsException {
+			throw new UnsupportedOperationException("Simulated Task");
+		}
+
+		@Override
+		public boolean hasBeenExecuted() {
+			return this.executeDurations.getTotalCount() > 0;
+		}
+
+		@Override
+		public long getExecuteDuration() {
+			if (this.executeDurations.getCount() == 0) {
+				return this.durations[0];
+			}
+			return this.executeDurations.getPercentile(95);
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+	private static class SimulatedReadTask extends SimulatedTask implements ReadTask {
+
+		private SimulatedReadTask(String name, Priority priority, long[] durations) {
+			super(name, priority, durations);
+		}
+	}
+
+	private static class SimulatedWriteTask extends SimulatedTask implements WriteTask {
+
+		private SimulatedWriteTask(String name, long[] durations) {
+			super(name, Priority.HIGH, durations);
+		}
+
+		@Override
+		public Priority getPriority() {
+			return Priority.HIGH;
+		}
+	}
+
+}
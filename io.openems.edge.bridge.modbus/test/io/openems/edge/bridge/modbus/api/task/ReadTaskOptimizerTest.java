@@ -0,0 +1,82 @@
+package io.openems.edge.bridge.modbus.api.task;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.openems.edge.bridge.modbus.api.element.UnsignedWordElement;
+import io.openems.edge.common.taskmanager.Priority;
+
+public class ReadTaskOptimizerTest {
+
+	private static final int UNIT_ID = 1;
+
+	private static AbstractReadInputRegistersTask task(int startAddress, int length) {
+		UnsignedWordElement[] elements = new UnsignedWordElement[length];
+		for (int i = 0; i < length; i++) {
+			elements[i] = new UnsignedWordElement(startAddress + i);
+		}
+		return new FC3ReadRegistersTask(startAddress, Priority.HIGH, elements);
+	}
+
+	@Test
+	public void testSplit() {
+		ReadTaskOptimizer optimizer = new ReadTaskOptimizer();
+		AbstractReadInputRegistersTask t0 = task(0, 2);
+		AbstractReadInputRegistersTask t3 = task(3, 1);
+		AbstractReadInputRegistersTask t10 = task(10, 1);
+		AbstractReadInputRegistersTask t200 = task(200, 1);
+		List<AbstractReadInputRegistersTask> group = Arrays.asList(t0, t3, t10, t200);
+
+		List<List<AbstractReadInputRegistersTask>> ranges = optimizer.split(group, UNIT_ID, ReadTaskOptimizer.FC3, 1);
+		assertEquals(3, ranges.size());
+		assertEquals(Arrays.asList(t0, t3), ranges.get(0));
+		assertEquals(Arrays.asList(t10), ranges.get(1));
+		assertEquals(Arrays.asList(t200), ranges.get(2));
+
+		ranges = optimizer.split(group, UNIT_ID, ReadTaskOptimizer.FC3, 10);
+		assertEquals(2, ranges.size());
+		assertEquals(Arrays.asList(t0, t3, t10), ranges.get(0));
+
+		// adjacent tasks are merged even with a maximum gap of 0
+		ranges = optimizer.split(Arrays.asList(t0, task(2, 1)), UNIT_ID, ReadTaskOptimizer.FC3, 0);
+		assertEquals(1, ranges.size());
+	}
+
+	@Test
+	public void testMaxRegisters() {
+		ReadTaskOptimizer optimizer = new ReadTaskOptimizer();
+		AbstractReadInputRegistersTask t0 = task(0, 2);
+		AbstractReadInputRegistersTask t123 = task(123, 2);
+		AbstractReadInputRegistersTask t124 = task(124, 2);
+
+		assertEquals(1, optimizer.split(Arrays.asList(t0, t123), UNIT_ID, ReadTaskOptimizer.FC3, 200).size());
+		assertEquals(2, optimizer.split(Arrays.asList(t0, t124), UNIT_ID, ReadTaskOptimizer.FC3, 200).size());
+	}
+
+	@Test
+	public void testIllegalAddress() {
+		ReadTaskOptimizer optimizer = new ReadTaskOptimizer();
+		AbstractReadInputRegistersTask t0 = task(0, 2);
+		AbstractReadInputRegistersTask t3 = task(3, 1);
+		AbstractReadInputRegistersTask t5 = task(5, 1);
+		List<AbstractReadInputRegistersTask> group = Arrays.asList(t0, t3, t5);
+
+		MergedReadRegistersTask merged = new MergedReadRegistersTask(optimizer, ReadTaskOptimizer.FC3, UNIT_ID,
+				group);
+		assertEquals(0, merged.getStartAddress());
+		assertEquals(6, merged.getLength());
+		assertEquals(4, merged.getElements().length);
+
+		optimizer.onIllegalAddress(merged);
+		assertEquals(3, optimizer.split(group, UNIT_ID, ReadTaskOptimizer.FC3, 10).size());
+
+		// other Unit-IDs and Function-Codes are not affected
+		assertEquals(1, optimizer.split(group, 2, ReadTaskOptimizer.FC3, 10).size());
+		assertEquals(1, optimizer.split(group, UNIT_ID, ReadTaskOptimizer.FC4, 10).size());
+	}
+
+}
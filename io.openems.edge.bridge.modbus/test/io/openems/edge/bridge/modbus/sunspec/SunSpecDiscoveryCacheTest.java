@@ -0,0 +1,95 @@
+package io.openems.edge.bridge.modbus.sunspec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.openems.edge.bridge.modbus.sunspec.SunSpecDiscoveryCache.Block;
+
+public class SunSpecDiscoveryCacheTest {
+
+	private Path directory;
+
+	@Before
+	public void before() throws IOException {
+		this.directory = Files.createTempDirectory("sunspec");
+	}
+
+	@After
+	public void after() throws IOException {
+		Files.walk(this.directory) //
+				.sorted(Comparator.reverseOrder()) //
+				.forEach(path -> path.toFile().delete());
+	}
+
+	@Test
+	public void testPutAndGet() throws Exception {
+		SunSpecDiscoveryCache cache = new SunSpecDiscoveryCache(this.directory.resolve("sunspec"));
+		assertFalse(cache.get("modbus0", 1, "SN1").isPresent());
+
+		List<Block> blocks = Arrays.asList(//
+				new Block(1, 40_002, 66, new HashSet<>(Arrays.asList("S1_OPT", "S1_VR"))), //
+				new Block(103, 40_070, 50, new HashSet<>()), //
+				new Block(120, 40_122, 26, null));
+		cache.put("modbus0", 1, "SN1", blocks);
+
+		assertEquals(Optional.of(blocks), cache.get("modbus0", 1, "SN1"));
+		assertEquals(Optional.of(blocks),
+				new SunSpecDiscoveryCache(this.directory.resolve("sunspec")).get("modbus0", 1, "SN1"));
+
+		// other device at the same address
+		assertFalse(cache.get("modbus0", 1, "SN2").isPresent());
+		// other unit-ID or bridge
+		assertFalse(cache.get("modbus0", 2, "SN1").isPresent());
+		assertFalse(cache.get("modbus1", 1, "SN1").isPresent());
+
+		// replaced
+		cache.put("modbus0", 1, "SN2", new ArrayList<>());
+		assertFalse(cache.get("modbus0", 1, "SN1").isPresent());
+	}
+
+	@Test
+	public void testParseBlockHeaders() {
+		List<Block> blocks = new ArrayList<>();
+		int[] words = new int[10];
+		words[0] = 1;
+		words[1] = 3;
+		words[5] = 103;
+		words[6] = 50;
+		// second header is complete in the window -> continue after it
+		assertEquals(40_002 + 5 + 52, AbstractOpenemsSunSpecComponent.parseBlockHeaders(40_002, words, blocks));
+		assertEquals(Arrays.asList(new Block(1, 40_002, 3, null), new Block(103, 40_007, 50, null)), blocks);
+
+		// header is split at the end of the window -> read it again
+		blocks.clear();
+		words = new int[] { 1, 7, 0, 0, 0, 0, 0, 0, 0, 120 };
+		assertEquals(40_011, AbstractOpenemsSunSpecComponent.parseBlockHeaders(40_002, words, blocks));
+		assertEquals(1, blocks.size());
+
+		// end of map
+		blocks.clear();
+		words = new int[] { 1, 1, 0, 0xFFFF, 0 };
+		assertEquals(-1, AbstractOpenemsSunSpecComponent.parseBlockHeaders(40_002, words, blocks));
+		assertEquals(1, blocks.size());
+	}
+
+	@Test
+	public void testToString() {
+		int[] words = new int[] { 0, 0x534E, 0x2D31, 0x3200, 0, 0 };
+		assertEquals("SN-12", AbstractOpenemsSunSpecComponent.toString(words, 1, 5));
+	}
+
+}
@@ -7,6 +7,8 @@ import org.osgi.annotation.versioning.ProviderType;
 import com.dalsemi.onewire.adapter.DSPortAdapter;
 
 import io.openems.common.channel.Level;
+import io.openems.common.channel.Unit;
+import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.Doc;
 import io.openems.edge.common.channel.StateChannel;
 import io.openems.edge.common.component.OpenemsComponent;
@@ -15,7 +17,13 @@ import io.openems.edge.common.component.OpenemsComponent;
 public interface BridgeOnewire extends OpenemsComponent {
 
 	public enum ChannelId implements io.openems.edge.common.channel.ChannelId {
-		UNABLE_TO_SELECT_PORT(Doc.of(Level.FAULT));
+		UNABLE_TO_SELECT_PORT(Doc.of(Level.FAULT)), //
+		/**
+		 * Duration of the last thermometer round: convert and read all due
+		 * thermometers.
+		 */
+		EXECUTION_DURATION(Doc.of(OpenemsType.LONG) //
+				.unit(Unit.MILLISECONDS));
 
 		private final Doc doc;
 
@@ -46,6 +54,24 @@ public interface BridgeOnewire extends OpenemsComponent {
 	 */
 	public void removeTask(Consumer<DSPortAdapter> task);
 
+	/**
+	 * Adds a thermometer to the scheduler.
+	 * 
+	 * <p>
+	 * The bridge publishes the read time and the number of CRC errors of every
+	 * thermometer as Channels '[SourceId]ReadTime' and '[SourceId]CrcErrors'.
+	 * 
+	 * @param task the {@link ThermometerTask}
+	 */
+	public void addThermometer(ThermometerTask task);
+
+	/**
+	 * Removes a thermometer from the scheduler.
+	 * 
+	 * @param task the {@link ThermometerTask}
+	 */
+	public void removeThermometer(ThermometerTask task);
+
 	public default StateChannel getUnableToSelectPortChannel() {
 		return this.channel(BridgeOnewire.ChannelId.UNABLE_TO_SELECT_PORT);
 	}
@@ -0,0 +1,107 @@
+package io.openems.edge.bridge.onewire;
+
+import java.util.function.Consumer;
+
+import com.dalsemi.onewire.utils.Address;
+
+/**
+ * A 1-Wire thermometer that is read by the scheduler of the
+ * {@link BridgeOnewire}.
+ *
+ * <p>
+ * All thermometers on the bus convert at the same time on a single 'Skip ROM'
+ * convert command; afterwards the scratchpads of the due thermometers are read
+ * one after the other.
+ */
+public class ThermometerTask {
+
+	private static final int FAMILY_DS18S20 = 0x10;
+	private static final int FAMILY_DS1822 = 0x22;
+	private static final int FAMILY_DS18B20 = 0x28;
+
+	/**
+	 * Checks if the device at the given address is supported by the scheduler.
+	 *
+	 * @param address the 1-Wire address
+	 * @return true for DS18S20, DS1822 and DS18B20
+	 */
+	public static boolean isSupported(String address) {
+		try {
+			switch (getFamily(Address.toByteArray(address))) {
+			case FAMILY_DS18S20:
+			case FAMILY_DS1822:
+			case FAMILY_DS18B20:
+				return true;
+			default:
+				return false;
+			}
+		} catch (RuntimeException e) {
+			// invalid address
+			return false;
+		}
+	}
+
+	private static int getFamily(byte[] address) {
+		return address[0] & 0xFF;
+	}
+
+	private final String sourceId;
+	private final byte[] address;
+	private final int interval;
+	private final Consumer<Double> onTemperature;
+
+	/**
+	 * Creates a {@link ThermometerTask}.
+	 *
+	 * @param sourceId      the Component-ID of the thermometer
+	 * @param address       the 1-Wire address
+	 * @param interval      the read interval in [s]
+	 * @param onTemperature called with the temperature in [degC] after every
+	 *                      read; with null if the read failed
+	 */
+	public ThermometerTask(String sourceId, String address, int interval, Consumer<Double> onTemperature) {
+		this.sourceId = sourceId;
+		this.address = Address.toByteArray(address);
+		this.interval = interval;
+		this.onTemperature = onTemperature;
+	}
+
+	public String getSourceId() {
+		return this.sourceId;
+	}
+
+	public byte[] getAddress() {
+		return this.address;
+	}
+
+	public int getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Converts the temperature register of the scratchpad.
+	 *
+	 * @param scratchpad the 9-byte scratchpad
+	 * @return the temperature in [degC]
+	 */
+	public double getTemperature(byte[] scratchpad) {
+		// sign extended 16 bit value from LSB and MSB
+		int raw = (scratchpad[1] << 8) | (scratchpad[0] & 0xFF);
+		if (getFamily(this.address) == FAMILY_DS18S20) {
+			// 9 bit resolution: 0.5 degC per bit
+			return raw / 2.0;
+		}
+		// 12 bit resolution: 0.0625 degC per bit
+		return raw / 16.0;
+	}
+
+	/**
+	 * Called by the scheduler after every read.
+	 *
+	 * @param temperature the temperature in [degC]; null if the read failed
+	 */
+	public void onTemperature(Double temperature) {
+		this.onTemperature.accept(temperature);
+	}
+
+}
@@ -1,5 +1,7 @@
 package io.openems.edge.bridge.onewire.impl;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import org.osgi.service.component.ComponentContext;
@@ -14,6 +16,8 @@ import org.slf4j.Logger;
 import com.dalsemi.onewire.adapter.DSPortAdapter;
 
 import io.openems.edge.bridge.onewire.BridgeOnewire;
+import io.openems.edge.bridge.onewire.ThermometerTask;
+import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
@@ -27,6 +31,11 @@ import io.openems.edge.common.event.EdgeEventConstants;
 		})
 public class BridgeOnewireImpl extends AbstractOpenemsComponent implements BridgeOnewire, OpenemsComponent {
 
+	/**
+	 * The per-device Channels of the registered thermometers.
+	 */
+	private final Map<ThermometerTask, Channel<?>[]> thermometerChannels = new ConcurrentHashMap<>();
+
 	private OneWireTaskWorker taskWorker = null;
 
 	public BridgeOnewireImpl() {
@@ -68,6 +77,40 @@ public class BridgeOnewireImpl extends AbstractOpenemsComponent implements Bridg
 		}
 	}
 
+	@Override
+	public void addThermometer(ThermometerTask task) {
+		if (this.taskWorker == null) {
+			return;
+		}
+		Channel<Long> readTimeChannel = this.addDeviceChannel(DeviceChannelId.readTime(task.getSourceId()));
+		Channel<Long> crcErrorsChannel = this.addDeviceChannel(DeviceChannelId.crcErrors(task.getSourceId()));
+		this.thermometerChannels.put(task, new Channel<?>[] { readTimeChannel, crcErrorsChannel });
+		this.taskWorker.addThermometer(task, readTimeChannel, crcErrorsChannel);
+	}
+
+	@Override
+	public void removeThermometer(ThermometerTask task) {
+		if (this.taskWorker != null) {
+			this.taskWorker.removeThermometer(task);
+		}
+		Channel<?>[] channels = this.thermometerChannels.remove(task);
+		if (channels != null) {
+			for (Channel<?> channel : channels) {
+				this.removeChannel(channel);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Channel<Long> addDeviceChannel(DeviceChannelId channelId) {
+		return (Channel<Long>) this.addChannel(channelId);
+	}
+
+	@Override
+	protected void logWarn(Logger log, String message) {
+		super.logWarn(log, message);
+	}
+
 	@Override
 	protected void logError(Logger log, String message) {
 		super.logError(log, message);
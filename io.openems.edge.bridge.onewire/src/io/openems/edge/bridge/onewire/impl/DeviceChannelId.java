@@ -0,0 +1,55 @@
+package io.openems.edge.bridge.onewire.impl;
+
+import io.openems.common.channel.Unit;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.ChannelId;
+import io.openems.edge.common.channel.Doc;
+
+/**
+ * The Channel-IDs that are created on the bridge for every thermometer.
+ */
+class DeviceChannelId implements ChannelId {
+
+	/**
+	 * Creates the Channel-ID for the duration of the last scratchpad read.
+	 *
+	 * @param sourceId the Component-ID of the thermometer
+	 * @return the {@link DeviceChannelId}
+	 */
+	static DeviceChannelId readTime(String sourceId) {
+		return new DeviceChannelId(toName(sourceId) + "_READ_TIME", Doc.of(OpenemsType.LONG) //
+				.unit(Unit.MILLISECONDS));
+	}
+
+	/**
+	 * Creates the Channel-ID for the number of CRC errors since activation.
+	 *
+	 * @param sourceId the Component-ID of the thermometer
+	 * @return the {@link DeviceChannelId}
+	 */
+	static DeviceChannelId crcErrors(String sourceId) {
+		return new DeviceChannelId(toName(sourceId) + "_CRC_ERRORS", Doc.of(OpenemsType.LONG));
+	}
+
+	private static String toName(String sourceId) {
+		return sourceId.replaceAll("[^A-Za-z0-9]", "_").toUpperCase();
+	}
+
+	private final String name;
+	private final Doc doc;
+
+	private DeviceChannelId(String name, Doc doc) {
+		this.name = name;
+		this.doc = doc;
+	}
+
+	@Override
+	public String name() {
+		return this.name;
+	}
+
+	@Override
+	public Doc doc() {
+		return this.doc;
+	}
+}
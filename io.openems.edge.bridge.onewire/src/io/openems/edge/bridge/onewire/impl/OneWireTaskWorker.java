@@ -1,7 +1,12 @@
 package io.openems.edge.bridge.onewire.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -9,15 +14,70 @@ import org.slf4j.LoggerFactory;
 
 import com.dalsemi.onewire.OneWireException;
 import com.dalsemi.onewire.adapter.DSPortAdapter;
+import com.dalsemi.onewire.adapter.OneWireIOException;
 import com.dalsemi.onewire.adapter.PDKAdapterUSB;
+import com.dalsemi.onewire.utils.CRC8;
 
 import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.utils.Mutex;
 import io.openems.common.worker.AbstractImmediateWorker;
+import io.openems.edge.bridge.onewire.BridgeOnewire;
+import io.openems.edge.bridge.onewire.ThermometerTask;
+import io.openems.edge.common.channel.Channel;
 
+/**
+ * Owns the 1-Wire bus.
+ *
+ * <ul>
+ * <li>Generic tasks registered via {@link #addTask(Consumer)} are executed
+ * back-to-back
+ * <li>Thermometers registered via
+ * {@link #addThermometer(ThermometerTask, Channel, Channel)} are read in their
+ * own interval: one 'Skip ROM' convert command starts the conversion on all
+ * thermometers at once, then the scratchpads of the due thermometers are read
+ * one after the other
+ * </ul>
+ */
 public class OneWireTaskWorker extends AbstractImmediateWorker {
 
+	private static final int SKIP_ROM_COMMAND = 0xCC;
+	private static final int CONVERT_TEMPERATURE_COMMAND = 0x44;
+	private static final int READ_SCRATCHPAD_COMMAND = 0xBE;
+	private static final int SCRATCHPAD_LENGTH = 9;
+
+	/**
+	 * Maximum conversion time of a DS18B20 in 12 bit resolution.
+	 */
+	private static final long CONVERSION_TIME = 750;
+
+	/**
+	 * Wait time if there is nothing to do.
+	 */
+	private static final long IDLE_TIME = 1000;
+
+	/**
+	 * The schedule of one thermometer. Only accessed by the worker thread after
+	 * creation.
+	 */
+	private static class Schedule {
+		private final ThermometerTask task;
+		private final Channel<Long> readTimeChannel;
+		private final Channel<Long> crcErrorsChannel;
+
+		private long nextDue = 0;
+		private long crcErrors = 0;
+
+		private Schedule(ThermometerTask task, Channel<Long> readTimeChannel, Channel<Long> crcErrorsChannel) {
+			this.task = task;
+			this.readTimeChannel = readTimeChannel;
+			this.crcErrorsChannel = crcErrorsChannel;
+		}
+	}
+
 	private final Logger log = LoggerFactory.getLogger(OneWireTaskWorker.class);
-	private final List<Consumer<DSPortAdapter>> tasks = new ArrayList<>();
+	private final List<Consumer<DSPortAdapter>> tasks = new CopyOnWriteArrayList<>();
+	private final Map<ThermometerTask, Schedule> schedules = new ConcurrentHashMap<>();
+	private final Mutex wakeup = new Mutex(false);
 	private final BridgeOnewireImpl parent;
 	private final String port;
 
@@ -39,16 +99,158 @@ public class OneWireTaskWorker extends AbstractImmediateWorker {
 			return;
 		}
 
-		synchronized (this.tasks) {
-			for (Consumer<DSPortAdapter> task : this.tasks) {
-				task.accept(adapter);
+		// the list is copied on write, so adding or removing a task never waits for
+		// the bus
+		for (Consumer<DSPortAdapter> task : this.tasks) {
+			task.accept(adapter);
+		}
+
+		long now = System.currentTimeMillis();
+		List<Schedule> due = new ArrayList<>();
+		for (Schedule schedule : this.schedules.values()) {
+			if (schedule.nextDue <= now) {
+				due.add(schedule);
+			}
+		}
+		if (!due.isEmpty()) {
+			long start = System.nanoTime();
+			this.readThermometers(adapter, due);
+			this.parent.channel(BridgeOnewire.ChannelId.EXECUTION_DURATION)
+					.setNextValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+
+		if (this.tasks.isEmpty()) {
+			// sleep till the next thermometer is due
+			long nextDue = Long.MAX_VALUE;
+			for (Schedule schedule : this.schedules.values()) {
+				nextDue = Math.min(nextDue, schedule.nextDue);
+			}
+			long sleep = nextDue == Long.MAX_VALUE ? IDLE_TIME : nextDue - System.currentTimeMillis();
+			if (sleep > 0) {
+				this.wakeup.awaitOrTimeout(sleep, TimeUnit.MILLISECONDS);
 			}
 		}
 	}
 
+	/**
+	 * Converts the temperature on all thermometers and reads the due ones.
+	 *
+	 * @param adapter the {@link DSPortAdapter}
+	 * @param due     the due thermometers
+	 * @throws InterruptedException while waiting for the conversion
+	 */
+	private void readThermometers(DSPortAdapter adapter, List<Schedule> due) throws InterruptedException {
+		long now = System.currentTimeMillis();
+		for (Schedule schedule : due) {
+			schedule.nextDue = now + schedule.task.getInterval() * 1000L;
+		}
+
+		try {
+			this.convertAll(adapter);
+		} catch (OneWireException e) {
+			this.parent.logError(this.log, "Unable to start temperature conversion: " + e.getMessage());
+			for (Schedule schedule : due) {
+				schedule.task.onTemperature(null);
+			}
+			return;
+		}
+
+		for (Schedule schedule : due) {
+			long start = System.nanoTime();
+			Double temperature = null;
+			try {
+				byte[] scratchpad = this.readScratchpad(adapter, schedule.task.getAddress());
+				if (scratchpad != null) {
+					temperature = schedule.task.getTemperature(scratchpad);
+				} else {
+					schedule.crcErrors++;
+					this.parent.logWarn(this.log, "Invalid scratchpad of thermometer [" + schedule.task.getSourceId()
+							+ "]. Total [" + schedule.crcErrors + "]");
+				}
+			} catch (OneWireException e) {
+				this.parent.logError(this.log,
+						"Unable to read thermometer [" + schedule.task.getSourceId() + "]: " + e.getMessage());
+			}
+			schedule.readTimeChannel.setNextValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			schedule.crcErrorsChannel.setNextValue(schedule.crcErrors);
+			schedule.task.onTemperature(temperature);
+		}
+	}
+
+	/**
+	 * Starts the temperature conversion on all devices on the bus with a single
+	 * 'Skip ROM' command and waits for it to finish. Parasite powered devices are
+	 * supplied by a strong pull-up meanwhile.
+	 *
+	 * @param adapter the {@link DSPortAdapter}
+	 * @throws OneWireException     on error
+	 * @throws InterruptedException while waiting for the conversion
+	 */
+	private void convertAll(DSPortAdapter adapter) throws OneWireException, InterruptedException {
+		if (adapter.reset() == DSPortAdapter.RESET_NOPRESENCE) {
+			throw new OneWireIOException("No device present on 1-Wire Network");
+		}
+		adapter.putByte(SKIP_ROM_COMMAND);
+		boolean isPowerDelivery = adapter.canDeliverPower();
+		if (isPowerDelivery) {
+			adapter.setPowerDuration(DSPortAdapter.DELIVERY_INFINITE);
+			adapter.startPowerDelivery(DSPortAdapter.CONDITION_AFTER_BYTE);
+		}
+		adapter.putByte(CONVERT_TEMPERATURE_COMMAND);
+		try {
+			Thread.sleep(CONVERSION_TIME);
+		} finally {
+			if (isPowerDelivery) {
+				adapter.setPowerNormal();
+			}
+		}
+	}
+
+	/**
+	 * Reads the scratchpad of one device.
+	 *
+	 * @param adapter the {@link DSPortAdapter}
+	 * @param address the 1-Wire address
+	 * @return the 9-byte scratchpad; null if it is invalid
+	 * @throws OneWireException on error
+	 */
+	private byte[] readScratchpad(DSPortAdapter adapter, byte[] address) throws OneWireException {
+		if (!adapter.select(address)) {
+			throw new OneWireIOException("Device not found on 1-Wire Network");
+		}
+		byte[] block = new byte[SCRATCHPAD_LENGTH + 1];
+		Arrays.fill(block, (byte) 0xFF);
+		block[0] = (byte) READ_SCRATCHPAD_COMMAND;
+		adapter.dataBlock(block, 0, block.length);
+		byte[] scratchpad = Arrays.copyOfRange(block, 1, block.length);
+		return isValidScratchpad(scratchpad) ? scratchpad : null;
+	}
+
+	/**
+	 * Checks the CRC8 of a scratchpad.
+	 *
+	 * <p>
+	 * A bus that is held low reads as all zeros, which has a valid CRC8 of zero as
+	 * well; such a scratchpad is rejected, too.
+	 *
+	 * @param scratchpad the 9-byte scratchpad; the last byte is the CRC8
+	 * @return true if the scratchpad is valid
+	 */
+	static boolean isValidScratchpad(byte[] scratchpad) {
+		if (CRC8.compute(scratchpad, 0, scratchpad.length) != 0) {
+			return false;
+		}
+		for (byte b : scratchpad) {
+			if (b != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Gets the DSPortAdapter and opens the port.
-	 * 
+	 *
 	 * @return the DSPortAdapter
 	 * @throws OpenemsException on error
 	 */
@@ -86,14 +288,26 @@ public class OneWireTaskWorker extends AbstractImmediateWorker {
 	}
 
 	public void addTask(Consumer<DSPortAdapter> task) {
-		synchronized (this.tasks) {
-			this.tasks.add(task);
-		}
+		this.tasks.add(task);
 	}
 
 	public void removeTask(Consumer<DSPortAdapter> task) {
-		synchronized (this.tasks) {
-			this.tasks.remove(task);
-		}
+		this.tasks.remove(task);
+	}
+
+	/**
+	 * Adds a thermometer; it is read shortly afterwards.
+	 *
+	 * @param task             the {@link ThermometerTask}
+	 * @param readTimeChannel  the Channel for the read time
+	 * @param crcErrorsChannel the Channel for the number of CRC errors
+	 */
+	public void addThermometer(ThermometerTask task, Channel<Long> readTimeChannel, Channel<Long> crcErrorsChannel) {
+		this.schedules.put(task, new Schedule(task, readTimeChannel, crcErrorsChannel));
+		this.wakeup.release();
+	}
+
+	public void removeThermometer(ThermometerTask task) {
+		this.schedules.remove(task);
 	}
 }
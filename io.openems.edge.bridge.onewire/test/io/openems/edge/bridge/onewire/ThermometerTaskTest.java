@@ -0,0 +1,58 @@
+package io.openems.edge.bridge.onewire;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ThermometerTaskTest {
+
+	// addresses are written in reverse byte order; the family code is last
+	private static final String DS18S20 = "A8000802B4C5D610";
+	private static final String DS1822 = "3C00000123456722";
+	private static final String DS18B20 = "5A000004C4D5E728";
+
+	private static double getTemperature(String address, int lsb, int msb) {
+		ThermometerTask task = new ThermometerTask("temp0", address, 1, temperature -> {
+		});
+		return task.getTemperature(new byte[] { (byte) lsb, (byte) msb, 0, 0, 0, 0, 0, 0, 0 });
+	}
+
+	@Test
+	public void testIsSupported() {
+		assertTrue(ThermometerTask.isSupported(DS18S20));
+		assertTrue(ThermometerTask.isSupported(DS1822));
+		assertTrue(ThermometerTask.isSupported(DS18B20));
+		// DS2438 battery monitor
+		assertFalse(ThermometerTask.isSupported("5A000004C4D5E726"));
+		assertFalse(ThermometerTask.isSupported("28"));
+	}
+
+	@Test
+	public void testDs18b20() {
+		// examples from the DS18B20 datasheet
+		assertEquals(125.0, getTemperature(DS18B20, 0xD0, 0x07), 0);
+		assertEquals(25.0625, getTemperature(DS18B20, 0x91, 0x01), 0);
+		assertEquals(0.5, getTemperature(DS18B20, 0x08, 0x00), 0);
+		assertEquals(0.0, getTemperature(DS18B20, 0x00, 0x00), 0);
+		assertEquals(-0.5, getTemperature(DS18B20, 0xF8, 0xFF), 0);
+		assertEquals(-10.125, getTemperature(DS18B20, 0x5E, 0xFF), 0);
+		assertEquals(-55.0, getTemperature(DS18B20, 0x90, 0xFC), 0);
+
+		// DS1822 has the same format
+		assertEquals(-10.125, getTemperature(DS1822, 0x5E, 0xFF), 0);
+	}
+
+	@Test
+	public void testDs18s20() {
+		// examples from the DS18S20 datasheet
+		assertEquals(85.0, getTemperature(DS18S20, 0xAA, 0x00), 0);
+		assertEquals(25.0, getTemperature(DS18S20, 0x32, 0x00), 0);
+		assertEquals(0.5, getTemperature(DS18S20, 0x01, 0x00), 0);
+		assertEquals(-0.5, getTemperature(DS18S20, 0xFF, 0xFF), 0);
+		assertEquals(-25.0, getTemperature(DS18S20, 0xCE, 0xFF), 0);
+		assertEquals(-55.0, getTemperature(DS18S20, 0x92, 0xFF), 0);
+	}
+
+}
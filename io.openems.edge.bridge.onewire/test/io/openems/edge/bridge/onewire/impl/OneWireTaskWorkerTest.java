@@ -0,0 +1,38 @@
+package io.openems.edge.bridge.onewire.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class OneWireTaskWorkerTest {
+
+	private static byte[] toBytes(int... values) {
+		byte[] result = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = (byte) values[i];
+		}
+		return result;
+	}
+
+	@Test
+	public void testIsValidScratchpad() {
+		// DS18B20 power-on value of +85 degC with its CRC8
+		byte[] scratchpad = toBytes(0x50, 0x05, 0x4B, 0x46, 0x7F, 0xFF, 0x0C, 0x10, 0x1C);
+		assertTrue(OneWireTaskWorker.isValidScratchpad(scratchpad));
+
+		// single bit error
+		scratchpad[0] ^= 0x01;
+		assertFalse(OneWireTaskWorker.isValidScratchpad(scratchpad));
+
+		// wrong CRC8
+		assertFalse(OneWireTaskWorker
+				.isValidScratchpad(toBytes(0x50, 0x05, 0x4B, 0x46, 0x7F, 0xFF, 0x0C, 0x10, 0x1D)));
+
+		// no device answered: bus pulled up or held low
+		assertFalse(OneWireTaskWorker
+				.isValidScratchpad(toBytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF)));
+		assertFalse(OneWireTaskWorker.isValidScratchpad(new byte[9]));
+	}
+
+}
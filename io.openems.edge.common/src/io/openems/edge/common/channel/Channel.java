@@ -1,6 +1,5 @@
 package io.openems.edge.common.channel;
 
-import java.time.LocalDateTime;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -9,7 +8,7 @@ import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.internal.AbstractReadChannel;
 import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.OpenemsComponent;
-import io.openems.edge.common.type.CircularTreeMap;
+import io.openems.edge.common.type.TimeRingBuffer;
 import io.openems.edge.common.type.TypeUtils;
 
 /**
@@ -78,6 +77,24 @@ public interface Channel<T> {
 	 */
 	void nextProcessImage();
 
+	/**
+	 * Switches to the next process image like {@link #nextProcessImage()}, but
+	 * does not yet call the onUpdate and onChange callbacks.
+	 * 
+	 * <p>
+	 * This method may be called concurrently for different Channels. The
+	 * callbacks need to be dispatched afterwards by calling
+	 * {@link #dispatchProcessImageCallbacks()}.
+	 */
+	void switchProcessImage();
+
+	/**
+	 * Calls the onUpdate and onChange callbacks that were deferred by the last
+	 * call to {@link #switchProcessImage()}. Does nothing if there are no pending
+	 * callbacks.
+	 */
+	void dispatchProcessImageCallbacks();
+
 	/**
 	 * Gets the type of this Channel, e.g. INTEGER, BOOLEAN,..
 	 * 
@@ -116,6 +133,14 @@ public interface Channel<T> {
 	 */
 	public void onSetNextValue(Consumer<Value<T>> callback);
 
+	/**
+	 * Removes an onSetNextValue callback that was added by
+	 * {@link #onSetNextValue(Consumer)}.
+	 * 
+	 * @param callback the callback
+	 */
+	public void removeOnSetNextValue(Consumer<Value<T>> callback);
+
 	/**
 	 * Internal method. Do not call directly.
 	 * 
@@ -132,9 +157,14 @@ public interface Channel<T> {
 	/**
 	 * Gets the past values for this Channel.
 	 * 
-	 * @return a map of recording time and historic value at that time
+	 * <p>
+	 * The values are kept in a {@link TimeRingBuffer} in chronological order. Use
+	 * its aggregation methods (e.g. {@link TimeRingBuffer#average(long)}) to avoid
+	 * boxing of the values.
+	 * 
+	 * @return the past values
 	 */
-	public CircularTreeMap<LocalDateTime, Value<T>> getPastValues();
+	public TimeRingBuffer<T> getPastValues();
 
 	/**
 	 * Add an onUpdate callback. It is called, after the active value was updated by
@@ -1,11 +1,13 @@
 package io.openems.edge.common.channel;
 
+import io.openems.common.exceptions.InvalidValueException;
 import io.openems.common.types.OpenemsType;
-import io.openems.edge.common.channel.internal.AbstractReadChannel;
+import io.openems.edge.common.channel.internal.AbstractPrimitiveReadChannel;
 import io.openems.edge.common.channel.internal.OpenemsTypeDoc;
+import io.openems.edge.common.channel.internal.PrimitiveValueStore;
 import io.openems.edge.common.component.OpenemsComponent;
 
-public class DoubleReadChannel extends AbstractReadChannel<OpenemsTypeDoc<Double>, Double> {
+public class DoubleReadChannel extends AbstractPrimitiveReadChannel<OpenemsTypeDoc<Double>, Double> {
 
 	protected DoubleReadChannel(OpenemsComponent component, ChannelId channelId, DoubleDoc channelDoc) {
 		this(component, channelId, channelDoc, null);
@@ -16,4 +18,72 @@ public class DoubleReadChannel extends AbstractReadChannel<OpenemsTypeDoc<Double
 		super(OpenemsType.DOUBLE, component, channelId, channelDoc, initialValue);
 	}
 
+	private long toBits(double value) {
+		return Double.doubleToRawLongBits(value);
+	}
+
+	private double unbox(long bits) {
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * Updates the 'next' value of the Channel without boxing.
+	 * 
+	 * @param value the next value
+	 */
+	public void setNextValue(double value) {
+		this.setNextBits(true, this.toBits(value));
+	}
+
+	/**
+	 * Gets the active value as a double or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 * 
+	 * @param alternativeValue the alternative value
+	 * @return the active value or the alternative value
+	 */
+	public double valueOrElse(double alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.unbox(store.getActiveBits());
+			}
+			return alternativeValue;
+		}
+	}
+
+	/**
+	 * Gets the active value as a double or throws an Exception if it is undefined.
+	 * This method does not allocate on success.
+	 * 
+	 * @return the active value
+	 * @throws InvalidValueException if the value is undefined
+	 */
+	public double valueOrError() throws InvalidValueException {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.unbox(store.getActiveBits());
+			}
+		}
+		throw new InvalidValueException("Value for Channel [" + this.address() + "] is invalid.");
+	}
+
+	/**
+	 * Gets the 'next' value as a double or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 * 
+	 * @param alternativeValue the alternative value
+	 * @return the 'next' value or the alternative value
+	 */
+	public double nextValueOrElse(double alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isNextDefined()) {
+				return this.unbox(store.getNextBits());
+			}
+			return alternativeValue;
+		}
+	}
+
 }
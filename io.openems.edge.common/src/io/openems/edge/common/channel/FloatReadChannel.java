@@ -1,11 +1,13 @@
 package io.openems.edge.common.channel;
 
+import io.openems.common.exceptions.InvalidValueException;
 import io.openems.common.types.OpenemsType;
-import io.openems.edge.common.channel.internal.AbstractReadChannel;
+import io.openems.edge.common.channel.internal.AbstractPrimitiveReadChannel;
 import io.openems.edge.common.channel.internal.OpenemsTypeDoc;
+import io.openems.edge.common.channel.internal.PrimitiveValueStore;
 import io.openems.edge.common.component.OpenemsComponent;
 
-public class FloatReadChannel extends AbstractReadChannel<OpenemsTypeDoc<Float>, Float> {
+public class FloatReadChannel extends AbstractPrimitiveReadChannel<OpenemsTypeDoc<Float>, Float> {
 
 	protected FloatReadChannel(OpenemsComponent component, ChannelId channelId, FloatDoc channelDoc) {
 		this(component, channelId, channelDoc, null);
@@ -16,4 +18,72 @@ public class FloatReadChannel extends AbstractReadChannel<OpenemsTypeDoc<Float>,
 		super(OpenemsType.FLOAT, component, channelId, channelDoc, initialValue);
 	}
 
+	private long toBits(float value) {
+		return Float.floatToRawIntBits(value);
+	}
+
+	private float unbox(long bits) {
+		return Float.intBitsToFloat((int) bits);
+	}
+
+	/**
+	 * Updates the 'next' value of the Channel without boxing.
+	 * 
+	 * @param value the next value
+	 */
+	public void setNextValue(float value) {
+		this.setNextBits(true, this.toBits(value));
+	}
+
+	/**
+	 * Gets the active value as a float or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 * 
+	 * @param alternativeValue the alternative value
+	 * @return the active value or the alternative value
+	 */
+	public float valueOrElse(float alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.unbox(store.getActiveBits());
+			}
+			return alternativeValue;
+		}
+	}
+
+	/**
+	 * Gets the active value as a float or throws an Exception if it is undefined.
+	 * This method does not allocate on success.
+	 * 
+	 * @return the active value
+	 * @throws InvalidValueException if the value is undefined
+	 */
+	public float valueOrError() throws InvalidValueException {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.unbox(store.getActiveBits());
+			}
+		}
+		throw new InvalidValueException("Value for Channel [" + this.address() + "] is invalid.");
+	}
+
+	/**
+	 * Gets the 'next' value as a float or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 * 
+	 * @param alternativeValue the alternative value
+	 * @return the 'next' value or the alternative value
+	 */
+	public float nextValueOrElse(float alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isNextDefined()) {
+				return this.unbox(store.getNextBits());
+			}
+			return alternativeValue;
+		}
+	}
+
 }
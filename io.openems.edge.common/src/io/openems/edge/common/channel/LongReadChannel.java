@@ -1,11 +1,13 @@
 package io.openems.edge.common.channel;
 
+import io.openems.common.exceptions.InvalidValueException;
 import io.openems.common.types.OpenemsType;
-import io.openems.edge.common.channel.internal.AbstractReadChannel;
+import io.openems.edge.common.channel.internal.AbstractPrimitiveReadChannel;
 import io.openems.edge.common.channel.internal.OpenemsTypeDoc;
+import io.openems.edge.common.channel.internal.PrimitiveValueStore;
 import io.openems.edge.common.component.OpenemsComponent;
 
-public class LongReadChannel extends AbstractReadChannel<OpenemsTypeDoc<Long>, Long> {
+public class LongReadChannel extends AbstractPrimitiveReadChannel<OpenemsTypeDoc<Long>, Long> {
 
 	protected LongReadChannel(OpenemsComponent component, ChannelId channelId, LongDoc channelDoc) {
 		this(component, channelId, channelDoc, null);
@@ -15,4 +17,72 @@ public class LongReadChannel extends AbstractReadChannel<OpenemsTypeDoc<Long>, L
 		super(OpenemsType.LONG, component, channelId, channelDoc, initialValue);
 	}
 
+	private long toBits(long value) {
+		return value;
+	}
+
+	private long unbox(long bits) {
+		return bits;
+	}
+
+	/**
+	 * Updates the 'next' value of the Channel without boxing.
+	 * 
+	 * @param value the next value
+	 */
+	public void setNextValue(long value) {
+		this.setNextBits(true, this.toBits(value));
+	}
+
+	/**
+	 * Gets the active value as a long or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 * 
+	 * @param alternativeValue the alternative value
+	 * @return the active value or the alternative value
+	 */
+	public long valueOrElse(long alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.unbox(store.getActiveBits());
+			}
+			return alternativeValue;
+		}
+	}
+
+	/**
+	 * Gets the active value as a long or throws an Exception if it is undefined.
+	 * This method does not allocate on success.
+	 * 
+	 * @return the active value
+	 * @throws InvalidValueException if the value is undefined
+	 */
+	public long valueOrError() throws InvalidValueException {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.unbox(store.getActiveBits());
+			}
+		}
+		throw new InvalidValueException("Value for Channel [" + this.address() + "] is invalid.");
+	}
+
+	/**
+	 * Gets the 'next' value as a long or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 * 
+	 * @param alternativeValue the alternative value
+	 * @return the 'next' value or the alternative value
+	 */
+	public long nextValueOrElse(long alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isNextDefined()) {
+				return this.unbox(store.getNextBits());
+			}
+			return alternativeValue;
+		}
+	}
+
 }
@@ -0,0 +1,165 @@
+package io.openems.edge.common.channel.internal;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.ChannelId;
+import io.openems.edge.common.channel.value.Value;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.type.TimeRingBuffer;
+
+/**
+ * An {@link AbstractReadChannel} for primitive types, that holds its 'next'
+ * and 'active' values in a {@link PrimitiveValueStore}.
+ *
+ * <p>
+ * {@link Value} objects are only created on demand, i.e. if {@link #value()}
+ * or {@link #getNextValue()} is called or if callbacks are registered. Past
+ * values are moved to the {@link TimeRingBuffer} without boxing. Subclasses
+ * provide unboxed getters and setters that work without any allocation.
+ *
+ * @param <D> the type of the Doc
+ * @param <T> the type of the Channel
+ */
+public abstract class AbstractPrimitiveReadChannel<D extends AbstractDoc<T>, T> extends AbstractReadChannel<D, T> {
+
+	/*
+	 * 'store' is not final and not initialized by purpose, because it is already
+	 * used during construction of AbstractReadChannel, i.e. before the fields of
+	 * this class are initialised.
+	 */
+	private PrimitiveValueStore store;
+	private TimeRingBuffer.Codec<T> codec;
+
+	protected AbstractPrimitiveReadChannel(OpenemsType type, OpenemsComponent parent, ChannelId channelId,
+			D channelDoc, T initialValue) {
+		super(type, parent, channelId, channelDoc, initialValue);
+	}
+
+	protected final PrimitiveValueStore store() {
+		if (this.store == null) {
+			this.store = new PrimitiveValueStore();
+		}
+		return this.store;
+	}
+
+	private TimeRingBuffer.Codec<T> codec() {
+		if (this.codec == null) {
+			this.codec = TimeRingBuffer.Codec.of(this.getType());
+		}
+		return this.codec;
+	}
+
+	/**
+	 * Sets the raw 'next' value. Internal method for the unboxed setters.
+	 *
+	 * @param defined false if the value is undefined (i.e. null)
+	 * @param bits    the raw value
+	 */
+	protected final void setNextBits(boolean defined, long bits) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			store.setNext(defined, bits, System.currentTimeMillis());
+			this.resetNextValue();
+		}
+		this.afterSetNextValue();
+	}
+
+	/**
+	 * Sets the next value. Internal method. Do not call directly.
+	 *
+	 * @param value the next value
+	 */
+	@Deprecated
+	@Override
+	public void _setNextValue(T value) {
+		if (value == null) {
+			this.setNextBits(false, 0);
+		} else {
+			this.setNextBits(true, this.codec().toBits(value));
+		}
+	}
+
+	@Override
+	public void switchProcessImage() {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			boolean isChanged = store.isNextDifferent();
+			// Value objects are only required if there are callbacks to be called.
+			Value<T> oldValue = null;
+			if (this.hasOnUpdateCallbacks() || isChanged && this.hasProcessImageCallbacks()) {
+				oldValue = this.value();
+			}
+			store.switchProcessImage(this.getPastValues());
+			this.switchProcessImage(oldValue, isChanged);
+		}
+	}
+
+	@Override
+	protected Object valueLock() {
+		return this.store();
+	}
+
+	@Override
+	protected Value<T> createNextValue() {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			return this.createValue(store.isNextDefined(), store.getNextBits(), store.getNextTimestamp());
+		}
+	}
+
+	@Override
+	protected Value<T> createActiveValue() {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			return this.createValue(store.isActiveDefined(), store.getActiveBits(), store.getActiveTimestamp());
+		}
+	}
+
+	/**
+	 * Is the active value defined?.
+	 *
+	 * @return true if the active value is not null
+	 */
+	public boolean isValueDefined() {
+		return this.store().isActiveDefined();
+	}
+
+	/**
+	 * Is the 'next' value defined?.
+	 *
+	 * @return true if the 'next' value is not null
+	 */
+	public boolean isNextValueDefined() {
+		return this.store().isNextDefined();
+	}
+
+	/**
+	 * Gets the timestamp when the active value was set.
+	 *
+	 * @return the timestamp in milliseconds since epoch
+	 */
+	public long getValueTimestamp() {
+		return this.store().getActiveTimestamp();
+	}
+
+	/**
+	 * Gets the active value as a double or the given alternativeValue if it is
+	 * undefined. This method does not allocate.
+	 *
+	 * @param alternativeValue the alternative value
+	 * @return the active value or the alternative value
+	 */
+	public double valueAsDoubleOrElse(double alternativeValue) {
+		PrimitiveValueStore store = this.store();
+		synchronized (store) {
+			if (store.isActiveDefined()) {
+				return this.codec().toDouble(store.getActiveBits());
+			}
+			return alternativeValue;
+		}
+	}
+
+	private Value<T> createValue(boolean defined, long bits, long timestamp) {
+		return new Value<T>(this, defined ? this.codec().fromBits(bits) : null, timestamp);
+	}
+
+}
@@ -1,6 +1,5 @@
 package io.openems.edge.common.channel.internal;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -18,7 +17,7 @@ import io.openems.edge.common.channel.ChannelId;
 import io.openems.edge.common.channel.WriteChannel;
 import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.OpenemsComponent;
-import io.openems.edge.common.type.CircularTreeMap;
+import io.openems.edge.common.type.TimeRingBuffer;
 
 public abstract class AbstractReadChannel<D extends AbstractDoc<T>, T> implements Channel<T> {
 
@@ -38,17 +37,29 @@ public abstract class AbstractReadChannel<D extends AbstractDoc<T>, T> implement
 	private final List<Consumer<Value<T>>> onUpdateCallbacks = new CopyOnWriteArrayList<>();
 	private final List<Consumer<Value<T>>> onSetNextValueCallbacks = new CopyOnWriteArrayList<>();
 	private final List<BiConsumer<Value<T>, Value<T>>> onChangeCallbacks = new CopyOnWriteArrayList<>();
-	private final CircularTreeMap<LocalDateTime, Value<T>> pastValues = new CircularTreeMap<>(NO_OF_PAST_VALUES);
+	private final TimeRingBuffer<T> pastValues;
 
 	private volatile Value<T> nextValue = null;
 	private volatile Value<T> activeValue = null;
 
+	/**
+	 * Holds the previous active value between {@link #switchProcessImage()} and
+	 * {@link #dispatchProcessImageCallbacks()}; null if no callbacks are pending.
+	 */
+	private volatile Value<T> pendingOldValue = null;
+
+	/**
+	 * Holds whether the value changed in the last {@link #switchProcessImage()}.
+	 */
+	private volatile boolean pendingChange = false;
+
 	protected AbstractReadChannel(OpenemsType type, OpenemsComponent parent, ChannelId channelId, D channelDoc,
 			T initialValue) {
 		this.type = type;
 		this.parent = parent;
 		this.channelId = channelId;
 		this.channelDoc = channelDoc;
+		this.pastValues = new TimeRingBuffer<>(NO_OF_PAST_VALUES, type);
 		this.nextValue = new Value<T>(this, null);
 		this.activeValue = new Value<T>(this, null);
 
@@ -105,14 +116,36 @@ public abstract class AbstractReadChannel<D extends AbstractDoc<T>, T> implement
 
 	@Override
 	public void nextProcessImage() {
+		this.switchProcessImage();
+		this.dispatchProcessImageCallbacks();
+	}
+
+	@Override
+	public void switchProcessImage() {
 		Value<T> oldValue = this.activeValue;
-		boolean valueHasChanged = !Objects.equals(oldValue, this.nextValue);
-		this.activeValue = this.nextValue;
-		this.onUpdateCallbacks.forEach(callback -> callback.accept(this.activeValue));
-		if (valueHasChanged) {
-			this.onChangeCallbacks.forEach(callback -> callback.accept(oldValue, this.activeValue));
+		Value<T> nextValue = this.nextValue;
+		this.activeValue = nextValue;
+		this.pendingChange = !Objects.equals(oldValue.get(), nextValue.get());
+		this.pendingOldValue = oldValue;
+		this.pastValues.add(oldValue.getTimestampMillis(), oldValue.get());
+	}
+
+	@Override
+	public void dispatchProcessImageCallbacks() {
+		Value<T> oldValue = this.pendingOldValue;
+		if (oldValue == null) {
+			return;
+		}
+		this.pendingOldValue = null;
+		boolean isChanged = this.pendingChange;
+		if (this.onUpdateCallbacks.isEmpty() && (!isChanged || this.onChangeCallbacks.isEmpty())) {
+			return;
+		}
+		Value<T> activeValue = this.value();
+		this.onUpdateCallbacks.forEach(callback -> callback.accept(activeValue));
+		if (isChanged) {
+			this.onChangeCallbacks.forEach(callback -> callback.accept(oldValue, activeValue));
 		}
-		this.pastValues.put(oldValue.getTimestamp(), oldValue);
 	}
 
 	@Override
@@ -133,25 +166,139 @@ public abstract class AbstractReadChannel<D extends AbstractDoc<T>, T> implement
 	@Deprecated
 	public void _setNextValue(T value) {
 		this.nextValue = new Value<T>(this, value);
+		this.afterSetNextValue();
+	}
+
+	/**
+	 * Handles debug logging and onSetNextValue callbacks after the 'next' value
+	 * was updated.
+	 */
+	protected final void afterSetNextValue() {
 		if (this.channelDoc.isDebug()) {
-			log.info("Next value for [" + this.address() + "]: " + this.nextValue.asString());
+			log.info("Next value for [" + this.address() + "]: " + this.getNextValue().asString());
+		}
+		if (!this.onSetNextValueCallbacks.isEmpty()) {
+			Value<T> nextValue = this.getNextValue();
+			this.onSetNextValueCallbacks.forEach(callback -> callback.accept(nextValue));
 		}
-		this.onSetNextValueCallbacks.forEach(callback -> callback.accept(this.nextValue));
 	}
 
 	@Override
 	public Value<T> getNextValue() {
-		return this.nextValue;
+		Value<T> nextValue = this.nextValue;
+		if (nextValue != null) {
+			return nextValue;
+		}
+		synchronized (this.valueLock()) {
+			// check again: the value might have been created or reset meanwhile
+			nextValue = this.nextValue;
+			if (nextValue == null) {
+				nextValue = this.createNextValue();
+				this.nextValue = nextValue;
+			}
+			return nextValue;
+		}
 	}
 
 	@Override
 	public Value<T> value() {
-		return this.activeValue;
+		Value<T> activeValue = this.activeValue;
+		if (activeValue != null) {
+			return activeValue;
+		}
+		synchronized (this.valueLock()) {
+			// check again: the value might have been created or reset meanwhile
+			activeValue = this.activeValue;
+			if (activeValue == null) {
+				activeValue = this.createActiveValue();
+				this.activeValue = activeValue;
+			}
+			return activeValue;
+		}
+	}
+
+	/**
+	 * Gets the lock that guards the separate storage of Channels that create
+	 * their {@link Value}s on demand. {@link #resetNextValue()} and
+	 * {@link #switchProcessImage(Value, boolean)} have to be called while holding
+	 * this lock, so that a {@link Value} that is created concurrently from the
+	 * previous storage content is never published.
+	 * 
+	 * @return the lock object
+	 */
+	protected Object valueLock() {
+		return this;
+	}
+
+	/**
+	 * Creates the 'next' {@link Value} on demand, after it was reset by
+	 * {@link #resetNextValue()}. To be overridden by Channels that hold their
+	 * values in a separate storage.
+	 * 
+	 * @return the 'next' value
+	 */
+	protected Value<T> createNextValue() {
+		return new Value<T>(this, null);
+	}
+
+	/**
+	 * Creates the 'active' {@link Value} on demand, after it was reset by
+	 * {@link #switchProcessImage(Value, boolean)}. To be overridden by Channels that hold
+	 * their values in a separate storage.
+	 * 
+	 * @return the 'active' value
+	 */
+	protected Value<T> createActiveValue() {
+		return new Value<T>(this, null);
+	}
+
+	/**
+	 * Resets the 'next' {@link Value}; it is going to be recreated via
+	 * {@link #createNextValue()} when it is required. Call while holding
+	 * {@link #valueLock()}.
+	 */
+	protected final void resetNextValue() {
+		this.nextValue = null;
+	}
+
+	/**
+	 * Switches the process image for Channels that hold their values in a
+	 * separate storage. The 'active' {@link Value} is reset and going to be
+	 * recreated via {@link #createActiveValue()} when it is required. Call while
+	 * holding {@link #valueLock()}.
+	 * 
+	 * @param oldValue  the previous 'active' value, if onUpdate or onChange
+	 *                  callbacks need to be dispatched; null otherwise
+	 * @param isChanged true if the new 'active' value differs from the previous
+	 *                  one
+	 */
+	protected final void switchProcessImage(Value<T> oldValue, boolean isChanged) {
+		this.activeValue = null;
+		this.pendingChange = isChanged;
+		this.pendingOldValue = oldValue;
+	}
+
+	/**
+	 * Are there any onUpdate or onChange callbacks registered?.
+	 * 
+	 * @return true if there are callbacks
+	 */
+	protected final boolean hasProcessImageCallbacks() {
+		return !this.onUpdateCallbacks.isEmpty() || !this.onChangeCallbacks.isEmpty();
+	}
+
+	/**
+	 * Are there any onUpdate callbacks registered?.
+	 * 
+	 * @return true if there are callbacks
+	 */
+	protected final boolean hasOnUpdateCallbacks() {
+		return !this.onUpdateCallbacks.isEmpty();
 	}
 
 	@Override
 	public String toString() {
-		return "Channel [ID=" + channelId + ", type=" + type + ", activeValue=" + this.activeValue.asString() + "]";
+		return "Channel [ID=" + channelId + ", type=" + type + ", activeValue=" + this.value().asString() + "]";
 	}
 
 	@Override
@@ -164,6 +311,11 @@ public abstract class AbstractReadChannel<D extends AbstractDoc<T>, T> implement
 		this.onSetNextValueCallbacks.add(callback);
 	}
 
+	@Override
+	public void removeOnSetNextValue(Consumer<Value<T>> callback) {
+		this.onSetNextValueCallbacks.remove(callback);
+	}
+
 	@Override
 	public void onChange(BiConsumer<Value<T>, Value<T>> callback) {
 		this.onChangeCallbacks.add(callback);
@@ -222,10 +374,10 @@ public abstract class AbstractReadChannel<D extends AbstractDoc<T>, T> implement
 	/**
 	 * Gets the past values for this Channel.
 	 * 
-	 * @return a map of recording time and historic value at that time
+	 * @return the past values in chronological order
 	 */
 	@Override
-	public CircularTreeMap<LocalDateTime, Value<T>> getPastValues() {
+	public TimeRingBuffer<T> getPastValues() {
 		return this.pastValues;
 	}
 }
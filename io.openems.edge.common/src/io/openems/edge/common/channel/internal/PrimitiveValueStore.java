@@ -0,0 +1,86 @@
+package io.openems.edge.common.channel.internal;
+
+import io.openems.edge.common.type.TimeRingBuffer;
+
+/**
+ * Holds the 'next' and the 'active' value of a Channel with a primitive type
+ * without boxing.
+ *
+ * <p>
+ * Values are stored as raw 64-bit patterns as defined by
+ * {@link TimeRingBuffer.Codec}. Timestamps are milliseconds since epoch. On
+ * {@link #switchProcessImage(TimeRingBuffer)} the previous 'active' value is
+ * moved to the past values.
+ */
+public class PrimitiveValueStore {
+
+	private boolean nextDefined = false;
+	private long nextBits = 0;
+	private long nextTimestamp = System.currentTimeMillis();
+
+	private boolean activeDefined = false;
+	private long activeBits = 0;
+	private long activeTimestamp = this.nextTimestamp;
+
+	/**
+	 * Sets the 'next' value.
+	 *
+	 * @param defined   false if the value is undefined (i.e. null)
+	 * @param bits      the raw value
+	 * @param timestamp the timestamp in milliseconds since epoch
+	 */
+	public synchronized void setNext(boolean defined, long bits, long timestamp) {
+		this.nextDefined = defined;
+		this.nextBits = defined ? bits : 0;
+		this.nextTimestamp = timestamp;
+	}
+
+	/**
+	 * Switches to the next process image: the 'active' value is moved to the past
+	 * values and the 'next' value becomes the 'active' value.
+	 *
+	 * @param pastValues the past values
+	 */
+	public synchronized void switchProcessImage(TimeRingBuffer<?> pastValues) {
+		pastValues.addBits(this.activeTimestamp, this.activeDefined, this.activeBits);
+		this.activeDefined = this.nextDefined;
+		this.activeBits = this.nextBits;
+		this.activeTimestamp = this.nextTimestamp;
+	}
+
+	/**
+	 * Does the 'next' value differ from the 'active' value?. Compares the raw
+	 * values, not the timestamps.
+	 *
+	 * @return true if {@link #switchProcessImage(TimeRingBuffer)} is going to
+	 *         change the 'active' value
+	 */
+	public synchronized boolean isNextDifferent() {
+		return this.nextDefined != this.activeDefined || this.nextBits != this.activeBits;
+	}
+
+	public synchronized boolean isNextDefined() {
+		return this.nextDefined;
+	}
+
+	public synchronized long getNextBits() {
+		return this.nextBits;
+	}
+
+	public synchronized long getNextTimestamp() {
+		return this.nextTimestamp;
+	}
+
+	public synchronized boolean isActiveDefined() {
+		return this.activeDefined;
+	}
+
+	public synchronized long getActiveBits() {
+		return this.activeBits;
+	}
+
+	public synchronized long getActiveTimestamp() {
+		return this.activeTimestamp;
+	}
+
+}
@@ -1,6 +1,8 @@
 package io.openems.edge.common.channel.value;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
 
 import com.google.gson.JsonElement;
@@ -24,12 +26,16 @@ public class Value<T> {
 
 	private final Channel<T> parent;
 	private final T value;
-	private final LocalDateTime timestamp;
+	private final long timestamp;
 
 	public Value(Channel<T> parent, T value) {
+		this(parent, value, System.currentTimeMillis());
+	}
+
+	public Value(Channel<T> parent, T value, long timestamp) {
 		this.parent = parent;
 		this.value = value;
-		this.timestamp = LocalDateTime.now();
+		this.timestamp = timestamp;
 	}
 
 	/**
@@ -197,6 +203,15 @@ public class Value<T> {
 	 * @return the timestamp
 	 */
 	public LocalDateTime getTimestamp() {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(this.timestamp), ZoneId.systemDefault());
+	}
+
+	/**
+	 * Gets the timestamp when the value was created.
+	 * 
+	 * @return the timestamp in milliseconds since epoch
+	 */
+	public long getTimestampMillis() {
 		return this.timestamp;
 	}
 }
@@ -1,6 +1,9 @@
 package io.openems.edge.common.component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import io.openems.common.OpenemsConstants;
 import io.openems.common.channel.Level;
@@ -113,6 +116,39 @@ public interface ComponentManager extends OpenemsComponent, JsonApi {
 		return component.channel(channelAddress.getChannelId());
 	}
 
+	/**
+	 * Gets multiple Channels by their Channel-Addresses. Every Component is looked
+	 * up only once.
+	 * 
+	 * @param channelAddresses the Channel-Addresses
+	 * @return a map of Channel-Address to Channel; Channels that are not available
+	 *         are missing
+	 */
+	public default Map<ChannelAddress, Channel<?>> getChannels(Set<ChannelAddress> channelAddresses) {
+		Map<ChannelAddress, Channel<?>> result = new HashMap<>();
+		Map<String, OpenemsComponent> components = new HashMap<>();
+		for (ChannelAddress channelAddress : channelAddresses) {
+			String componentId = channelAddress.getComponentId();
+			OpenemsComponent component = components.get(componentId);
+			if (component == null && !components.containsKey(componentId)) {
+				try {
+					component = this.getComponent(componentId);
+				} catch (OpenemsNamedException e) {
+					// Component is not available
+				}
+				components.put(componentId, component);
+			}
+			if (component == null) {
+				continue;
+			}
+			Channel<?> channel = component._channel(channelAddress.getChannelId());
+			if (channel != null) {
+				result.put(channelAddress, channel);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Gets the complete configuration of this OpenEMS Edge.
 	 * 
@@ -0,0 +1,30 @@
+package io.openems.edge.common.event;
+
+/**
+ * The phases of one Cycle, in the order of execution. Every phase has a
+ * matching EventAdmin topic in {@link EdgeEventConstants}.
+ */
+public enum CyclePhase {
+	BEFORE_PROCESS_IMAGE(EdgeEventConstants.TOPIC_CYCLE_BEFORE_PROCESS_IMAGE), //
+	AFTER_PROCESS_IMAGE(EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE), //
+	BEFORE_CONTROLLERS(EdgeEventConstants.TOPIC_CYCLE_BEFORE_CONTROLLERS), //
+	AFTER_CONTROLLERS(EdgeEventConstants.TOPIC_CYCLE_AFTER_CONTROLLERS), //
+	BEFORE_WRITE(EdgeEventConstants.TOPIC_CYCLE_BEFORE_WRITE), //
+	EXECUTE_WRITE(EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE), //
+	AFTER_WRITE(EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE);
+
+	private final String topic;
+
+	private CyclePhase(String topic) {
+		this.topic = topic;
+	}
+
+	/**
+	 * Gets the EventAdmin topic of this phase.
+	 * 
+	 * @return the topic
+	 */
+	public String getTopic() {
+		return this.topic;
+	}
+}
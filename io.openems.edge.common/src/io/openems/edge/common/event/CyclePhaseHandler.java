@@ -0,0 +1,33 @@
+package io.openems.edge.common.event;
+
+import java.util.Set;
+
+/**
+ * Receives Cycle phases directly from the Cycle, without going through the
+ * OSGi EventAdmin.
+ * 
+ * <p>
+ * Implementations are registered as OSGi services; the Cycle calls
+ * {@link #handleCyclePhase(CyclePhase)} synchronously for every phase in
+ * {@link #getCyclePhases()} and measures the time of every call. A Component
+ * that implements this interface should not subscribe the same phases via
+ * EventHandler, otherwise it is called twice.
+ */
+public interface CyclePhaseHandler {
+
+	/**
+	 * Gets the phases this handler is interested in. Read once when the handler
+	 * is registered.
+	 * 
+	 * @return the phases
+	 */
+	public Set<CyclePhase> getCyclePhases();
+
+	/**
+	 * Handles a phase of the Cycle.
+	 * 
+	 * @param phase the {@link CyclePhase}
+	 */
+	public void handleCyclePhase(CyclePhase phase);
+
+}
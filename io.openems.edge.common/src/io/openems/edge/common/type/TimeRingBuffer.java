@@ -0,0 +1,491 @@
+package io.openems.edge.common.type;
+
+import io.openems.common.types.OpenemsType;
+
+/**
+ * Implements a fixed-capacity, time-ordered ring buffer of values.
+ *
+ * <p>
+ * Values are added in chronological order. When the buffer is full, the eldest
+ * value is overwritten. Timestamps are milliseconds since epoch; a timestamp
+ * that is older than the previously added one (e.g. after a change of the
+ * system clock) is raised to the previous timestamp, so the buffer always stays
+ * sorted and can be searched by binary search.
+ *
+ * <p>
+ * Values of primitive types are stored as raw 64-bit patterns (see
+ * {@link Codec}); aggregations like {@link #min(long)}, {@link #max(long)},
+ * {@link #average(long)} and {@link #last(long)} work without any allocation.
+ * Other values (i.e. Strings) are stored as objects and cannot be aggregated.
+ *
+ * <p>
+ * Indexes used by this class are relative to the eldest value, i.e. index 0 is
+ * the eldest value and index size()-1 is the latest value.
+ *
+ * @param <T> the type of the values
+ */
+public class TimeRingBuffer<T> {
+
+	/**
+	 * Converts values of a primitive type to and from their raw 64-bit
+	 * representation.
+	 *
+	 * @param <T> the type of the values
+	 */
+	public static interface Codec<T> {
+
+		/**
+		 * Converts a non-null value to its raw representation.
+		 *
+		 * @param value the value
+		 * @return the raw value
+		 */
+		public long toBits(T value);
+
+		/**
+		 * Converts a raw value to the typed value.
+		 *
+		 * @param bits the raw value
+		 * @return the typed value
+		 */
+		public T fromBits(long bits);
+
+		/**
+		 * Converts a raw value to a double.
+		 *
+		 * @param bits the raw value
+		 * @return the value as double
+		 */
+		public double toDouble(long bits);
+
+		public static final Codec<Boolean> BOOLEAN = new Codec<Boolean>() {
+			@Override
+			public long toBits(Boolean value) {
+				return value ? 1 : 0;
+			}
+
+			@Override
+			public Boolean fromBits(long bits) {
+				return bits != 0;
+			}
+
+			@Override
+			public double toDouble(long bits) {
+				return bits;
+			}
+		};
+
+		public static final Codec<Short> SHORT = new Codec<Short>() {
+			@Override
+			public long toBits(Short value) {
+				return value;
+			}
+
+			@Override
+			public Short fromBits(long bits) {
+				return (short) bits;
+			}
+
+			@Override
+			public double toDouble(long bits) {
+				return bits;
+			}
+		};
+
+		public static final Codec<Integer> INTEGER = new Codec<Integer>() {
+			@Override
+			public long toBits(Integer value) {
+				return value;
+			}
+
+			@Override
+			public Integer fromBits(long bits) {
+				return (int) bits;
+			}
+
+			@Override
+			public double toDouble(long bits) {
+				return bits;
+			}
+		};
+
+		public static final Codec<Long> LONG = new Codec<Long>() {
+			@Override
+			public long toBits(Long value) {
+				return value;
+			}
+
+			@Override
+			public Long fromBits(long bits) {
+				return bits;
+			}
+
+			@Override
+			public double toDouble(long bits) {
+				return bits;
+			}
+		};
+
+		public static final Codec<Float> FLOAT = new Codec<Float>() {
+			@Override
+			public long toBits(Float value) {
+				return Float.floatToRawIntBits(value);
+			}
+
+			@Override
+			public Float fromBits(long bits) {
+				return Float.intBitsToFloat((int) bits);
+			}
+
+			@Override
+			public double toDouble(long bits) {
+				return Float.intBitsToFloat((int) bits);
+			}
+		};
+
+		public static final Codec<Double> DOUBLE = new Codec<Double>() {
+			@Override
+			public long toBits(Double value) {
+				return Double.doubleToRawLongBits(value);
+			}
+
+			@Override
+			public Double fromBits(long bits) {
+				return Double.longBitsToDouble(bits);
+			}
+
+			@Override
+			public double toDouble(long bits) {
+				return Double.longBitsToDouble(bits);
+			}
+		};
+
+		/**
+		 * Gets the Codec for the given {@link OpenemsType}.
+		 *
+		 * @param <T>  the type of the values
+		 * @param type the {@link OpenemsType}
+		 * @return the Codec; null if values of this type cannot be stored as
+		 *         primitives
+		 */
+		@SuppressWarnings("unchecked")
+		public static <T> Codec<T> of(OpenemsType type) {
+			switch (type) {
+			case BOOLEAN:
+				return (Codec<T>) BOOLEAN;
+			case SHORT:
+				return (Codec<T>) SHORT;
+			case INTEGER:
+				return (Codec<T>) INTEGER;
+			case LONG:
+				return (Codec<T>) LONG;
+			case FLOAT:
+				return (Codec<T>) FLOAT;
+			case DOUBLE:
+				return (Codec<T>) DOUBLE;
+			case STRING:
+				return null;
+			}
+			return null;
+		}
+	}
+
+	private final int capacity;
+	private final Codec<T> codec;
+
+	private final long[] timestamps;
+	private final boolean[] defined;
+	private final long[] bits; // only if codec != null
+	private final Object[] objects; // only if codec == null
+
+	private int head = 0; // ring index of the next write
+	private int size = 0;
+
+	/**
+	 * Creates a {@link TimeRingBuffer} for values of the given
+	 * {@link OpenemsType}.
+	 *
+	 * @param capacity the maximum number of values
+	 * @param type     the {@link OpenemsType}
+	 */
+	public TimeRingBuffer(int capacity, OpenemsType type) {
+		this(capacity, Codec.<T>of(type));
+	}
+
+	/**
+	 * Creates a {@link TimeRingBuffer}.
+	 *
+	 * @param capacity the maximum number of values
+	 * @param codec    the {@link Codec} for primitive values; null to store
+	 *                 values as objects
+	 */
+	public TimeRingBuffer(int capacity, Codec<T> codec) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive. Got [" + capacity + "]");
+		}
+		this.capacity = capacity;
+		this.codec = codec;
+		this.timestamps = new long[capacity];
+		this.defined = new boolean[capacity];
+		if (codec != null) {
+			this.bits = new long[capacity];
+			this.objects = null;
+		} else {
+			this.bits = null;
+			this.objects = new Object[capacity];
+		}
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param timestamp the timestamp in milliseconds since epoch
+	 * @param value     the value; possibly null
+	 */
+	public synchronized void add(long timestamp, T value) {
+		int index = this.prepareAdd(timestamp);
+		this.defined[index] = value != null;
+		if (this.codec != null) {
+			this.bits[index] = value != null ? this.codec.toBits(value) : 0;
+		} else {
+			this.objects[index] = value;
+		}
+	}
+
+	/**
+	 * Adds a raw primitive value without boxing.
+	 *
+	 * @param timestamp the timestamp in milliseconds since epoch
+	 * @param defined   false if the value is undefined (i.e. null)
+	 * @param bits      the raw value as defined by the {@link Codec}
+	 * @throws IllegalStateException if this buffer stores objects
+	 */
+	public synchronized void addBits(long timestamp, boolean defined, long bits) throws IllegalStateException {
+		if (this.codec == null) {
+			throw new IllegalStateException("This TimeRingBuffer does not store primitive values");
+		}
+		int index = this.prepareAdd(timestamp);
+		this.defined[index] = defined;
+		this.bits[index] = defined ? bits : 0;
+	}
+
+	private int prepareAdd(long timestamp) {
+		if (this.size > 0) {
+			timestamp = Math.max(timestamp, this.timestamps[this.toRingIndex(this.size - 1)]);
+		}
+		int index = this.head;
+		this.timestamps[index] = timestamp;
+		this.head = (this.head + 1) % this.capacity;
+		if (this.size < this.capacity) {
+			this.size++;
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the maximum number of values.
+	 *
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return the size; at most the capacity
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+
+	/**
+	 * Is the buffer empty?.
+	 *
+	 * @return true if there are no values
+	 */
+	public synchronized boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Gets the timestamp of the value at the given index.
+	 *
+	 * @param index the index; 0 is the eldest value
+	 * @return the timestamp in milliseconds since epoch
+	 */
+	public synchronized long getTimestamp(int index) {
+		return this.timestamps[this.toRingIndex(index)];
+	}
+
+	/**
+	 * Is the value at the given index defined?.
+	 *
+	 * @param index the index; 0 is the eldest value
+	 * @return true if the value is not null
+	 */
+	public synchronized boolean isDefined(int index) {
+		return this.defined[this.toRingIndex(index)];
+	}
+
+	/**
+	 * Gets the value at the given index. Primitive values are boxed.
+	 *
+	 * @param index the index; 0 is the eldest value
+	 * @return the value; possibly null
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized T get(int index) {
+		int ringIndex = this.toRingIndex(index);
+		if (!this.defined[ringIndex]) {
+			return null;
+		}
+		if (this.codec != null) {
+			return this.codec.fromBits(this.bits[ringIndex]);
+		}
+		return (T) this.objects[ringIndex];
+	}
+
+	/**
+	 * Gets the value at the given index as double.
+	 *
+	 * @param index the index; 0 is the eldest value
+	 * @return the value; {@link Double#NaN} if it is undefined or not numeric
+	 */
+	public synchronized double getAsDouble(int index) {
+		return this.getAsDoubleFromRing(this.toRingIndex(index));
+	}
+
+	/**
+	 * Finds the index of the first value with a timestamp after the given
+	 * timestamp using binary search.
+	 *
+	 * @param timestamp the timestamp in milliseconds since epoch (exclusive)
+	 * @return the index of the first value after the timestamp; size() if there is
+	 *         no such value
+	 */
+	public synchronized int indexAfter(long timestamp) {
+		int low = 0;
+		int high = this.size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (this.timestamps[this.toRingIndex(middle)] <= timestamp) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Counts the defined values after the given timestamp.
+	 *
+	 * @param since the timestamp in milliseconds since epoch (exclusive)
+	 * @return the number of defined values
+	 */
+	public synchronized int count(long since) {
+		int result = 0;
+		for (int i = this.indexAfter(since); i < this.size; i++) {
+			if (!Double.isNaN(this.getAsDoubleFromRing(this.toRingIndex(i)))) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the minimum of the defined values after the given timestamp.
+	 *
+	 * @param since the timestamp in milliseconds since epoch (exclusive)
+	 * @return the minimum; {@link Double#NaN} if there is no defined value
+	 */
+	public synchronized double min(long since) {
+		double result = Double.NaN;
+		for (int i = this.indexAfter(since); i < this.size; i++) {
+			double value = this.getAsDoubleFromRing(this.toRingIndex(i));
+			if (!Double.isNaN(value) && (Double.isNaN(result) || value < result)) {
+				result = value;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the maximum of the defined values after the given timestamp.
+	 *
+	 * @param since the timestamp in milliseconds since epoch (exclusive)
+	 * @return the maximum; {@link Double#NaN} if there is no defined value
+	 */
+	public synchronized double max(long since) {
+		double result = Double.NaN;
+		for (int i = this.indexAfter(since); i < this.size; i++) {
+			double value = this.getAsDoubleFromRing(this.toRingIndex(i));
+			if (!Double.isNaN(value) && (Double.isNaN(result) || value > result)) {
+				result = value;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the average of the defined values after the given timestamp.
+	 *
+	 * @param since the timestamp in milliseconds since epoch (exclusive)
+	 * @return the average; {@link Double#NaN} if there is no defined value
+	 */
+	public synchronized double average(long since) {
+		double sum = 0;
+		int count = 0;
+		for (int i = this.indexAfter(since); i < this.size; i++) {
+			double value = this.getAsDoubleFromRing(this.toRingIndex(i));
+			if (!Double.isNaN(value)) {
+				sum += value;
+				count++;
+			}
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		return sum / count;
+	}
+
+	/**
+	 * Gets the latest defined value after the given timestamp.
+	 *
+	 * @param since the timestamp in milliseconds since epoch (exclusive)
+	 * @return the latest value; {@link Double#NaN} if there is no defined value
+	 */
+	public synchronized double last(long since) {
+		int from = this.indexAfter(since);
+		for (int i = this.size - 1; i >= from; i--) {
+			double value = this.getAsDoubleFromRing(this.toRingIndex(i));
+			if (!Double.isNaN(value)) {
+				return value;
+			}
+		}
+		return Double.NaN;
+	}
+
+	private double getAsDoubleFromRing(int ringIndex) {
+		if (this.codec == null || !this.defined[ringIndex]) {
+			return Double.NaN;
+		}
+		return this.codec.toDouble(this.bits[ringIndex]);
+	}
+
+	/**
+	 * Converts an index relative to the eldest value to the index in the arrays.
+	 *
+	 * @param index the index; 0 is the eldest value
+	 * @return the index in the ring buffer arrays
+	 */
+	private int toRingIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index [" + index + "] Size [" + this.size + "]");
+		}
+		return (this.head - this.size + index + this.capacity) % this.capacity;
+	}
+
+}
@@ -1,26 +0,0 @@
-package io.openems.edge.common.type.slidingvalue;
-
-import java.util.Optional;
-import java.util.OptionalDouble;
-
-import io.openems.common.types.OpenemsType;
-
-public class DoubleSlidingValue extends AbstractNumberSlidingValue<Double> {
-
-	public DoubleSlidingValue() {
-		super(OpenemsType.DOUBLE);
-	}
-
-	@Override
-	protected Optional<Double> getSlidingValue() {
-		OptionalDouble result = this.values.stream() //
-				.mapToDouble(Double::doubleValue) //
-				.average();
-		if (result.isPresent()) {
-			return Optional.of(result.getAsDouble());
-		} else {
-			return Optional.empty();
-		}
-	}
-
-}
@@ -1,3 +0,0 @@
-@org.osgi.annotation.versioning.Version("1.0.0")
-@org.osgi.annotation.bundle.Export
-package io.openems.edge.common.type.slidingvalue;
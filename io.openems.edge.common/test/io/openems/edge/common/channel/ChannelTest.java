@@ -1,18 +1,25 @@
 package io.openems.edge.common.channel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import io.openems.common.channel.AccessMode;
 import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.types.OpenemsType;
 
 public class ChannelTest {
 
 	private static enum TestChannelId implements ChannelId {
-		TEST_CHANNEL_WITH_OPTIONS(Doc.of(TestOptions.values()).accessMode(AccessMode.READ_WRITE));
+		TEST_CHANNEL_WITH_OPTIONS(Doc.of(TestOptions.values()).accessMode(AccessMode.READ_WRITE)), //
+		TEST_INTEGER(Doc.of(OpenemsType.INTEGER)), //
+		TEST_DOUBLE(Doc.of(OpenemsType.DOUBLE)), //
+		TEST_STRING(Doc.of(OpenemsType.STRING));
 
 		private final Doc doc;
 
@@ -42,4 +49,121 @@ public class ChannelTest {
 		assertEquals(TestOptions.OPTION_1.getValue(), writtenValue.get());
 	}
 
+	@Test
+	public void testSwitchProcessImage() {
+		TestChannelId channelId = TestChannelId.TEST_INTEGER;
+		IntegerReadChannel channel = channelId.doc().createChannelInstance(null, channelId);
+		AtomicInteger updates = new AtomicInteger();
+		channel.onUpdate(value -> updates.incrementAndGet());
+
+		channel.setNextValue(10);
+		channel.switchProcessImage();
+		assertEquals(10, (int) channel.value().get());
+		assertEquals(0, updates.get());
+
+		channel.dispatchProcessImageCallbacks();
+		assertEquals(1, updates.get());
+
+		// callbacks are dispatched only once
+		channel.dispatchProcessImageCallbacks();
+		assertEquals(1, updates.get());
+
+		channel.nextProcessImage();
+		assertEquals(2, updates.get());
+	}
+
+	@Test
+	public void testOnChange() {
+		TestChannelId channelId = TestChannelId.TEST_INTEGER;
+		IntegerReadChannel channel = channelId.doc().createChannelInstance(null, channelId);
+		AtomicInteger changes = new AtomicInteger();
+		channel.onChange((oldValue, newValue) -> changes.incrementAndGet());
+
+		// never set
+		channel.nextProcessImage();
+		channel.nextProcessImage();
+		assertEquals(0, changes.get());
+
+		channel.setNextValue(10);
+		channel.nextProcessImage();
+		assertEquals(1, changes.get());
+
+		// unchanged
+		channel.nextProcessImage();
+		channel.setNextValue(10);
+		channel.nextProcessImage();
+		assertEquals(1, changes.get());
+
+		channel.setNextValue(null);
+		channel.nextProcessImage();
+		assertEquals(2, changes.get());
+	}
+
+	@Test
+	public void testOnChangeNonPrimitive() {
+		TestChannelId channelId = TestChannelId.TEST_STRING;
+		StringReadChannel channel = channelId.doc().createChannelInstance(null, channelId);
+		AtomicInteger changes = new AtomicInteger();
+		channel.onChange((oldValue, newValue) -> changes.incrementAndGet());
+
+		channel.setNextValue("foo");
+		channel.nextProcessImage();
+		assertEquals(1, changes.get());
+
+		// equal value, but a new Value object
+		channel.setNextValue(new String("foo"));
+		channel.nextProcessImage();
+		assertEquals(1, changes.get());
+
+		channel.setNextValue("bar");
+		channel.nextProcessImage();
+		assertEquals(2, changes.get());
+	}
+
+	@Test
+	public void testNextValueIsRecreatedAfterSet() {
+		TestChannelId channelId = TestChannelId.TEST_INTEGER;
+		IntegerReadChannel channel = channelId.doc().createChannelInstance(null, channelId);
+
+		channel.setNextValue(1);
+		assertEquals(1, (int) channel.getNextValue().get());
+		channel.setNextValue(2);
+		assertEquals(2, (int) channel.getNextValue().get());
+		channel.nextProcessImage();
+		assertEquals(2, (int) channel.value().get());
+		channel.setNextValue(3);
+		channel.nextProcessImage();
+		assertEquals(3, (int) channel.value().get());
+	}
+
+	@Test
+	public void testPrimitiveValues() {
+		TestChannelId channelId = TestChannelId.TEST_DOUBLE;
+		DoubleReadChannel channel = channelId.doc().createChannelInstance(null, channelId);
+
+		assertFalse(channel.isValueDefined());
+		assertEquals(-1.0, channel.valueOrElse(-1.0), 0.0);
+
+		channel.setNextValue(1.5);
+		assertEquals(1.5, channel.nextValueOrElse(-1.0), 0.0);
+		assertEquals(-1.0, channel.valueOrElse(-1.0), 0.0);
+
+		channel.nextProcessImage();
+		assertTrue(channel.isValueDefined());
+		assertEquals(1.5, channel.valueOrElse(-1.0), 0.0);
+		assertEquals(1.5, channel.value().get(), 0.0);
+
+		// boxed and unboxed setters are interchangeable
+		channel.setNextValue((Object) 7);
+		channel.nextProcessImage();
+		assertEquals(7.0, channel.valueOrElse(-1.0), 0.0);
+		assertEquals(2, channel.getPastValues().size());
+		assertEquals(1.5, channel.getPastValues().last(Long.MIN_VALUE), 0.0);
+
+		channel.setNextValue(null);
+		channel.nextProcessImage();
+		assertFalse(channel.isValueDefined());
+		assertEquals(null, channel.value().get());
+	}
+
 }
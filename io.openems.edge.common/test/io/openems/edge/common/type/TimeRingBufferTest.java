@@ -0,0 +1,67 @@
+package io.openems.edge.common.type;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import io.openems.common.types.OpenemsType;
+
+public class TimeRingBufferTest {
+
+	@Test
+	public void testEvictEldest() {
+		TimeRingBuffer<Integer> b = new TimeRingBuffer<>(3, OpenemsType.INTEGER);
+		b.add(1000, 1);
+		b.add(2000, 2);
+		b.add(3000, 3);
+		b.add(4000, 4);
+
+		assertEquals(3, b.size());
+		assertEquals(2, (int) b.get(0));
+		assertEquals(4, (int) b.get(2));
+		assertEquals(2000, b.getTimestamp(0));
+	}
+
+	@Test
+	public void testAggregate() {
+		TimeRingBuffer<Integer> b = new TimeRingBuffer<>(10, OpenemsType.INTEGER);
+		b.add(1000, 10);
+		b.add(2000, null);
+		b.add(3000, 30);
+		b.add(4000, 20);
+
+		assertEquals(1, b.indexAfter(1000));
+		assertEquals(0, b.indexAfter(999));
+		assertEquals(4, b.indexAfter(4000));
+
+		assertEquals(20, b.average(Long.MIN_VALUE), 0.001);
+		assertEquals(25, b.average(1000), 0.001);
+		assertEquals(20, b.min(1000), 0.001);
+		assertEquals(30, b.max(Long.MIN_VALUE), 0.001);
+		assertEquals(20, b.last(Long.MIN_VALUE), 0.001);
+		assertEquals(3, b.count(Long.MIN_VALUE));
+		assertTrue(Double.isNaN(b.average(4000)));
+		assertTrue(Double.isNaN(b.min(5000)));
+	}
+
+	@Test
+	public void testClockJumpsBack() {
+		TimeRingBuffer<Double> b = new TimeRingBuffer<>(10, OpenemsType.DOUBLE);
+		b.add(5000, 1.5);
+		b.add(1000, 2.5);
+
+		assertEquals(5000, b.getTimestamp(1));
+		assertEquals(2.5, b.last(4999), 0.001);
+	}
+
+	@Test
+	public void testString() {
+		TimeRingBuffer<String> b = new TimeRingBuffer<>(2, OpenemsType.STRING);
+		b.add(1000, "one");
+		b.add(2000, "two");
+		b.add(3000, "three");
+
+		assertEquals("two", b.get(0));
+		assertTrue(Double.isNaN(b.average(Long.MIN_VALUE)));
+	}
+}
@@ -0,0 +1,24 @@
+package io.openems.edge.controller.api.backend;
+
+/**
+ * Defines how the values of a numeric Channel are combined to the one value
+ * that is sent to Backend.
+ */
+public enum Aggregation {
+	/**
+	 * The average of all values since the last send.
+	 */
+	AVERAGE,
+	/**
+	 * The latest value.
+	 */
+	LAST,
+	/**
+	 * The minimum of all values since the last send.
+	 */
+	MIN,
+	/**
+	 * The maximum of all values since the last send.
+	 */
+	MAX;
+}
@@ -27,11 +27,15 @@ import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.openems.common.channel.Unit;
 import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
 import io.openems.common.jsonrpc.notification.EdgeConfigNotification;
 import io.openems.common.jsonrpc.notification.SystemLogNotification;
+import io.openems.common.types.ChannelAddress;
 import io.openems.common.types.EdgeConfig;
+import io.openems.common.types.OpenemsType;
 import io.openems.common.websocket.AbstractWebsocketClient;
+import io.openems.common.websocket.CompactEncoding;
 import io.openems.edge.common.channel.Doc;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.ComponentManager;
@@ -54,6 +58,8 @@ public class BackendApi extends AbstractOpenemsComponent
 		implements Controller, OpenemsComponent, PaxAppender, EventHandler, ConfigurationListener {
 
 	protected static final int DEFAULT_NO_OF_CYCLES = 10;
+	protected static final int DEFAULT_REPLAY_RATE = 30;
+	protected static final int DEFAULT_BUFFER_SIZE = 64;
 	protected static final String COMPONENT_NAME = "Controller.Api.Backend";
 
 	protected final BackendWorker worker = new BackendWorker(this);
@@ -65,6 +71,8 @@ public class BackendApi extends AbstractOpenemsComponent
 	protected WebsocketClient websocket = null;
 	protected int noOfCycles = DEFAULT_NO_OF_CYCLES; // default, is going to be overwritten by config
 	protected boolean debug = false;
+	protected int replayRate = DEFAULT_REPLAY_RATE; // default, is going to be overwritten by config
+	protected int bufferSize = DEFAULT_BUFFER_SIZE; // default, is going to be overwritten by config
 
 	// Used for SubscribeSystemLogRequests
 	private boolean isSystemLogSubscribed = false;
@@ -75,7 +83,28 @@ public class BackendApi extends AbstractOpenemsComponent
 	@Reference
 	protected ComponentManager componentManager;
 
+	@Reference(name = "components", //
+			policy = ReferencePolicy.DYNAMIC, //
+			policyOption = ReferencePolicyOption.GREEDY, //
+			cardinality = ReferenceCardinality.MULTIPLE, //
+			target = "(enabled=true)", //
+			unbind = "removeComponent")
+	protected void addComponent(OpenemsComponent component) {
+		this.worker.aggregator.addComponent(component);
+	}
+
+	protected void removeComponent(OpenemsComponent component) {
+		this.worker.aggregator.removeComponent(component);
+	}
+
 	public enum ChannelId implements io.openems.edge.common.channel.ChannelId {
+		UNSENT_MESSAGES(Doc.of(OpenemsType.INTEGER) //
+				.text("Number of messages that are buffered for sending to Backend")), //
+		OLDEST_UNSENT_AGE(Doc.of(OpenemsType.LONG) //
+				.unit(Unit.SECONDS) //
+				.text("Age of the oldest message that is buffered for sending to Backend")), //
+		DROPPED_MESSAGES(Doc.of(OpenemsType.LONG) //
+				.text("Number of buffered messages that were dropped because the buffer was full")), //
 		;
 		private final Doc doc;
 
@@ -102,6 +131,9 @@ public class BackendApi extends AbstractOpenemsComponent
 		super.activate(context, config.id(), config.alias(), config.enabled());
 		this.noOfCycles = config.noOfCycles();
 		this.debug = config.debug();
+		this.replayRate = config.replayRate();
+		this.bufferSize = config.bufferSize();
+		this.worker.aggregator.setAggregations(this.parseAggregations(config.aggregations()));
 
 		if (!this.isEnabled()) {
 			return;
@@ -130,6 +162,7 @@ public class BackendApi extends AbstractOpenemsComponent
 		// create http headers
 		Map<String, String> httpHeaders = new HashMap<>();
 		httpHeaders.put("apikey", config.apikey());
+		httpHeaders.put(CompactEncoding.HEADER, CompactEncoding.VERSION);
 
 		// Create Websocket instance
 		this.websocket = new WebsocketClient(this, COMPONENT_NAME + ":" + this.id(), uri, httpHeaders, proxy);
@@ -139,6 +172,29 @@ public class BackendApi extends AbstractOpenemsComponent
 		this.worker.activate(config.id());
 	}
 
+	/**
+	 * Parses the configured per-Channel aggregations.
+	 * 
+	 * @param definitions the definitions, e.g. 'meter0/ActivePower=MAX'
+	 * @return the {@link Aggregation}s per Channel-Address
+	 */
+	private Map<ChannelAddress, Aggregation> parseAggregations(String[] definitions) {
+		Map<ChannelAddress, Aggregation> result = new HashMap<>();
+		for (String definition : definitions) {
+			String[] parts = definition.split("=", 2);
+			try {
+				if (parts.length != 2) {
+					throw new IllegalArgumentException("Expected 'component0/Channel0=MAX'");
+				}
+				result.put(ChannelAddress.fromString(parts[0].trim()),
+						Aggregation.valueOf(parts[1].trim().toUpperCase()));
+			} catch (OpenemsNamedException | IllegalArgumentException e) {
+				this.logWarn(this.log, "Aggregation [" + definition + "] is invalid: " + e.getMessage());
+			}
+		}
+		return result;
+	}
+
 	@Deactivate
 	protected void deactivate() {
 		super.deactivate();
@@ -191,8 +247,12 @@ public class BackendApi extends AbstractOpenemsComponent
 
 	@Override
 	public void handleEvent(Event event) {
+		if (!this.isEnabled()) {
+			return;
+		}
 		switch (event.getTopic()) {
 		case EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE:
+			this.worker.aggregator.sample();
 			this.worker.triggerNextRun();
 			break;
 		}
@@ -1,36 +1,35 @@
 package io.openems.edge.controller.api.backend;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.common.collect.EvictingQueue;
 import com.google.gson.JsonElement;
 
-import io.openems.common.channel.AccessMode;
+import io.openems.common.OpenemsConstants;
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.jsonrpc.base.GenericJsonrpcNotification;
 import io.openems.common.jsonrpc.base.JsonrpcMessage;
 import io.openems.common.jsonrpc.notification.TimestampedDataNotification;
 import io.openems.common.types.ChannelAddress;
-import io.openems.common.types.OpenemsType;
 import io.openems.common.worker.AbstractCycleWorker;
-import io.openems.edge.common.channel.EnumReadChannel;
-import io.openems.edge.common.type.slidingvalue.DoubleSlidingValue;
-import io.openems.edge.common.type.slidingvalue.FloatSlidingValue;
-import io.openems.edge.common.type.slidingvalue.IntegerSlidingValue;
-import io.openems.edge.common.type.slidingvalue.LatestSlidingValue;
-import io.openems.edge.common.type.slidingvalue.LongSlidingValue;
-import io.openems.edge.common.type.slidingvalue.ShortSlidingValue;
-import io.openems.edge.common.type.slidingvalue.SlidingValue;
 
 class BackendWorker extends AbstractCycleWorker {
 
 	private static final int MAX_CACHED_MESSAGES = 1000;
+	private static final String BUFFER_PATH = "backend";
+	private static final int SEGMENT_SIZE = 1024 * 1024; // [byte]
 
-	// private final Logger log = LoggerFactory.getLogger(BackendWorker.class);
+	private final Logger log = LoggerFactory.getLogger(BackendWorker.class);
 
 	private final BackendApi parent;
 
@@ -40,12 +39,18 @@ class BackendWorker extends AbstractCycleWorker {
 	// Holds an current NoOfCycles
 	private Optional<Integer> increasedNoOfCycles = Optional.empty();
 
-	// Current values
-	private final ConcurrentHashMap<ChannelAddress, SlidingValue<?>> data = new ConcurrentHashMap<>();
+	// Aggregated values since the last send
+	final ChannelAggregator aggregator = new ChannelAggregator();
+
+	// Unsent messages on disk (FIFO); survives restarts
+	private SegmentLog buffer = null;
 
-	// Unsent queue (FIFO)
+	// Unsent queue (FIFO); fallback if the buffer on disk is not available
 	private EvictingQueue<JsonrpcMessage> unsent = EvictingQueue.create(MAX_CACHED_MESSAGES);
 
+	// Number of messages that were evicted from the in-memory queue
+	private long droppedInMemory = 0;
+
 	// By default the worker reads and sends only changed values. If this variable
 	// is set to 'false', it sends all values once.
 	private final AtomicBoolean sendChangedValuesOnly = new AtomicBoolean(false);
@@ -56,12 +61,24 @@ class BackendWorker extends AbstractCycleWorker {
 
 	@Override
 	public void activate(String name) {
+		try {
+			this.buffer = new SegmentLog(Paths.get(OpenemsConstants.getOpenemsDataDir(), BUFFER_PATH, name),
+					SEGMENT_SIZE, this.parent.bufferSize * 1024L * 1024L);
+		} catch (IOException e) {
+			this.log.warn("Unable to open buffer for unsent messages. Keeping max. [" + MAX_CACHED_MESSAGES
+					+ "] messages in memory: " + e.getMessage());
+			this.buffer = null;
+		}
 		super.activate(name);
 	}
 
 	@Override
 	public void deactivate() {
 		super.deactivate();
+		SegmentLog buffer = this.buffer;
+		if (buffer != null) {
+			buffer.close();
+		}
 	}
 
 	/**
@@ -75,9 +92,6 @@ class BackendWorker extends AbstractCycleWorker {
 
 	@Override
 	protected void forever() {
-		// Update the data from ChannelValues
-		this.updateData();
-
 		// Increase CycleCount
 		if (++this.cycleCount < this.parent.noOfCycles) {
 			// Stop here if not reached CycleCount
@@ -93,23 +107,11 @@ class BackendWorker extends AbstractCycleWorker {
 		// resets the mode to 'send changed values only'
 		boolean sendChangedValuesOnly = this.sendChangedValuesOnly.getAndSet(true);
 
-		// Prepare message values
+		// Prepare message values; values were recorded by the aggregator on every
+		// Cycle
 		Map<ChannelAddress, JsonElement> sendValues = new HashMap<>();
-
-		if (sendChangedValuesOnly) {
-			// Only Changed Values
-			for (Entry<ChannelAddress, SlidingValue<?>> entry : this.data.entrySet()) {
-				JsonElement changedValueOrNull = entry.getValue().getChangedValueOrNull();
-				if (changedValueOrNull != null) {
-					sendValues.put(entry.getKey(), changedValueOrNull);
-				}
-			}
-		} else {
-			// All Values
-			for (Entry<ChannelAddress, SlidingValue<?>> entry : this.data.entrySet()) {
-				sendValues.put(entry.getKey(), entry.getValue().getValue());
-			}
-		}
+		this.aggregator.refresh();
+		this.aggregator.collect(sendChangedValuesOnly, sendValues);
 
 		boolean canSendFromCache;
 
@@ -134,7 +136,7 @@ class BackendWorker extends AbstractCycleWorker {
 				increaseNoOfCycles();
 
 				// cache data for later
-				this.unsent.add(message);
+				this.cache(timestamp, message);
 			}
 
 			canSendFromCache = wasSent;
@@ -143,92 +145,109 @@ class BackendWorker extends AbstractCycleWorker {
 		}
 
 		// send from cache
-		if (canSendFromCache && !this.unsent.isEmpty()) {
-			for (Iterator<JsonrpcMessage> iterator = this.unsent.iterator(); iterator.hasNext();) {
-				JsonrpcMessage cached = iterator.next();
-				boolean cacheWasSent = this.parent.websocket.sendMessage(cached);
-				if (cacheWasSent) {
-					// sent successfully -> remove from cache & try next
-					iterator.remove();
+		if (canSendFromCache) {
+			this.sendFromCache();
+		}
+
+		this.updateChannels();
+	}
+
+	/**
+	 * Caches a message that could not be sent. Uses the buffer on disk if
+	 * available, the in-memory queue otherwise.
+	 *
+	 * @param timestamp the timestamp of the message
+	 * @param message   the message
+	 */
+	private void cache(long timestamp, JsonrpcMessage message) {
+		SegmentLog buffer = this.buffer;
+		if (buffer != null) {
+			try {
+				buffer.append(timestamp, message.toString().getBytes(StandardCharsets.UTF_8));
+				return;
+			} catch (IOException e) {
+				this.log.warn("Unable to buffer unsent message: " + e.getMessage());
+			}
+		}
+		if (this.unsent.remainingCapacity() == 0) {
+			// EvictingQueue drops the oldest message
+			this.droppedInMemory++;
+		}
+		this.unsent.add(message);
+	}
+
+	/**
+	 * Resends cached messages, oldest first. Sends at most 'replayRate' messages
+	 * per run, so that catching up after a connection loss does not delay live
+	 * data. Stops at the first message that could not be sent.
+	 */
+	private void sendFromCache() {
+		int remaining = this.parent.replayRate;
+		for (Iterator<JsonrpcMessage> iterator = this.unsent.iterator(); remaining > 0 && iterator.hasNext();) {
+			JsonrpcMessage cached = iterator.next();
+			if (!this.parent.websocket.sendMessage(cached)) {
+				return;
+			}
+			// sent successfully -> remove from cache & try next
+			iterator.remove();
+			remaining--;
+		}
+
+		SegmentLog buffer = this.buffer;
+		if (buffer == null) {
+			return;
+		}
+		try {
+			while (remaining > 0) {
+				SegmentLog.Record record = buffer.peek();
+				if (record == null) {
+					return;
+				}
+				TimestampedDataNotification cached;
+				try {
+					cached = TimestampedDataNotification.from(GenericJsonrpcNotification
+							.from(new String(record.getPayload(), StandardCharsets.UTF_8)));
+				} catch (OpenemsNamedException e) {
+					this.log.warn("Dropping invalid buffered message: " + e.getMessage());
+					buffer.remove();
+					continue;
 				}
+				if (!this.parent.websocket.sendMessage(cached)) {
+					return;
+				}
+				// sent successfully -> remove from buffer & try next
+				buffer.remove();
+				remaining--;
 			}
+		} catch (IOException e) {
+			this.log.warn("Unable to read buffered messages: " + e.getMessage());
 		}
 	}
 
 	/**
-	 * Cycles through all Channels and updates the value.
+	 * Updates the Channels for the number and age of unsent messages.
 	 */
-	private void updateData() {
-		this.parent.componentManager.getEnabledComponents().parallelStream() //
-				.filter(c -> c.isEnabled()) //
-				.flatMap(component -> component.channels().parallelStream()) //
-				.filter(channel -> // Ignore WRITE_ONLY Channels
-				channel.channelDoc().getAccessMode() == AccessMode.READ_ONLY
-						|| channel.channelDoc().getAccessMode() == AccessMode.READ_WRITE)
-				.forEach(channel -> {
-					ChannelAddress address = channel.address();
-					Object value = channel.value().get();
-
-					// Get existing SlidingValue object or add new one
-					SlidingValue<?> slidingValue = this.data.get(address);
-
-					if (slidingValue == null) {
-						// Create new SlidingValue object
-						if (channel instanceof EnumReadChannel) {
-							slidingValue = new LatestSlidingValue(OpenemsType.INTEGER);
-						} else {
-							switch (channel.getType()) {
-							case INTEGER:
-								slidingValue = new IntegerSlidingValue();
-								break;
-							case DOUBLE:
-								slidingValue = new DoubleSlidingValue();
-								break;
-							case FLOAT:
-								slidingValue = new FloatSlidingValue();
-								break;
-							case LONG:
-								slidingValue = new LongSlidingValue();
-								break;
-							case SHORT:
-								slidingValue = new ShortSlidingValue();
-								break;
-							case BOOLEAN:
-							case STRING:
-								slidingValue = new LatestSlidingValue(channel.getType());
-								break;
-							}
-						}
-						this.data.put(address, slidingValue);
-					}
-
-					// Add Value to SlidingValue object
-					if (slidingValue instanceof LatestSlidingValue) {
-						((LatestSlidingValue) slidingValue).addValue(value);
-					} else {
-						switch (channel.getType()) {
-						case INTEGER:
-							((IntegerSlidingValue) slidingValue).addValue((Integer) value);
-							break;
-						case DOUBLE:
-							((DoubleSlidingValue) slidingValue).addValue((Double) value);
-							break;
-						case FLOAT:
-							((FloatSlidingValue) slidingValue).addValue((Float) value);
-							break;
-						case LONG:
-							((LongSlidingValue) slidingValue).addValue((Long) value);
-							break;
-						case SHORT:
-							((ShortSlidingValue) slidingValue).addValue((Short) value);
-							break;
-						case BOOLEAN:
-						case STRING:
-							// already covered as they are of type LatestSlidingValue
-							break;
-						}
-					}
-				});
+	private void updateChannels() {
+		int unsentMessages = this.unsent.size();
+		long droppedMessages = this.droppedInMemory;
+		Long oldestTimestamp = null;
+		SegmentLog buffer = this.buffer;
+		if (buffer != null) {
+			unsentMessages += buffer.size();
+			droppedMessages += buffer.getDroppedRecords();
+			try {
+				oldestTimestamp = buffer.getOldestTimestamp();
+			} catch (IOException e) {
+				// buffer was closed
+			}
+		}
+		Long oldestUnsentAge = null;
+		if (oldestTimestamp != null) {
+			oldestUnsentAge = Math.max(0, System.currentTimeMillis() - oldestTimestamp) / 1000;
+		}
+		this.parent.channel(BackendApi.ChannelId.UNSENT_MESSAGES).setNextValue(unsentMessages);
+		this.parent.channel(BackendApi.ChannelId.OLDEST_UNSENT_AGE).setNextValue(oldestUnsentAge);
+		this.parent.channel(BackendApi.ChannelId.DROPPED_MESSAGES).setNextValue(droppedMessages);
 	}
 
 	/**
@@ -0,0 +1,356 @@
+package io.openems.edge.controller.api.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+
+import io.openems.common.channel.AccessMode;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.internal.AbstractPrimitiveReadChannel;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.type.TypeUtils;
+
+/**
+ * Aggregates the Channel values between two sends to Backend.
+ *
+ * <p>
+ * Every readable Channel gets an integer slot once, when its Component is
+ * bound. {@link #sample()} is called once per Cycle and reads the active value
+ * of every primitive Channel without boxing via
+ * {@link AbstractPrimitiveReadChannel#valueAsDoubleOrElse(double)}. Per slot the
+ * running sum, count, min, max and last value are kept in primitive arrays, so
+ * sampling does not allocate. Other Channels (Boolean, String, Enum) are not
+ * sampled; their current value is read on {@link #collect(boolean, Map)}.
+ */
+class ChannelAggregator {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * The slots of one Component.
+	 */
+	private static class Entry {
+		private final OpenemsComponent component;
+		private final Map<Channel<?>, Integer> slots = new HashMap<>();
+		private int channelCount = 0;
+
+		private Entry(OpenemsComponent component) {
+			this.component = component;
+		}
+	}
+
+	private final Map<String, Entry> entries = new HashMap<>();
+	private Map<ChannelAddress, Aggregation> configuredAggregations = new HashMap<>();
+
+	// per slot; guarded by 'this'
+	private ChannelAddress[] addresses = new ChannelAddress[INITIAL_CAPACITY];
+	private OpenemsType[] types = new OpenemsType[INITIAL_CAPACITY];
+	private Aggregation[] aggregations = new Aggregation[INITIAL_CAPACITY];
+	private Channel<?>[] channels = new Channel<?>[INITIAL_CAPACITY];
+	// null for non-numeric Channels
+	private AbstractPrimitiveReadChannel<?, ?>[] numericChannels = new AbstractPrimitiveReadChannel<?, ?>[INITIAL_CAPACITY];
+	private int[] counts = new int[INITIAL_CAPACITY];
+	private double[] sums = new double[INITIAL_CAPACITY];
+	private double[] mins = new double[INITIAL_CAPACITY];
+	private double[] maxs = new double[INITIAL_CAPACITY];
+	private double[] lasts = new double[INITIAL_CAPACITY];
+	private int size = 0;
+	private int[] freeSlots = new int[16];
+	private int freeSlotsSize = 0;
+
+	// copy of the aggregated values for collect(); only used by the caller of
+	// collect(), so that JSON is built without holding the lock
+	private ChannelAddress[] collectedAddresses = new ChannelAddress[0];
+	private OpenemsType[] collectedTypes = new OpenemsType[0];
+	private Channel<?>[] collectedChannels = new Channel<?>[0];
+	private boolean[] collectedDefined = new boolean[0];
+	private double[] collectedValues = new double[0];
+
+	/**
+	 * Sets the configured per-Channel aggregations; Channels without
+	 * configuration use {@link Aggregation#AVERAGE}.
+	 *
+	 * @param configuredAggregations the {@link Aggregation}s per Channel-Address
+	 */
+	synchronized void setAggregations(Map<ChannelAddress, Aggregation> configuredAggregations) {
+		this.configuredAggregations = configuredAggregations;
+		for (int slot = 0; slot < this.size; slot++) {
+			if (this.addresses[slot] != null) {
+				this.aggregations[slot] = this.getAggregation(this.addresses[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Allocates slots for all readable Channels of a Component.
+	 *
+	 * @param component the {@link OpenemsComponent}
+	 */
+	synchronized void addComponent(OpenemsComponent component) {
+		Entry previous = this.entries.remove(component.id());
+		if (previous != null) {
+			this.freeSlots(previous);
+		}
+		Entry entry = new Entry(component);
+		this.entries.put(component.id(), entry);
+		this.addNewChannels(entry);
+	}
+
+	/**
+	 * Frees the slots of all Channels of a Component.
+	 *
+	 * @param component the {@link OpenemsComponent}
+	 */
+	synchronized void removeComponent(OpenemsComponent component) {
+		Entry entry = this.entries.get(component.id());
+		if (entry != null && entry.component == component) {
+			this.entries.remove(component.id());
+			this.freeSlots(entry);
+		}
+	}
+
+	/**
+	 * Allocates slots for Channels that were added to a Component after it was
+	 * bound, and frees the slots of removed Channels. Only Components with a
+	 * changed number of Channels are looked at.
+	 */
+	synchronized void refresh() {
+		for (Entry entry : this.entries.values()) {
+			if (entry.component.channels().size() == entry.channelCount) {
+				continue;
+			}
+			List<Channel<?>> removed = new ArrayList<>();
+			for (Channel<?> channel : entry.slots.keySet()) {
+				if (entry.component._channel(channel.channelId().id()) != channel) {
+					removed.add(channel);
+				}
+			}
+			for (Channel<?> channel : removed) {
+				this.freeSlot(entry.slots.remove(channel));
+			}
+			this.addNewChannels(entry);
+		}
+	}
+
+	/**
+	 * Adds the active value of every numeric Channel to its aggregation. Called
+	 * once per Cycle after the process image was switched.
+	 */
+	synchronized void sample() {
+		for (int slot = 0; slot < this.size; slot++) {
+			AbstractPrimitiveReadChannel<?, ?> channel = this.numericChannels[slot];
+			if (channel == null) {
+				// free slot or non-numeric Channel
+				continue;
+			}
+			double v = channel.valueAsDoubleOrElse(Double.NaN);
+			if (Double.isNaN(v)) {
+				// numeric values are aggregated only if they are defined
+				continue;
+			}
+			if (this.counts[slot] == 0) {
+				this.sums[slot] = v;
+				this.mins[slot] = v;
+				this.maxs[slot] = v;
+			} else {
+				this.sums[slot] += v;
+				this.mins[slot] = Math.min(this.mins[slot], v);
+				this.maxs[slot] = Math.max(this.maxs[slot], v);
+			}
+			this.lasts[slot] = v;
+			this.counts[slot]++;
+		}
+	}
+
+	/**
+	 * Writes the aggregated value of every Channel to the target map and resets
+	 * the aggregation. Must not be called concurrently.
+	 *
+	 * @param definedValuesOnly if true, Channels without a defined value are
+	 *                          skipped; otherwise they are added as JsonNull
+	 * @param target            the target map
+	 */
+	void collect(boolean definedValuesOnly, Map<ChannelAddress, JsonElement> target) {
+		int size = this.copyAggregatedValues();
+		for (int i = 0; i < size; i++) {
+			Object value;
+			if (this.collectedChannels[i] != null) {
+				value = this.collectedChannels[i].value().get();
+				this.collectedChannels[i] = null;
+			} else if (this.collectedDefined[i]) {
+				value = toType(this.collectedTypes[i], this.collectedValues[i]);
+			} else {
+				value = null;
+			}
+			ChannelAddress address = this.collectedAddresses[i];
+			this.collectedAddresses[i] = null;
+			if (value == null && definedValuesOnly) {
+				continue;
+			}
+			target.put(address, TypeUtils.getAsJson(this.collectedTypes[i], value));
+		}
+	}
+
+	/**
+	 * Copies the aggregated values of all slots and resets the aggregation.
+	 *
+	 * @return the number of copied values
+	 */
+	private synchronized int copyAggregatedValues() {
+		if (this.collectedAddresses.length < this.size) {
+			this.collectedAddresses = new ChannelAddress[this.addresses.length];
+			this.collectedTypes = new OpenemsType[this.addresses.length];
+			this.collectedChannels = new Channel<?>[this.addresses.length];
+			this.collectedDefined = new boolean[this.addresses.length];
+			this.collectedValues = new double[this.addresses.length];
+		}
+		int i = 0;
+		for (int slot = 0; slot < this.size; slot++) {
+			if (this.addresses[slot] == null) {
+				// free slot
+				continue;
+			}
+			this.collectedAddresses[i] = this.addresses[slot];
+			this.collectedTypes[i] = this.types[slot];
+			if (this.numericChannels[slot] == null) {
+				this.collectedChannels[i] = this.channels[slot];
+			} else {
+				this.collectedDefined[i] = this.counts[slot] > 0;
+				this.collectedValues[i] = this.getAggregatedValue(slot);
+				this.counts[slot] = 0;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private double getAggregatedValue(int slot) {
+		if (this.counts[slot] == 0) {
+			return Double.NaN;
+		}
+		switch (this.aggregations[slot]) {
+		case LAST:
+			return this.lasts[slot];
+		case MIN:
+			return this.mins[slot];
+		case MAX:
+			return this.maxs[slot];
+		case AVERAGE:
+		default:
+			return this.sums[slot] / this.counts[slot];
+		}
+	}
+
+	/**
+	 * Converts the aggregated value to the type of the Channel.
+	 *
+	 * @param type  the {@link OpenemsType}
+	 * @param value the value
+	 * @return the converted value; null if it does not fit in the type
+	 */
+	private static Object toType(OpenemsType type, double value) {
+		switch (type) {
+		case SHORT: {
+			long v = Math.round(value);
+			return v < Short.MIN_VALUE || v > Short.MAX_VALUE ? null : (short) v;
+		}
+		case INTEGER: {
+			long v = Math.round(value);
+			return v < Integer.MIN_VALUE || v > Integer.MAX_VALUE ? null : (int) v;
+		}
+		case LONG:
+			return Math.round(value);
+		case FLOAT:
+			return value < -Float.MAX_VALUE || value > Float.MAX_VALUE ? null : (float) value;
+		case DOUBLE:
+			return value;
+		case BOOLEAN:
+		case STRING:
+		default:
+			return null;
+		}
+	}
+
+	private void addNewChannels(Entry entry) {
+		entry.channelCount = entry.component.channels().size();
+		for (Channel<?> channel : entry.component.channels()) {
+			AccessMode accessMode = channel.channelDoc().getAccessMode();
+			if (accessMode != AccessMode.READ_ONLY && accessMode != AccessMode.READ_WRITE) {
+				// Ignore WRITE_ONLY Channels
+				continue;
+			}
+			if (entry.slots.containsKey(channel)) {
+				continue;
+			}
+			entry.slots.put(channel, this.addChannel(channel));
+		}
+	}
+
+	private int addChannel(Channel<?> channel) {
+		int slot = this.allocateSlot();
+		ChannelAddress address = channel.address();
+		this.addresses[slot] = address;
+		this.types[slot] = channel.getType();
+		this.aggregations[slot] = this.getAggregation(address);
+		this.channels[slot] = channel;
+		// Boolean, String and Enum Channels are no AbstractPrimitiveReadChannels and
+		// are never aggregated
+		if (channel instanceof AbstractPrimitiveReadChannel) {
+			this.numericChannels[slot] = (AbstractPrimitiveReadChannel<?, ?>) channel;
+		} else {
+			this.numericChannels[slot] = null;
+		}
+		this.counts[slot] = 0;
+		return slot;
+	}
+
+	private void freeSlots(Entry entry) {
+		for (int slot : entry.slots.values()) {
+			this.freeSlot(slot);
+		}
+		entry.slots.clear();
+	}
+
+	private void freeSlot(int slot) {
+		this.addresses[slot] = null;
+		this.types[slot] = null;
+		this.channels[slot] = null;
+		this.numericChannels[slot] = null;
+		this.counts[slot] = 0;
+		if (this.freeSlotsSize == this.freeSlots.length) {
+			this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlots.length * 2);
+		}
+		this.freeSlots[this.freeSlotsSize++] = slot;
+	}
+
+	private Aggregation getAggregation(ChannelAddress address) {
+		return this.configuredAggregations.getOrDefault(address, Aggregation.AVERAGE);
+	}
+
+	private int allocateSlot() {
+		if (this.freeSlotsSize > 0) {
+			return this.freeSlots[--this.freeSlotsSize];
+		}
+		if (this.size == this.addresses.length) {
+			int capacity = this.addresses.length * 2;
+			this.addresses = Arrays.copyOf(this.addresses, capacity);
+			this.types = Arrays.copyOf(this.types, capacity);
+			this.aggregations = Arrays.copyOf(this.aggregations, capacity);
+			this.channels = Arrays.copyOf(this.channels, capacity);
+			this.numericChannels = Arrays.copyOf(this.numericChannels, capacity);
+			this.counts = Arrays.copyOf(this.counts, capacity);
+			this.sums = Arrays.copyOf(this.sums, capacity);
+			this.mins = Arrays.copyOf(this.mins, capacity);
+			this.maxs = Arrays.copyOf(this.maxs, capacity);
+			this.lasts = Arrays.copyOf(this.lasts, capacity);
+		}
+		return this.size++;
+	}
+
+}
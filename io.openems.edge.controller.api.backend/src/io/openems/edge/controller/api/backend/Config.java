@@ -29,6 +29,15 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 	@AttributeDefinition(name = "No. of Cycles", description = "How many Cycles till data is sent to OpenEMS Backend.")
 	int noOfCycles() default BackendApi.DEFAULT_NO_OF_CYCLES;
 
+	@AttributeDefinition(name = "Buffer Size", description = "Maximum size in MB of the local buffer for data that could not be sent to OpenEMS Backend.")
+	int bufferSize() default BackendApi.DEFAULT_BUFFER_SIZE;
+
+	@AttributeDefinition(name = "Replay Rate", description = "How many buffered messages are resent to OpenEMS Backend per sent message after a connection loss.")
+	int replayRate() default BackendApi.DEFAULT_REPLAY_RATE;
+
+	@AttributeDefinition(name = "Aggregations", description = "Aggregation of numeric Channels between two sends, e.g. 'meter0/ActivePower=MAX'. One of AVERAGE, LAST, MIN, MAX; default is AVERAGE.")
+	String[] aggregations() default {};
+
 	@AttributeDefinition(name = "Proxy Address", description = "The IP address or hostname of the proxy server.")
 	String proxyAddress() default "";
 
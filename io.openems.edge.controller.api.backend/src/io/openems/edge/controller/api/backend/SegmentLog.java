@@ -0,0 +1,376 @@
+package io.openems.edge.controller.api.backend;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A disk-backed, append-only log of messages that could not be sent to the
+ * Backend.
+ *
+ * <p>
+ * The log consists of memory-mapped segment files of fixed size. Every record
+ * holds its length, a CRC32 checksum, a timestamp and the payload:
+ *
+ * <pre>
+ * | length (int) | crc32 (int) | timestamp (long) | payload (length bytes) |
+ * </pre>
+ *
+ * <p>
+ * Each segment starts with a header that holds the read position, so records
+ * that were already sent are not replayed after a restart. Records are
+ * appended in timestamp order and read in the same order. Incomplete or
+ * corrupted records at the end of a segment - e.g. after a power failure - are
+ * detected by their checksum and ignored.
+ *
+ * <p>
+ * If the log exceeds its maximum size, the oldest segment is dropped.
+ */
+class SegmentLog {
+
+	/**
+	 * A record of the {@link SegmentLog}.
+	 */
+	static class Record {
+		private final long timestamp;
+		private final byte[] payload;
+
+		private Record(long timestamp, byte[] payload) {
+			this.timestamp = timestamp;
+			this.payload = payload;
+		}
+
+		public long getTimestamp() {
+			return this.timestamp;
+		}
+
+		public byte[] getPayload() {
+			return this.payload;
+		}
+	}
+
+	private static final String SUFFIX = ".seg";
+	private static final int MAGIC = 0x4f454c47; // 'OELG'
+	private static final int HEADER_SIZE = 16;
+	private static final int READ_POSITION_OFFSET = 4;
+	private static final int RECORD_HEADER_SIZE = 16;
+
+	private final Path directory;
+	private final int segmentSize;
+	private final int maxSegments;
+	private final Deque<Segment> segments = new ArrayDeque<>();
+	private final CRC32 crc = new CRC32();
+
+	private long nextSequence = 0;
+	private int unsentRecords = 0;
+	private long droppedRecords = 0;
+	private boolean isClosed = false;
+
+	/**
+	 * Opens the log and recovers existing segments.
+	 *
+	 * @param directory   the directory
+	 * @param segmentSize the size of one segment file in [byte]
+	 * @param maxSize     the maximum size of the log in [byte]
+	 * @throws IOException on error
+	 */
+	public SegmentLog(Path directory, int segmentSize, long maxSize) throws IOException {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = (int) Math.max(2, maxSize / segmentSize);
+		Files.createDirectories(directory);
+
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+			for (Path file : stream) {
+				files.add(file);
+			}
+		}
+		Collections.sort(files);
+		for (Path file : files) {
+			Segment segment = this.openSegment(file, parseSequence(file));
+			this.nextSequence = Math.max(this.nextSequence, segment.sequence + 1);
+			if (segment.records == 0) {
+				segment.delete();
+			} else {
+				this.segments.addLast(segment);
+				this.unsentRecords += segment.records;
+			}
+		}
+	}
+
+	/**
+	 * Appends a record.
+	 *
+	 * @param timestamp the timestamp in [ms]
+	 * @param payload   the payload
+	 * @throws IOException on error
+	 */
+	public synchronized void append(long timestamp, byte[] payload) throws IOException {
+		this.assertOpen();
+		int recordSize = RECORD_HEADER_SIZE + payload.length;
+		if (HEADER_SIZE + recordSize > this.segmentSize) {
+			throw new IOException("Record of [" + payload.length + "] bytes is too large for the segment size");
+		}
+		Segment segment = this.segments.peekLast();
+		if (segment == null || segment.writePosition + recordSize > this.segmentSize) {
+			if (segment != null) {
+				segment.buffer.force();
+			}
+			segment = this.createSegment();
+			this.segments.addLast(segment);
+		}
+
+		// write the length last, so that a partial record is never valid
+		MappedByteBuffer buffer = segment.buffer;
+		int position = segment.writePosition;
+		buffer.putInt(position + 4, this.checksum(timestamp, payload));
+		buffer.putLong(position + 8, timestamp);
+		for (int i = 0; i < payload.length; i++) {
+			buffer.put(position + RECORD_HEADER_SIZE + i, payload[i]);
+		}
+		buffer.putInt(position, payload.length);
+		segment.writePosition += recordSize;
+		segment.records++;
+		this.unsentRecords++;
+
+		// drop the oldest segments if the log is full
+		while (this.segments.size() > this.maxSegments) {
+			Segment oldest = this.segments.removeFirst();
+			this.unsentRecords -= oldest.records;
+			this.droppedRecords += oldest.records;
+			oldest.delete();
+		}
+	}
+
+	/**
+	 * Gets the oldest unsent record without removing it.
+	 *
+	 * @return the {@link Record}; null if the log is empty
+	 * @throws IOException on error
+	 */
+	public synchronized Record peek() throws IOException {
+		this.assertOpen();
+		Segment segment = this.getHead();
+		if (segment == null) {
+			return null;
+		}
+		MappedByteBuffer buffer = segment.buffer;
+		int position = segment.readPosition;
+		byte[] payload = new byte[buffer.getInt(position)];
+		for (int i = 0; i < payload.length; i++) {
+			payload[i] = buffer.get(position + RECORD_HEADER_SIZE + i);
+		}
+		return new Record(buffer.getLong(position + 8), payload);
+	}
+
+	/**
+	 * Removes the oldest unsent record, i.e. the one returned by {@link #peek()}.
+	 *
+	 * @throws IOException on error
+	 */
+	public synchronized void remove() throws IOException {
+		this.assertOpen();
+		Segment segment = this.getHead();
+		if (segment == null) {
+			return;
+		}
+		segment.readPosition += RECORD_HEADER_SIZE + segment.buffer.getInt(segment.readPosition);
+		segment.buffer.putInt(READ_POSITION_OFFSET, segment.readPosition);
+		segment.records--;
+		this.unsentRecords--;
+	}
+
+	/**
+	 * Gets the timestamp of the oldest unsent record.
+	 *
+	 * @return the timestamp in [ms]; null if the log is empty
+	 * @throws IOException on error
+	 */
+	public synchronized Long getOldestTimestamp() throws IOException {
+		this.assertOpen();
+		Segment segment = this.getHead();
+		if (segment == null) {
+			return null;
+		}
+		return segment.buffer.getLong(segment.readPosition + 8);
+	}
+
+	/**
+	 * Gets the number of unsent records.
+	 *
+	 * @return the number of records
+	 */
+	public synchronized int size() {
+		return this.unsentRecords;
+	}
+
+	/**
+	 * Gets the number of records that were dropped because the log was full.
+	 *
+	 * @return the number of records
+	 */
+	public synchronized long getDroppedRecords() {
+		return this.droppedRecords;
+	}
+
+	/**
+	 * Flushes all segments to disk and closes the log.
+	 */
+	public synchronized void close() {
+		this.isClosed = true;
+		for (Segment segment : this.segments) {
+			segment.close();
+		}
+		this.segments.clear();
+	}
+
+	/**
+	 * Gets the first segment with unsent records. Segments that were completely
+	 * sent are deleted; the last segment is kept for appending.
+	 *
+	 * @return the {@link Segment}; null if there are no unsent records
+	 * @throws IOException on error
+	 */
+	private Segment getHead() throws IOException {
+		while (true) {
+			Segment segment = this.segments.peekFirst();
+			if (segment == null) {
+				return null;
+			}
+			if (segment.records > 0) {
+				return segment;
+			}
+			if (this.segments.size() == 1) {
+				return null;
+			}
+			this.segments.removeFirst().delete();
+		}
+	}
+
+	private Segment createSegment() throws IOException {
+		long sequence = this.nextSequence++;
+		Path file = this.directory.resolve(String.format("%019d", sequence) + SUFFIX);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(READ_POSITION_OFFSET, HEADER_SIZE);
+		return new Segment(file, sequence, channel, buffer, HEADER_SIZE, HEADER_SIZE, 0);
+	}
+
+	/**
+	 * Opens an existing segment and scans its records.
+	 *
+	 * @param file     the segment file
+	 * @param sequence the sequence number
+	 * @return the {@link Segment}
+	 * @throws IOException on error
+	 */
+	private Segment openSegment(Path file, long sequence) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+		if (buffer.getInt(0) != MAGIC) {
+			// not a valid segment -> treat as empty
+			return new Segment(file, sequence, channel, buffer, this.segmentSize, this.segmentSize, 0);
+		}
+		int readPosition = buffer.getInt(READ_POSITION_OFFSET);
+		int position = HEADER_SIZE;
+		int records = 0;
+		while (position + RECORD_HEADER_SIZE <= this.segmentSize) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || position + RECORD_HEADER_SIZE + length > this.segmentSize) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			for (int i = 0; i < length; i++) {
+				payload[i] = buffer.get(position + RECORD_HEADER_SIZE + i);
+			}
+			if (buffer.getInt(position + 4) != this.checksum(buffer.getLong(position + 8), payload)) {
+				// corrupted record, e.g. after power failure -> ignore the rest
+				break;
+			}
+			if (position >= readPosition) {
+				records++;
+			}
+			position += RECORD_HEADER_SIZE + length;
+		}
+		if (readPosition < HEADER_SIZE || readPosition > position) {
+			readPosition = position;
+			records = 0;
+		}
+		// never append after a corrupted record: continue in a new segment
+		return new Segment(file, sequence, channel, buffer, readPosition, this.segmentSize, records);
+	}
+
+	private int checksum(long timestamp, byte[] payload) {
+		this.crc.reset();
+		for (int i = 0; i < 8; i++) {
+			this.crc.update((int) (timestamp >>> (8 * i)));
+		}
+		this.crc.update(payload, 0, payload.length);
+		return (int) this.crc.getValue();
+	}
+
+	private void assertOpen() throws IOException {
+		if (this.isClosed) {
+			throw new IOException("SegmentLog is closed");
+		}
+	}
+
+	private static long parseSequence(Path file) {
+		String name = file.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static class Segment {
+		private final Path file;
+		private final long sequence;
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+		private int readPosition;
+		private int writePosition;
+		private int records;
+
+		private Segment(Path file, long sequence, FileChannel channel, MappedByteBuffer buffer, int readPosition,
+				int writePosition, int records) {
+			this.file = file;
+			this.sequence = sequence;
+			this.channel = channel;
+			this.buffer = buffer;
+			this.readPosition = readPosition;
+			this.writePosition = writePosition;
+			this.records = records;
+		}
+
+		private void close() {
+			this.buffer.force();
+			try {
+				this.channel.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+
+		private void delete() throws IOException {
+			this.close();
+			Files.deleteIfExists(this.file);
+		}
+	}
+
+}
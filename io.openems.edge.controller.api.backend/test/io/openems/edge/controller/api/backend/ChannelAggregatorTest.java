@@ -0,0 +1,236 @@
+package io.openems.edge.controller.api.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+
+import io.openems.common.channel.AccessMode;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.Doc;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+
+public class ChannelAggregatorTest {
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+
+		public enum ChannelId implements io.openems.edge.common.channel.ChannelId {
+			ACTIVE_POWER(Doc.of(OpenemsType.INTEGER)), //
+			FREQUENCY(Doc.of(OpenemsType.FLOAT)), //
+			RELAY(Doc.of(OpenemsType.BOOLEAN)), //
+			NAME(Doc.of(OpenemsType.STRING)), //
+			SET_ACTIVE_POWER(Doc.of(OpenemsType.INTEGER) //
+					.accessMode(AccessMode.WRITE_ONLY)), //
+			;
+			private final Doc doc;
+
+			private ChannelId(Doc doc) {
+				this.doc = doc;
+			}
+
+			@Override
+			public Doc doc() {
+				return this.doc;
+			}
+		}
+
+		public enum LateChannelId implements io.openems.edge.common.channel.ChannelId {
+			ENERGY(Doc.of(OpenemsType.LONG));
+
+			private final Doc doc;
+
+			private LateChannelId(Doc doc) {
+				this.doc = doc;
+			}
+
+			@Override
+			public Doc doc() {
+				return this.doc;
+			}
+		}
+
+		private DummyComponent(String id) {
+			super(//
+					OpenemsComponent.ChannelId.values(), //
+					ChannelId.values() //
+			);
+			super.activate(null, id, "", true);
+		}
+
+		private Channel<?> addLateChannel() {
+			return this.addChannel(LateChannelId.ENERGY);
+		}
+
+		private void removeLateChannel() {
+			this.removeChannel(this.channel(LateChannelId.ENERGY));
+		}
+	}
+
+	private static final ChannelAddress ACTIVE_POWER = new ChannelAddress("meter0", "ActivePower");
+	private static final ChannelAddress FREQUENCY = new ChannelAddress("meter0", "Frequency");
+	private static final ChannelAddress RELAY = new ChannelAddress("meter0", "Relay");
+	private static final ChannelAddress NAME = new ChannelAddress("meter0", "Name");
+	private static final ChannelAddress SET_ACTIVE_POWER = new ChannelAddress("meter0", "SetActivePower");
+	private static final ChannelAddress ENERGY = new ChannelAddress("meter0", "Energy");
+
+	private ChannelAggregator aggregator;
+	private DummyComponent meter0;
+
+	@Before
+	public void before() {
+		this.aggregator = new ChannelAggregator();
+		this.meter0 = new DummyComponent("meter0");
+	}
+
+	/**
+	 * Sets the values and simulates one Cycle.
+	 */
+	private void cycle(DummyComponent component, Integer activePower, Float frequency) {
+		component.channel(DummyComponent.ChannelId.ACTIVE_POWER).setNextValue(activePower);
+		component.channel(DummyComponent.ChannelId.FREQUENCY).setNextValue(frequency);
+		for (Channel<?> channel : component.channels()) {
+			channel.nextProcessImage();
+		}
+		this.aggregator.sample();
+	}
+
+	private Map<ChannelAddress, JsonElement> collect(boolean definedValuesOnly) {
+		Map<ChannelAddress, JsonElement> result = new HashMap<>();
+		this.aggregator.collect(definedValuesOnly, result);
+		return result;
+	}
+
+	@Test
+	public void testAggregations() {
+		Map<ChannelAddress, Aggregation> aggregations = new HashMap<>();
+		aggregations.put(FREQUENCY, Aggregation.MAX);
+		this.aggregator.setAggregations(aggregations);
+		this.aggregator.addComponent(this.meter0);
+
+		this.cycle(this.meter0, 1000, 49.9f);
+		this.cycle(this.meter0, 2001, 50.1f);
+		this.cycle(this.meter0, null, null);
+		this.cycle(this.meter0, -500, 50.0f);
+
+		// AVERAGE is the default; undefined values are not counted
+		Map<ChannelAddress, JsonElement> values = this.collect(true);
+		assertEquals(834, values.get(ACTIVE_POWER).getAsInt());
+		assertEquals(50.1f, values.get(FREQUENCY).getAsFloat(), 0);
+
+		// aggregation is reset after collect
+		aggregations.put(ACTIVE_POWER, Aggregation.LAST);
+		aggregations.put(FREQUENCY, Aggregation.MIN);
+		this.aggregator.setAggregations(aggregations);
+		this.cycle(this.meter0, 300, 50.2f);
+		this.cycle(this.meter0, 200, 49.8f);
+		values = this.collect(true);
+		assertEquals(200, values.get(ACTIVE_POWER).getAsInt());
+		assertEquals(49.8f, values.get(FREQUENCY).getAsFloat(), 0);
+
+		aggregations.put(ACTIVE_POWER, Aggregation.MAX);
+		this.aggregator.setAggregations(aggregations);
+		this.cycle(this.meter0, -300, null);
+		this.cycle(this.meter0, -200, null);
+		values = this.collect(true);
+		assertEquals(-200, values.get(ACTIVE_POWER).getAsInt());
+		assertFalse(values.containsKey(FREQUENCY));
+
+		aggregations.put(ACTIVE_POWER, Aggregation.MIN);
+		this.aggregator.setAggregations(aggregations);
+		this.cycle(this.meter0, -300, null);
+		this.cycle(this.meter0, -200, null);
+		assertEquals(-300, this.collect(true).get(ACTIVE_POWER).getAsInt());
+	}
+
+	@Test
+	public void testUndefinedValues() {
+		this.aggregator.addComponent(this.meter0);
+		this.cycle(this.meter0, null, null);
+
+		Map<ChannelAddress, JsonElement> values = this.collect(true);
+		assertFalse(values.containsKey(ACTIVE_POWER));
+		assertFalse(values.containsKey(FREQUENCY));
+
+		values = this.collect(false);
+		assertTrue(values.get(ACTIVE_POWER).isJsonNull());
+		assertTrue(values.get(FREQUENCY).isJsonNull());
+		assertTrue(values.get(RELAY).isJsonNull());
+
+		// WRITE_ONLY Channels are never sent
+		assertFalse(values.containsKey(SET_ACTIVE_POWER));
+	}
+
+	@Test
+	public void testNonNumericValues() {
+		this.aggregator.addComponent(this.meter0);
+		this.meter0.channel(DummyComponent.ChannelId.RELAY).setNextValue(true);
+		this.meter0.channel(DummyComponent.ChannelId.NAME).setNextValue("foo");
+		this.cycle(this.meter0, 1000, null);
+
+		Map<ChannelAddress, JsonElement> values = this.collect(true);
+		assertEquals(1, values.get(RELAY).getAsInt());
+		assertEquals("foo", values.get(NAME).getAsString());
+
+		// the current value is sent, also if it did not change
+		values = this.collect(true);
+		assertEquals(1, values.get(RELAY).getAsInt());
+		assertFalse(values.containsKey(ACTIVE_POWER));
+	}
+
+	@Test
+	public void testSlotReuse() {
+		this.aggregator.addComponent(this.meter0);
+		this.cycle(this.meter0, 1000, 50f);
+		this.aggregator.removeComponent(this.meter0);
+
+		// the new Component gets the free slots of 'meter0'
+		DummyComponent meter1 = new DummyComponent("meter1");
+		this.aggregator.addComponent(meter1);
+		this.cycle(meter1, 2000, null);
+		this.cycle(this.meter0, 3000, null);
+
+		Map<ChannelAddress, JsonElement> values = this.collect(true);
+		assertFalse(values.containsKey(ACTIVE_POWER));
+		assertEquals(2000, values.get(new ChannelAddress("meter1", "ActivePower")).getAsInt());
+		assertFalse(values.containsKey(new ChannelAddress("meter1", "Frequency")));
+
+		// late unbind of a replaced Component is ignored
+		DummyComponent newMeter1 = new DummyComponent("meter1");
+		this.aggregator.addComponent(newMeter1);
+		this.aggregator.removeComponent(meter1);
+		this.cycle(newMeter1, 4000, null);
+		assertEquals(4000, this.collect(true).get(new ChannelAddress("meter1", "ActivePower")).getAsInt());
+	}
+
+	@Test
+	public void testRefresh() {
+		this.aggregator.addComponent(this.meter0);
+		this.meter0.addLateChannel().setNextValue(12345L);
+		this.cycle(this.meter0, 1000, null);
+		assertFalse(this.collect(true).containsKey(ENERGY));
+
+		// Channels that were added after the Component was bound
+		this.aggregator.refresh();
+		this.cycle(this.meter0, 1000, null);
+		assertEquals(12345L, this.collect(true).get(ENERGY).getAsLong());
+
+		// ...and removed again
+		this.meter0.removeLateChannel();
+		this.aggregator.refresh();
+		this.cycle(this.meter0, 1000, null);
+		Map<ChannelAddress, JsonElement> values = this.collect(false);
+		assertFalse(values.containsKey(ENERGY));
+		assertEquals(1000, values.get(ACTIVE_POWER).getAsInt());
+	}
+
+}
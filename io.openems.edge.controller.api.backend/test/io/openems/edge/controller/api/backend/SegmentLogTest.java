@@ -0,0 +1,169 @@
+package io.openems.edge.controller.api.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SegmentLogTest {
+
+	// header (16) + 2 records of 8 bytes payload (2 * 24)
+	private static final int SEGMENT_SIZE = 64;
+
+	private Path directory;
+
+	@Before
+	public void before() throws IOException {
+		this.directory = Files.createTempDirectory("segmentlog");
+	}
+
+	@After
+	public void after() throws IOException {
+		Files.walk(this.directory) //
+				.sorted(Comparator.reverseOrder()) //
+				.forEach(path -> path.toFile().delete());
+	}
+
+	@Test
+	public void testAppendAndRemove() throws IOException {
+		SegmentLog log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		assertNull(log.peek());
+		assertNull(log.getOldestTimestamp());
+		for (int i = 0; i < 5; i++) {
+			log.append(1000 + i, payload(i));
+		}
+		assertEquals(5, log.size());
+		assertEquals(Long.valueOf(1000), log.getOldestTimestamp());
+
+		for (int i = 0; i < 5; i++) {
+			SegmentLog.Record record = log.peek();
+			assertEquals(1000 + i, record.getTimestamp());
+			assertEquals(toString(payload(i)), toString(record.getPayload()));
+			log.remove();
+		}
+		assertEquals(0, log.size());
+		assertNull(log.peek());
+		log.close();
+	}
+
+	@Test
+	public void testReopenRestoresReadPosition() throws IOException {
+		SegmentLog log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		for (int i = 0; i < 5; i++) {
+			log.append(1000 + i, payload(i));
+		}
+		// removes the first segment completely and one record of the second
+		log.remove();
+		log.remove();
+		log.remove();
+		log.close();
+
+		log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		assertEquals(2, log.size());
+		assertEquals(1003, log.peek().getTimestamp());
+
+		// appending after reopen keeps the order
+		log.append(1005, payload(5));
+		log.remove();
+		assertEquals(1004, log.peek().getTimestamp());
+		log.remove();
+		assertEquals(1005, log.peek().getTimestamp());
+		log.close();
+	}
+
+	@Test
+	public void testRecoverAfterCorruptedRecord() throws IOException {
+		SegmentLog log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		log.append(1000, payload(0));
+		log.append(1001, payload(1));
+		log.close();
+
+		// flip one byte of the payload of the second record
+		Path segment = this.getSegments().get(0);
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			file.seek(16 + 24 + 16);
+			file.write('X');
+		}
+
+		log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		assertEquals(1, log.size());
+		// new records never follow a corrupted record
+		log.append(1002, payload(2));
+		assertEquals(2, log.size());
+		assertEquals(1000, log.peek().getTimestamp());
+		log.remove();
+		assertEquals(1002, log.peek().getTimestamp());
+		log.close();
+	}
+
+	@Test
+	public void testRecoverAfterTornRecord() throws IOException {
+		SegmentLog log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		log.append(1000, payload(0));
+		log.append(1001, payload(1));
+		log.close();
+
+		// the length of a record is written last; a torn record has an invalid length
+		Path segment = this.getSegments().get(0);
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			file.seek(16 + 24);
+			file.writeInt(0);
+		}
+
+		log = new SegmentLog(this.directory, SEGMENT_SIZE, 10 * SEGMENT_SIZE);
+		assertEquals(1, log.size());
+		assertEquals(1000, log.peek().getTimestamp());
+		log.close();
+	}
+
+	@Test
+	public void testDropOldestSegment() throws IOException {
+		// max. 2 segments with 2 records each
+		SegmentLog log = new SegmentLog(this.directory, SEGMENT_SIZE, 2 * SEGMENT_SIZE);
+		for (int i = 0; i < 5; i++) {
+			log.append(1000 + i, payload(i));
+		}
+		assertEquals(3, log.size());
+		assertEquals(2, log.getDroppedRecords());
+		assertEquals(2, this.getSegments().size());
+		assertEquals(1002, log.peek().getTimestamp());
+		log.close();
+	}
+
+	@Test(expected = IOException.class)
+	public void testRecordTooLarge() throws IOException {
+		SegmentLog log = new SegmentLog(this.directory, SEGMENT_SIZE, 2 * SEGMENT_SIZE);
+		log.append(1000, new byte[SEGMENT_SIZE]);
+	}
+
+	private List<Path> getSegments() throws IOException {
+		List<Path> result = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*.seg")) {
+			stream.forEach(result::add);
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private static byte[] payload(int i) {
+		return String.format("record%02d", i).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String toString(byte[] payload) {
+		return new String(payload, StandardCharsets.UTF_8);
+	}
+
+}
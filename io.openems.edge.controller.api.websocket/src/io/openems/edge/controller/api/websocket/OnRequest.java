@@ -25,6 +25,7 @@ import io.openems.common.jsonrpc.request.ComponentJsonApiRequest;
 import io.openems.common.jsonrpc.request.CreateComponentConfigRequest;
 import io.openems.common.jsonrpc.request.DeleteComponentConfigRequest;
 import io.openems.common.jsonrpc.request.EdgeRpcRequest;
+import io.openems.common.jsonrpc.request.GetEdgeConfigDiffRequest;
 import io.openems.common.jsonrpc.request.GetEdgeConfigRequest;
 import io.openems.common.jsonrpc.request.QueryHistoricTimeseriesDataRequest;
 import io.openems.common.jsonrpc.request.QueryHistoricTimeseriesEnergyRequest;
@@ -132,6 +133,10 @@ public class OnRequest implements io.openems.common.websocket.OnRequest {
 			resultFuture = this.handleGetEdgeConfigRequest(user, GetEdgeConfigRequest.from(request));
 			break;
 
+		case GetEdgeConfigDiffRequest.METHOD:
+			resultFuture = this.handleGetEdgeConfigDiffRequest(user, GetEdgeConfigDiffRequest.from(request));
+			break;
+
 		case SetChannelValueRequest.METHOD:
 			resultFuture = this.handleSetChannelValueRequest(user, SetChannelValueRequest.from(request));
 			break;
@@ -323,6 +328,23 @@ public class OnRequest implements io.openems.common.websocket.OnRequest {
 		return this.handleComponentJsonApiRequest(user, request);
 	}
 
+	/**
+	 * Handles a GetEdgeConfigDiffRequest.
+	 * 
+	 * @param user                     the User
+	 * @param getEdgeConfigDiffRequest the GetEdgeConfigDiffRequest
+	 * @return the Future JSON-RPC Response
+	 * @throws OpenemsNamedException on error
+	 */
+	private CompletableFuture<JsonrpcResponseSuccess> handleGetEdgeConfigDiffRequest(EdgeUser user,
+			GetEdgeConfigDiffRequest getEdgeConfigDiffRequest) throws OpenemsNamedException {
+		// wrap original request inside ComponentJsonApiRequest
+		ComponentJsonApiRequest request = new ComponentJsonApiRequest(OpenemsConstants.COMPONENT_MANAGER_ID,
+				getEdgeConfigDiffRequest);
+
+		return this.handleComponentJsonApiRequest(user, request);
+	}
+
 	/**
 	 * Handles a SetChannelValueRequest.
 	 * 
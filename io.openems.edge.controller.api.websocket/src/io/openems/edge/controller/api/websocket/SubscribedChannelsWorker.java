@@ -15,10 +15,15 @@ public class SubscribedChannelsWorker extends io.openems.common.websocket.Subscr
 	private final WebsocketApi parent;
 
 	public SubscribedChannelsWorker(WebsocketApi parent, WsData wsData) {
-		super(wsData);
+		super(parent.subscriptionHub, wsData);
 		this.parent = parent;
 	}
 
+	@Override
+	protected String getEdgeId() {
+		return WebsocketApi.EDGE_ID;
+	}
+
 	@Override
 	protected JsonElement getChannelValue(ChannelAddress channelAddress) {
 		try {
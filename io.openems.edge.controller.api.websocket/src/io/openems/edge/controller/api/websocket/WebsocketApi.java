@@ -30,6 +30,7 @@ import io.openems.common.jsonrpc.notification.EdgeConfigNotification;
 import io.openems.common.jsonrpc.notification.EdgeRpcNotification;
 import io.openems.common.jsonrpc.request.SubscribeSystemLogRequest;
 import io.openems.common.types.EdgeConfig;
+import io.openems.common.websocket.SubscriptionHub;
 import io.openems.edge.common.channel.Doc;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.ComponentManager;
@@ -61,6 +62,11 @@ public class WebsocketApi extends AbstractOpenemsComponent
 
 	protected WebsocketServer server = null;
 
+	/**
+	 * Sends subscribed Channel values to all sessions.
+	 */
+	protected SubscriptionHub subscriptionHub = null;
+
 	/**
 	 * Stores valid session tokens for authentication via Cookie.
 	 */
@@ -121,6 +127,7 @@ public class WebsocketApi extends AbstractOpenemsComponent
 	 * @param port the port
 	 */
 	private synchronized void startServer(int port) {
+		this.subscriptionHub = new SubscriptionHub("Websocket Api");
 		this.server = new WebsocketServer(this, "Websocket Api", port);
 		this.server.start();
 	}
@@ -132,6 +139,9 @@ public class WebsocketApi extends AbstractOpenemsComponent
 		if (this.server != null) {
 			this.server.stop();
 		}
+		if (this.subscriptionHub != null) {
+			this.subscriptionHub.deactivate();
+		}
 	}
 
 	@Override
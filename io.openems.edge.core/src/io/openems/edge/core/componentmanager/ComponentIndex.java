@@ -0,0 +1,71 @@
+package io.openems.edge.core.componentmanager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Holds OpenEMS Components in bind-order together with an index by
+ * Component-ID.
+ *
+ * <p>
+ * Channels are not indexed separately: every Component keeps its Channels in a
+ * map by Channel-ID, which also follows Channels that are added or removed at
+ * runtime.
+ */
+class ComponentIndex {
+
+	private final List<OpenemsComponent> components = new CopyOnWriteArrayList<>();
+	private final ConcurrentHashMap<String, OpenemsComponent> componentsById = new ConcurrentHashMap<>();
+
+	/**
+	 * Adds a Component. Called on OSGi bind.
+	 *
+	 * @param component the Component
+	 */
+	public synchronized void add(OpenemsComponent component) {
+		this.components.add(component);
+		// on reconfiguration the new instance is bound before the old one is unbound
+		this.componentsById.put(component.id(), component);
+	}
+
+	/**
+	 * Removes a Component. Called on OSGi unbind.
+	 *
+	 * @param component the Component
+	 */
+	public synchronized void remove(OpenemsComponent component) {
+		this.components.remove(component);
+		if (this.componentsById.remove(component.id(), component)) {
+			// fall back to another instance with the same ID, if any
+			for (OpenemsComponent other : this.components) {
+				if (other.id().equals(component.id())) {
+					this.componentsById.put(other.id(), other);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets a Component by its Component-ID.
+	 *
+	 * @param componentId the Component-ID
+	 * @return the Component; null if it is not available
+	 */
+	public OpenemsComponent get(String componentId) {
+		return this.componentsById.get(componentId);
+	}
+
+	/**
+	 * Gets all Components.
+	 *
+	 * @return an unmodifiable List of Components
+	 */
+	public List<OpenemsComponent> list() {
+		return Collections.unmodifiableList(this.components);
+	}
+
+}
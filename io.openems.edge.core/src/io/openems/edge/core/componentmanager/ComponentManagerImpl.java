@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -16,7 +15,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.jar.Manifest;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -25,6 +23,7 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleListener;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
@@ -63,6 +62,7 @@ import io.openems.common.jsonrpc.base.JsonrpcRequest;
 import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
 import io.openems.common.jsonrpc.request.CreateComponentConfigRequest;
 import io.openems.common.jsonrpc.request.DeleteComponentConfigRequest;
+import io.openems.common.jsonrpc.request.GetEdgeConfigDiffRequest;
 import io.openems.common.jsonrpc.request.GetEdgeConfigRequest;
 import io.openems.common.jsonrpc.request.UpdateComponentConfigRequest;
 import io.openems.common.jsonrpc.request.UpdateComponentConfigRequest.Property;
@@ -100,7 +100,10 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 	private final OsgiValidateWorker osgiValidateWorker;
 	private final OutOfMemoryHeapDumpWorker outOfMemoryHeapDumpWorker;
 
-	private BundleContext bundleContext;
+	private final EdgeConfigCache edgeConfigCache;
+	private final BundleListener bundleListener;
+
+	protected BundleContext bundleContext;
 
 	@Reference
 	private MetaTypeService metaTypeService;
@@ -108,17 +111,8 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 	@Reference
 	protected ConfigurationAdmin cm;
 
-	@Reference(policy = ReferencePolicy.DYNAMIC, //
-			policyOption = ReferencePolicyOption.GREEDY, //
-			cardinality = ReferenceCardinality.MULTIPLE, //
-			target = "(&(enabled=true)(!(service.factoryPid=Core.ComponentManager)))")
-	private volatile List<OpenemsComponent> enabledComponents = new CopyOnWriteArrayList<>();
-
-	@Reference(policy = ReferencePolicy.DYNAMIC, //
-			policyOption = ReferencePolicyOption.GREEDY, //
-			cardinality = ReferenceCardinality.MULTIPLE, //
-			target = "(!(service.factoryPid=Core.ComponentManager))")
-	private volatile List<OpenemsComponent> allComponents = new CopyOnWriteArrayList<>();
+	private final ComponentIndex enabledComponents = new ComponentIndex();
+	private final ComponentIndex allComponents = new ComponentIndex();
 
 	public ComponentManagerImpl() {
 		super(//
@@ -127,6 +121,8 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 		);
 		this.osgiValidateWorker = new OsgiValidateWorker(this);
 		this.outOfMemoryHeapDumpWorker = new OutOfMemoryHeapDumpWorker(this);
+		this.edgeConfigCache = new EdgeConfigCache(this);
+		this.bundleListener = event -> this.edgeConfigCache.invalidateBundle(event.getBundle().getBundleId());
 	}
 
 	@Activate
@@ -134,6 +130,7 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 		super.activate(componentContext, OpenemsConstants.COMPONENT_MANAGER_ID, "Component-Manager", true);
 
 		this.bundleContext = bundleContext;
+		this.bundleContext.addBundleListener(this.bundleListener);
 
 		// Start OSGi Validate Worker
 		this.osgiValidateWorker.activate(this.id());
@@ -146,6 +143,8 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 	protected void deactivate() {
 		super.deactivate();
 
+		this.bundleContext.removeBundleListener(this.bundleListener);
+
 		// Stop OSGi Validate Worker
 		this.osgiValidateWorker.deactivate();
 
@@ -153,14 +152,69 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 		this.outOfMemoryHeapDumpWorker.deactivate();
 	}
 
+	@Reference(name = "enabledComponents", //
+			policy = ReferencePolicy.DYNAMIC, //
+			policyOption = ReferencePolicyOption.GREEDY, //
+			cardinality = ReferenceCardinality.MULTIPLE, //
+			target = "(&(enabled=true)(!(service.factoryPid=Core.ComponentManager)))", //
+			unbind = "removeEnabledComponent")
+	protected void addEnabledComponent(OpenemsComponent component) {
+		this.enabledComponents.add(component);
+	}
+
+	protected void removeEnabledComponent(OpenemsComponent component) {
+		this.enabledComponents.remove(component);
+	}
+
+	@Reference(name = "allComponents", //
+			policy = ReferencePolicy.DYNAMIC, //
+			policyOption = ReferencePolicyOption.GREEDY, //
+			cardinality = ReferenceCardinality.MULTIPLE, //
+			target = "(!(service.factoryPid=Core.ComponentManager))", //
+			unbind = "removeComponent")
+	protected void addComponent(OpenemsComponent component) {
+		this.allComponents.add(component);
+	}
+
+	protected void removeComponent(OpenemsComponent component) {
+		this.allComponents.remove(component);
+	}
+
 	@Override
 	public List<OpenemsComponent> getEnabledComponents() {
-		return Collections.unmodifiableList(this.enabledComponents);
+		return this.enabledComponents.list();
 	}
 
 	@Override
 	public List<OpenemsComponent> getAllComponents() {
-		return Collections.unmodifiableList(this.allComponents);
+		return this.allComponents.list();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends OpenemsComponent> T getComponent(String componentId) throws OpenemsNamedException {
+		if (componentId.equals(OpenemsConstants.COMPONENT_MANAGER_ID)) {
+			return (T) this;
+		}
+		OpenemsComponent component = this.enabledComponents.get(componentId);
+		if (component == null) {
+			throw OpenemsError.EDGE_NO_COMPONENT_WITH_ID.exception(componentId);
+		}
+		return (T) component;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends OpenemsComponent> T getPossiblyDisabledComponent(String componentId)
+			throws OpenemsNamedException {
+		if (componentId.equals(OpenemsConstants.COMPONENT_MANAGER_ID)) {
+			return (T) this;
+		}
+		OpenemsComponent component = this.allComponents.get(componentId);
+		if (component == null) {
+			throw OpenemsError.EDGE_NO_COMPONENT_WITH_ID.exception(componentId);
+		}
+		return (T) component;
 	}
 
 	protected StateChannel configNotActivatedChannel() {
@@ -192,6 +246,9 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 		case GetEdgeConfigRequest.METHOD:
 			return this.handleGetEdgeConfigRequest(user, GetEdgeConfigRequest.from(request));
 
+		case GetEdgeConfigDiffRequest.METHOD:
+			return this.handleGetEdgeConfigDiffRequest(user, GetEdgeConfigDiffRequest.from(request));
+
 		case CreateComponentConfigRequest.METHOD:
 			return this.handleCreateComponentConfigRequest(user, CreateComponentConfigRequest.from(request));
 
@@ -221,6 +278,19 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 		return CompletableFuture.completedFuture(response);
 	}
 
+	/**
+	 * Handles a GetEdgeConfigDiffRequest.
+	 * 
+	 * @param user    the User
+	 * @param request the GetEdgeConfigDiffRequest
+	 * @return the Future JSON-RPC Response
+	 * @throws OpenemsNamedException on error
+	 */
+	private CompletableFuture<JsonrpcResponseSuccess> handleGetEdgeConfigDiffRequest(User user,
+			GetEdgeConfigDiffRequest request) throws OpenemsNamedException {
+		return CompletableFuture.completedFuture(this.edgeConfigCache.getDiff(request.getId(), request.getVersion()));
+	}
+
 	/**
 	 * Handles a CreateComponentConfigRequest.
 	 * 
@@ -384,121 +454,129 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 
 	@Override
 	public EdgeConfig getEdgeConfig() {
-		EdgeConfig result = new EdgeConfig();
-
-		/*
-		 * Read Factories
-		 */
-		final Bundle[] bundles = this.bundleContext.getBundles();
-		for (Bundle bundle : bundles) {
-			final MetaTypeInformation mti = this.metaTypeService.getMetaTypeInformation(bundle);
-
-			// read Bundle Manifest
-			URL manifestUrl = bundle.getResource("META-INF/MANIFEST.MF");
-			Manifest manifest;
-			try {
-				manifest = new Manifest(manifestUrl.openStream());
-			} catch (IOException e) {
-				// unable to read manifest
-				continue;
-			}
+		return this.edgeConfigCache.getEdgeConfig();
+	}
 
-			// get Factory-PIDs in this Bundle
-			String[] factoryPids = mti.getFactoryPids();
-			for (String factoryPid : factoryPids) {
-				switch (factoryPid) {
-				case "osgi.executor.provider":
-					// ignore these Factory-PIDs
-					break;
-				default:
-					// Get ObjectClassDefinition (i.e. the main annotation on the Config class)
-					ObjectClassDefinition objectClassDefinition = mti.getObjectClassDefinition(factoryPid, null);
-					// Get Natures implemented by this Factory-PID
-					String[] natures = this.getNatures(bundle, manifest, factoryPid);
-					// Add Factory to config
-					result.addFactory(factoryPid,
-							EdgeConfig.Factory.create(factoryPid, objectClassDefinition, natures));
-				}
+	/**
+	 * Gets the installed Bundles.
+	 * 
+	 * @return the Bundles
+	 */
+	protected Bundle[] getBundles() {
+		return this.bundleContext.getBundles();
+	}
+
+	/**
+	 * Reads the Factories of a Bundle.
+	 * 
+	 * @param bundle the Bundle
+	 * @return a map of Factory-PID to Factory
+	 */
+	protected Map<String, EdgeConfig.Factory> getFactories(Bundle bundle) {
+		Map<String, EdgeConfig.Factory> result = new HashMap<>();
+		final MetaTypeInformation mti = this.metaTypeService.getMetaTypeInformation(bundle);
+
+		// read Bundle Manifest
+		URL manifestUrl = bundle.getResource("META-INF/MANIFEST.MF");
+		Manifest manifest;
+		try {
+			manifest = new Manifest(manifestUrl.openStream());
+		} catch (IOException e) {
+			// unable to read manifest
+			return result;
+		}
+
+		// get Factory-PIDs in this Bundle
+		String[] factoryPids = mti.getFactoryPids();
+		for (String factoryPid : factoryPids) {
+			switch (factoryPid) {
+			case "osgi.executor.provider":
+				// ignore these Factory-PIDs
+				break;
+			default:
+				// Get ObjectClassDefinition (i.e. the main annotation on the Config class)
+				ObjectClassDefinition objectClassDefinition = mti.getObjectClassDefinition(factoryPid, null);
+				// Get Natures implemented by this Factory-PID
+				String[] natures = this.getNatures(bundle, manifest, factoryPid);
+				// Add Factory to config
+				result.put(factoryPid, EdgeConfig.Factory.create(factoryPid, objectClassDefinition, natures));
 			}
 		}
+		return result;
+	}
 
-		/*
-		 * Create Components-Map with Component-ID -> Configuration
-		 */
-		Map<String, Map<String, JsonElement>> componentsMap = new HashMap<>();
-		for (OpenemsComponent component : this.allComponents) {
-			String componentId = component.id();
-			TreeMap<String, JsonElement> propertyMap = new TreeMap<>();
-			String factoryPid = component.serviceFactoryPid();
-			Dictionary<String, Object> properties = component.getComponentContext().getProperties();
-
-			// get configuration properties
-			EdgeConfig.Factory factory = result.getFactories().get(factoryPid);
-			Enumeration<String> keys = properties.keys();
-			while (keys.hasMoreElements()) {
-				String key = keys.nextElement();
-
-				if (!EdgeConfig.ignorePropertyKey(key)) {
-
-					JsonElement value = getPropertyAsJsonElement(properties.get(key));
-					if (factory != null) {
-						Optional<EdgeConfig.Factory.Property> propertyOpt = factory.getProperty(key);
-						if (propertyOpt.isPresent()) {
-							EdgeConfig.Factory.Property property = propertyOpt.get();
-							// hide Password fields
-							if (property.isPassword()) {
-								value = new JsonPrimitive("xxx");
-							}
+	/**
+	 * Creates the configuration of a Component.
+	 * 
+	 * @param component the Component
+	 * @param factory   the Factory of the Component; possibly null
+	 * @return the EdgeConfig.Component
+	 */
+	protected EdgeConfig.Component createComponentConfig(OpenemsComponent component, EdgeConfig.Factory factory) {
+		String componentId = component.id();
+		TreeMap<String, JsonElement> propertyMap = new TreeMap<>();
+		String factoryPid = component.serviceFactoryPid();
+		Dictionary<String, Object> properties = component.getComponentContext().getProperties();
+
+		// get configuration properties
+		Enumeration<String> keys = properties.keys();
+		while (keys.hasMoreElements()) {
+			String key = keys.nextElement();
+
+			if (!EdgeConfig.ignorePropertyKey(key)) {
+
+				JsonElement value = getPropertyAsJsonElement(properties.get(key));
+				if (factory != null) {
+					Optional<EdgeConfig.Factory.Property> propertyOpt = factory.getProperty(key);
+					if (propertyOpt.isPresent()) {
+						EdgeConfig.Factory.Property property = propertyOpt.get();
+						// hide Password fields
+						if (property.isPassword()) {
+							value = new JsonPrimitive("xxx");
 						}
 					}
-
-					propertyMap.put(key, value);
 				}
+
+				propertyMap.put(key, value);
 			}
+		}
 
-			// get Alias and Channels
-			TreeMap<String, EdgeConfig.Component.Channel> channelMap = new TreeMap<>();
-			for (Channel<?> channel : component.channels()) {
-				io.openems.edge.common.channel.ChannelId channelId = channel.channelId();
-				Doc doc = channelId.doc();
-				ChannelDetail detail = null;
-				switch (doc.getChannelCategory()) {
-				case ENUM: {
-					Map<String, JsonElement> values = new HashMap<>();
-					EnumDoc d = (EnumDoc) doc;
-					for (OptionsEnum option : d.getOptions()) {
-						values.put(option.getName(), new JsonPrimitive(option.getValue()));
-					}
-					detail = new EdgeConfig.Component.Channel.ChannelDetailEnum(values);
-					break;
+		// get Alias and Channels
+		TreeMap<String, EdgeConfig.Component.Channel> channelMap = new TreeMap<>();
+		for (Channel<?> channel : component.channels()) {
+			io.openems.edge.common.channel.ChannelId channelId = channel.channelId();
+			Doc doc = channelId.doc();
+			ChannelDetail detail = null;
+			switch (doc.getChannelCategory()) {
+			case ENUM: {
+				Map<String, JsonElement> values = new HashMap<>();
+				EnumDoc d = (EnumDoc) doc;
+				for (OptionsEnum option : d.getOptions()) {
+					values.put(option.getName(), new JsonPrimitive(option.getValue()));
 				}
-				case OPENEMS_TYPE:
-					detail = new ChannelDetailOpenemsType();
-					break;
-				case STATE:
-					StateChannelDoc d = (StateChannelDoc) doc;
-					Level level = d.getLevel();
-					detail = new ChannelDetailState(level);
-					break;
-				}
-				channelMap.put(channelId.id(), new EdgeConfig.Component.Channel(//
-						channelId.id(), //
-						doc.getType(), //
-						doc.getAccessMode(), //
-						doc.getText(), //
-						doc.getUnit(), //
-						detail //
-				));
+				detail = new EdgeConfig.Component.Channel.ChannelDetailEnum(values);
+				break;
+			}
+			case OPENEMS_TYPE:
+				detail = new ChannelDetailOpenemsType();
+				break;
+			case STATE:
+				StateChannelDoc d = (StateChannelDoc) doc;
+				Level level = d.getLevel();
+				detail = new ChannelDetailState(level);
+				break;
 			}
-			// Create EdgeConfig.Component and add it to Result
-			result.addComponent(componentId, new EdgeConfig.Component(componentId, component.alias(),
-					component.isEnabled(), factoryPid, propertyMap, channelMap));
+			channelMap.put(channelId.id(), new EdgeConfig.Component.Channel(//
+					channelId.id(), //
+					doc.getType(), //
+					doc.getAccessMode(), //
+					doc.getText(), //
+					doc.getUnit(), //
+					detail //
+			));
 		}
-		// Add myself
-		componentsMap.put(this.id(), null);
-
-		return result;
-
+		return new EdgeConfig.Component(componentId, component.alias(), component.isEnabled(), factoryPid,
+				propertyMap, channelMap);
 	}
 
 	/**
@@ -574,6 +652,8 @@ public class ComponentManagerImpl extends AbstractOpenemsComponent
 
 	@Override
 	public void configurationEvent(ConfigurationEvent event) {
+		this.edgeConfigCache.invalidateComponent(event.getPid());
+
 		// trigger immediate validation on configuration event
 		this.osgiValidateWorker.triggerNextRun();
 	}
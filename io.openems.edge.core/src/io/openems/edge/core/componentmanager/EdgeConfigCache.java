@@ -0,0 +1,299 @@
+package io.openems.edge.core.componentmanager;
+
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.osgi.framework.Bundle;
+
+import com.google.gson.JsonObject;
+
+import io.openems.common.jsonrpc.response.GetEdgeConfigDiffResponse;
+import io.openems.common.types.EdgeConfig;
+import io.openems.common.types.EdgeConfig.Component.JsonFormat;
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Caches the {@link EdgeConfig} of the {@link ComponentManagerImpl}.
+ *
+ * <ul>
+ * <li>Factories are read once per Bundle and invalidated on Bundle events
+ * <li>Components are recreated only if the instance, its configuration
+ * properties, its number of Channels or its Factory changed, or after a
+ * ConfigurationEvent for its PID
+ * <li>Every change increases the version; clients can get only the changes
+ * since a version via {@link #getDiff(UUID, long)}
+ * <li>Removed Components and Factories are remembered for the last
+ * {@link #MAX_REMOVED} removals only; clients with an older version get the
+ * complete EdgeConfig
+ * </ul>
+ */
+class EdgeConfigCache {
+
+	private static class CachedComponent {
+		private final OpenemsComponent instance;
+		private final Map<String, Object> properties;
+		private final int noOfChannels;
+		private final EdgeConfig.Factory factory;
+		private final EdgeConfig.Component config;
+		private final JsonObject json;
+
+		private CachedComponent(OpenemsComponent instance, Map<String, Object> properties, int noOfChannels,
+				EdgeConfig.Factory factory, EdgeConfig.Component config) {
+			this.instance = instance;
+			this.properties = properties;
+			this.noOfChannels = noOfChannels;
+			this.factory = factory;
+			this.config = config;
+			this.json = config.toJson(JsonFormat.COMPLETE);
+		}
+	}
+
+	/**
+	 * Default number of removed Components and Factories that are remembered
+	 * for {@link #getDiff(UUID, long)}.
+	 */
+	private static final int MAX_REMOVED = 100;
+
+	private final ComponentManagerImpl parent;
+	private final int maxRemoved;
+
+	/*
+	 * All fields are guarded by 'this'.
+	 */
+	private final Map<Long, Map<String, EdgeConfig.Factory>> factoriesPerBundle = new HashMap<>();
+	private final Map<String, CachedComponent> components = new HashMap<>();
+	// Version in which an existing Component or Factory was last created or
+	// changed
+	private final Map<String, Long> componentVersions = new HashMap<>();
+	private final Map<String, Long> factoryVersions = new HashMap<>();
+	// Version in which a Component or Factory was removed; oldest first
+	private final LinkedHashMap<String, Long> removedComponents = new LinkedHashMap<>();
+	private final LinkedHashMap<String, Long> removedFactories = new LinkedHashMap<>();
+	// Versions start with the time of creation, so they are not reused after a
+	// restart
+	private final long firstVersion = System.currentTimeMillis();
+	// Oldest version for which a diff is complete
+	private long oldestDiffVersion = this.firstVersion;
+	private long version = this.firstVersion;
+	private EdgeConfig config = null;
+
+	public EdgeConfigCache(ComponentManagerImpl parent) {
+		this(parent, MAX_REMOVED);
+	}
+
+	EdgeConfigCache(ComponentManagerImpl parent, int maxRemoved) {
+		this.parent = parent;
+		this.maxRemoved = maxRemoved;
+	}
+
+	/**
+	 * Invalidates the Factories of a Bundle.
+	 *
+	 * @param bundleId the Bundle-ID
+	 */
+	public synchronized void invalidateBundle(long bundleId) {
+		this.factoriesPerBundle.remove(bundleId);
+	}
+
+	/**
+	 * Invalidates the Components with the given OSGi service PID.
+	 *
+	 * @param pid the PID of the Configuration
+	 */
+	public synchronized void invalidateComponent(String pid) {
+		for (Iterator<CachedComponent> iterator = this.components.values().iterator(); iterator.hasNext();) {
+			if (Objects.equals(pid, iterator.next().instance.servicePid())) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Gets the current {@link EdgeConfig}. The result is shared and must not be
+	 * modified.
+	 *
+	 * @return the EdgeConfig
+	 */
+	public synchronized EdgeConfig getEdgeConfig() {
+		long nextVersion = this.version + 1;
+		boolean isChanged = this.config == null;
+
+		/*
+		 * Factories
+		 */
+		Map<String, EdgeConfig.Factory> factories = new TreeMap<>();
+		Set<Long> bundleIds = new HashSet<>();
+		for (Bundle bundle : this.parent.getBundles()) {
+			bundleIds.add(bundle.getBundleId());
+			Map<String, EdgeConfig.Factory> bundleFactories = this.factoriesPerBundle.get(bundle.getBundleId());
+			if (bundleFactories == null) {
+				bundleFactories = this.parent.getFactories(bundle);
+				this.factoriesPerBundle.put(bundle.getBundleId(), bundleFactories);
+			}
+			factories.putAll(bundleFactories);
+		}
+		this.factoriesPerBundle.keySet().retainAll(bundleIds);
+
+		Map<String, EdgeConfig.Factory> previousFactories = this.config == null ? new HashMap<>()
+				: this.config.getFactories();
+		for (Entry<String, EdgeConfig.Factory> entry : factories.entrySet()) {
+			EdgeConfig.Factory previous = previousFactories.get(entry.getKey());
+			if (previous != entry.getValue()
+					&& (previous == null || !previous.toJson().equals(entry.getValue().toJson()))) {
+				this.factoryVersions.put(entry.getKey(), nextVersion);
+				this.removedFactories.remove(entry.getKey());
+				isChanged = true;
+			}
+		}
+		for (String factoryId : previousFactories.keySet()) {
+			if (!factories.containsKey(factoryId)) {
+				this.factoryVersions.remove(factoryId);
+				this.markRemoved(this.removedFactories, factoryId, nextVersion);
+				isChanged = true;
+			}
+		}
+
+		/*
+		 * Components
+		 */
+		Set<String> componentIds = new HashSet<>();
+		for (OpenemsComponent component : this.parent.getAllComponents()) {
+			String componentId = component.id();
+			componentIds.add(componentId);
+			EdgeConfig.Factory factory = factories.get(component.serviceFactoryPid());
+			Map<String, Object> properties = toMap(component.getComponentContext().getProperties());
+			int noOfChannels = component.channels().size();
+
+			CachedComponent cached = this.components.get(componentId);
+			if (cached != null && cached.instance == component && cached.factory == factory
+					&& cached.noOfChannels == noOfChannels && equals(cached.properties, properties)) {
+				continue;
+			}
+			CachedComponent created = new CachedComponent(component, properties, noOfChannels, factory,
+					this.parent.createComponentConfig(component, factory));
+			if (cached == null || !cached.json.equals(created.json)) {
+				this.componentVersions.put(componentId, nextVersion);
+				this.removedComponents.remove(componentId);
+				isChanged = true;
+			}
+			this.components.put(componentId, created);
+		}
+		for (Iterator<String> iterator = this.components.keySet().iterator(); iterator.hasNext();) {
+			String componentId = iterator.next();
+			if (!componentIds.contains(componentId)) {
+				iterator.remove();
+				this.componentVersions.remove(componentId);
+				this.markRemoved(this.removedComponents, componentId, nextVersion);
+				isChanged = true;
+			}
+		}
+
+		if (!isChanged) {
+			return this.config;
+		}
+		EdgeConfig result = new EdgeConfig();
+		for (Entry<String, EdgeConfig.Factory> entry : factories.entrySet()) {
+			result.addFactory(entry.getKey(), entry.getValue());
+		}
+		for (CachedComponent cached : this.components.values()) {
+			result.addComponent(cached.config.getId(), cached.config);
+		}
+		this.config = result;
+		this.version = nextVersion;
+		return result;
+	}
+
+	/**
+	 * Gets the changes of the {@link EdgeConfig} since the given version.
+	 *
+	 * @param id      the JSON-RPC ID of the response
+	 * @param version the version that is known to the client
+	 * @return the {@link GetEdgeConfigDiffResponse}
+	 */
+	public synchronized GetEdgeConfigDiffResponse getDiff(UUID id, long version) {
+		EdgeConfig config = this.getEdgeConfig();
+		if (version < this.oldestDiffVersion || version > this.version) {
+			// unknown or forgotten version -> send everything
+			return new GetEdgeConfigDiffResponse(id, this.version, true, config, new TreeSet<>(), new TreeSet<>());
+		}
+
+		EdgeConfig changes = new EdgeConfig();
+		Set<String> removedComponents = new TreeSet<>();
+		Set<String> removedFactories = new TreeSet<>();
+		for (Entry<String, Long> entry : this.componentVersions.entrySet()) {
+			if (entry.getValue() > version) {
+				changes.addComponent(entry.getKey(), config.getComponents().get(entry.getKey()));
+			}
+		}
+		for (Entry<String, Long> entry : this.factoryVersions.entrySet()) {
+			if (entry.getValue() > version) {
+				changes.addFactory(entry.getKey(), config.getFactories().get(entry.getKey()));
+			}
+		}
+		for (Entry<String, Long> entry : this.removedComponents.entrySet()) {
+			if (entry.getValue() > version) {
+				removedComponents.add(entry.getKey());
+			}
+		}
+		for (Entry<String, Long> entry : this.removedFactories.entrySet()) {
+			if (entry.getValue() > version) {
+				removedFactories.add(entry.getKey());
+			}
+		}
+		return new GetEdgeConfigDiffResponse(id, this.version, false, changes, removedComponents, removedFactories);
+	}
+
+	/**
+	 * Remembers a removed Component or Factory. Forgets the oldest removal if too
+	 * many are remembered; diffs from before that removal are then sent
+	 * complete.
+	 *
+	 * @param removed the removed Components or Factories
+	 * @param id      the Component-ID or Factory-PID
+	 * @param version the version of the removal
+	 */
+	private void markRemoved(LinkedHashMap<String, Long> removed, String id, long version) {
+		removed.remove(id);
+		removed.put(id, version);
+		while (removed.size() > this.maxRemoved) {
+			Iterator<Long> oldest = removed.values().iterator();
+			this.oldestDiffVersion = Math.max(this.oldestDiffVersion, oldest.next());
+			oldest.remove();
+		}
+	}
+
+	private static Map<String, Object> toMap(Dictionary<String, Object> properties) {
+		Map<String, Object> result = new HashMap<>();
+		Enumeration<String> keys = properties.keys();
+		while (keys.hasMoreElements()) {
+			String key = keys.nextElement();
+			result.put(key, properties.get(key));
+		}
+		return result;
+	}
+
+	private static boolean equals(Map<String, Object> properties1, Map<String, Object> properties2) {
+		if (!properties1.keySet().equals(properties2.keySet())) {
+			return false;
+		}
+		for (Entry<String, Object> entry : properties1.entrySet()) {
+			// values might be arrays
+			if (!Objects.deepEquals(entry.getValue(), properties2.get(entry.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -26,7 +26,39 @@ public interface Cycle {
 		 * <li>Type: State
 		 * </ul>
 		 */
-		IGNORE_DISABLED_CONTROLLER(Doc.of(Level.INFO));
+		IGNORE_DISABLED_CONTROLLER(Doc.of(Level.INFO)),
+		/**
+		 * Duration of the Process Image Switch of all Channels, including the
+		 * onUpdate and onChange callbacks, in [ms].
+		 * 
+		 * <ul>
+		 * <li>Interface: Cycle
+		 * <li>Type: Integer
+		 * </ul>
+		 */
+		PROCESS_IMAGE_SWITCH_DURATION(Doc.of(OpenemsType.INTEGER) //
+				.unit(Unit.MILLISECONDS)),
+		/**
+		 * The CyclePhaseHandler and phase with the slowest call in the last Cycle,
+		 * e.g. "ess0:AFTER_PROCESS_IMAGE". All EventHandlers of a phase are
+		 * measured together as "EventAdmin".
+		 * 
+		 * <ul>
+		 * <li>Interface: Cycle
+		 * <li>Type: String
+		 * </ul>
+		 */
+		SLOWEST_CYCLE_HANDLER(Doc.of(OpenemsType.STRING)),
+		/**
+		 * Duration of the slowest CyclePhaseHandler call in the last Cycle in [ms].
+		 * 
+		 * <ul>
+		 * <li>Interface: Cycle
+		 * <li>Type: Integer
+		 * </ul>
+		 */
+		SLOWEST_CYCLE_HANDLER_DURATION(Doc.of(OpenemsType.INTEGER) //
+				.unit(Unit.MILLISECONDS));
 
 		private final Doc doc;
 
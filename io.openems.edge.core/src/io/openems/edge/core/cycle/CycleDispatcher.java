@@ -0,0 +1,273 @@
+package io.openems.edge.core.cycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.osgi.service.event.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.CyclePhase;
+import io.openems.edge.common.event.CyclePhaseHandler;
+
+/**
+ * Dispatches the {@link CyclePhase}s to the OSGi EventAdmin and to the
+ * registered {@link CyclePhaseHandler}s.
+ *
+ * <p>
+ * The handlers of every phase are kept in a precomputed array that is rebuilt
+ * only when a handler is added or removed, and the EventAdmin {@link Event}s are
+ * created once. Dispatching a phase takes no shared lock and allocates
+ * nothing. The time of every handler call is measured; an exception in one
+ * handler does not stop the other handlers.
+ *
+ * <p>
+ * The EventAdmin calls its EventHandlers internally, so they are measured
+ * together as one pseudo-handler 'EventAdmin' per phase.
+ */
+public class CycleDispatcher {
+
+	/**
+	 * Statistics of one handler in one phase at one point in time.
+	 */
+	public static class HandlerTiming {
+		private final String name;
+		private final CyclePhase phase;
+		private final long count;
+		private final long lastNanos;
+		private final long maxNanos;
+		private final long totalNanos;
+
+		private HandlerTiming(String name, CyclePhase phase, long count, long lastNanos, long maxNanos,
+				long totalNanos) {
+			this.name = name;
+			this.phase = phase;
+			this.count = count;
+			this.lastNanos = lastNanos;
+			this.maxNanos = maxNanos;
+			this.totalNanos = totalNanos;
+		}
+
+		public String getHandler() {
+			return this.name;
+		}
+
+		public CyclePhase getPhase() {
+			return this.phase;
+		}
+
+		public long getCount() {
+			return this.count;
+		}
+
+		public long getLastNanos() {
+			return this.lastNanos;
+		}
+
+		public long getMaxNanos() {
+			return this.maxNanos;
+		}
+
+		/**
+		 * Gets the average duration of one call.
+		 *
+		 * @return the average in [ns]; 0 if never called
+		 */
+		public long getAverageNanos() {
+			return this.count == 0 ? 0 : this.totalNanos / this.count;
+		}
+	}
+
+	/**
+	 * The running statistics of one handler in one phase. Written by the Cycle
+	 * thread; guarded by 'this', so that readers never see torn or inconsistent
+	 * values.
+	 */
+	private static class Statistics {
+		private final CyclePhaseHandler handler;
+		private final CyclePhase phase;
+		private final String name;
+		private final String label;
+
+		private long count = 0;
+		private long lastNanos = 0;
+		private long maxNanos = 0;
+		private long totalNanos = 0;
+
+		private Statistics(CyclePhaseHandler handler, CyclePhase phase) {
+			this(getName(handler), handler, phase);
+		}
+
+		private Statistics(String name, CyclePhaseHandler handler, CyclePhase phase) {
+			this.handler = handler;
+			this.phase = phase;
+			this.name = name;
+			this.label = name + ":" + phase.name();
+		}
+
+		private synchronized void record(long nanos) {
+			this.count++;
+			this.lastNanos = nanos;
+			this.totalNanos += nanos;
+			if (nanos > this.maxNanos) {
+				this.maxNanos = nanos;
+			}
+		}
+
+		private synchronized HandlerTiming snapshot() {
+			return new HandlerTiming(this.name, this.phase, this.count, this.lastNanos, this.maxNanos,
+					this.totalNanos);
+		}
+
+		private static String getName(CyclePhaseHandler handler) {
+			if (handler instanceof OpenemsComponent) {
+				return ((OpenemsComponent) handler).id();
+			}
+			return handler.getClass().getSimpleName();
+		}
+	}
+
+	private static final CyclePhase[] PHASES = CyclePhase.values();
+	private static final String EVENT_ADMIN = "EventAdmin";
+
+	private final Logger log = LoggerFactory.getLogger(CycleDispatcher.class);
+	private final CycleImpl parent;
+	private final Event[] events = new Event[PHASES.length];
+	private final Statistics[] eventAdminTimings = new Statistics[PHASES.length];
+
+	/**
+	 * All Statistics. Guarded by 'this'.
+	 */
+	private final List<Statistics> timings = new ArrayList<>();
+
+	/**
+	 * Precomputed Statistics per phase, indexed by ordinal.
+	 */
+	private volatile Statistics[][] timingsPerPhase = new Statistics[PHASES.length][0];
+
+	// slowest handler call of the current Cycle; only used by the Cycle thread
+	private Statistics slowest = null;
+	private long slowestNanos = 0;
+
+	public CycleDispatcher(CycleImpl parent) {
+		this.parent = parent;
+		for (CyclePhase phase : PHASES) {
+			this.events[phase.ordinal()] = new Event(phase.getTopic(), new HashMap<String, Object>());
+			this.eventAdminTimings[phase.ordinal()] = new Statistics(EVENT_ADMIN, null, phase);
+		}
+	}
+
+	/**
+	 * Adds a handler.
+	 *
+	 * @param handler the {@link CyclePhaseHandler}
+	 */
+	public synchronized void addHandler(CyclePhaseHandler handler) {
+		Set<CyclePhase> phases = handler.getCyclePhases();
+		if (phases == null || phases.isEmpty()) {
+			return;
+		}
+		for (CyclePhase phase : EnumSet.copyOf(phases)) {
+			this.timings.add(new Statistics(handler, phase));
+		}
+		this.rebuild();
+	}
+
+	/**
+	 * Removes a handler.
+	 *
+	 * @param handler the {@link CyclePhaseHandler}
+	 */
+	public synchronized void removeHandler(CyclePhaseHandler handler) {
+		for (Iterator<Statistics> iterator = this.timings.iterator(); iterator.hasNext();) {
+			if (iterator.next().handler == handler) {
+				iterator.remove();
+			}
+		}
+		this.rebuild();
+	}
+
+	private void rebuild() {
+		Statistics[][] timingsPerPhase = new Statistics[PHASES.length][];
+		for (CyclePhase phase : PHASES) {
+			List<Statistics> timings = new ArrayList<>();
+			for (Statistics timing : this.timings) {
+				if (timing.phase == phase) {
+					timings.add(timing);
+				}
+			}
+			timingsPerPhase[phase.ordinal()] = timings.toArray(new Statistics[timings.size()]);
+		}
+		this.timingsPerPhase = timingsPerPhase;
+	}
+
+	/**
+	 * Dispatches a phase: first via EventAdmin, then to the
+	 * {@link CyclePhaseHandler}s.
+	 *
+	 * @param phase the {@link CyclePhase}
+	 */
+	public void dispatch(CyclePhase phase) {
+		long start = System.nanoTime();
+		this.parent.eventAdmin.sendEvent(this.events[phase.ordinal()]);
+		this.record(this.eventAdminTimings[phase.ordinal()], System.nanoTime() - start);
+
+		for (Statistics timing : this.timingsPerPhase[phase.ordinal()]) {
+			start = System.nanoTime();
+			try {
+				timing.handler.handleCyclePhase(phase);
+			} catch (Throwable t) {
+				this.parent.logWarn(this.log, "Error in Cycle handler [" + timing.label + "]. "
+						+ t.getClass().getSimpleName() + ": " + t.getMessage());
+			}
+			this.record(timing, System.nanoTime() - start);
+		}
+	}
+
+	private void record(Statistics timing, long nanos) {
+		timing.record(nanos);
+		if (nanos > this.slowestNanos) {
+			this.slowestNanos = nanos;
+			this.slowest = timing;
+		}
+	}
+
+	/**
+	 * Publishes the slowest handler call of the finished Cycle to the Channels
+	 * and resets it.
+	 */
+	public void finishCycle() {
+		Statistics slowest = this.slowest;
+		this.parent.channel(Cycle.ChannelId.SLOWEST_CYCLE_HANDLER) //
+				.setNextValue(slowest == null ? null : slowest.label);
+		this.parent.channel(Cycle.ChannelId.SLOWEST_CYCLE_HANDLER_DURATION) //
+				.setNextValue(slowest == null ? null : this.slowestNanos / 1_000_000);
+		this.slowest = null;
+		this.slowestNanos = 0;
+	}
+
+	/**
+	 * Gets the statistics of all handlers including the EventAdmin, sorted
+	 * descending by their maximum duration.
+	 *
+	 * @return a list of {@link HandlerTiming}s
+	 */
+	public synchronized List<HandlerTiming> getSlowestHandlers() {
+		List<HandlerTiming> result = new ArrayList<>(this.timings.size() + this.eventAdminTimings.length);
+		for (Statistics timing : this.timings) {
+			result.add(timing.snapshot());
+		}
+		for (Statistics timing : this.eventAdminTimings) {
+			result.add(timing.snapshot());
+		}
+		Collections.sort(result, (a, b) -> Long.compare(b.getMaxNanos(), a.getMaxNanos()));
+		return result;
+	}
+
+}
@@ -1,6 +1,7 @@
 package io.openems.edge.core.cycle;
 
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
@@ -14,9 +15,17 @@ import org.osgi.service.event.EventAdmin;
 import org.slf4j.Logger;
 
 import io.openems.common.OpenemsConstants;
+import io.openems.common.exceptions.OpenemsError;
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.jsonrpc.base.JsonrpcRequest;
+import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
+import io.openems.common.session.Role;
+import io.openems.common.session.User;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.ComponentManager;
 import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.CyclePhaseHandler;
+import io.openems.edge.common.jsonapi.JsonApi;
 import io.openems.edge.scheduler.api.Scheduler;
 
 @Component(//
@@ -26,9 +35,15 @@ import io.openems.edge.scheduler.api.Scheduler;
 				"id=" + OpenemsConstants.CYCLE_ID, //
 				"enabled=true" //
 		})
-public class CycleImpl extends AbstractOpenemsComponent implements OpenemsComponent, Cycle {
+public class CycleImpl extends AbstractOpenemsComponent implements OpenemsComponent, Cycle, JsonApi {
+
+	/**
+	 * Maximum number of threads used for the parallel Process Image Switch.
+	 */
+	protected final static int PROCESS_IMAGE_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
 
 	private final CycleWorker worker = new CycleWorker(this);
+	protected final CycleDispatcher dispatcher = new CycleDispatcher(this);
 
 	@Reference(policy = ReferencePolicy.STATIC)
 	protected EventAdmin eventAdmin;
@@ -65,6 +80,15 @@ public class CycleImpl extends AbstractOpenemsComponent implements OpenemsCompon
 		this.maxCycles = Utils.recalculateRelativeCycleTimes(schedulers, this.commonCycleTime);
 	}
 
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MULTIPLE)
+	protected void addCyclePhaseHandler(CyclePhaseHandler handler) {
+		this.dispatcher.addHandler(handler);
+	}
+
+	protected void removeCyclePhaseHandler(CyclePhaseHandler handler) {
+		this.dispatcher.removeHandler(handler);
+	}
+
 	public CycleImpl() {
 		super(//
 				OpenemsComponent.ChannelId.values(), //
@@ -89,4 +113,33 @@ public class CycleImpl extends AbstractOpenemsComponent implements OpenemsCompon
 		super.logWarn(log, message);
 	}
 
+	@Override
+	public CompletableFuture<? extends JsonrpcResponseSuccess> handleJsonrpcRequest(User user, JsonrpcRequest request)
+			throws OpenemsNamedException {
+		user.assertRoleIsAtLeast("handleJsonrpcRequest", Role.GUEST);
+
+		switch (request.getMethod()) {
+
+		case GetSlowestCycleHandlersRequest.METHOD:
+			return this.handleGetSlowestCycleHandlersRequest(user, GetSlowestCycleHandlersRequest.from(request));
+
+		default:
+			throw OpenemsError.JSONRPC_UNHANDLED_METHOD.exception(request.getMethod());
+		}
+	}
+
+	/**
+	 * Handles a GetSlowestCycleHandlersRequest.
+	 * 
+	 * @param user    the User
+	 * @param request the GetSlowestCycleHandlersRequest
+	 * @return the Future JSON-RPC Response
+	 * @throws OpenemsNamedException on error
+	 */
+	private CompletableFuture<JsonrpcResponseSuccess> handleGetSlowestCycleHandlersRequest(User user,
+			GetSlowestCycleHandlersRequest request) throws OpenemsNamedException {
+		return CompletableFuture.completedFuture(
+				new GetSlowestCycleHandlersResponse(request.getId(), this.dispatcher.getSlowestHandlers()));
+	}
+
 }
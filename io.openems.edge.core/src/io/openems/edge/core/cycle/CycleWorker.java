@@ -2,17 +2,18 @@ package io.openems.edge.core.cycle;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 
-import org.osgi.service.event.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.faljse.SDNotify.SDNotify;
 import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
 import io.openems.common.worker.AbstractWorker;
-import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.CyclePhase;
 import io.openems.edge.controller.api.Controller;
 import io.openems.edge.scheduler.api.Scheduler;
 
@@ -20,11 +21,24 @@ public class CycleWorker extends AbstractWorker {
 
 	private final Logger log = LoggerFactory.getLogger(CycleWorker.class);
 	private final CycleImpl parent;
+	private final ProcessImageSwitcher processImageSwitcher;
+
+	/**
+	 * Reused list of Components for the Process Image Switch.
+	 */
+	private final List<OpenemsComponent> processImageComponents = new ArrayList<>();
 
 	private Instant startTime = null;
 
 	public CycleWorker(CycleImpl parent) {
 		this.parent = parent;
+		this.processImageSwitcher = new ProcessImageSwitcher("Core.Cycle", CycleImpl.PROCESS_IMAGE_PARALLELISM);
+	}
+
+	@Override
+	public void deactivate() {
+		super.deactivate();
+		this.processImageSwitcher.shutdown();
 	}
 
 	@Override
@@ -48,33 +62,32 @@ public class CycleWorker extends AbstractWorker {
 			/*
 			 * Trigger BEFORE_PROCESS_IMAGE event
 			 */
-			this.parent.eventAdmin
-					.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_BEFORE_PROCESS_IMAGE, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.BEFORE_PROCESS_IMAGE);
 
 			/*
 			 * Before Controllers start: switch to next process image for each channel
 			 */
-			this.parent.componentManager.getEnabledComponents().stream().filter(c -> c.isEnabled())
-					.forEach(component -> {
-						component.channels().forEach(channel -> {
-							channel.nextProcessImage();
-						});
-					});
-			this.parent.channels().forEach(channel -> {
-				channel.nextProcessImage();
-			});
+			long processImageStart = System.nanoTime();
+			this.processImageComponents.clear();
+			for (OpenemsComponent component : this.parent.componentManager.getEnabledComponents()) {
+				if (component.isEnabled() && component != this.parent) {
+					this.processImageComponents.add(component);
+				}
+			}
+			this.processImageComponents.add(this.parent);
+			this.processImageSwitcher.execute(this.processImageComponents);
+			this.parent.channel(Cycle.ChannelId.PROCESS_IMAGE_SWITCH_DURATION)
+					.setNextValue((System.nanoTime() - processImageStart) / 1_000_000);
 
 			/*
 			 * Trigger AFTER_PROCESS_IMAGE event
 			 */
-			this.parent.eventAdmin
-					.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.AFTER_PROCESS_IMAGE);
 
 			/*
 			 * Trigger BEFORE_CONTROLLERS event
 			 */
-			this.parent.eventAdmin
-					.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_BEFORE_CONTROLLERS, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.BEFORE_CONTROLLERS);
 
 			boolean hasDisabledController = false;
 
@@ -143,23 +156,22 @@ public class CycleWorker extends AbstractWorker {
 			/*
 			 * Trigger AFTER_CONTROLLERS event
 			 */
-			this.parent.eventAdmin
-					.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_AFTER_CONTROLLERS, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.AFTER_CONTROLLERS);
 
 			/*
 			 * Trigger BEFORE_WRITE event
 			 */
-			this.parent.eventAdmin.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_BEFORE_WRITE, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.BEFORE_WRITE);
 
 			/*
 			 * Trigger EXECUTE_WRITE event
 			 */
-			this.parent.eventAdmin.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.EXECUTE_WRITE);
 
 			/*
 			 * Trigger AFTER_WRITE event
 			 */
-			this.parent.eventAdmin.sendEvent(new Event(EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE, new HashMap<>()));
+			this.parent.dispatcher.dispatch(CyclePhase.AFTER_WRITE);
 
 		} catch (Throwable t) {
 			this.parent.logWarn(this.log,
@@ -169,6 +181,8 @@ public class CycleWorker extends AbstractWorker {
 			}
 		}
 
+		this.parent.dispatcher.finishCycle();
+
 		// Measure actual cycle time
 		Instant now = Instant.now();
 		if (this.startTime != null) {
@@ -0,0 +1,43 @@
+package io.openems.edge.core.cycle;
+
+import java.util.UUID;
+
+import com.google.gson.JsonObject;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.jsonrpc.base.JsonrpcRequest;
+
+/**
+ * Gets the timing statistics of all CyclePhaseHandlers.
+ * 
+ * <pre>
+ * {
+ *   "jsonrpc": "2.0",
+ *   "id": "UUID",
+ *   "method": "getSlowestCycleHandlers",
+ *   "params": {}
+ * }
+ * </pre>
+ */
+public class GetSlowestCycleHandlersRequest extends JsonrpcRequest {
+
+	public static final String METHOD = "getSlowestCycleHandlers";
+
+	public static GetSlowestCycleHandlersRequest from(JsonrpcRequest r) throws OpenemsException {
+		return new GetSlowestCycleHandlersRequest(r.getId());
+	}
+
+	public GetSlowestCycleHandlersRequest() {
+		this(UUID.randomUUID());
+	}
+
+	public GetSlowestCycleHandlersRequest(UUID id) {
+		super(id, METHOD);
+	}
+
+	@Override
+	public JsonObject getParams() {
+		return new JsonObject();
+	}
+
+}
@@ -0,0 +1,65 @@
+package io.openems.edge.core.cycle;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import io.openems.common.jsonrpc.base.JsonrpcResponseSuccess;
+import io.openems.common.utils.JsonUtils;
+import io.openems.edge.core.cycle.CycleDispatcher.HandlerTiming;
+
+/**
+ * JSON-RPC Response to "getSlowestCycleHandlers" Request. Handlers are sorted
+ * descending by their maximum duration; durations are in [ms].
+ * 
+ * <pre>
+ * {
+ *   "jsonrpc": "2.0",
+ *   "id": "UUID",
+ *   "result": {
+ *     "handlers": [{
+ *       "handler": string,
+ *       "phase": string,
+ *       "count": number,
+ *       "last": number,
+ *       "average": number,
+ *       "max": number
+ *     }]
+ *   }
+ * }
+ * </pre>
+ */
+public class GetSlowestCycleHandlersResponse extends JsonrpcResponseSuccess {
+
+	private final List<HandlerTiming> timings;
+
+	public GetSlowestCycleHandlersResponse(UUID id, List<HandlerTiming> timings) {
+		super(id);
+		this.timings = timings;
+	}
+
+	@Override
+	public JsonObject getResult() {
+		JsonArray handlers = new JsonArray();
+		for (HandlerTiming timing : this.timings) {
+			handlers.add(JsonUtils.buildJsonObject() //
+					.addProperty("handler", timing.getHandler()) //
+					.addProperty("phase", timing.getPhase().name()) //
+					.addProperty("count", timing.getCount()) //
+					.addProperty("last", toMillis(timing.getLastNanos())) //
+					.addProperty("average", toMillis(timing.getAverageNanos())) //
+					.addProperty("max", toMillis(timing.getMaxNanos())) //
+					.build());
+		}
+		return JsonUtils.buildJsonObject() //
+				.add("handlers", handlers) //
+				.build();
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+}
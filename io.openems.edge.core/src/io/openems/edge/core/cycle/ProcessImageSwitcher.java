@@ -0,0 +1,142 @@
+package io.openems.edge.core.cycle;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Executes the 'Process Image Switch' for all Channels of a list of
+ * OpenEMS-Components.
+ *
+ * <p>
+ * The switch is done in two phases:
+ * <ol>
+ * <li>The Components are partitioned and the 'next' value of each Channel is
+ * copied to the 'current' value in parallel on a bounded {@link ForkJoinPool}
+ * (see {@link Channel#switchProcessImage()})
+ * <li>The onUpdate and onChange callbacks are dispatched sequentially in the
+ * original order of the Components (see
+ * {@link Channel#dispatchProcessImageCallbacks()}). Callbacks are therefore
+ * never executed concurrently and always see a completely switched process
+ * image.
+ * </ol>
+ */
+public class ProcessImageSwitcher {
+
+	/**
+	 * Minimum number of Components handled by one parallel task. Below that the
+	 * overhead of forking is higher than the gain.
+	 */
+	private final static int MIN_COMPONENTS_PER_TASK = 8;
+
+	private final int parallelism;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a {@link ProcessImageSwitcher}.
+	 *
+	 * @param name        the name prefix for the worker threads
+	 * @param parallelism the maximum number of worker threads; if 1, the switch
+	 *                    is executed on the calling thread
+	 */
+	public ProcessImageSwitcher(String name, int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+		if (this.parallelism > 1) {
+			this.pool = new ForkJoinPool(this.parallelism, pool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName(name + ":ProcessImage-" + thread.getPoolIndex());
+				return thread;
+			}, null, false);
+		} else {
+			this.pool = null;
+		}
+	}
+
+	/**
+	 * Switches the process image of all Channels of the given Components and
+	 * dispatches the callbacks afterwards.
+	 *
+	 * @param components the OpenEMS-Components
+	 */
+	public void execute(List<OpenemsComponent> components) {
+		/*
+		 * Phase 1: switch process image
+		 */
+		int threshold = Math.max(MIN_COMPONENTS_PER_TASK, components.size() / (this.parallelism * 4) + 1);
+		if (this.pool == null || components.size() <= threshold) {
+			switchProcessImage(components, 0, components.size());
+		} else {
+			this.pool.invoke(new SwitchTask(components, 0, components.size(), threshold));
+		}
+
+		/*
+		 * Phase 2: dispatch callbacks in order
+		 */
+		for (OpenemsComponent component : components) {
+			for (Channel<?> channel : component.channels()) {
+				channel.dispatchProcessImageCallbacks();
+			}
+		}
+	}
+
+	/**
+	 * Shuts down the worker threads.
+	 */
+	public void shutdown() {
+		if (this.pool != null) {
+			this.pool.shutdown();
+			try {
+				this.pool.awaitTermination(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				this.pool.shutdownNow();
+			}
+		}
+	}
+
+	private static void switchProcessImage(List<OpenemsComponent> components, int fromIndex, int toIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			OpenemsComponent component = components.get(i);
+			for (Channel<?> channel : component.channels()) {
+				channel.switchProcessImage();
+			}
+		}
+	}
+
+	/**
+	 * Recursively splits the list of Components till the partitions are smaller
+	 * than the threshold.
+	 */
+	private static class SwitchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<OpenemsComponent> components;
+		private final int fromIndex;
+		private final int toIndex;
+		private final int threshold;
+
+		private SwitchTask(List<OpenemsComponent> components, int fromIndex, int toIndex, int threshold) {
+			this.components = components;
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.toIndex - this.fromIndex <= this.threshold) {
+				switchProcessImage(this.components, this.fromIndex, this.toIndex);
+				return;
+			}
+			int middle = (this.fromIndex + this.toIndex) >>> 1;
+			invokeAll(new SwitchTask(this.components, this.fromIndex, middle, this.threshold),
+					new SwitchTask(this.components, middle, this.toIndex, this.threshold));
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package io.openems.edge.core.sum;
+
+/**
+ * A running total of Channel values. It is updated incrementally by its
+ * {@link Contribution}s whenever one of the source Channels gets a new value.
+ */
+class Aggregate {
+
+	private long sum = 0;
+	private int definedCount = 0;
+
+	/**
+	 * Replaces the previous value of one Contribution with its new value.
+	 *
+	 * @param wasDefined the previous value was defined
+	 * @param oldValue   the previous value
+	 * @param isDefined  the new value is defined
+	 * @param newValue   the new value
+	 */
+	synchronized void update(boolean wasDefined, long oldValue, boolean isDefined, long newValue) {
+		if (wasDefined) {
+			this.sum -= oldValue;
+			this.definedCount--;
+		}
+		if (isDefined) {
+			this.sum += newValue;
+			this.definedCount++;
+		}
+	}
+
+	/**
+	 * Gets the sum of all defined values.
+	 *
+	 * @return the sum; null if no value is defined
+	 */
+	synchronized Long getSum() {
+		if (this.definedCount == 0) {
+			return null;
+		}
+		return this.sum;
+	}
+
+	/**
+	 * Gets the average of all defined values.
+	 *
+	 * @return the average; null if no value is defined
+	 */
+	synchronized Double getAverage() {
+		if (this.definedCount == 0) {
+			return null;
+		}
+		return (double) this.sum / this.definedCount;
+	}
+
+	/**
+	 * Gets the number of defined values.
+	 *
+	 * @return the count
+	 */
+	synchronized int getDefinedCount() {
+		return this.definedCount;
+	}
+
+}
@@ -0,0 +1,15 @@
+package io.openems.edge.core.sum;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition(//
+		name = "Core Sum", //
+		description = "Calculates the sum of Ess, Grid, Production and Consumption.")
+@interface Config {
+
+	@AttributeDefinition(name = "Additional sums", description = "Additional sum Channels in the format "
+			+ "'ChannelId=component0/Channel0,component1/Channel1'")
+	String[] additionalSums() default {};
+
+}
@@ -0,0 +1,119 @@
+package io.openems.edge.core.sum;
+
+import java.util.function.Consumer;
+
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.value.Value;
+import io.openems.edge.common.sum.GridMode;
+
+/**
+ * Links one source Channel to one {@link Aggregate}: every new 'next' value of
+ * the Channel replaces the previous value of this Contribution in the total.
+ *
+ * @param <T> the type of the Channel
+ */
+class Contribution<T> implements Consumer<Value<T>> {
+
+	/**
+	 * Converts the Channel value to the value that is added to the
+	 * {@link Aggregate}.
+	 */
+	enum Converter {
+		/**
+		 * The value itself; Numbers with decimal places are truncated.
+		 */
+		DIRECT,
+		/**
+		 * A third of the value, e.g. to split the power of a symmetric device to
+		 * its phases.
+		 */
+		DIVIDE_BY_THREE,
+		/**
+		 * 1 if the {@link GridMode} is On-Grid, else 0; always defined, so that the
+		 * count of the Aggregate is the number of sources.
+		 */
+		IS_ON_GRID,
+		/**
+		 * 1 if the {@link GridMode} is Off-Grid, else 0; always defined.
+		 */
+		IS_OFF_GRID;
+	}
+
+	private final Channel<T> channel;
+	private final Aggregate aggregate;
+	private final Converter converter;
+
+	// guarded by 'aggregate'
+	private boolean isDefined = false;
+	private long value = 0;
+	private boolean isRemoved = false;
+
+	Contribution(Channel<T> channel, Aggregate aggregate, Converter converter) {
+		this.channel = channel;
+		this.aggregate = aggregate;
+		this.converter = converter;
+	}
+
+	/**
+	 * Adds the current 'next' value to the {@link Aggregate} and follows all
+	 * future values.
+	 */
+	void add() {
+		this.channel.onSetNextValue(this);
+		this.accept(this.channel.getNextValue());
+	}
+
+	/**
+	 * Removes the value from the {@link Aggregate} and stops following the
+	 * Channel.
+	 */
+	void remove() {
+		this.channel.removeOnSetNextValue(this);
+		synchronized (this.aggregate) {
+			this.aggregate.update(this.isDefined, this.value, false, 0);
+			this.isDefined = false;
+			this.isRemoved = true;
+		}
+	}
+
+	@Override
+	public void accept(Value<T> nextValue) {
+		boolean isDefined;
+		long value;
+		switch (this.converter) {
+		case IS_ON_GRID:
+		case IS_OFF_GRID: {
+			GridMode gridMode = nextValue.asEnum();
+			GridMode expected = this.converter == Converter.IS_ON_GRID ? GridMode.ON_GRID : GridMode.OFF_GRID;
+			isDefined = true;
+			value = gridMode == expected ? 1 : 0;
+			break;
+		}
+		case DIVIDE_BY_THREE:
+		case DIRECT:
+		default: {
+			Object object = nextValue.get();
+			isDefined = object instanceof Number;
+			if (!isDefined) {
+				value = 0;
+			} else if (this.converter == Converter.DIVIDE_BY_THREE) {
+				value = Math.round(((Number) object).intValue() / 3f);
+			} else {
+				value = ((Number) object).longValue();
+			}
+			break;
+		}
+		}
+
+		synchronized (this.aggregate) {
+			if (this.isRemoved) {
+				// late callback from a Channel that was just removed
+				return;
+			}
+			this.aggregate.update(this.isDefined, this.value, isDefined, value);
+			this.isDefined = isDefined;
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,287 @@
+package io.openems.edge.core.sum;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.openems.common.types.ChannelAddress;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.core.sum.Contribution.Converter;
+import io.openems.edge.ess.api.AsymmetricEss;
+import io.openems.edge.ess.api.MetaEss;
+import io.openems.edge.ess.api.SymmetricEss;
+import io.openems.edge.ess.dccharger.api.EssDcCharger;
+import io.openems.edge.meter.api.AsymmetricMeter;
+import io.openems.edge.meter.api.SymmetricMeter;
+import io.openems.edge.meter.api.VirtualMeter;
+
+/**
+ * Keeps the totals of the _sum Component up-to-date.
+ *
+ * <p>
+ * Components are classified by their Nature once, when they are bound. From
+ * then on every relevant Channel updates its {@link Aggregate} incrementally via
+ * {@link Contribution}s; reading the totals in the Cycle does not iterate the
+ * Components.
+ */
+class SumAggregator {
+
+	/**
+	 * The role of a Component for the _sum Component.
+	 */
+	enum Nature {
+		ESS, GRID_METER, PRODUCTION_METER, DC_CHARGER, OTHER;
+	}
+
+	private static class Entry {
+		private final OpenemsComponent component;
+		private final Nature nature;
+		private final List<Contribution<?>> contributions = new ArrayList<>();
+
+		private Entry(OpenemsComponent component, Nature nature) {
+			this.component = component;
+			this.nature = nature;
+		}
+	}
+
+	// Ess
+	final Aggregate essSoc = new Aggregate();
+	final Aggregate essActivePower = new Aggregate();
+	final Aggregate essActivePowerL1 = new Aggregate();
+	final Aggregate essActivePowerL2 = new Aggregate();
+	final Aggregate essActivePowerL3 = new Aggregate();
+	final Aggregate essMaxApparentPower = new Aggregate();
+	final Aggregate essOnGrid = new Aggregate();
+	final Aggregate essOffGrid = new Aggregate();
+	final Aggregate essActiveChargeEnergy = new Aggregate();
+	final Aggregate essActiveDischargeEnergy = new Aggregate();
+	final Aggregate essCapacity = new Aggregate();
+
+	// Grid
+	final Aggregate gridActivePower = new Aggregate();
+	final Aggregate gridActivePowerL1 = new Aggregate();
+	final Aggregate gridActivePowerL2 = new Aggregate();
+	final Aggregate gridActivePowerL3 = new Aggregate();
+	final Aggregate gridMinActivePower = new Aggregate();
+	final Aggregate gridMaxActivePower = new Aggregate();
+	final Aggregate gridBuyActiveEnergy = new Aggregate();
+	final Aggregate gridSellActiveEnergy = new Aggregate();
+
+	// Production
+	final Aggregate productionAcActivePower = new Aggregate();
+	final Aggregate productionAcActivePowerL1 = new Aggregate();
+	final Aggregate productionAcActivePowerL2 = new Aggregate();
+	final Aggregate productionAcActivePowerL3 = new Aggregate();
+	final Aggregate productionMaxAcActivePower = new Aggregate();
+	final Aggregate productionDcActualPower = new Aggregate();
+	final Aggregate productionMaxDcActualPower = new Aggregate();
+	final Aggregate productionAcActiveEnergy = new Aggregate();
+	final Aggregate productionDcActiveEnergy = new Aggregate();
+	// handling the corner-case of wrongly measured negative production, due to
+	// cabling errors, etc.
+	final Aggregate productionAcActiveEnergyNegative = new Aggregate();
+
+	/**
+	 * The bound Components by Component-ID.
+	 */
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final List<UserSum> userSums = new ArrayList<>();
+
+	/**
+	 * Adds a Component and starts following its Channels.
+	 *
+	 * @param component the {@link OpenemsComponent}
+	 */
+	synchronized void addComponent(OpenemsComponent component) {
+		Entry previous = this.entries.remove(component.id());
+		if (previous != null) {
+			this.remove(previous);
+		}
+		Entry entry = new Entry(component, getNature(component));
+		this.addNatureContributions(entry);
+		for (UserSum userSum : this.userSums) {
+			this.addUserSumContributions(entry, userSum);
+		}
+		entry.contributions.forEach(Contribution::add);
+		this.entries.put(component.id(), entry);
+	}
+
+	/**
+	 * Removes a Component and subtracts its values from the totals.
+	 *
+	 * @param component the {@link OpenemsComponent}
+	 */
+	synchronized void removeComponent(OpenemsComponent component) {
+		Entry entry = this.entries.get(component.id());
+		if (entry != null && entry.component == component) {
+			this.entries.remove(component.id());
+			this.remove(entry);
+		}
+	}
+
+	/**
+	 * Adds user-defined sums and starts following their source Channels.
+	 *
+	 * @param userSums the {@link UserSum}s
+	 */
+	synchronized void addUserSums(List<UserSum> userSums) {
+		this.userSums.addAll(userSums);
+		for (Entry entry : this.entries.values()) {
+			List<Contribution<?>> contributions = new ArrayList<>();
+			for (UserSum userSum : userSums) {
+				contributions.addAll(this.addUserSumContributions(entry, userSum));
+			}
+			contributions.forEach(Contribution::add);
+		}
+	}
+
+	private void remove(Entry entry) {
+		entry.contributions.forEach(Contribution::remove);
+		entry.contributions.clear();
+	}
+
+	private static Nature getNature(OpenemsComponent component) {
+		if (component instanceof SymmetricEss) {
+			if (component instanceof MetaEss) {
+				// ignore this Ess
+				return Nature.OTHER;
+			}
+			return Nature.ESS;
+
+		} else if (component instanceof SymmetricMeter) {
+			if (component instanceof VirtualMeter && !((VirtualMeter) component).addToSum()) {
+				// Ignore VirtualMeter if "addToSum" is not activated (default)
+				return Nature.OTHER;
+			}
+			switch (((SymmetricMeter) component).getMeterType()) {
+			case GRID:
+				return Nature.GRID_METER;
+			case PRODUCTION:
+				return Nature.PRODUCTION_METER;
+			case PRODUCTION_AND_CONSUMPTION:
+				// TODO PRODUCTION_AND_CONSUMPTION
+			case CONSUMPTION_METERED:
+				// TODO CONSUMPTION_METERED
+			case CONSUMPTION_NOT_METERED:
+				// TODO CONSUMPTION_NOT_METERED
+			default:
+				return Nature.OTHER;
+			}
+
+		} else if (component instanceof EssDcCharger) {
+			return Nature.DC_CHARGER;
+		}
+		return Nature.OTHER;
+	}
+
+	private void addNatureContributions(Entry entry) {
+		switch (entry.nature) {
+		case ESS: {
+			SymmetricEss ess = (SymmetricEss) entry.component;
+			add(entry, ess.getSoc(), this.essSoc);
+			add(entry, ess.getActivePower(), this.essActivePower);
+			add(entry, ess.getMaxApparentPower(), this.essMaxApparentPower);
+			add(entry, ess.getGridMode(), this.essOnGrid, Converter.IS_ON_GRID);
+			add(entry, ess.getGridMode(), this.essOffGrid, Converter.IS_OFF_GRID);
+			add(entry, ess.getActiveChargeEnergy(), this.essActiveChargeEnergy);
+			add(entry, ess.getActiveDischargeEnergy(), this.essActiveDischargeEnergy);
+			add(entry, ess.getCapacity(), this.essCapacity);
+			if (ess instanceof AsymmetricEss) {
+				AsymmetricEss e = (AsymmetricEss) ess;
+				add(entry, e.getActivePowerL1(), this.essActivePowerL1);
+				add(entry, e.getActivePowerL2(), this.essActivePowerL2);
+				add(entry, e.getActivePowerL3(), this.essActivePowerL3);
+			} else {
+				add(entry, ess.getActivePower(), this.essActivePowerL1, Converter.DIVIDE_BY_THREE);
+				add(entry, ess.getActivePower(), this.essActivePowerL2, Converter.DIVIDE_BY_THREE);
+				add(entry, ess.getActivePower(), this.essActivePowerL3, Converter.DIVIDE_BY_THREE);
+			}
+			break;
+		}
+
+		case GRID_METER: {
+			SymmetricMeter meter = (SymmetricMeter) entry.component;
+			add(entry, meter.getActivePower(), this.gridActivePower);
+			add(entry, meter.getMinActivePower(), this.gridMinActivePower);
+			add(entry, meter.getMaxActivePower(), this.gridMaxActivePower);
+			add(entry, meter.getActiveProductionEnergy(), this.gridBuyActiveEnergy);
+			add(entry, meter.getActiveConsumptionEnergy(), this.gridSellActiveEnergy);
+			if (meter instanceof AsymmetricMeter) {
+				AsymmetricMeter m = (AsymmetricMeter) meter;
+				add(entry, m.getActivePowerL1(), this.gridActivePowerL1);
+				add(entry, m.getActivePowerL2(), this.gridActivePowerL2);
+				add(entry, m.getActivePowerL3(), this.gridActivePowerL3);
+			} else {
+				add(entry, meter.getActivePower(), this.gridActivePowerL1, Converter.DIVIDE_BY_THREE);
+				add(entry, meter.getActivePower(), this.gridActivePowerL2, Converter.DIVIDE_BY_THREE);
+				add(entry, meter.getActivePower(), this.gridActivePowerL3, Converter.DIVIDE_BY_THREE);
+			}
+			break;
+		}
+
+		case PRODUCTION_METER: {
+			SymmetricMeter meter = (SymmetricMeter) entry.component;
+			add(entry, meter.getActivePower(), this.productionAcActivePower);
+			add(entry, meter.getMaxActivePower(), this.productionMaxAcActivePower);
+			add(entry, meter.getActiveProductionEnergy(), this.productionAcActiveEnergy);
+			add(entry, meter.getActiveConsumptionEnergy(), this.productionAcActiveEnergyNegative);
+			if (meter instanceof AsymmetricMeter) {
+				AsymmetricMeter m = (AsymmetricMeter) meter;
+				add(entry, m.getActivePowerL1(), this.productionAcActivePowerL1);
+				add(entry, m.getActivePowerL2(), this.productionAcActivePowerL2);
+				add(entry, m.getActivePowerL3(), this.productionAcActivePowerL3);
+			} else {
+				add(entry, meter.getActivePower(), this.productionAcActivePowerL1, Converter.DIVIDE_BY_THREE);
+				add(entry, meter.getActivePower(), this.productionAcActivePowerL2, Converter.DIVIDE_BY_THREE);
+				add(entry, meter.getActivePower(), this.productionAcActivePowerL3, Converter.DIVIDE_BY_THREE);
+			}
+			break;
+		}
+
+		case DC_CHARGER: {
+			EssDcCharger charger = (EssDcCharger) entry.component;
+			add(entry, charger.getActualPower(), this.productionDcActualPower);
+			add(entry, charger.getMaxActualPower(), this.productionMaxDcActualPower);
+			add(entry, charger.getActualEnergy(), this.productionDcActiveEnergy);
+			break;
+		}
+
+		case OTHER:
+			break;
+		}
+	}
+
+	/**
+	 * Creates the Contributions of one Component to a user-defined sum.
+	 *
+	 * @param entry   the Component entry
+	 * @param userSum the {@link UserSum}
+	 * @return the new Contributions; not yet added
+	 */
+	private List<Contribution<?>> addUserSumContributions(Entry entry, UserSum userSum) {
+		List<Contribution<?>> result = new ArrayList<>();
+		for (ChannelAddress source : userSum.getSources()) {
+			if (!source.getComponentId().equals(entry.component.id())) {
+				continue;
+			}
+			Channel<?> channel = entry.component._channel(source.getChannelId());
+			if (channel != null) {
+				Contribution<?> contribution = new Contribution<>(channel, userSum.getAggregate(), Converter.DIRECT);
+				entry.contributions.add(contribution);
+				result.add(contribution);
+			}
+		}
+		return result;
+	}
+
+	private static <T> void add(Entry entry, Channel<T> channel, Aggregate aggregate) {
+		add(entry, channel, aggregate, Converter.DIRECT);
+	}
+
+	private static <T> void add(Entry entry, Channel<T> channel, Aggregate aggregate, Converter converter) {
+		entry.contributions.add(new Contribution<>(channel, aggregate, converter));
+	}
+
+}
@@ -1,5 +1,7 @@
 package io.openems.edge.core.sum;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.osgi.service.component.ComponentContext;
@@ -8,17 +10,19 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventConstants;
 import org.osgi.service.event.EventHandler;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.openems.common.OpenemsConstants;
 import io.openems.common.channel.AccessMode;
 import io.openems.common.channel.Level;
-import io.openems.edge.common.channel.calculate.CalculateAverage;
-import io.openems.edge.common.channel.calculate.CalculateIntegerSum;
-import io.openems.edge.common.channel.calculate.CalculateLongSum;
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
 import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.ComponentManager;
@@ -26,18 +30,12 @@ import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.common.modbusslave.ModbusSlave;
 import io.openems.edge.common.modbusslave.ModbusSlaveTable;
+import io.openems.edge.common.sum.GridMode;
 import io.openems.edge.common.sum.Sum;
 import io.openems.edge.common.type.TypeUtils;
-import io.openems.edge.ess.api.AsymmetricEss;
-import io.openems.edge.ess.api.CalculateGridMode;
-import io.openems.edge.ess.api.MetaEss;
-import io.openems.edge.ess.api.SymmetricEss;
-import io.openems.edge.ess.dccharger.api.EssDcCharger;
-import io.openems.edge.meter.api.AsymmetricMeter;
-import io.openems.edge.meter.api.SymmetricMeter;
-import io.openems.edge.meter.api.VirtualMeter;
 import io.openems.edge.timedata.api.Timedata;
 
+@Designate(ocd = Config.class, factory = false)
 @Component(//
 		name = "Core.Sum", //
 		immediate = true, //
@@ -54,7 +52,24 @@ public class SumImpl extends AbstractOpenemsComponent implements Sum, OpenemsCom
 	@Reference
 	protected ComponentManager componentManager;
 
+	private final Logger log = LoggerFactory.getLogger(SumImpl.class);
 	private final EnergyValuesHandler energyValuesHandler;
+	private final SumAggregator aggregator = new SumAggregator();
+	private final List<UserSum> userSums = new ArrayList<>();
+
+	@Reference(name = "components", //
+			policy = ReferencePolicy.DYNAMIC, //
+			policyOption = ReferencePolicyOption.GREEDY, //
+			cardinality = ReferenceCardinality.MULTIPLE, //
+			target = "(&(enabled=true)(!(id=" + OpenemsConstants.SUM_ID + ")))", //
+			unbind = "removeComponent")
+	protected void addComponent(OpenemsComponent component) {
+		this.aggregator.addComponent(component);
+	}
+
+	protected void removeComponent(OpenemsComponent component) {
+		this.aggregator.removeComponent(component);
+	}
 
 	@Override
 	public ModbusSlaveTable getModbusSlaveTable(AccessMode accessMode) {
@@ -72,8 +87,18 @@ public class SumImpl extends AbstractOpenemsComponent implements Sum, OpenemsCom
 	}
 
 	@Activate
-	void activate(ComponentContext context) {
+	void activate(ComponentContext context, Config config) {
 		super.activate(context, OpenemsConstants.SUM_ID, "Sum", true);
+		for (String definition : config.additionalSums()) {
+			try {
+				UserSum userSum = UserSum.fromString(definition);
+				this.addChannel(userSum);
+				this.userSums.add(userSum);
+			} catch (OpenemsNamedException | IllegalArgumentException e) {
+				this.logWarn(this.log, "Unable to add sum: " + e.getMessage());
+			}
+		}
+		this.aggregator.addUserSums(this.userSums);
 		this.energyValuesHandler.activate();
 	}
 
@@ -97,223 +122,74 @@ public class SumImpl extends AbstractOpenemsComponent implements Sum, OpenemsCom
 	}
 
 	/**
-	 * Calculates the sum-value for each Channel.
+	 * Sets the sum-value for each Channel from the incrementally updated totals.
 	 */
 	private void calculateChannelValues() {
-		// Ess
-		final CalculateAverage essSoc = new CalculateAverage();
-		final CalculateIntegerSum essActivePower = new CalculateIntegerSum();
-		final CalculateIntegerSum essActivePowerL1 = new CalculateIntegerSum();
-		final CalculateIntegerSum essActivePowerL2 = new CalculateIntegerSum();
-		final CalculateIntegerSum essActivePowerL3 = new CalculateIntegerSum();
-		final CalculateIntegerSum essMaxApparentPower = new CalculateIntegerSum();
-		final CalculateGridMode essGridMode = new CalculateGridMode();
-		final CalculateLongSum essActiveChargeEnergy = new CalculateLongSum();
-		final CalculateLongSum essActiveDischargeEnergy = new CalculateLongSum();
-		final CalculateIntegerSum essCapacity = new CalculateIntegerSum();
-
-		// Grid
-		final CalculateIntegerSum gridActivePower = new CalculateIntegerSum();
-		final CalculateIntegerSum gridActivePowerL1 = new CalculateIntegerSum();
-		final CalculateIntegerSum gridActivePowerL2 = new CalculateIntegerSum();
-		final CalculateIntegerSum gridActivePowerL3 = new CalculateIntegerSum();
-		final CalculateIntegerSum gridMinActivePower = new CalculateIntegerSum();
-		final CalculateIntegerSum gridMaxActivePower = new CalculateIntegerSum();
-		final CalculateLongSum gridBuyActiveEnergy = new CalculateLongSum();
-		final CalculateLongSum gridSellActiveEnergy = new CalculateLongSum();
-
-		// Production
-		final CalculateIntegerSum productionAcActivePower = new CalculateIntegerSum();
-		final CalculateIntegerSum productionAcActivePowerL1 = new CalculateIntegerSum();
-		final CalculateIntegerSum productionAcActivePowerL2 = new CalculateIntegerSum();
-		final CalculateIntegerSum productionAcActivePowerL3 = new CalculateIntegerSum();
-		final CalculateIntegerSum productionMaxAcActivePower = new CalculateIntegerSum();
-		final CalculateIntegerSum productionDcActualPower = new CalculateIntegerSum();
-		final CalculateIntegerSum productionMaxDcActualPower = new CalculateIntegerSum();
-		final CalculateLongSum productionAcActiveEnergy = new CalculateLongSum();
-		final CalculateLongSum productionDcActiveEnergy = new CalculateLongSum();
-		// handling the corner-case of wrongly measured negative production, due to
-		// cabling errors, etc.
-		final CalculateLongSum productionAcActiveEnergyNegative = new CalculateLongSum();
-
-		for (OpenemsComponent component : this.componentManager.getEnabledComponents()) {
-			if (component instanceof SymmetricEss) {
-				/*
-				 * Ess
-				 */
-				SymmetricEss ess = (SymmetricEss) component;
-
-				if (ess instanceof MetaEss) {
-					// ignore this Ess
-					continue;
-				}
-				essSoc.addValue(ess.getSoc());
-				essActivePower.addValue(ess.getActivePower());
-				essMaxApparentPower.addValue(ess.getMaxApparentPower());
-				essGridMode.addValue(ess.getGridMode());
-				essActiveChargeEnergy.addValue(ess.getActiveChargeEnergy());
-				essActiveDischargeEnergy.addValue(ess.getActiveDischargeEnergy());
-				essCapacity.addValue(ess.getCapacity());
-
-				if (ess instanceof AsymmetricEss) {
-					AsymmetricEss e = (AsymmetricEss) ess;
-					essActivePowerL1.addValue(e.getActivePowerL1());
-					essActivePowerL2.addValue(e.getActivePowerL2());
-					essActivePowerL3.addValue(e.getActivePowerL3());
-				} else {
-					essActivePowerL1.addValue(ess.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-					essActivePowerL2.addValue(ess.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-					essActivePowerL3.addValue(ess.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-				}
-
-			} else if (component instanceof SymmetricMeter) {
-				if (component instanceof VirtualMeter) {
-					if (!((VirtualMeter) component).addToSum()) {
-						// Ignore VirtualMeter if "addToSum" is not activated (default)
-						continue;
-					}
-				}
-
-				/*
-				 * Meter
-				 */
-				SymmetricMeter meter = (SymmetricMeter) component;
-				switch (meter.getMeterType()) {
-				case PRODUCTION_AND_CONSUMPTION:
-					// TODO PRODUCTION_AND_CONSUMPTION
-					break;
-
-				case CONSUMPTION_METERED:
-					// TODO CONSUMPTION_METERED
-					break;
+		final SumAggregator a = this.aggregator;
 
-				case CONSUMPTION_NOT_METERED:
-					// TODO CONSUMPTION_NOT_METERED
-					break;
-
-				case GRID:
-					/*
-					 * Grid-Meter
-					 */
-					gridActivePower.addValue(meter.getActivePower());
-					gridMinActivePower.addValue(meter.getMinActivePower());
-					gridMaxActivePower.addValue(meter.getMaxActivePower());
-					gridBuyActiveEnergy.addValue(meter.getActiveProductionEnergy());
-					gridSellActiveEnergy.addValue(meter.getActiveConsumptionEnergy());
-
-					if (meter instanceof AsymmetricMeter) {
-						AsymmetricMeter m = (AsymmetricMeter) meter;
-						gridActivePowerL1.addValue(m.getActivePowerL1());
-						gridActivePowerL2.addValue(m.getActivePowerL2());
-						gridActivePowerL3.addValue(m.getActivePowerL3());
-					} else {
-						gridActivePowerL1.addValue(meter.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-						gridActivePowerL2.addValue(meter.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-						gridActivePowerL3.addValue(meter.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-					}
-					break;
-
-				case PRODUCTION:
-					/*
-					 * Production-Meter
-					 */
-					productionAcActivePower.addValue(meter.getActivePower());
-					productionMaxAcActivePower.addValue(meter.getMaxActivePower());
-					productionAcActiveEnergy.addValue(meter.getActiveProductionEnergy());
-					productionAcActiveEnergyNegative.addValue(meter.getActiveConsumptionEnergy());
-
-					if (meter instanceof AsymmetricMeter) {
-						AsymmetricMeter m = (AsymmetricMeter) meter;
-						productionAcActivePowerL1.addValue(m.getActivePowerL1());
-						productionAcActivePowerL2.addValue(m.getActivePowerL2());
-						productionAcActivePowerL3.addValue(m.getActivePowerL3());
-					} else {
-						productionAcActivePowerL1.addValue(meter.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-						productionAcActivePowerL2.addValue(meter.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-						productionAcActivePowerL3.addValue(meter.getActivePower(), CalculateIntegerSum.DIVIDE_BY_THREE);
-					}
-					break;
-
-				}
-
-			} else if (component instanceof EssDcCharger) {
-				/*
-				 * Ess DC-Charger
-				 */
-				EssDcCharger charger = (EssDcCharger) component;
-				productionDcActualPower.addValue(charger.getActualPower());
-				productionMaxDcActualPower.addValue(charger.getMaxActualPower());
-				productionDcActiveEnergy.addValue(charger.getActualEnergy());
-			}
-		}
-
-		/*
-		 * Set values
-		 */
 		// Ess
-		this.getEssSoc().setNextValue(essSoc.calculate());
-		Integer essActivePowerSum = essActivePower.calculate();
+		this.getEssSoc().setNextValue(a.essSoc.getAverage());
+		Long essActivePowerSum = a.essActivePower.getSum();
 		this.getEssActivePower().setNextValue(essActivePowerSum);
-		Integer essActivePowerL1Sum = essActivePowerL1.calculate();
+		Long essActivePowerL1Sum = a.essActivePowerL1.getSum();
 		this.getEssActivePowerL1().setNextValue(essActivePowerL1Sum);
-		Integer essActivePowerL2Sum = essActivePowerL2.calculate();
+		Long essActivePowerL2Sum = a.essActivePowerL2.getSum();
 		this.getEssActivePowerL2().setNextValue(essActivePowerL2Sum);
-		Integer essActivePowerL3Sum = essActivePowerL3.calculate();
+		Long essActivePowerL3Sum = a.essActivePowerL3.getSum();
 		this.getEssActivePowerL3().setNextValue(essActivePowerL3Sum);
-		Integer essMaxApparentPowerSum = essMaxApparentPower.calculate();
+		Long essMaxApparentPowerSum = a.essMaxApparentPower.getSum();
 		this.getEssMaxApparentPower().setNextValue(essMaxApparentPowerSum);
-		this.getGridMode().setNextValue(essGridMode.calculate());
+		this.getGridMode().setNextValue(calculateGridMode(a.essOnGrid, a.essOffGrid));
 
-		Long essActiveChargeEnergySum = essActiveChargeEnergy.calculate();
+		Long essActiveChargeEnergySum = a.essActiveChargeEnergy.getSum();
 		this.energyValuesHandler.setValue(Sum.ChannelId.ESS_ACTIVE_CHARGE_ENERGY, essActiveChargeEnergySum);
-		Long essActiveDischargeEnergySum = essActiveDischargeEnergy.calculate();
+		Long essActiveDischargeEnergySum = a.essActiveDischargeEnergy.getSum();
 		this.energyValuesHandler.setValue(Sum.ChannelId.ESS_ACTIVE_DISCHARGE_ENERGY, essActiveDischargeEnergySum);
 
-		Integer essCapacitySum = essCapacity.calculate();
-		this.getEssCapacity().setNextValue(essCapacitySum);
+		this.getEssCapacity().setNextValue(a.essCapacity.getSum());
 
 		// Grid
-		Integer gridActivePowerSum = gridActivePower.calculate();
+		Long gridActivePowerSum = a.gridActivePower.getSum();
 		this.getGridActivePower().setNextValue(gridActivePowerSum);
-		Integer gridActivePowerL1Sum = gridActivePowerL1.calculate();
+		Long gridActivePowerL1Sum = a.gridActivePowerL1.getSum();
 		this.getGridActivePowerL1().setNextValue(gridActivePowerL1Sum);
-		Integer gridActivePowerL2Sum = gridActivePowerL2.calculate();
+		Long gridActivePowerL2Sum = a.gridActivePowerL2.getSum();
 		this.getGridActivePowerL2().setNextValue(gridActivePowerL2Sum);
-		Integer gridActivePowerL3Sum = gridActivePowerL3.calculate();
+		Long gridActivePowerL3Sum = a.gridActivePowerL3.getSum();
 		this.getGridActivePowerL3().setNextValue(gridActivePowerL3Sum);
-		this.getGridMinActivePower().setNextValue(gridMinActivePower.calculate());
-		Integer gridMaxActivePowerSum = gridMaxActivePower.calculate();
+		this.getGridMinActivePower().setNextValue(a.gridMinActivePower.getSum());
+		Long gridMaxActivePowerSum = a.gridMaxActivePower.getSum();
 		this.getGridMaxActivePower().setNextValue(gridMaxActivePowerSum);
 
-		Long gridBuyActiveEnergySum = gridBuyActiveEnergy.calculate();
+		Long gridBuyActiveEnergySum = a.gridBuyActiveEnergy.getSum();
 		this.energyValuesHandler.setValue(Sum.ChannelId.GRID_BUY_ACTIVE_ENERGY, gridBuyActiveEnergySum);
-		Long gridSellActiveEnergySum = gridSellActiveEnergy.calculate();
+		Long gridSellActiveEnergySum = a.gridSellActiveEnergy.getSum();
 		this.energyValuesHandler.setValue(Sum.ChannelId.GRID_SELL_ACTIVE_ENERGY, gridSellActiveEnergySum);
 
 		// Production
-		Integer productionAcActivePowerSum = productionAcActivePower.calculate();
+		Long productionAcActivePowerSum = a.productionAcActivePower.getSum();
 		this.getProductionAcActivePower().setNextValue(productionAcActivePowerSum);
-		Integer productionAcActivePowerL1Sum = productionAcActivePowerL1.calculate();
+		Long productionAcActivePowerL1Sum = a.productionAcActivePowerL1.getSum();
 		this.getProductionAcActivePowerL1().setNextValue(productionAcActivePowerL1Sum);
-		Integer productionAcActivePowerL2Sum = productionAcActivePowerL2.calculate();
+		Long productionAcActivePowerL2Sum = a.productionAcActivePowerL2.getSum();
 		this.getProductionAcActivePowerL2().setNextValue(productionAcActivePowerL2Sum);
-		Integer productionAcActivePowerL3Sum = productionAcActivePowerL3.calculate();
+		Long productionAcActivePowerL3Sum = a.productionAcActivePowerL3.getSum();
 		this.getProductionAcActivePowerL3().setNextValue(productionAcActivePowerL3Sum);
-		Integer productionDcActualPowerSum = productionDcActualPower.calculate();
+		Long productionDcActualPowerSum = a.productionDcActualPower.getSum();
 		this.getProductionDcActualPower().setNextValue(productionDcActualPowerSum);
 		this.getProductionActivePower()
 				.setNextValue(TypeUtils.sum(productionAcActivePowerSum, productionDcActualPowerSum));
 
-		Integer productionMaxAcActivePowerSum = productionMaxAcActivePower.calculate();
+		Long productionMaxAcActivePowerSum = a.productionMaxAcActivePower.getSum();
 		this.getProductionMaxAcActivePower().setNextValue(productionMaxAcActivePowerSum);
-		Integer productionMaxDcActualPowerSum = productionMaxDcActualPower.calculate();
+		Long productionMaxDcActualPowerSum = a.productionMaxDcActualPower.getSum();
 		this.getProductionMaxDcActualPower().setNextValue(productionMaxDcActualPowerSum);
 		this.getProductionMaxActivePower()
 				.setNextValue(TypeUtils.sum(productionMaxAcActivePowerSum, productionMaxDcActualPowerSum));
 
-		Long productionAcActiveEnergySum = productionAcActiveEnergy.calculate();
+		Long productionAcActiveEnergySum = a.productionAcActiveEnergy.getSum();
 		this.energyValuesHandler.setValue(Sum.ChannelId.PRODUCTION_AC_ACTIVE_ENERGY, productionAcActiveEnergySum);
-		Long productionDcActiveEnergySum = productionDcActiveEnergy.calculate();
+		Long productionDcActiveEnergySum = a.productionDcActiveEnergy.getSum();
 		this.energyValuesHandler.setValue(Sum.ChannelId.PRODUCTION_DC_ACTIVE_ENERGY, productionDcActiveEnergySum);
 		Long productionActiveEnergySum = TypeUtils.sum(productionAcActiveEnergySum, productionDcActiveEnergySum);
 		this.energyValuesHandler.setValue(Sum.ChannelId.PRODUCTION_ACTIVE_ENERGY, productionActiveEnergySum);
@@ -333,9 +209,35 @@ public class SumImpl extends AbstractOpenemsComponent implements Sum, OpenemsCom
 		Long enterTheSystem = TypeUtils.sum(essActiveDischargeEnergySum, gridBuyActiveEnergySum,
 				productionActiveEnergySum);
 		Long leaveTheSystem = TypeUtils.sum(essActiveChargeEnergySum, gridSellActiveEnergySum,
-				/* handling corner-case */ productionAcActiveEnergyNegative.calculate());
+				/* handling corner-case */ a.productionAcActiveEnergyNegative.getSum());
 		this.energyValuesHandler.setValue(Sum.ChannelId.CONSUMPTION_ACTIVE_ENERGY,
 				Optional.ofNullable(enterTheSystem).orElse(0L) - Optional.ofNullable(leaveTheSystem).orElse(0L));
+
+		// User-defined sums
+		for (UserSum userSum : this.userSums) {
+			this.channel(userSum).setNextValue(userSum.getAggregate().getSum());
+		}
+	}
+
+	/**
+	 * Finds the effective Grid-Mode of all Ess.
+	 *
+	 * @param onGrid  the number of On-Grid Ess; the count is the number of Ess
+	 * @param offGrid the number of Off-Grid Ess
+	 * @return the {@link GridMode}
+	 */
+	private static GridMode calculateGridMode(Aggregate onGrid, Aggregate offGrid) {
+		int count = onGrid.getDefinedCount();
+		Long onGrids = onGrid.getSum();
+		Long offGrids = offGrid.getSum();
+		GridMode result = GridMode.UNDEFINED;
+		if (onGrids == null || onGrids == count) {
+			result = GridMode.ON_GRID;
+		}
+		if (offGrids == null || offGrids == count) {
+			result = GridMode.OFF_GRID;
+		}
+		return result;
 	}
 
 	/**
@@ -0,0 +1,77 @@
+package io.openems.edge.core.sum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.ChannelId;
+import io.openems.edge.common.channel.Doc;
+
+/**
+ * A sum Channel that is declared by configuration, in the format
+ * 'ChannelId=component0/Channel0,component1/Channel1'.
+ */
+class UserSum implements ChannelId {
+
+	/**
+	 * Parses a configuration entry.
+	 *
+	 * @param definition the definition, e.g.
+	 *                   'HeatPumpActivePower=meter5/ActivePower,meter6/ActivePower'
+	 * @return the {@link UserSum}
+	 * @throws OpenemsNamedException on parse error
+	 */
+	static UserSum fromString(String definition) throws OpenemsNamedException {
+		String[] parts = definition.split("=", 2);
+		if (parts.length != 2 || !parts[0].trim().matches("[A-Z][A-Za-z0-9]*")) {
+			throw new OpenemsException("Sum definition [" + definition + "] is invalid. "
+					+ "Expected 'ChannelId=component0/Channel0,component1/Channel1'");
+		}
+		List<ChannelAddress> sources = new ArrayList<>();
+		for (String source : parts[1].split(",")) {
+			if (!source.trim().isEmpty()) {
+				sources.add(ChannelAddress.fromString(source.trim()));
+			}
+		}
+		return new UserSum(parts[0].trim(), sources);
+	}
+
+	private final String id;
+	private final List<ChannelAddress> sources;
+	private final Doc doc = Doc.of(OpenemsType.LONG);
+	private final Aggregate aggregate = new Aggregate();
+
+	private UserSum(String id, List<ChannelAddress> sources) {
+		this.id = id;
+		this.sources = Collections.unmodifiableList(sources);
+	}
+
+	@Override
+	public String name() {
+		return this.id.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+	}
+
+	@Override
+	public String id() {
+		// keep the configured spelling
+		return this.id;
+	}
+
+	@Override
+	public Doc doc() {
+		return this.doc;
+	}
+
+	List<ChannelAddress> getSources() {
+		return this.sources;
+	}
+
+	Aggregate getAggregate() {
+		return this.aggregate;
+	}
+
+}
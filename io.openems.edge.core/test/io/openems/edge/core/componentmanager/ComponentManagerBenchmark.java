@@ -0,0 +1,116 @@
+package io.openems.edge.core.componentmanager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.types.ChannelAddress;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.test.DummyComponentManager;
+
+/**
+ * Compares Channel lookups by linear scan (the default implementation in
+ * {@link io.openems.edge.common.component.ComponentManager}) with the indexed
+ * lookups of {@link ComponentManagerImpl}.
+ *
+ * <p>
+ * Run via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentManagerBenchmark {
+
+	private static final int CHANNELS_PER_QUERY = 20;
+
+	@Param({ "50", "500", "5000" })
+	public int components;
+
+	private DummyComponentManager linear;
+	private ComponentManagerImpl indexed;
+	private ChannelAddress[] addresses;
+	private Set<ChannelAddress> query;
+	private int next = 0;
+
+	private static class BenchmarkComponent extends AbstractOpenemsComponent {
+		private BenchmarkComponent(String id) {
+			super(OpenemsComponent.ChannelId.values());
+			super.activate(null, id, "", true);
+		}
+	}
+
+	@Setup
+	public void setup() {
+		this.linear = new DummyComponentManager();
+		this.indexed = new ComponentManagerImpl();
+		this.addresses = new ChannelAddress[this.components];
+		for (int i = 0; i < this.components; i++) {
+			BenchmarkComponent component = new BenchmarkComponent("component" + i);
+			this.linear.addComponent(component);
+			this.indexed.addEnabledComponent(component);
+			this.addresses[i] = new ChannelAddress(component.id(), OpenemsComponent.ChannelId.STATE.id());
+		}
+		// spread the queried Channels over all Components
+		this.query = new HashSet<>();
+		for (int i = 0; i < CHANNELS_PER_QUERY; i++) {
+			this.query.add(this.addresses[i * this.components / CHANNELS_PER_QUERY]);
+		}
+	}
+
+	private ChannelAddress nextAddress() {
+		this.next = (this.next + 1) % this.addresses.length;
+		return this.addresses[this.next];
+	}
+
+	@Benchmark
+	public Object linearGetChannel() throws OpenemsNamedException {
+		return this.linear.getChannel(this.nextAddress());
+	}
+
+	@Benchmark
+	public Object indexedGetChannel() throws OpenemsNamedException {
+		return this.indexed.getChannel(this.nextAddress());
+	}
+
+	@Benchmark
+	public void linearGetChannels(Blackhole blackhole) throws OpenemsNamedException {
+		for (ChannelAddress address : this.query) {
+			blackhole.consume(this.linear.getChannel(address));
+		}
+	}
+
+	@Benchmark
+	public Object indexedGetChannels() {
+		return this.indexed.getChannels(this.query);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder() //
+				.include(ComponentManagerBenchmark.class.getSimpleName()) //
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,168 @@
+package io.openems.edge.core.componentmanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.service.component.ComponentContext;
+
+import io.openems.common.jsonrpc.response.GetEdgeConfigDiffResponse;
+import io.openems.common.types.EdgeConfig;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+
+public class EdgeConfigCacheTest {
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+		private final ComponentContext context;
+
+		private DummyComponent(String id) {
+			super(OpenemsComponent.ChannelId.values());
+			super.activate(null, id, "", true);
+			Hashtable<String, Object> properties = new Hashtable<>();
+			properties.put("id", id);
+			this.context = (ComponentContext) Proxy.newProxyInstance(ComponentContext.class.getClassLoader(),
+					new Class<?>[] { ComponentContext.class }, (proxy, method, args) -> {
+						if (method.getName().equals("getProperties")) {
+							return properties;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					});
+		}
+
+		@Override
+		public ComponentContext getComponentContext() {
+			return this.context;
+		}
+	}
+
+	private static class DummyComponentManagerImpl extends ComponentManagerImpl {
+		private final List<OpenemsComponent> components = new ArrayList<>();
+
+		@Override
+		protected Bundle[] getBundles() {
+			return new Bundle[0];
+		}
+
+		@Override
+		public List<OpenemsComponent> getAllComponents() {
+			return this.components;
+		}
+	}
+
+	private DummyComponentManagerImpl parent;
+	private EdgeConfigCache cache;
+
+	@Before
+	public void before() {
+		this.parent = new DummyComponentManagerImpl();
+		this.cache = new EdgeConfigCache(this.parent, 2);
+	}
+
+	@Test
+	public void testUnchangedConfigIsShared() {
+		this.parent.components.add(new DummyComponent("meter0"));
+
+		EdgeConfig config = this.cache.getEdgeConfig();
+		assertSame(config, this.cache.getEdgeConfig());
+		assertTrue(config.getComponents().containsKey("meter0"));
+	}
+
+	@Test
+	public void testDiff() {
+		this.parent.components.add(new DummyComponent("meter0"));
+		long version = this.cache.getDiff(UUID.randomUUID(), 0).getVersion();
+
+		// nothing changed
+		GetEdgeConfigDiffResponse diff = this.cache.getDiff(UUID.randomUUID(), version);
+		assertFalse(diff.isComplete());
+		assertEquals(version, diff.getVersion());
+		assertTrue(diff.getChanges().getComponents().isEmpty());
+
+		// Component added
+		this.parent.components.add(new DummyComponent("meter1"));
+		diff = this.cache.getDiff(UUID.randomUUID(), version);
+		assertFalse(diff.isComplete());
+		assertEquals(1, diff.getChanges().getComponents().size());
+		assertTrue(diff.getChanges().getComponents().containsKey("meter1"));
+
+		// unknown version
+		assertTrue(this.cache.getDiff(UUID.randomUUID(), diff.getVersion() + 1).isComplete());
+	}
+
+	@Test
+	public void testRemovedComponentIsReportedAndForgotten() {
+		DummyComponent meter0 = new DummyComponent("meter0");
+		this.parent.components.add(meter0);
+		long version0 = this.cache.getDiff(UUID.randomUUID(), 0).getVersion();
+
+		// removal is reported
+		this.parent.components.remove(meter0);
+		GetEdgeConfigDiffResponse diff = this.cache.getDiff(UUID.randomUUID(), version0);
+		assertFalse(diff.isComplete());
+		assertTrue(diff.getChanges().getComponents().isEmpty());
+		assertEquals(1, diff.getRemovedComponents().size());
+		assertTrue(diff.getRemovedComponents().contains("meter0"));
+		long version1 = diff.getVersion();
+
+		// ...but only to clients that did not know it yet
+		diff = this.cache.getDiff(UUID.randomUUID(), version1);
+		assertFalse(diff.isComplete());
+		assertTrue(diff.getRemovedComponents().isEmpty());
+
+		// re-adding forgets the removal
+		this.parent.components.add(meter0);
+		diff = this.cache.getDiff(UUID.randomUUID(), version0);
+		assertFalse(diff.isComplete());
+		assertTrue(diff.getRemovedComponents().isEmpty());
+		assertTrue(diff.getChanges().getComponents().containsKey("meter0"));
+	}
+
+	@Test
+	public void testOldestRemovalIsForgotten() {
+		DummyComponent meter0 = new DummyComponent("meter0");
+		DummyComponent meter1 = new DummyComponent("meter1");
+		DummyComponent meter2 = new DummyComponent("meter2");
+		this.parent.components.add(meter0);
+		this.parent.components.add(meter1);
+		this.parent.components.add(meter2);
+		long version0 = this.cache.getDiff(UUID.randomUUID(), 0).getVersion();
+
+		this.parent.components.remove(meter0);
+		long version1 = this.cache.getDiff(UUID.randomUUID(), version0).getVersion();
+		this.parent.components.remove(meter1);
+		long version2 = this.cache.getDiff(UUID.randomUUID(), version1).getVersion();
+		GetEdgeConfigDiffResponse diff = this.cache.getDiff(UUID.randomUUID(), version0);
+		assertFalse(diff.isComplete());
+		assertEquals(2, diff.getRemovedComponents().size());
+
+		// third removal exceeds the limit of two -> 'meter0' is forgotten
+		this.parent.components.remove(meter2);
+		diff = this.cache.getDiff(UUID.randomUUID(), version1);
+		assertFalse(diff.isComplete());
+		assertEquals(2, diff.getRemovedComponents().size());
+		assertTrue(diff.getRemovedComponents().contains("meter1"));
+		assertTrue(diff.getRemovedComponents().contains("meter2"));
+
+		// clients that might not know about the removal of 'meter0' get everything
+		diff = this.cache.getDiff(UUID.randomUUID(), version0);
+		assertTrue(diff.isComplete());
+		assertTrue(diff.getChanges().getComponents().isEmpty());
+
+		diff = this.cache.getDiff(UUID.randomUUID(), version2);
+		assertFalse(diff.isComplete());
+		assertEquals(1, diff.getRemovedComponents().size());
+		assertTrue(diff.getRemovedComponents().contains("meter2"));
+	}
+
+}
@@ -0,0 +1,186 @@
+package io.openems.edge.core.cycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+
+import io.openems.edge.common.event.CyclePhase;
+import io.openems.edge.common.event.CyclePhaseHandler;
+import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.core.cycle.CycleDispatcher.HandlerTiming;
+
+public class CycleDispatcherTest {
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private class DummyEventAdmin implements EventAdmin {
+		private long sleepMillis = 0;
+
+		@Override
+		public void postEvent(Event event) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void sendEvent(Event event) {
+			CycleDispatcherTest.this.calls.add(event.getTopic());
+			sleep(this.sleepMillis);
+		}
+	}
+
+	private class DummyHandler implements CyclePhaseHandler {
+		private final String name;
+		private final Set<CyclePhase> phases;
+		private long sleepMillis = 0;
+		private boolean fail = false;
+
+		private DummyHandler(String name, CyclePhase first, CyclePhase... rest) {
+			this.name = name;
+			this.phases = EnumSet.of(first, rest);
+		}
+
+		@Override
+		public Set<CyclePhase> getCyclePhases() {
+			return this.phases;
+		}
+
+		@Override
+		public void handleCyclePhase(CyclePhase phase) {
+			CycleDispatcherTest.this.calls.add(this.name + ":" + phase.name());
+			sleep(this.sleepMillis);
+			if (this.fail) {
+				throw new IllegalStateException("failed");
+			}
+		}
+	}
+
+	private final List<String> calls = new ArrayList<>();
+	private CycleImpl cycle;
+	private DummyEventAdmin eventAdmin;
+	private CycleDispatcher dispatcher;
+
+	@Before
+	public void before() {
+		this.cycle = new CycleImpl();
+		this.eventAdmin = new DummyEventAdmin();
+		this.cycle.eventAdmin = this.eventAdmin;
+		this.dispatcher = new CycleDispatcher(this.cycle);
+	}
+
+	@Test
+	public void testOrder() {
+		this.dispatcher.addHandler(new DummyHandler("handler0", CyclePhase.BEFORE_PROCESS_IMAGE));
+		this.dispatcher.addHandler(
+				new DummyHandler("handler1", CyclePhase.BEFORE_PROCESS_IMAGE, CyclePhase.AFTER_WRITE));
+
+		this.dispatcher.dispatch(CyclePhase.BEFORE_PROCESS_IMAGE);
+		this.dispatcher.dispatch(CyclePhase.BEFORE_CONTROLLERS);
+		this.dispatcher.dispatch(CyclePhase.AFTER_WRITE);
+
+		List<String> expected = new ArrayList<>();
+		expected.add(EdgeEventConstants.TOPIC_CYCLE_BEFORE_PROCESS_IMAGE);
+		expected.add("handler0:BEFORE_PROCESS_IMAGE");
+		expected.add("handler1:BEFORE_PROCESS_IMAGE");
+		expected.add(EdgeEventConstants.TOPIC_CYCLE_BEFORE_CONTROLLERS);
+		expected.add(EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE);
+		expected.add("handler1:AFTER_WRITE");
+		assertEquals(expected, this.calls);
+	}
+
+	@Test
+	public void testRemoveHandler() {
+		DummyHandler handler0 = new DummyHandler("handler0", CyclePhase.AFTER_CONTROLLERS);
+		this.dispatcher.addHandler(handler0);
+		this.dispatcher.removeHandler(handler0);
+
+		this.dispatcher.dispatch(CyclePhase.AFTER_CONTROLLERS);
+
+		assertEquals(1, this.calls.size());
+		for (HandlerTiming timing : this.dispatcher.getSlowestHandlers()) {
+			assertEquals("EventAdmin", timing.getHandler());
+		}
+	}
+
+	@Test
+	public void testFailingHandlerDoesNotStopOthers() {
+		DummyHandler handler0 = new DummyHandler("handler0", CyclePhase.EXECUTE_WRITE);
+		handler0.fail = true;
+		this.dispatcher.addHandler(handler0);
+		this.dispatcher.addHandler(new DummyHandler("handler1", CyclePhase.EXECUTE_WRITE));
+
+		this.dispatcher.dispatch(CyclePhase.EXECUTE_WRITE);
+
+		assertTrue(this.calls.contains("handler1:EXECUTE_WRITE"));
+	}
+
+	@Test
+	public void testSlowestHandler() {
+		DummyHandler handler0 = new DummyHandler("handler0", CyclePhase.AFTER_PROCESS_IMAGE);
+		handler0.sleepMillis = 20;
+		this.dispatcher.addHandler(handler0);
+		this.dispatcher.addHandler(new DummyHandler("handler1", CyclePhase.AFTER_PROCESS_IMAGE));
+
+		for (CyclePhase phase : CyclePhase.values()) {
+			this.dispatcher.dispatch(phase);
+		}
+		this.dispatcher.finishCycle();
+
+		// handlers that are no OpenemsComponent are named by their class
+		assertEquals("DummyHandler:AFTER_PROCESS_IMAGE",
+				this.cycle.channel(Cycle.ChannelId.SLOWEST_CYCLE_HANDLER).getNextValue().get());
+		int duration = (Integer) this.cycle.channel(Cycle.ChannelId.SLOWEST_CYCLE_HANDLER_DURATION).getNextValue()
+				.get();
+		assertTrue(duration >= 20);
+
+		List<HandlerTiming> timings = this.dispatcher.getSlowestHandlers();
+		assertEquals(CyclePhase.values().length + 2, timings.size());
+		HandlerTiming slowest = timings.get(0);
+		assertEquals("DummyHandler", slowest.getHandler());
+		assertEquals(CyclePhase.AFTER_PROCESS_IMAGE, slowest.getPhase());
+		assertEquals(1, slowest.getCount());
+		assertTrue(slowest.getMaxNanos() >= 20_000_000);
+		assertEquals(slowest.getMaxNanos(), slowest.getAverageNanos());
+
+		// returned timings are copies that are not updated anymore
+		this.dispatcher.dispatch(CyclePhase.AFTER_PROCESS_IMAGE);
+		assertEquals(1, slowest.getCount());
+		assertEquals(2, this.dispatcher.getSlowestHandlers().get(0).getCount());
+	}
+
+	@Test
+	public void testSlowEventAdmin() {
+		this.dispatcher.addHandler(new DummyHandler("handler0", CyclePhase.BEFORE_WRITE));
+		this.eventAdmin.sleepMillis = 20;
+
+		this.dispatcher.dispatch(CyclePhase.BEFORE_WRITE);
+		this.dispatcher.finishCycle();
+
+		assertEquals("EventAdmin:BEFORE_WRITE",
+				this.cycle.channel(Cycle.ChannelId.SLOWEST_CYCLE_HANDLER).getNextValue().get());
+		HandlerTiming slowest = this.dispatcher.getSlowestHandlers().get(0);
+		assertEquals("EventAdmin", slowest.getHandler());
+		assertEquals(CyclePhase.BEFORE_WRITE, slowest.getPhase());
+
+		// reset after every Cycle
+		this.eventAdmin.sleepMillis = 0;
+		this.dispatcher.finishCycle();
+		assertFalse(this.cycle.channel(Cycle.ChannelId.SLOWEST_CYCLE_HANDLER).getNextValue().isDefined());
+	}
+
+}
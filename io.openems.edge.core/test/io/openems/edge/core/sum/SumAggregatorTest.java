@@ -0,0 +1,170 @@
+package io.openems.edge.core.sum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.openems.edge.common.sum.GridMode;
+import io.openems.edge.ess.api.SymmetricEss;
+import io.openems.edge.ess.test.DummyManagedSymmetricEss;
+import io.openems.edge.meter.api.SymmetricMeter;
+import io.openems.edge.meter.test.DummySymmetricMeter;
+
+public class SumAggregatorTest {
+
+	private SumAggregator aggregator;
+	private DummyManagedSymmetricEss ess0;
+	private DummyManagedSymmetricEss ess1;
+	private DummySymmetricMeter meter0;
+
+	@Before
+	public void before() {
+		this.aggregator = new SumAggregator();
+		this.ess0 = new DummyManagedSymmetricEss("ess0");
+		this.ess1 = new DummyManagedSymmetricEss("ess1");
+		this.meter0 = new DummySymmetricMeter("meter0");
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(1000);
+		this.aggregator.addComponent(this.ess0);
+		assertEquals(Long.valueOf(1000), this.aggregator.essActivePower.getSum());
+
+		// values set before and after adding are both followed
+		this.aggregator.addComponent(this.ess1);
+		this.ess1.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(-400);
+		assertEquals(Long.valueOf(600), this.aggregator.essActivePower.getSum());
+		assertEquals(2, this.aggregator.essActivePower.getDefinedCount());
+
+		// a new value replaces the previous one
+		this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(2000);
+		assertEquals(Long.valueOf(1600), this.aggregator.essActivePower.getSum());
+
+		// undefined values are not counted
+		this.ess1.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(null);
+		assertEquals(Long.valueOf(2000), this.aggregator.essActivePower.getSum());
+		assertEquals(1, this.aggregator.essActivePower.getDefinedCount());
+
+		// removing subtracts the value
+		this.ess1.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(-400);
+		this.aggregator.removeComponent(this.ess0);
+		assertEquals(Long.valueOf(-400), this.aggregator.essActivePower.getSum());
+		this.aggregator.removeComponent(this.ess1);
+		assertNull(this.aggregator.essActivePower.getSum());
+		assertNull(this.aggregator.essActivePower.getAverage());
+
+		// removed Components are not followed anymore
+		this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(3000);
+		assertNull(this.aggregator.essActivePower.getSum());
+	}
+
+	@Test
+	public void testReAddReplacesPreviousComponent() {
+		this.ess0.channel(SymmetricEss.ChannelId.SOC).setNextValue(40);
+		this.aggregator.addComponent(this.ess0);
+
+		// same ID, e.g. after a configuration update
+		DummyManagedSymmetricEss newEss0 = new DummyManagedSymmetricEss("ess0");
+		newEss0.channel(SymmetricEss.ChannelId.SOC).setNextValue(60);
+		this.aggregator.addComponent(newEss0);
+		assertEquals(Long.valueOf(60), this.aggregator.essSoc.getSum());
+		assertEquals(1, this.aggregator.essSoc.getDefinedCount());
+
+		// late unbind of the old instance is ignored
+		this.aggregator.removeComponent(this.ess0);
+		assertEquals(Long.valueOf(60), this.aggregator.essSoc.getSum());
+	}
+
+	@Test
+	public void testAverage() {
+		this.ess0.channel(SymmetricEss.ChannelId.SOC).setNextValue(40);
+		this.ess1.channel(SymmetricEss.ChannelId.SOC).setNextValue(61);
+		this.aggregator.addComponent(this.ess0);
+		this.aggregator.addComponent(this.ess1);
+		assertEquals(50.5, this.aggregator.essSoc.getAverage(), 0);
+	}
+
+	@Test
+	public void testLateCallbackAfterRemove() {
+		Aggregate aggregate = new Aggregate();
+		Contribution<Integer> contribution = new Contribution<>(
+				this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER), aggregate, Contribution.Converter.DIRECT);
+		contribution.add();
+		this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(1000);
+		assertEquals(Long.valueOf(1000), aggregate.getSum());
+
+		contribution.remove();
+		assertNull(aggregate.getSum());
+
+		// a callback that was already running while the Contribution was removed
+		contribution.accept(this.ess0.getActivePower().getNextValue());
+		assertNull(aggregate.getSum());
+		assertEquals(0, aggregate.getDefinedCount());
+	}
+
+	@Test
+	public void testDivideByThree() {
+		this.meter0.channel(SymmetricMeter.ChannelId.ACTIVE_POWER).setNextValue(1000);
+		this.aggregator.addComponent(this.meter0);
+		assertEquals(Long.valueOf(1000), this.aggregator.gridActivePower.getSum());
+		assertEquals(Long.valueOf(333), this.aggregator.gridActivePowerL1.getSum());
+		assertEquals(Long.valueOf(333), this.aggregator.gridActivePowerL2.getSum());
+		assertEquals(Long.valueOf(333), this.aggregator.gridActivePowerL3.getSum());
+
+		// rounded, not truncated
+		this.meter0.channel(SymmetricMeter.ChannelId.ACTIVE_POWER).setNextValue(-1001);
+		assertEquals(Long.valueOf(-334), this.aggregator.gridActivePowerL1.getSum());
+		this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(2);
+		this.aggregator.addComponent(this.ess0);
+		assertEquals(Long.valueOf(1), this.aggregator.essActivePowerL1.getSum());
+
+		this.meter0.channel(SymmetricMeter.ChannelId.ACTIVE_POWER).setNextValue(null);
+		assertNull(this.aggregator.gridActivePowerL1.getSum());
+	}
+
+	@Test
+	public void testGridMode() {
+		this.aggregator.addComponent(this.ess0);
+		this.aggregator.addComponent(this.ess1);
+
+		// always defined, even if the GridMode is undefined
+		assertEquals(Long.valueOf(0), this.aggregator.essOnGrid.getSum());
+		assertEquals(Long.valueOf(0), this.aggregator.essOffGrid.getSum());
+		assertEquals(2, this.aggregator.essOnGrid.getDefinedCount());
+
+		this.ess0.channel(SymmetricEss.ChannelId.GRID_MODE).setNextValue(GridMode.ON_GRID);
+		this.ess1.channel(SymmetricEss.ChannelId.GRID_MODE).setNextValue(GridMode.OFF_GRID);
+		assertEquals(Long.valueOf(1), this.aggregator.essOnGrid.getSum());
+		assertEquals(Long.valueOf(1), this.aggregator.essOffGrid.getSum());
+
+		this.ess1.channel(SymmetricEss.ChannelId.GRID_MODE).setNextValue(GridMode.ON_GRID);
+		assertEquals(Long.valueOf(2), this.aggregator.essOnGrid.getSum());
+		assertEquals(Long.valueOf(0), this.aggregator.essOffGrid.getSum());
+
+		this.aggregator.removeComponent(this.ess1);
+		assertEquals(Long.valueOf(1), this.aggregator.essOnGrid.getSum());
+		assertEquals(1, this.aggregator.essOnGrid.getDefinedCount());
+	}
+
+	@Test
+	public void testUserSum() throws Exception {
+		UserSum userSum = UserSum.fromString("EssAndGridActivePower=ess0/ActivePower, meter0/ActivePower");
+		this.ess0.channel(SymmetricEss.ChannelId.ACTIVE_POWER).setNextValue(1000);
+		this.meter0.channel(SymmetricMeter.ChannelId.ACTIVE_POWER).setNextValue(500);
+
+		// Components that were added before and after the UserSum are both followed
+		this.aggregator.addComponent(this.ess0);
+		this.aggregator.addUserSums(Arrays.asList(userSum));
+		this.aggregator.addComponent(this.meter0);
+		assertEquals(Long.valueOf(1500), userSum.getAggregate().getSum());
+
+		this.aggregator.removeComponent(this.meter0);
+		assertEquals(Long.valueOf(1000), userSum.getAggregate().getSum());
+	}
+
+}
@@ -0,0 +1,53 @@
+package io.openems.edge.core.sum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.types.ChannelAddress;
+
+public class UserSumTest {
+
+	private static void assertInvalid(String definition) {
+		try {
+			UserSum.fromString(definition);
+			fail("Expected [" + definition + "] to be invalid");
+		} catch (OpenemsNamedException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testFromString() throws OpenemsNamedException {
+		UserSum userSum = UserSum.fromString(" HeatPumpActivePower = meter5/ActivePower,meter6/ActivePower ");
+		assertEquals("HeatPumpActivePower", userSum.id());
+		assertEquals("HEAT_PUMP_ACTIVE_POWER", userSum.name());
+		assertEquals(Arrays.asList(new ChannelAddress("meter5", "ActivePower"),
+				new ChannelAddress("meter6", "ActivePower")), userSum.getSources());
+
+		// empty sources are ignored
+		userSum = UserSum.fromString("Sum2=meter5/ActivePower,,");
+		assertEquals("Sum2", userSum.id());
+		assertEquals(Collections.singletonList(new ChannelAddress("meter5", "ActivePower")), userSum.getSources());
+
+		userSum = UserSum.fromString("Empty=");
+		assertEquals(Collections.emptyList(), userSum.getSources());
+	}
+
+	@Test
+	public void testFromStringInvalid() {
+		assertInvalid("");
+		assertInvalid("HeatPumpActivePower");
+		assertInvalid("=meter5/ActivePower");
+		assertInvalid("heatPumpActivePower=meter5/ActivePower");
+		assertInvalid("HeatPump-ActivePower=meter5/ActivePower");
+		assertInvalid("1Sum=meter5/ActivePower");
+		assertInvalid("HeatPumpActivePower=meter5");
+	}
+
+}
@@ -1,8 +1,19 @@
 package io.openems.edge.ess.power.api;
 
+import java.util.Map;
+
 @FunctionalInterface
 public interface OnSolved {
 
-	public void accept(boolean isSolved, int duration, SolverStrategy strategy);
+	/**
+	 * Called after every run of the Solver.
+	 * 
+	 * @param isSolved          true if a solution was found
+	 * @param duration          the total duration in [ms]
+	 * @param strategy          the strategy that found the solution
+	 * @param strategyDurations the duration of every tried strategy in [ms]
+	 */
+	public void accept(boolean isSolved, int duration, SolverStrategy strategy,
+			Map<SolverStrategy, Integer> strategyDurations);
 
 }
@@ -139,7 +139,7 @@ public class PowerComponent extends AbstractOpenemsComponent implements OpenemsC
 		this.data = new Data(this);
 		this.solver = new Solver(data);
 
-		this.solver.onSolved((isSolved, duration, strategy) -> {
+		this.solver.onSolved((isSolved, duration, strategy, strategyDurations) -> {
 			this.getNotSolvedChannel().setNextValue(!isSolved);
 			this.getSolveDurationChannel().setNextValue(duration);
 			this.getSolveStrategyChannel().setNextValue(strategy);
@@ -1,6 +1,8 @@
 package io.openems.edge.ess.core.power;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -9,11 +11,8 @@ import java.util.Objects;
 
 import org.apache.commons.math3.optim.PointValuePair;
 import org.apache.commons.math3.optim.linear.LinearConstraint;
-import org.apache.commons.math3.optim.linear.LinearConstraintSet;
 import org.apache.commons.math3.optim.linear.LinearObjectiveFunction;
 import org.apache.commons.math3.optim.linear.NoFeasibleSolutionException;
-import org.apache.commons.math3.optim.linear.PivotSelectionRule;
-import org.apache.commons.math3.optim.linear.SimplexSolver;
 import org.apache.commons.math3.optim.linear.UnboundedSolutionException;
 import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
 import org.slf4j.Logger;
@@ -48,10 +47,11 @@ public class Solver {
 	private final Logger log = LoggerFactory.getLogger(Solver.class);
 
 	private final Data data;
+	private final SolverCache cache = new SolverCache();
 
 	private boolean debugMode = PowerComponent.DEFAULT_DEBUG_MODE;
 	private SolverStrategy strategy = PowerComponent.DEFAULT_SOLVER_STRATEGY;
-	private OnSolved onSolvedCallback = (isSolved, duration, strategy) -> {
+	private OnSolved onSolvedCallback = (isSolved, duration, strategy, strategyDurations) -> {
 	};
 
 	public Solver(Data data) {
@@ -118,16 +118,10 @@ public class Solver {
 			return 0;
 		}
 
-		LinearConstraintSet constraints = new LinearConstraintSet(
-				Solver.convertToLinearConstraints(this.data, allConstraints));
+		List<LinearConstraint> constraints = this.cache.convert(this.data, allConstraints);
 
-		SimplexSolver solver = new SimplexSolver();
 		try {
-			PointValuePair solution = solver.optimize(//
-					objectiveFunction, //
-					constraints, //
-					goal, //
-					PivotSelectionRule.BLAND);
+			PointValuePair solution = this.cache.solve(objectiveFunction, constraints, goal);
 			return solution.getPoint()[index];
 		} catch (UnboundedSolutionException e) {
 			if (this.debugMode) {
@@ -160,9 +154,13 @@ public class Solver {
 
 		// No Inverters -> nothing to do
 		if (this.data.getInverters().isEmpty()) {
-			this.onSolvedCallback.accept(true, 0, SolverStrategy.NONE);
+			this.onSolvedCallback.accept(true, 0, SolverStrategy.NONE, Collections.emptyMap());
 			return;
 		}
+
+		// Keep the parts of the problem that were used in the last Cycle
+		this.cache.nextCycle(this.data.getCoefficients().getNoOfCoefficients());
+		Map<SolverStrategy, Integer> strategyDurations = new EnumMap<>(SolverStrategy.class);
 		List<Inverter> allInverters = data.getInverters();
 
 		SolveSolution solution = new SolveSolution(SolverStrategy.NONE, null);
@@ -197,24 +195,25 @@ public class Solver {
 			case UNDEFINED:
 			case ALL_CONSTRAINTS:
 			case NONE:
-				solution = this.tryStrategies(targetDirection, allInverters, targetInverters, allConstraints);
+				solution = this.tryStrategies(targetDirection, allInverters, targetInverters, allConstraints,
+						strategyDurations);
 				break;
 
 			case OPTIMIZE_BY_MOVING_TOWARDS_TARGET:
 				solution = this.tryStrategies(targetDirection, allInverters, targetInverters, allConstraints,
-						SolverStrategy.OPTIMIZE_BY_MOVING_TOWARDS_TARGET,
+						strategyDurations, SolverStrategy.OPTIMIZE_BY_MOVING_TOWARDS_TARGET,
 						SolverStrategy.OPTIMIZE_BY_KEEPING_TARGET_DIRECTION_AND_MAXIMIZING_IN_ORDER);
 				break;
 
 			case OPTIMIZE_BY_KEEPING_TARGET_DIRECTION_AND_MAXIMIZING_IN_ORDER:
 				solution = this.tryStrategies(targetDirection, allInverters, targetInverters, allConstraints,
-						SolverStrategy.OPTIMIZE_BY_KEEPING_TARGET_DIRECTION_AND_MAXIMIZING_IN_ORDER,
+						strategyDurations, SolverStrategy.OPTIMIZE_BY_KEEPING_TARGET_DIRECTION_AND_MAXIMIZING_IN_ORDER,
 						SolverStrategy.OPTIMIZE_BY_MOVING_TOWARDS_TARGET);
 				break;
 
 			case OPTIMIZE_BY_KEEPING_ALL_EQUAL:
 				solution = this.tryStrategies(targetDirection, allInverters, targetInverters, allConstraints,
-						SolverStrategy.OPTIMIZE_BY_KEEPING_ALL_EQUAL,
+						strategyDurations, SolverStrategy.OPTIMIZE_BY_KEEPING_ALL_EQUAL,
 						SolverStrategy.OPTIMIZE_BY_KEEPING_TARGET_DIRECTION_AND_MAXIMIZING_IN_ORDER,
 						SolverStrategy.OPTIMIZE_BY_MOVING_TOWARDS_TARGET);
 				break;
@@ -232,11 +231,16 @@ public class Solver {
 		}
 
 		// finish time measure (in milliseconds)
-		int duration = (int) (System.nanoTime() - startTime) / 1_000_000;
+		int duration = (int) ((System.nanoTime() - startTime) / 1_000_000);
+
+		if (this.debugMode) {
+			this.log.info("Solved in [" + duration + " ms] " + strategyDurations + ". Cache hits [" + this.cache.getHits()
+					+ "] misses [" + this.cache.getMisses() + "]");
+		}
 
 		// announce success/failure
 		boolean isSolved = solution.getPoints() != null;
-		this.onSolvedCallback.accept(isSolved, duration, solution.getSolvedBy());
+		this.onSolvedCallback.accept(isSolved, duration, solution.getSolvedBy(), strategyDurations);
 
 		// Apply final Solution to Inverters
 		if (isSolved) {
@@ -255,19 +259,22 @@ public class Solver {
 	 * Tries different solving strategies in order. 'ALL_CONSTRAINTS' is always
 	 * tried last if everything else failed. Returns as soon as a result is found.
 	 * 
-	 * @param targetDirection the target direction
-	 * @param allInverters    a list of all inverters
-	 * @param targetInverters a list of target inverters
-	 * @param allConstraints  a list of all Constraints
-	 * @param strategies      an array of SolverStrategies
+	 * @param targetDirection   the target direction
+	 * @param allInverters      a list of all inverters
+	 * @param targetInverters   a list of target inverters
+	 * @param allConstraints    a list of all Constraints
+	 * @param strategyDurations filled with the duration of every tried strategy in
+	 *                          [ms]
+	 * @param strategies        an array of SolverStrategies
 	 * @return a Solution
 	 * @throws OpenemsException
 	 */
 	private SolveSolution tryStrategies(TargetDirection targetDirection, List<Inverter> allInverters,
-			List<Inverter> targetInverters, List<Constraint> allConstraints, SolverStrategy... strategies)
-			throws OpenemsException {
+			List<Inverter> targetInverters, List<Constraint> allConstraints,
+			Map<SolverStrategy, Integer> strategyDurations, SolverStrategy... strategies) throws OpenemsException {
 		PointValuePair solution = null;
 		for (SolverStrategy strategy : strategies) {
+			final long startTime = System.nanoTime();
 			switch (strategy) {
 			case UNDEFINED:
 			case NONE:
@@ -287,13 +294,16 @@ public class Solver {
 				solution = this.optimizeByKeepingAllEqual(allInverters, allConstraints);
 				break;
 			}
+			strategyDurations.put(strategy, (int) ((System.nanoTime() - startTime) / 1_000_000));
 
 			if (solution != null) {
 				return new SolveSolution(strategy, solution);
 			}
 		}
 		// to strategy was successful -> try allConstraints
+		final long startTime = System.nanoTime();
 		solution = this.solveWithConstraints(allConstraints);
+		strategyDurations.put(SolverStrategy.ALL_CONSTRAINTS, (int) ((System.nanoTime() - startTime) / 1_000_000));
 		if (solution != null) {
 			return new SolveSolution(SolverStrategy.ALL_CONSTRAINTS, solution);
 		} else {
@@ -311,8 +321,7 @@ public class Solver {
 	 */
 	private void addConstraintsForNotStrictlyDefinedCoefficients(List<Inverter> allInverters,
 			List<Constraint> allConstraints) throws OpenemsException {
-		LinearConstraintSet constraints = new LinearConstraintSet(
-				Solver.convertToLinearConstraints(this.data, allConstraints));
+		List<LinearConstraint> constraints = this.cache.convert(this.data, allConstraints);
 
 		for (Pwr pwr : Pwr.values()) {
 			// prepare objective function
@@ -326,12 +335,7 @@ public class Solver {
 			// get Max value over all relevant Coefficients
 			double max;
 			try {
-				SimplexSolver solver = new SimplexSolver();
-				PointValuePair solution = solver.optimize(//
-						objectiveFunction, //
-						constraints, //
-						GoalType.MAXIMIZE, //
-						PivotSelectionRule.BLAND);
+				PointValuePair solution = this.cache.solve(objectiveFunction, constraints, GoalType.MAXIMIZE);
 				max = 0d;
 				for (Inverter inv : allInverters) {
 					Coefficient c = this.data.getCoefficient(inv.getEssId(), inv.getPhase(), pwr);
@@ -343,12 +347,7 @@ public class Solver {
 			// get Min value over all relevant Coefficients
 			double min;
 			try {
-				SimplexSolver solver = new SimplexSolver();
-				PointValuePair solution = solver.optimize(//
-						objectiveFunction, //
-						constraints, //
-						GoalType.MINIMIZE, //
-						PivotSelectionRule.BLAND);
+				PointValuePair solution = this.cache.solve(objectiveFunction, constraints, GoalType.MINIMIZE);
 				min = 0d;
 				for (Inverter inv : allInverters) {
 					Coefficient c = this.data.getCoefficient(inv.getEssId(), inv.getPhase(), pwr);
@@ -785,7 +784,7 @@ public class Solver {
 	 */
 	private PointValuePair solveWithConstraints(List<Constraint> constraints)
 			throws NoFeasibleSolutionException, UnboundedSolutionException {
-		List<LinearConstraint> linearConstraints = Solver.convertToLinearConstraints(this.data, constraints);
+		List<LinearConstraint> linearConstraints = this.cache.convert(this.data, constraints);
 		return this.solveWithLinearConstraints(linearConstraints);
 	}
 
@@ -800,13 +799,7 @@ public class Solver {
 	private PointValuePair solveWithLinearConstraints(List<LinearConstraint> constraints)
 			throws NoFeasibleSolutionException, UnboundedSolutionException {
 		LinearObjectiveFunction objectiveFunction = Solver.getDefaultObjectiveFunction(this.data);
-
-		SimplexSolver solver = new SimplexSolver();
-		return solver.optimize(//
-				objectiveFunction, //
-				new LinearConstraintSet(constraints), //
-				GoalType.MINIMIZE, //
-				PivotSelectionRule.BLAND);
+		return this.cache.solve(objectiveFunction, constraints, GoalType.MINIMIZE);
 	}
 
 	/**
@@ -983,37 +976,21 @@ public class Solver {
 	}
 
 	/**
-	 * Gets all Constraints converted to Linear Constraints.
+	 * Converts a Relationship to the Relationship of the linear solver.
 	 * 
-	 * @param data        the data object
-	 * @param constraints a list of Constraints
-	 * @return a list of LinearConstraints
+	 * @param relationship the Relationship
+	 * @return the linear solver Relationship
 	 */
-	public static List<LinearConstraint> convertToLinearConstraints(Data data, List<Constraint> constraints) {
-		List<LinearConstraint> result = new ArrayList<>();
-		for (Constraint c : constraints) {
-			if (c.getValue().isPresent()) {
-				double[] cos = Solver.getEmptyCoefficients(data);
-				for (LinearCoefficient co : c.getCoefficients()) {
-					// TODO verify, that ESS is enabled
-					cos[co.getCoefficient().getIndex()] = co.getValue();
-				}
-				org.apache.commons.math3.optim.linear.Relationship relationship = null;
-				switch (c.getRelationship()) {
-				case EQUALS:
-					relationship = org.apache.commons.math3.optim.linear.Relationship.EQ;
-					break;
-				case GREATER_OR_EQUALS:
-					relationship = org.apache.commons.math3.optim.linear.Relationship.GEQ;
-					break;
-				case LESS_OR_EQUALS:
-					relationship = org.apache.commons.math3.optim.linear.Relationship.LEQ;
-					break;
-				}
-				result.add(new LinearConstraint(cos, relationship, c.getValue().get()));
-			}
+	public static org.apache.commons.math3.optim.linear.Relationship convertRelationship(Relationship relationship) {
+		switch (relationship) {
+		case EQUALS:
+			return org.apache.commons.math3.optim.linear.Relationship.EQ;
+		case GREATER_OR_EQUALS:
+			return org.apache.commons.math3.optim.linear.Relationship.GEQ;
+		case LESS_OR_EQUALS:
+			return org.apache.commons.math3.optim.linear.Relationship.LEQ;
 		}
-		return result;
+		return null;
 	}
 
 	/**
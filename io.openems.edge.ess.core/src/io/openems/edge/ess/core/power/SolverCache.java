@@ -0,0 +1,268 @@
+package io.openems.edge.ess.core.power;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import org.apache.commons.math3.optim.PointValuePair;
+import org.apache.commons.math3.optim.linear.LinearConstraint;
+import org.apache.commons.math3.optim.linear.LinearConstraintSet;
+import org.apache.commons.math3.optim.linear.LinearObjectiveFunction;
+import org.apache.commons.math3.optim.linear.NoFeasibleSolutionException;
+import org.apache.commons.math3.optim.linear.PivotSelectionRule;
+import org.apache.commons.math3.optim.linear.SimplexSolver;
+import org.apache.commons.math3.optim.linear.UnboundedSolutionException;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+
+import io.openems.edge.ess.power.api.Constraint;
+import io.openems.edge.ess.power.api.LinearCoefficient;
+
+/**
+ * Keeps the linear problem of the {@link Solver} between Cycles.
+ *
+ * <ul>
+ * <li>The coefficient row of every {@link Constraint} is built once; if only
+ * the value of the Constraint changes, only the right-hand side is updated
+ * <li>Results of the {@link SimplexSolver} are remembered per problem; an
+ * unchanged problem - which is the normal case for most of the solves per
+ * Cycle while setpoints are stable - is answered without solving it again
+ * </ul>
+ *
+ * <p>
+ * Entries that were not used during the previous Cycle are evicted in
+ * {@link #nextCycle(int)}.
+ */
+class SolverCache {
+
+	/**
+	 * Maximum number of remembered results. A Cycle usually needs a few dozen
+	 * solves; the limit only protects against unusual amounts of Constraints.
+	 */
+	private static final int MAX_RESULTS = 512;
+
+	private static class Row {
+		private final double[] coefficients;
+		private final org.apache.commons.math3.optim.linear.Relationship relationship;
+		private double value;
+		private LinearConstraint linearConstraint;
+		private boolean isUsed = true;
+
+		private Row(double[] coefficients, org.apache.commons.math3.optim.linear.Relationship relationship,
+				double value) {
+			this.coefficients = coefficients;
+			this.relationship = relationship;
+			this.setValue(value);
+		}
+
+		private void setValue(double value) {
+			this.value = value;
+			this.linearConstraint = new LinearConstraint(this.coefficients, this.relationship, value);
+		}
+	}
+
+	private static class Problem {
+		private final LinearObjectiveFunction objectiveFunction;
+		private final GoalType goal;
+		private final List<LinearConstraint> constraints;
+		private final int hashCode;
+
+		private Problem(LinearObjectiveFunction objectiveFunction, GoalType goal,
+				List<LinearConstraint> constraints) {
+			this.objectiveFunction = objectiveFunction;
+			this.goal = goal;
+			this.constraints = constraints;
+			this.hashCode = Objects.hash(objectiveFunction, goal, constraints);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Problem)) {
+				return false;
+			}
+			Problem other = (Problem) obj;
+			return this.hashCode == other.hashCode && this.goal == other.goal
+					&& this.objectiveFunction.equals(other.objectiveFunction)
+					&& this.constraints.equals(other.constraints);
+		}
+	}
+
+	private static class Result {
+		private final PointValuePair solution;
+		private final RuntimeException exception;
+		private boolean isUsed = true;
+
+		private Result(PointValuePair solution, RuntimeException exception) {
+			this.solution = solution;
+			this.exception = exception;
+		}
+	}
+
+	private final Map<Constraint, Row> rows = new IdentityHashMap<>();
+	private final Map<Problem, Result> results = new LinkedHashMap<Problem, Result>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<Problem, Result> eldest) {
+			return this.size() > MAX_RESULTS;
+		}
+	};
+
+	private int noOfCoefficients = -1;
+	private int hits = 0;
+	private int misses = 0;
+
+	/**
+	 * Starts a new Cycle: evicts everything that was not used since the last call.
+	 * If the number of Coefficients changed - i.e. an ESS was added or removed -
+	 * everything is evicted.
+	 *
+	 * @param noOfCoefficients the current number of Coefficients
+	 */
+	public synchronized void nextCycle(int noOfCoefficients) {
+		if (noOfCoefficients != this.noOfCoefficients) {
+			this.noOfCoefficients = noOfCoefficients;
+			this.rows.clear();
+			this.results.clear();
+		}
+		for (Iterator<Row> iterator = this.rows.values().iterator(); iterator.hasNext();) {
+			Row row = iterator.next();
+			if (row.isUsed) {
+				row.isUsed = false;
+			} else {
+				iterator.remove();
+			}
+		}
+		for (Iterator<Result> iterator = this.results.values().iterator(); iterator.hasNext();) {
+			Result result = iterator.next();
+			if (result.isUsed) {
+				result.isUsed = false;
+			} else {
+				iterator.remove();
+			}
+		}
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	/**
+	 * Converts Constraints to LinearConstraints. Disabled Constraints - i.e.
+	 * without value - are ignored.
+	 *
+	 * @param data        the Data object
+	 * @param constraints the Constraints
+	 * @return a list of LinearConstraints
+	 */
+	public synchronized List<LinearConstraint> convert(Data data, List<Constraint> constraints) {
+		List<LinearConstraint> result = new ArrayList<>(constraints.size());
+		for (Constraint c : constraints) {
+			if (!c.getValue().isPresent()) {
+				continue;
+			}
+			double value = c.getValue().get();
+			Row row = this.rows.get(c);
+			if (row == null) {
+				double[] cos = Solver.getEmptyCoefficients(data);
+				for (LinearCoefficient co : c.getCoefficients()) {
+					cos[co.getCoefficient().getIndex()] = co.getValue();
+				}
+				row = new Row(cos, Solver.convertRelationship(c.getRelationship()), value);
+				this.rows.put(c, row);
+			} else if (row.value != value) {
+				// coefficients and relationship of a Constraint are final
+				row.setValue(value);
+			}
+			row.isUsed = true;
+			result.add(row.linearConstraint);
+		}
+		return result;
+	}
+
+	/**
+	 * Solves a linear problem or gets the remembered result of the identical
+	 * problem.
+	 *
+	 * @param objectiveFunction the objective function
+	 * @param constraints       the LinearConstraints
+	 * @param goal              MINIMIZE or MAXIMIZE
+	 * @return the solution
+	 * @throws NoFeasibleSolutionException if not solvable
+	 * @throws UnboundedSolutionException  if not solvable
+	 */
+	public PointValuePair solve(LinearObjectiveFunction objectiveFunction, List<LinearConstraint> constraints,
+			GoalType goal) throws NoFeasibleSolutionException, UnboundedSolutionException {
+		Problem problem = new Problem(objectiveFunction, goal, constraints);
+		Result result;
+		synchronized (this) {
+			result = this.results.get(problem);
+			if (result != null) {
+				this.hits++;
+			} else {
+				this.misses++;
+			}
+		}
+		if (result == null) {
+			try {
+				SimplexSolver solver = new SimplexSolver();
+				result = new Result(solver.optimize(//
+						objectiveFunction, //
+						new LinearConstraintSet(constraints), //
+						goal, //
+						PivotSelectionRule.BLAND), null);
+			} catch (NoFeasibleSolutionException | UnboundedSolutionException e) {
+				result = new Result(null, e);
+			}
+			synchronized (this) {
+				this.results.put(problem, result);
+			}
+		}
+		result.isUsed = true;
+		if (result.exception != null) {
+			throw result.exception;
+		}
+		// getPoint() returns a copy, so the cached solution stays untouched
+		return result.solution;
+	}
+
+	/**
+	 * Gets the number of cached coefficient rows.
+	 *
+	 * @return the number of rows
+	 */
+	synchronized int getNoOfRows() {
+		return this.rows.size();
+	}
+
+	/**
+	 * Gets the number of problems that were answered from the cache since the last
+	 * {@link #nextCycle(int)}.
+	 *
+	 * @return the number of hits
+	 */
+	public synchronized int getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the number of problems that had to be solved since the last
+	 * {@link #nextCycle(int)}.
+	 *
+	 * @return the number of misses
+	 */
+	public synchronized int getMisses() {
+		return this.misses;
+	}
+
+}
@@ -0,0 +1,29 @@
+package io.openems.edge.ess.core.power;
+
+import io.openems.edge.ess.api.ManagedSinglePhaseEss;
+import io.openems.edge.ess.api.SinglePhase;
+
+public class ManagedSinglePhaseEssDummy extends DummyComponent<ManagedSinglePhaseEssDummy>
+		implements ManagedSinglePhaseEss {
+
+	private final SinglePhase phase;
+
+	public ManagedSinglePhaseEssDummy(String id, SinglePhase phase) {
+		super(id);
+		this.phase = phase;
+	}
+
+	@Override
+	public SinglePhase getPhase() {
+		return this.phase;
+	}
+
+	@Override
+	public void applyPower(int activePower, int reactivePower) {
+	}
+
+	@Override
+	protected ManagedSinglePhaseEssDummy self() {
+		return this;
+	}
+}
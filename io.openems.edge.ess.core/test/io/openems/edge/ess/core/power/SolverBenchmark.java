@@ -0,0 +1,254 @@
+package io.openems.edge.ess.core.power;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.ess.api.ManagedSymmetricEss;
+import io.openems.edge.ess.api.SinglePhase;
+import io.openems.edge.ess.power.api.Constraint;
+import io.openems.edge.ess.power.api.EssType;
+import io.openems.edge.ess.power.api.Phase;
+import io.openems.edge.ess.power.api.Pwr;
+import io.openems.edge.ess.power.api.Relationship;
+import io.openems.edge.ess.power.api.SolverStrategy;
+
+/**
+ * Benchmarks the {@link Solver} and the creation of Constraints in
+ * {@link Data} and {@link ApparentPowerConstraintFactory} for synthetic
+ * clusters of ESS.
+ *
+ * <p>
+ * Run via {@link #main(String[])}. The results are written as JSON - including
+ * the allocation rate per operation of the GC profiler - to the file given as
+ * first argument, so they can be compared between builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+	private static final String DEFAULT_RESULT_FILE = "generated/solver-benchmark.json";
+
+	/**
+	 * The type of the ESS in the cluster; MIXED rotates through symmetric,
+	 * asymmetric and single-phase ESS.
+	 */
+	public enum ClusterType {
+		SYMMETRIC, ASYMMETRIC, SINGLE_PHASE, MIXED;
+	}
+
+	@Param({ "1", "10", "50", "200" })
+	public int noOfEss;
+
+	@Param({ "SYMMETRIC", "ASYMMETRIC", "SINGLE_PHASE", "MIXED" })
+	public ClusterType clusterType;
+
+	/**
+	 * Holds the {@link Solver}; separate from the cluster, so that the
+	 * Constraint benchmarks are not repeated for every strategy.
+	 */
+	@State(Scope.Benchmark)
+	public static class SolverState {
+
+		@Param({ "ALL_CONSTRAINTS", "OPTIMIZE_BY_MOVING_TOWARDS_TARGET",
+				"OPTIMIZE_BY_KEEPING_TARGET_DIRECTION_AND_MAXIMIZING_IN_ORDER", "OPTIMIZE_BY_KEEPING_ALL_EQUAL" })
+		public SolverStrategy strategy;
+
+		private Solver solver;
+
+		@Setup(Level.Trial)
+		public void setup(SolverBenchmark cluster) {
+			this.solver = new Solver(cluster.data);
+			this.solver.setStrategy(this.strategy);
+		}
+	}
+
+	private Data data;
+	private ApparentPowerConstraintFactory apparentPowerConstraintFactory;
+	private List<ManagedSymmetricEss> esss;
+	private EssClusterDummy cluster;
+	private int cycle = 0;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.esss = new ArrayList<>();
+		for (int i = 0; i < this.noOfEss; i++) {
+			this.esss.add(createEss("ess" + (i + 1), i, this.clusterType));
+		}
+		this.cluster = new EssClusterDummy("ess0", this.esss.toArray(new ManagedSymmetricEss[this.esss.size()]));
+
+		PowerComponent c = new PowerComponent();
+		this.data = new Data(c);
+		for (ManagedSymmetricEss ess : this.allEss()) {
+			c.addEss(ess);
+			this.data.addEss(ess);
+		}
+		this.data.initializeCycle();
+		this.apparentPowerConstraintFactory = new ApparentPowerConstraintFactory(this.data);
+	}
+
+	private List<ManagedSymmetricEss> allEss() {
+		List<ManagedSymmetricEss> result = new ArrayList<>();
+		result.add(this.cluster);
+		result.addAll(this.esss);
+		return result;
+	}
+
+	private static ManagedSymmetricEss createEss(String id, int index, ClusterType clusterType) {
+		EssType essType;
+		switch (clusterType) {
+		case ASYMMETRIC:
+			essType = EssType.ASYMMETRIC;
+			break;
+		case SINGLE_PHASE:
+			essType = EssType.SINGLE_PHASE;
+			break;
+		case MIXED:
+			essType = new EssType[] { EssType.SYMMETRIC, EssType.ASYMMETRIC, EssType.SINGLE_PHASE }[index % 3];
+			break;
+		case SYMMETRIC:
+		default:
+			essType = EssType.SYMMETRIC;
+			break;
+		}
+
+		// spread the state-of-charge so the Inverters get different weights
+		int soc = 10 + index * 37 % 81;
+		switch (essType) {
+		case ASYMMETRIC:
+			return new ManagedAsymmetricEssDummy(id) //
+					.allowedCharge(-9000).allowedDischarge(9000).maxApparentPower(5000).soc(soc);
+		case SINGLE_PHASE:
+			return new ManagedSinglePhaseEssDummy(id, SinglePhase.values()[index % 3]) //
+					.allowedCharge(-3000).allowedDischarge(3000).maxApparentPower(3000).soc(soc);
+		case META:
+		case SYMMETRIC:
+		default:
+			return new ManagedSymmetricEssDummy(id) //
+					.allowedCharge(-9000).allowedDischarge(9000).maxApparentPower(5000).soc(soc);
+		}
+	}
+
+	/**
+	 * Starts a new Cycle with a setpoint for the cluster.
+	 *
+	 * @param activePower the setpoint
+	 * @throws OpenemsException on error
+	 */
+	private void nextCycle(int activePower) throws OpenemsException {
+		this.data.initializeCycle();
+		this.data.addSimpleConstraint("Setpoint", this.cluster.id(), Phase.ALL, Pwr.ACTIVE, Relationship.EQUALS,
+				activePower);
+	}
+
+	/**
+	 * Solves with the same setpoint in every Cycle - the normal steady state.
+	 *
+	 * @param state the {@link SolverState}
+	 * @throws OpenemsException on error
+	 */
+	@Benchmark
+	public void solveStableSetpoint(SolverState state) throws OpenemsException {
+		this.nextCycle(this.noOfEss * 1000);
+		state.solver.solve();
+	}
+
+	/**
+	 * Solves with a setpoint that changes in every Cycle, alternating between
+	 * charge and discharge.
+	 *
+	 * @param state the {@link SolverState}
+	 * @throws OpenemsException on error
+	 */
+	@Benchmark
+	public void solveChangingSetpoint(SolverState state) throws OpenemsException {
+		this.cycle++;
+		int sign = this.cycle % 2 == 0 ? 1 : -1;
+		this.nextCycle(sign * (this.noOfEss * 1000 + this.cycle % 100));
+		state.solver.solve();
+	}
+
+	/**
+	 * Solves a problem without feasible solution - the worst case, in which every
+	 * strategy is tried and fails.
+	 *
+	 * @param state the {@link SolverState}
+	 * @throws OpenemsException on error
+	 */
+	@Benchmark
+	public void solveInfeasible(SolverState state) throws OpenemsException {
+		this.nextCycle(this.noOfEss * 1000);
+		this.data.addSimpleConstraint("Contradiction", this.cluster.id(), Phase.ALL, Pwr.ACTIVE,
+				Relationship.LESS_OR_EQUALS, -this.noOfEss * 1000);
+		state.solver.solve();
+	}
+
+	/**
+	 * Creates all Constraints for the current Cycle. Use with the GC profiler to
+	 * see the allocation rate.
+	 *
+	 * @return the Constraints
+	 * @throws OpenemsException on error
+	 */
+	@Benchmark
+	public List<Constraint> getConstraintsForAllInverters() throws OpenemsException {
+		return this.data.getConstraintsForAllInverters();
+	}
+
+	/**
+	 * Creates the apparent power Constraints of every ESS.
+	 *
+	 * @return the Constraints
+	 * @throws OpenemsException on error
+	 */
+	@Benchmark
+	public List<Constraint> createApparentPowerConstraints() throws OpenemsException {
+		List<Constraint> result = new ArrayList<>();
+		for (ManagedSymmetricEss ess : this.esss) {
+			result.addAll(this.apparentPowerConstraintFactory.getConstraints(ess.id(), Phase.ALL, 5000));
+		}
+		return result;
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args optionally the path of the JSON result file
+	 * @throws RunnerException on error
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+		Options options = new OptionsBuilder() //
+				.include(SolverBenchmark.class.getSimpleName()) //
+				.addProfiler(GCProfiler.class) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(resultFile) //
+				.build();
+		new Runner(options).run();
+	}
+
+}
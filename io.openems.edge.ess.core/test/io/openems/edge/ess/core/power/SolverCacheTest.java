@@ -0,0 +1,180 @@
+package io.openems.edge.ess.core.power;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.optim.PointValuePair;
+import org.apache.commons.math3.optim.linear.LinearConstraint;
+import org.apache.commons.math3.optim.linear.LinearObjectiveFunction;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.ess.power.api.Coefficient;
+import io.openems.edge.ess.power.api.Constraint;
+import io.openems.edge.ess.power.api.LinearCoefficient;
+import io.openems.edge.ess.power.api.Phase;
+import io.openems.edge.ess.power.api.Pwr;
+import io.openems.edge.ess.power.api.Relationship;
+
+public class SolverCacheTest {
+
+	private Data data;
+	private Coefficient p;
+	private Coefficient q;
+	private LinearObjectiveFunction objectiveFunction;
+	private SolverCache cache;
+
+	@Before
+	public void before() throws OpenemsException {
+		ManagedSymmetricEssDummy ess0 = new ManagedSymmetricEssDummy("ess0") //
+				.allowedCharge(-9000).allowedDischarge(9000).maxApparentPower(5000);
+		PowerComponent c = new PowerComponent();
+		this.data = new Data(c);
+		c.addEss(ess0);
+		this.data.addEss(ess0);
+		this.data.initializeCycle();
+		this.p = this.data.getCoefficient("ess0", Phase.ALL, Pwr.ACTIVE);
+		this.q = this.data.getCoefficient("ess0", Phase.ALL, Pwr.REACTIVE);
+		this.objectiveFunction = this.objectiveFunction(1, 1);
+		this.cache = new SolverCache();
+		this.nextCycle();
+	}
+
+	/**
+	 * Minimizes weightP * p + weightQ * q; all other Coefficients are zero.
+	 */
+	private LinearObjectiveFunction objectiveFunction(double weightP, double weightQ) {
+		double[] cos = Solver.getEmptyCoefficients(this.data);
+		cos[this.p.getIndex()] = weightP;
+		cos[this.q.getIndex()] = weightQ;
+		return new LinearObjectiveFunction(cos, 0);
+	}
+
+	private void nextCycle() {
+		this.cache.nextCycle(this.data.getCoefficients().getNoOfCoefficients());
+	}
+
+	private Constraint constraint(Coefficient coefficient, Relationship relationship, double value) {
+		return new Constraint("test", new LinearCoefficient[] { new LinearCoefficient(coefficient, 1) },
+				relationship, value);
+	}
+
+	private List<Constraint> constraints(Constraint... constraints) {
+		List<Constraint> result = new ArrayList<>();
+		for (Constraint constraint : constraints) {
+			result.add(constraint);
+		}
+		return result;
+	}
+
+	private PointValuePair solve(List<Constraint> constraints) {
+		return this.cache.solve(this.objectiveFunction, this.cache.convert(this.data, constraints),
+				GoalType.MINIMIZE);
+	}
+
+	@Test
+	public void testValueChangeReusesRow() {
+		Constraint maxP = this.constraint(this.p, Relationship.LESS_OR_EQUALS, 1000);
+		LinearConstraint first = this.cache.convert(this.data, this.constraints(maxP)).get(0);
+
+		// unchanged Constraint -> same LinearConstraint
+		assertSame(first, this.cache.convert(this.data, this.constraints(maxP)).get(0));
+
+		// only the value changed -> same row with new right-hand side
+		maxP.setValue(2000);
+		LinearConstraint second = this.cache.convert(this.data, this.constraints(maxP)).get(0);
+		assertNotSame(first, second);
+		assertEquals(2000, second.getValue(), 0);
+		assertEquals(first.getCoefficients(), second.getCoefficients());
+		assertEquals(1, this.cache.getNoOfRows());
+
+		// disabled Constraints are ignored
+		maxP.disable();
+		assertEquals(0, this.cache.convert(this.data, this.constraints(maxP)).size());
+	}
+
+	@Test
+	public void testIdenticalProblemReusesResult() {
+		Constraint minP = this.constraint(this.p, Relationship.GREATER_OR_EQUALS, 1000);
+		Constraint minQ = this.constraint(this.q, Relationship.GREATER_OR_EQUALS, -500);
+		PointValuePair solution = this.solve(this.constraints(minP, minQ));
+		assertEquals(1, this.cache.getMisses());
+
+		// an equal problem is answered from the cache, also with new Constraint
+		// objects
+		PointValuePair cached = this.solve(this.constraints( //
+				this.constraint(this.p, Relationship.GREATER_OR_EQUALS, 1000), //
+				this.constraint(this.q, Relationship.GREATER_OR_EQUALS, -500)));
+		assertEquals(1, this.cache.getHits());
+		assertEquals(1, this.cache.getMisses());
+		assertArrayEquals(solution.getPoint(), cached.getPoint(), 0);
+
+		// a changed value is a new problem
+		minP.setValue(2000);
+		PointValuePair changed = this.solve(this.constraints(minP, minQ));
+		assertEquals(2, this.cache.getMisses());
+		assertEquals(2000, changed.getPoint()[this.p.getIndex()], 0.001);
+	}
+
+	@Test
+	public void testChangedCoefficientsInvalidate() {
+		Constraint minP = this.constraint(this.p, Relationship.GREATER_OR_EQUALS, 1000);
+		Constraint minQ = this.constraint(this.q, Relationship.GREATER_OR_EQUALS, 1000);
+		PointValuePair solution = this.solve(this.constraints(minP, minQ));
+		assertEquals(2000, solution.getValue(), 0.001);
+
+		// same value, but other Coefficients
+		Constraint minPAndQ = new Constraint("test", new LinearCoefficient[] { //
+				new LinearCoefficient(this.p, 1), new LinearCoefficient(this.q, 1) }, //
+				Relationship.GREATER_OR_EQUALS, 1000);
+		solution = this.solve(this.constraints(minPAndQ, minQ));
+		assertEquals(0, this.cache.getHits());
+		assertEquals(2, this.cache.getMisses());
+		assertEquals(1000, solution.getValue(), 0.001);
+
+		// another objective function
+		this.objectiveFunction = this.objectiveFunction(2, 1);
+		solution = this.solve(this.constraints(minP, minQ));
+		assertEquals(0, this.cache.getHits());
+		assertEquals(3, this.cache.getMisses());
+		assertEquals(3000, solution.getValue(), 0.001);
+	}
+
+	@Test
+	public void testNextCycle() {
+		Constraint minP = this.constraint(this.p, Relationship.GREATER_OR_EQUALS, 1000);
+		Constraint otherMinP = this.constraint(this.p, Relationship.GREATER_OR_EQUALS, 2000);
+		Constraint minQ = this.constraint(this.q, Relationship.GREATER_OR_EQUALS, 1000);
+		this.solve(this.constraints(minP, minQ));
+
+		// used in the previous Cycle -> kept
+		this.nextCycle();
+		assertEquals(2, this.cache.getNoOfRows());
+		this.solve(this.constraints(otherMinP, minQ));
+		assertEquals(0, this.cache.getHits());
+		assertEquals(3, this.cache.getNoOfRows());
+
+		// 'minP' was not used in the previous Cycle -> evicted
+		this.nextCycle();
+		assertEquals(2, this.cache.getNoOfRows());
+		this.solve(this.constraints(otherMinP, minQ));
+		assertEquals(1, this.cache.getHits());
+
+		// number of Coefficients changed, e.g. an ESS was added -> everything is
+		// evicted
+		this.cache.nextCycle(this.data.getCoefficients().getNoOfCoefficients() + 1);
+		assertEquals(0, this.cache.getNoOfRows());
+		this.cache.nextCycle(this.data.getCoefficients().getNoOfCoefficients());
+		this.solve(this.constraints(otherMinP, minQ));
+		assertEquals(0, this.cache.getHits());
+		assertEquals(1, this.cache.getMisses());
+	}
+
+}
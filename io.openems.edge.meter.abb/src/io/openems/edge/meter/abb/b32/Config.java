@@ -16,6 +16,12 @@ import io.openems.edge.meter.api.MeterType;
 	@AttributeDefinition(name = "Mbus PrimaryAddress", description = "PrimaryAddress of the M-Bus device.")
 	int primaryAddress() default 10;
 
+	@AttributeDefinition(name = "Mbus SecondaryAddress", description = "Optional SecondaryAddress of the M-Bus device (16 hexadecimal digits). If set, the device is read via this address.")
+	String secondaryAddress() default "";
+
+	@AttributeDefinition(name = "Poll interval [s]", description = "Interval in which the M-Bus device is read; 0 for the default of the M-Bus bridge")
+	int pollInterval() default 1;
+
 	@AttributeDefinition(name = "Alias", description = "Human-readable name of this Component; defaults to Component-ID")
 	String alias() default "";
 
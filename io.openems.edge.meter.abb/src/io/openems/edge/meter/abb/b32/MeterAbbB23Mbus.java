@@ -70,10 +70,10 @@ public class MeterAbbB23Mbus extends AbstractOpenemsMbusComponent
 	@Activate
 	void activate(ComponentContext context, Config config) {
 		this.meterType = config.type();
-		super.activate(context, config.id(), config.alias(), config.enabled(), config.primaryAddress(), this.cm, "mbus",
-				config.mbus_id());
+		super.activate(context, config.id(), config.alias(), config.enabled(), config.primaryAddress(),
+				config.secondaryAddress(), config.pollInterval(), this.cm, "mbus", config.mbus_id());
 		// register into mbus bridge task list
-		this.mbus.addTask(config.id(), new MbusTask(this.mbus, this));
+		this.mbus.addTask(config.id(), new MbusTask(this));
 	}
 
 	@Deactivate
@@ -26,5 +26,8 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 	@AttributeDefinition(name = "Address", description = "Address of the OneWire thermometer.")
 	String address();
 
+	@AttributeDefinition(name = "Read interval [s]", description = "Interval of reading the temperature.")
+	int interval() default 1;
+
 	String webconsole_configurationFactory_nameHint() default "OneWire Thermometer [{id}]";
 }
\ No newline at end of file
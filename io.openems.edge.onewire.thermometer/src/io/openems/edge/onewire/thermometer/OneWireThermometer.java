@@ -24,6 +24,7 @@ import com.dalsemi.onewire.container.TemperatureContainer;
 
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.edge.bridge.onewire.BridgeOnewire;
+import io.openems.edge.bridge.onewire.ThermometerTask;
 import io.openems.edge.common.channel.StateChannel;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
@@ -51,6 +52,7 @@ public class OneWireThermometer extends AbstractOpenemsComponent implements Ther
 	private Config config;
 	private TemperatureContainer _container = null;
 	private byte[] state = null;
+	private ThermometerTask thermometerTask = null;
 
 	public OneWireThermometer() {
 		super(//
@@ -91,7 +93,24 @@ public class OneWireThermometer extends AbstractOpenemsComponent implements Ther
 		}
 
 		if (this.isEnabled()) {
-			this.bridge.addTask(this.task);
+			if (ThermometerTask.isSupported(config.address())) {
+				// converted together with all other thermometers on the bus
+				this.thermometerTask = new ThermometerTask(config.id(), config.address(), config.interval(),
+						this::onTemperature);
+				this.bridge.addThermometer(this.thermometerTask);
+			} else {
+				this.bridge.addTask(this.task);
+			}
+		}
+	}
+
+	private void onTemperature(Double temp) {
+		if (temp != null) {
+			this.getTemperature().setNextValue(temp * 10 /* convert to decidegree */);
+			this.setCommunicationFailed(false);
+		} else {
+			this.getTemperature().setNextValue(null);
+			this.setCommunicationFailed(true);
 		}
 	}
 
@@ -110,6 +129,9 @@ public class OneWireThermometer extends AbstractOpenemsComponent implements Ther
 
 	@Deactivate
 	protected void deactivate() {
+		if (this.thermometerTask != null) {
+			this.bridge.removeThermometer(this.thermometerTask);
+		}
 		this.bridge.removeTask(this.task);
 		super.deactivate();
 	}
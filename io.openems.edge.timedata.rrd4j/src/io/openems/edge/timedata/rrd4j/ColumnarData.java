@@ -0,0 +1,208 @@
+package io.openems.edge.timedata.rrd4j;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.types.ChannelAddress;
+
+/**
+ * Result of a historic query in columnar form: one timestamp axis shared by
+ * all Channels and one array of values per Channel. Missing values are NaN.
+ *
+ * <p>
+ * Values are converted to JSON only in {@link #toTable(ZoneId)} and
+ * {@link #toEnergy()}.
+ */
+public class ColumnarData {
+
+	/**
+	 * The values of one Channel with their own timestamp axis.
+	 */
+	public static class Column {
+		private final long[] timestamps;
+		private final double[] values;
+
+		/**
+		 * Creates a Column.
+		 *
+		 * @param timestamps the timestamps in [s], ascending
+		 * @param values     the values; same length as timestamps
+		 */
+		public Column(long[] timestamps, double[] values) {
+			this.timestamps = timestamps;
+			this.values = values;
+		}
+	}
+
+	private final long[] timestamps;
+	private final SortedMap<ChannelAddress, double[]> columns;
+
+	private ColumnarData(long[] timestamps, SortedMap<ChannelAddress, double[]> columns) {
+		this.timestamps = timestamps;
+		this.columns = columns;
+	}
+
+	/**
+	 * Merges Columns to a shared timestamp axis.
+	 *
+	 * <p>
+	 * Columns that were fetched with the same archive usually have identical
+	 * timestamps; in that case the axis is shared as-is. Otherwise the union of
+	 * all timestamps is used and gaps are filled with NaN.
+	 *
+	 * @param columns the Columns per Channel
+	 * @return the {@link ColumnarData}
+	 */
+	public static ColumnarData of(Map<ChannelAddress, Column> columns) {
+		SortedMap<ChannelAddress, double[]> values = new TreeMap<>();
+		if (columns.isEmpty()) {
+			return new ColumnarData(new long[0], values);
+		}
+
+		long[] axis = null;
+		boolean isShared = true;
+		for (Column column : columns.values()) {
+			if (axis == null) {
+				axis = column.timestamps;
+			} else if (!Arrays.equals(axis, column.timestamps)) {
+				isShared = false;
+				break;
+			}
+		}
+
+		if (isShared) {
+			for (Entry<ChannelAddress, Column> entry : columns.entrySet()) {
+				values.put(entry.getKey(), entry.getValue().values);
+			}
+			return new ColumnarData(axis, values);
+		}
+
+		axis = union(columns);
+		for (Entry<ChannelAddress, Column> entry : columns.entrySet()) {
+			Column column = entry.getValue();
+			double[] aligned = new double[axis.length];
+			Arrays.fill(aligned, Double.NaN);
+			for (int i = 0, j = 0; i < column.timestamps.length; i++) {
+				while (axis[j] < column.timestamps[i]) {
+					j++;
+				}
+				aligned[j] = column.values[i];
+			}
+			values.put(entry.getKey(), aligned);
+		}
+		return new ColumnarData(axis, values);
+	}
+
+	private static long[] union(Map<ChannelAddress, Column> columns) {
+		int length = 0;
+		for (Column column : columns.values()) {
+			length += column.timestamps.length;
+		}
+		long[] all = new long[length];
+		int offset = 0;
+		for (Column column : columns.values()) {
+			System.arraycopy(column.timestamps, 0, all, offset, column.timestamps.length);
+			offset += column.timestamps.length;
+		}
+		Arrays.sort(all);
+		int size = 0;
+		for (int i = 0; i < all.length; i++) {
+			if (size == 0 || all[size - 1] != all[i]) {
+				all[size++] = all[i];
+			}
+		}
+		return Arrays.copyOf(all, size);
+	}
+
+	/**
+	 * Gets the shared timestamp axis.
+	 *
+	 * @return the timestamps in [s], ascending
+	 */
+	public long[] getTimestamps() {
+		return this.timestamps;
+	}
+
+	/**
+	 * Gets the queried Channels that exist.
+	 *
+	 * @return the Channel-Addresses
+	 */
+	public Set<ChannelAddress> getChannels() {
+		return Collections.unmodifiableSet(this.columns.keySet());
+	}
+
+	/**
+	 * Gets the values of a Channel, aligned to {@link #getTimestamps()}.
+	 *
+	 * @param channel the Channel-Address
+	 * @return the values; null if the Channel was not found
+	 */
+	public double[] getValues(ChannelAddress channel) {
+		return this.columns.get(channel);
+	}
+
+	/**
+	 * Converts to the table format of
+	 * {@link io.openems.common.timedata.CommonTimedataService#queryHistoricData(String, ZonedDateTime, ZonedDateTime, Set, int)}.
+	 *
+	 * @param timezone the timezone of the result
+	 * @return the table
+	 */
+	public SortedMap<ZonedDateTime, SortedMap<ChannelAddress, JsonElement>> toTable(ZoneId timezone) {
+		SortedMap<ZonedDateTime, SortedMap<ChannelAddress, JsonElement>> table = new TreeMap<>();
+		for (int i = 0; i < this.timestamps.length; i++) {
+			SortedMap<ChannelAddress, JsonElement> row = new TreeMap<>();
+			for (Entry<ChannelAddress, double[]> column : this.columns.entrySet()) {
+				row.put(column.getKey(), toJson(column.getValue()[i]));
+			}
+			table.put(ZonedDateTime.ofInstant(Instant.ofEpochSecond(this.timestamps[i]), timezone), row);
+		}
+		return table;
+	}
+
+	/**
+	 * Converts cumulated values to energy: the difference between the last and
+	 * the first value of every Channel.
+	 *
+	 * @return the energy per Channel; JsonNull if there is no value
+	 */
+	public SortedMap<ChannelAddress, JsonElement> toEnergy() {
+		SortedMap<ChannelAddress, JsonElement> result = new TreeMap<>();
+		for (Entry<ChannelAddress, double[]> column : this.columns.entrySet()) {
+			double[] values = column.getValue();
+			double first = Double.NaN;
+			double last = Double.NaN;
+			for (double value : values) {
+				if (!Double.isNaN(value)) {
+					if (Double.isNaN(first)) {
+						first = value;
+					}
+					last = value;
+				}
+			}
+			result.put(column.getKey(), toJson(last - first));
+		}
+		return result;
+	}
+
+	private static JsonElement toJson(double value) {
+		if (Double.isNaN(value)) {
+			return JsonNull.INSTANCE;
+		}
+		return new JsonPrimitive(value);
+	}
+
+}
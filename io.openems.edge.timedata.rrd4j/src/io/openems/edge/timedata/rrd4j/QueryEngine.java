@@ -0,0 +1,119 @@
+package io.openems.edge.timedata.rrd4j;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.rrd4j.core.FetchData;
+import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdDb;
+
+import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.ChannelAddress;
+
+/**
+ * Fetches historic data of multiple Channels concurrently on a bounded thread
+ * pool and merges them to {@link ColumnarData}.
+ */
+public class QueryEngine {
+
+	private static final int DEFAULT_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+	private final Rrd4jTimedata parent;
+	private final ExecutorService executor;
+
+	public QueryEngine(Rrd4jTimedata parent) {
+		this.parent = parent;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(Math.max(1, DEFAULT_THREADS),
+				r -> new Thread(r, parent.id() + ":Query-" + threadCount.incrementAndGet()));
+	}
+
+	/**
+	 * Stops the thread pool.
+	 */
+	public void deactivate() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Queries historic data.
+	 *
+	 * @param fromTimestamp the start in [s] since epoch
+	 * @param toTimestamp   the end in [s] since epoch
+	 * @param channels      the Channels
+	 * @param resolution    the resolution in [s]
+	 * @return the {@link ColumnarData}; Channels without RRD4J file are missing
+	 * @throws OpenemsNamedException on error
+	 */
+	public ColumnarData query(long fromTimestamp, long toTimestamp, Set<ChannelAddress> channels, int resolution)
+			throws OpenemsNamedException {
+		List<ChannelAddress> addresses = new ArrayList<>(channels);
+		List<Future<ColumnarData.Column>> futures = new ArrayList<>(addresses.size());
+		try {
+			for (ChannelAddress address : addresses) {
+				futures.add(this.executor.submit(() -> this.fetch(address, fromTimestamp, toTimestamp, resolution)));
+			}
+
+			Map<ChannelAddress, ColumnarData.Column> columns = new HashMap<>();
+			for (int i = 0; i < addresses.size(); i++) {
+				ColumnarData.Column column = futures.get(i).get();
+				if (column != null) {
+					columns.put(addresses.get(i), column);
+				}
+			}
+			return ColumnarData.of(columns);
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw new OpenemsException("Unable to read historic data: " + cause.getClass().getSimpleName() + ": "
+					+ cause.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OpenemsException("Unable to read historic data: interrupted");
+		} finally {
+			for (Future<ColumnarData.Column> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Fetches the data of one Channel.
+	 *
+	 * @param address       the Channel-Address
+	 * @param fromTimestamp the start in [s] since epoch
+	 * @param toTimestamp   the end in [s] since epoch
+	 * @param resolution    the resolution in [s]
+	 * @return the Column; null if there is no RRD4J file
+	 * @throws IOException        on error
+	 * @throws URISyntaxException on error
+	 */
+	private ColumnarData.Column fetch(ChannelAddress address, long fromTimestamp, long toTimestamp, int resolution)
+			throws IOException, URISyntaxException {
+		RrdDb database = this.parent.cache.borrow(address, () -> this.parent.getExistingRrdDb(address));
+		if (database == null) {
+			return null;
+		}
+		try {
+			// energy files only have MAX archives
+			FetchRequest request = database.createFetchRequest(database.getArchive(0).getConsolFun(),
+					fromTimestamp, toTimestamp, resolution);
+			FetchData data = request.fetchData();
+			return new ColumnarData.Column(data.getTimestamps(), data.getValues(0));
+		} finally {
+			this.parent.cache.release(address);
+		}
+	}
+
+}
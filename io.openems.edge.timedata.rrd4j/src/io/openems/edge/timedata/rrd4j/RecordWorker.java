@@ -2,11 +2,12 @@ package io.openems.edge.timedata.rrd4j;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.OptionalDouble;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.function.Function;
-import java.util.function.ToDoubleFunction;
-import java.util.stream.DoubleStream;
 
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.Sample;
@@ -16,14 +17,15 @@ import org.slf4j.LoggerFactory;
 import io.openems.common.channel.AccessMode;
 import io.openems.common.channel.Unit;
 import io.openems.common.types.ChannelAddress;
-import io.openems.common.types.OpenemsType;
 import io.openems.common.worker.AbstractImmediateWorker;
 import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.type.TimeRingBuffer;
 
 public class RecordWorker extends AbstractImmediateWorker {
 
 	protected static final int DEFAULT_NO_OF_CYCLES = 60;
+	private static final int MAX_PENDING_RECORDINGS = 10;
 
 	private final Logger log = LoggerFactory.getLogger(RecordWorker.class);
 	private final Rrd4jTimedata parent;
@@ -46,9 +48,9 @@ public class RecordWorker extends AbstractImmediateWorker {
 		}
 	}
 
-	// Record queue
-	private LinkedBlockingQueue<Record> records = new LinkedBlockingQueue<>();
-	private LocalDateTime lastRecordedTimestamp = LocalDateTime.MIN;
+	// Queue of recordings; one list of Records per recording interval
+	private LinkedBlockingQueue<List<Record>> recordings = new LinkedBlockingQueue<>(MAX_PENDING_RECORDINGS);
+	private long lastRecordedTimestamp = Long.MIN_VALUE; // in ms since epoch
 
 	public RecordWorker(Rrd4jTimedata parent) {
 		this.parent = parent;
@@ -66,8 +68,9 @@ public class RecordWorker extends AbstractImmediateWorker {
 			return;
 		}
 
-		LocalDateTime recordTimestamp = LocalDateTime.now();
-		long timestamp = recordTimestamp.toEpochSecond(ZoneOffset.UTC);
+		long recordTimestamp = System.currentTimeMillis();
+		long timestamp = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+		List<Record> records = new ArrayList<>();
 		for (OpenemsComponent component : this.parent.componentManager.getEnabledComponents()) {
 			for (Channel<?> channel : component.channels()) {
 				if (channel.channelDoc().getAccessMode() != AccessMode.READ_ONLY
@@ -76,106 +79,110 @@ public class RecordWorker extends AbstractImmediateWorker {
 					continue;
 				}
 
-				ToDoubleFunction<? super Object> channelMapFunction = this
-						.getChannelMapFunction(channel.channelDoc().getType());
-				Function<DoubleStream, OptionalDouble> channelAggregateFunction = getChannelAggregateFunction(
-						channel.channelDoc().getUnit());
-
-				OptionalDouble value = channelAggregateFunction.apply( //
-						channel.getPastValues() //
-								.tailMap(this.lastRecordedTimestamp, false) // new values since last recording
-								.values().stream() //
-								.map(v -> v.get()) //
-								.filter(v -> v != null) // only not-null values
-								.mapToDouble(channelMapFunction) // convert to double
-				);
-				if (!value.isPresent()) {
+				// aggregate new values since last recording; only not-null values
+				double value = this.aggregate(channel.getPastValues(), channel.channelDoc().getUnit());
+				if (Double.isNaN(value)) {
 					// only available channels
 					continue;
 				}
 
-				if (this.records.offer(//
-						new Record(timestamp, channel.address(), channel.channelDoc().getUnit(),
-								value.getAsDouble()))) {
-					this.parent.getQueueIsFullChannel().setNextValue(false);
-				} else {
-					this.log.warn("Unable to add record [" + channel.address() + "]. Queue is full!");
-					this.parent.getQueueIsFullChannel().setNextValue(true);
-				}
+				records.add(new Record(timestamp, channel.address(), channel.channelDoc().getUnit(), value));
 			}
 		}
+		if (this.recordings.offer(records)) {
+			this.parent.getQueueIsFullChannel().setNextValue(false);
+		} else {
+			this.log.warn("Unable to add [" + records.size() + "] records. Queue is full!");
+			this.parent.getQueueIsFullChannel().setNextValue(true);
+		}
 		this.lastRecordedTimestamp = recordTimestamp;
 		this.triggerNextRun();
 	}
 
 	@Override
 	protected void forever() throws InterruptedException {
-		Record record = this.records.take();
-		try {
-			RrdDb db = this.parent.getRrdDb(record.address, record.unit, record.timestamp - 1);
+		// Take all pending recordings and group the Records by file
+		List<List<Record>> recordings = new ArrayList<>();
+		recordings.add(this.recordings.take());
+		this.recordings.drainTo(recordings);
+		Map<ChannelAddress, List<Record>> recordsPerFile = new LinkedHashMap<>();
+		for (List<Record> records : recordings) {
+			for (Record record : records) {
+				recordsPerFile.computeIfAbsent(record.address, a -> new ArrayList<>()).add(record);
+			}
+		}
 
-			// Add Sample to RRD4J
-			Sample sample = db.createSample(record.timestamp);
-			sample.setValue(0, record.value);
-			sample.update();
+		// Write files that are already open first; they might be evicted otherwise
+		List<Entry<ChannelAddress, List<Record>>> open = new ArrayList<>();
+		List<Entry<ChannelAddress, List<Record>>> closed = new ArrayList<>();
+		for (Entry<ChannelAddress, List<Record>> entry : recordsPerFile.entrySet()) {
+			if (this.parent.cache.contains(entry.getKey())) {
+				open.add(entry);
+			} else {
+				closed.add(entry);
+			}
+		}
+		open.addAll(closed);
 
-			// Close file
-			db.close();
+		long start = System.nanoTime();
+		boolean unableToInsertSample = false;
+		for (Entry<ChannelAddress, List<Record>> entry : open) {
+			unableToInsertSample |= !this.write(entry.getKey(), entry.getValue());
+		}
+		this.parent.getUnableToInsertSample().setNextValue(unableToInsertSample);
+		this.parent.channel(Rrd4jTimedata.ChannelId.FLUSH_DURATION)
+				.setNextValue((System.nanoTime() - start) / 1_000_000);
+		this.parent.channel(Rrd4jTimedata.ChannelId.POOL_HIT_RATE).setNextValue(this.parent.cache.getAndResetHitRate());
+	}
 
-			this.parent.getUnableToInsertSample().setNextValue(false);
+	/**
+	 * Writes the Records of one Channel in one pass.
+	 *
+	 * @param address the Channel-Address
+	 * @param records the Records, ordered by timestamp
+	 * @return true on success
+	 */
+	private boolean write(ChannelAddress address, List<Record> records) {
+		Record first = records.get(0);
+		try {
+			RrdDb db = this.parent.cache.borrow(address,
+					() -> this.parent.getRrdDb(address, first.unit, first.timestamp - 1));
+			try {
+				for (Record record : records) {
+					// Add Sample to RRD4J
+					Sample sample = db.createSample(record.timestamp);
+					sample.setValue(0, record.value);
+					sample.update();
+				}
+			} finally {
+				this.parent.cache.release(address);
+			}
+			return true;
 
 		} catch (Throwable e) {
-			this.parent.getUnableToInsertSample().setNextValue(true);
-			this.parent.logWarn(this.log, "Unable to insert Sample [" + record.address + "] "
+			this.parent.logWarn(this.log, "Unable to insert Sample [" + address + "] "
 					+ e.getClass().getSimpleName() + ": " + e.getMessage());
+			return false;
 		}
 	}
 
-	private final static ToDoubleFunction<? super Object> MAP_BOOLEAN_TO_DOUBLE = (value) -> {
-		return (Boolean) value ? 1d : 0d;
-	};
-
-	private final static ToDoubleFunction<? super Object> MAP_SHORT_TO_DOUBLE = (value) -> {
-		return ((Short) value).doubleValue();
-	};
-	private final static ToDoubleFunction<? super Object> MAP_INTEGER_TO_DOUBLE = (value) -> {
-		return ((Integer) value).doubleValue();
-	};
-	private final static ToDoubleFunction<? super Object> MAP_LONG_TO_DOUBLE = (value) -> {
-		return ((Long) value).doubleValue();
-	};
-	private final static ToDoubleFunction<? super Object> MAP_FLOAT_TO_DOUBLE = (value) -> {
-		return ((Float) value).doubleValue();
-	};
-	private final static ToDoubleFunction<? super Object> MAP_DOUBLE_TO_DOUBLE = (value) -> {
-		return (Double) value;
-	};
-	private final static ToDoubleFunction<? super Object> MAP_TO_DOUBLE_NOT_SUPPORTED = (value) -> {
-		return 0d;
-	};
-
-	private ToDoubleFunction<? super Object> getChannelMapFunction(OpenemsType openemsType) {
-		switch (openemsType) {
-		case BOOLEAN:
-			return MAP_BOOLEAN_TO_DOUBLE;
-		case SHORT:
-			return MAP_SHORT_TO_DOUBLE;
-		case INTEGER:
-			return MAP_INTEGER_TO_DOUBLE;
-		case LONG:
-			return MAP_LONG_TO_DOUBLE;
-		case FLOAT:
-			return MAP_FLOAT_TO_DOUBLE;
-		case DOUBLE:
-			return MAP_DOUBLE_TO_DOUBLE;
-		case STRING:
-			// Strings are not supported by RRD4J
-			return MAP_TO_DOUBLE_NOT_SUPPORTED;
+	/**
+	 * Aggregates the past values since the last recording. Strings are not
+	 * supported by RRD4J and are always aggregated to {@link Double#NaN}.
+	 * 
+	 * @param pastValues  the past values of the Channel
+	 * @param channelUnit the {@link Unit} of the Channel
+	 * @return the aggregated value; {@link Double#NaN} if there are no values
+	 */
+	private double aggregate(TimeRingBuffer<?> pastValues, Unit channelUnit) {
+		if (isAggregatedByMax(channelUnit)) {
+			return pastValues.max(this.lastRecordedTimestamp);
+		} else {
+			return pastValues.average(this.lastRecordedTimestamp);
 		}
-		throw new IllegalArgumentException("Type [" + openemsType + "] is not supported.");
 	}
 
-	private Function<DoubleStream, OptionalDouble> getChannelAggregateFunction(Unit channelUnit) {
+	private static boolean isAggregatedByMax(Unit channelUnit) {
 		switch (channelUnit) {
 		case AMPERE:
 		case AMPERE_HOURS:
@@ -208,13 +215,13 @@ public class RecordWorker extends AbstractImmediateWorker {
 		case THOUSANDTH:
 		case PERCENT:
 		case ON_OFF:
-			return DoubleStream::average;
+			return false;
 		case WATT_HOURS:
 		case KILOWATT_HOURS:
 		case VOLT_AMPERE_HOURS:
 		case VOLT_AMPERE_REACTIVE_HOURS:
 		case KILOVOLT_AMPERE_REACTIVE_HOURS:
-			return DoubleStream::max;
+			return true;
 		}
 		throw new IllegalArgumentException("Channel Unit [" + channelUnit + "] is not supported.");
 	}
@@ -4,14 +4,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
-import java.time.Instant;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
@@ -26,25 +25,20 @@ import org.osgi.service.metatype.annotations.Designate;
 import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.DsDef;
-import org.rrd4j.core.FetchData;
-import org.rrd4j.core.FetchRequest;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDef;
-import org.rrd4j.core.RrdRandomAccessFileBackendFactory;
+import org.rrd4j.core.RrdNioBackendFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
-import com.google.gson.JsonPrimitive;
 
 import io.openems.common.OpenemsConstants;
 import io.openems.common.channel.Level;
 import io.openems.common.channel.Unit;
 import io.openems.common.exceptions.OpenemsError.OpenemsNamedException;
-import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.types.ChannelAddress;
-import io.openems.edge.common.channel.Channel;
+import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.Doc;
 import io.openems.edge.common.channel.StateChannel;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
@@ -64,15 +58,27 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 	private final static String DEFAULT_DATASOURCE_NAME = "value";
 	private final static int DEFAULT_STEP_SECONDS = 60;
 	private final static int DEFAULT_HEARTBEAT_SECONDS = DEFAULT_STEP_SECONDS;
+	// Period for syncing memory-mapped files to disk
+	private final static int SYNC_PERIOD_SECONDS = 300;
 
 	private final Logger log = LoggerFactory.getLogger(Rrd4jTimedata.class);
 
 	private final RecordWorker worker;
-	private final RrdRandomAccessFileBackendFactory factory;
+
+	private ScheduledExecutorService syncExecutor = null;
+	private RrdNioBackendFactory factory = null;
+	protected RrdDbCache cache = null;
+	private QueryEngine queryEngine = null;
 
 	public enum ChannelId implements io.openems.edge.common.channel.ChannelId {
 		QUEUE_IS_FULL(Doc.of(Level.WARNING)), //
-		UNABLE_TO_INSERT_SAMPLE(Doc.of(Level.WARNING));
+		UNABLE_TO_INSERT_SAMPLE(Doc.of(Level.WARNING)), //
+		FLUSH_DURATION(Doc.of(OpenemsType.LONG) //
+				.unit(Unit.MILLISECONDS) //
+				.text("Duration of writing one recording to RRD4J files")), //
+		POOL_HIT_RATE(Doc.of(OpenemsType.INTEGER) //
+				.unit(Unit.PERCENT) //
+				.text("Share of RRD4J file accesses that found the file already open"));
 
 		private final Doc doc;
 
@@ -93,7 +99,6 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 				ChannelId.values() //
 		);
 		this.worker = new RecordWorker(this);
-		this.factory = new RrdRandomAccessFileBackendFactory();
 	}
 
 	@Reference
@@ -103,6 +108,11 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 	void activate(ComponentContext context, Config config) throws Exception {
 		super.activate(context, config.id(), config.alias(), config.enabled());
 
+		this.syncExecutor = Executors.newSingleThreadScheduledExecutor();
+		this.factory = new RrdNioBackendFactory(SYNC_PERIOD_SECONDS, this.syncExecutor);
+		this.cache = new RrdDbCache(RrdDbCache.DEFAULT_CAPACITY);
+		this.queryEngine = new QueryEngine(this);
+
 		if (config.enabled()) {
 			this.worker.setNoOfCycles(config.noOfCycles());
 			this.worker.activate(config.id());
@@ -112,6 +122,10 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 	@Deactivate
 	protected void deactivate() {
 		this.worker.deactivate();
+		this.queryEngine.deactivate();
+		// closing syncs the memory-mapped files to disk
+		this.cache.close();
+		this.syncExecutor.shutdown();
 		super.deactivate();
 	}
 
@@ -119,50 +133,17 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 	public SortedMap<ZonedDateTime, SortedMap<ChannelAddress, JsonElement>> queryHistoricData(String edgeId,
 			ZonedDateTime fromDate, ZonedDateTime toDate, Set<ChannelAddress> channels, int resolution)
 			throws OpenemsNamedException {
-		ZoneId timezone = fromDate.getZone();
-		SortedMap<ZonedDateTime, SortedMap<ChannelAddress, JsonElement>> table = new TreeMap<>();
-
-		try {
-			long fromTimestamp = fromDate.toEpochSecond();
-			long toTimeStamp = toDate.toEpochSecond();
-
-			for (ChannelAddress channelAddress : channels) {
-				Channel<?> channel = this.componentManager.getChannel(channelAddress);
-				RrdDb database = this.getExistingRrdDb(channel.address());
-				if (database == null) {
-					continue; // not existing -> abort
-				}
-
-				FetchRequest request = database.createFetchRequest(ConsolFun.AVERAGE, fromTimestamp, toTimeStamp,
-						resolution);
-				FetchData data = request.fetchData();
-				for (int i = 0; i < data.getTimestamps().length; i++) {
-					Instant timestampInstant = Instant.ofEpochSecond(data.getTimestamps()[i]);
-					ZonedDateTime dateTime = ZonedDateTime.ofInstant(timestampInstant, timezone);
-					SortedMap<ChannelAddress, JsonElement> tableRow = table.get(dateTime);
-					if (tableRow == null) {
-						tableRow = new TreeMap<>();
-					}
-					double value = data.getValues(0)[i];
-					if (Double.isNaN(value)) {
-						tableRow.put(channelAddress, JsonNull.INSTANCE);
-					} else {
-						tableRow.put(channelAddress, new JsonPrimitive(value));
-					}
-					table.put(dateTime, tableRow);
-				}
-			}
-		} catch (IOException | IllegalArgumentException e) {
-			throw new OpenemsException("Unable to read historic data: " + e.getMessage());
-		}
-		return table;
+		return this.queryEngine.query(fromDate.toEpochSecond(), toDate.toEpochSecond(), channels, resolution) //
+				.toTable(fromDate.getZone());
 	}
 
 	@Override
 	public SortedMap<ChannelAddress, JsonElement> queryHistoricEnergy(String edgeId, ZonedDateTime fromDate,
 			ZonedDateTime toDate, Set<ChannelAddress> channels) throws OpenemsNamedException {
-		// TODO implement Energy calculation
-		throw new OpenemsException("This method is not implemented");
+		// RRD4J picks the most detailed archive that covers the period
+		return this.queryEngine.query(fromDate.toEpochSecond(), toDate.toEpochSecond(), channels,
+				DEFAULT_STEP_SECONDS) //
+				.toEnergy();
 	}
 
 	@Override
@@ -171,13 +152,18 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 		final CompletableFuture<Optional<Object>> result = new CompletableFuture<>();
 
 		CompletableFuture.runAsync(() -> {
-			RrdDb database = this.getExistingRrdDb(channelAddress);
-			if (database == null) {
-				result.complete(Optional.empty());
-			}
 			try {
-				result.complete(Optional.of(database.getLastDatasourceValues()[0]));
-			} catch (IOException | ArrayIndexOutOfBoundsException e) {
+				RrdDb database = this.cache.borrow(channelAddress, () -> this.getExistingRrdDb(channelAddress));
+				if (database == null) {
+					result.complete(Optional.empty());
+					return;
+				}
+				try {
+					result.complete(Optional.of(database.getLastDatasourceValues()[0]));
+				} finally {
+					this.cache.release(channelAddress);
+				}
+			} catch (IOException | URISyntaxException | ArrayIndexOutOfBoundsException e) {
 				result.complete(Optional.empty());
 			}
 		});
@@ -186,20 +172,27 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 	}
 
 	/**
-	 * Gets the RRD4j database for the given Channel-Address.
+	 * Opens or creates the RRD4j database for the given Channel-Address. Use
+	 * {@link RrdDbCache#borrow(ChannelAddress, RrdDbCache.Opener)} to get an
+	 * already opened database.
 	 * 
 	 * <p>
 	 * The predefined RRD4J archives match the requirements of
 	 * {@link CommonTimedataService#calculateResolution(ZonedDateTime,
 	 * ZonedDateTime).
 	 * 
+	 * <p>
+	 * To be called as {@link RrdDbCache.Opener} only: the cache makes sure that
+	 * the RrdDb of a Channel-Address is opened by one thread at a time, so
+	 * different Channels can be opened in parallel.
+	 * 
 	 * @param channelAddress the Channel-Address
 	 * @param startTime      the starttime for newly created RrdDbs
 	 * @return the RrdDb
 	 * @throws IOException        on error
 	 * @throws URISyntaxException on error
 	 */
-	protected synchronized RrdDb getRrdDb(ChannelAddress channelAddress, Unit channelUnit, long startTime)
+	protected RrdDb getRrdDb(ChannelAddress channelAddress, Unit channelUnit, long startTime)
 			throws IOException, URISyntaxException {
 		RrdDb rrdDb = this.getExistingRrdDb(channelAddress);
 		if (rrdDb != null) {
@@ -231,7 +224,6 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 
 			return RrdDb.getBuilder() //
 					.setBackendFactory(this.factory) //
-					.usePool() //
 					.setRrdDef(rrdDef) //
 					.build();
 		}
@@ -240,12 +232,16 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 	/**
 	 * Gets an existing RrdDb.
 	 * 
+	 * <p>
+	 * To be called as {@link RrdDbCache.Opener} only; see
+	 * {@link #getRrdDb(ChannelAddress, Unit, long)}.
+	 * 
 	 * @param channelAddress the ChannelAddress
 	 * @return the RrdDb or null
 	 * @throws IOException        on error
 	 * @throws URISyntaxException on error
 	 */
-	protected synchronized RrdDb getExistingRrdDb(ChannelAddress channelAddress) {
+	protected RrdDb getExistingRrdDb(ChannelAddress channelAddress) {
 		File file = this.getDbFile(channelAddress);
 		if (!file.exists()) {
 			return null;
@@ -337,7 +333,7 @@ public class Rrd4jTimedata extends AbstractOpenemsComponent implements Timedata,
 		case VOLT_AMPERE_HOURS:
 		case VOLT_AMPERE_REACTIVE_HOURS:
 		case KILOVOLT_AMPERE_REACTIVE_HOURS:
-			return new ChannelDef(DsType.GAUGE, Double.NaN, 1, ConsolFun.MAX);
+			return new ChannelDef(DsType.GAUGE, Double.NaN, Double.NaN, ConsolFun.MAX);
 		}
 		throw new IllegalArgumentException("Unhandled Channel unit [" + channelUnit + "]");
 	}
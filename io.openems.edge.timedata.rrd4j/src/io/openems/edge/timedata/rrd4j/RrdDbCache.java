@@ -0,0 +1,280 @@
+package io.openems.edge.timedata.rrd4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.rrd4j.core.RrdDb;
+
+import io.openems.common.types.ChannelAddress;
+
+/**
+ * Keeps a bounded number of RRD4J databases open, so that regular recordings
+ * do not open and close every file again.
+ *
+ * <p>
+ * Databases are borrowed with {@link #borrow(ChannelAddress, Opener)} and have
+ * to be given back with {@link #release(ChannelAddress)}. If the cache is
+ * full, the least recently used database that is not borrowed is closed.
+ *
+ * <p>
+ * Databases are opened outside of the cache lock: a slow open - that might
+ * even create the file - only blocks other borrowers of the same
+ * Channel-Address. They wait for the result of the pending open instead of
+ * opening the database a second time.
+ */
+public class RrdDbCache {
+
+	/**
+	 * Opens a database on a cache miss.
+	 */
+	@FunctionalInterface
+	public interface Opener {
+
+		/**
+		 * Opens the database.
+		 *
+		 * @return the RrdDb; null if it does not exist
+		 * @throws IOException        on error
+		 * @throws URISyntaxException on error
+		 */
+		RrdDb open() throws IOException, URISyntaxException;
+	}
+
+	/**
+	 * Default capacity: one open database per 256 kB of available heap, within
+	 * [64, 4096].
+	 */
+	public static final int DEFAULT_CAPACITY = (int) Math.max(64,
+			Math.min(4096, Runtime.getRuntime().maxMemory() / (256 * 1024)));
+
+	private static class Handle {
+		// completed once the database is open
+		private final CompletableFuture<RrdDb> db = new CompletableFuture<>();
+		private int borrowed = 0;
+	}
+
+	private final int capacity;
+	// access-ordered: least recently used first
+	private final LinkedHashMap<ChannelAddress, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long hits = 0;
+	private long misses = 0;
+	private boolean isClosed = false;
+
+	public RrdDbCache(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Borrows an open database; opens it if it is not in the cache.
+	 *
+	 * @param channelAddress the Channel-Address
+	 * @param opener         opens the database on a cache miss
+	 * @return the RrdDb; null if it does not exist
+	 * @throws IOException        on error
+	 * @throws URISyntaxException on error
+	 */
+	public RrdDb borrow(ChannelAddress channelAddress, Opener opener) throws IOException, URISyntaxException {
+		while (true) {
+			Handle handle;
+			boolean isOpener;
+			synchronized (this) {
+				if (this.isClosed) {
+					throw new IOException("RrdDbCache is closed");
+				}
+				handle = this.handles.get(channelAddress);
+				isOpener = handle == null;
+				if (isOpener) {
+					this.misses++;
+					handle = new Handle();
+					this.handles.put(channelAddress, handle);
+				} else {
+					this.hits++;
+				}
+				handle.borrowed++;
+			}
+
+			if (isOpener) {
+				return this.open(channelAddress, handle, opener);
+			}
+
+			RrdDb db = this.await(channelAddress, handle);
+			if (db != null) {
+				return db;
+			}
+			// The pending open did not find the database; the Opener of this caller
+			// might create it -> try again.
+		}
+	}
+
+	/**
+	 * Opens the database of a new {@link Handle} and publishes the result to
+	 * waiting borrowers.
+	 *
+	 * @param channelAddress the Channel-Address
+	 * @param handle         the new {@link Handle}
+	 * @param opener         the {@link Opener}
+	 * @return the RrdDb; null if it does not exist
+	 * @throws IOException        on error
+	 * @throws URISyntaxException on error
+	 */
+	private RrdDb open(ChannelAddress channelAddress, Handle handle, Opener opener)
+			throws IOException, URISyntaxException {
+		RrdDb db = null;
+		try {
+			db = opener.open();
+		} catch (IOException | URISyntaxException | RuntimeException e) {
+			synchronized (this) {
+				this.handles.remove(channelAddress, handle);
+			}
+			handle.db.completeExceptionally(e);
+			throw e;
+		}
+
+		boolean isClosed;
+		synchronized (this) {
+			isClosed = this.isClosed;
+			if (db == null || isClosed) {
+				this.handles.remove(channelAddress, handle);
+			} else {
+				this.evict(this.capacity);
+			}
+		}
+		if (isClosed && db != null) {
+			closeQuietly(db);
+			IOException e = new IOException("RrdDbCache is closed");
+			handle.db.completeExceptionally(e);
+			throw e;
+		}
+		handle.db.complete(db);
+		return db;
+	}
+
+	/**
+	 * Waits for the pending open of a {@link Handle}.
+	 *
+	 * @param channelAddress the Channel-Address
+	 * @param handle         the {@link Handle}
+	 * @return the RrdDb; null if it does not exist
+	 * @throws IOException        on error
+	 * @throws URISyntaxException on error
+	 */
+	private RrdDb await(ChannelAddress channelAddress, Handle handle) throws IOException, URISyntaxException {
+		try {
+			return handle.db.get();
+
+		} catch (InterruptedException e) {
+			this.release(handle);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while opening RrdDb for [" + channelAddress + "]");
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw new IOException(cause.getMessage(), cause);
+			} else if (cause instanceof URISyntaxException) {
+				throw (URISyntaxException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Gives back a database that was borrowed via
+	 * {@link #borrow(ChannelAddress, Opener)}.
+	 *
+	 * @param channelAddress the Channel-Address
+	 */
+	public synchronized void release(ChannelAddress channelAddress) {
+		this.release(this.handles.get(channelAddress));
+	}
+
+	private synchronized void release(Handle handle) {
+		if (handle != null && handle.borrowed > 0) {
+			handle.borrowed--;
+		}
+	}
+
+	/**
+	 * Checks whether the database for this Channel-Address is currently open.
+	 *
+	 * @param channelAddress the Channel-Address
+	 * @return true if it is open
+	 */
+	public synchronized boolean contains(ChannelAddress channelAddress) {
+		Handle handle = this.handles.get(channelAddress);
+		return handle != null && handle.db.isDone();
+	}
+
+	/**
+	 * Gets the hit rate since the last call and resets the counters.
+	 *
+	 * @return the hit rate in [%]; null if there was no access
+	 */
+	public synchronized Integer getAndResetHitRate() {
+		long total = this.hits + this.misses;
+		Integer result = total == 0 ? null : (int) (this.hits * 100 / total);
+		this.hits = 0;
+		this.misses = 0;
+		return result;
+	}
+
+	/**
+	 * Closes all databases. Databases that are still being opened are closed as
+	 * soon as the open finished.
+	 */
+	public synchronized void close() {
+		this.isClosed = true;
+		List<RrdDb> dbs = new ArrayList<>();
+		for (Handle handle : this.handles.values()) {
+			RrdDb db = handle.db.getNow(null);
+			if (db != null) {
+				dbs.add(db);
+			}
+		}
+		this.handles.clear();
+		for (RrdDb db : dbs) {
+			closeQuietly(db);
+		}
+	}
+
+	/**
+	 * Closes least recently used databases that are not borrowed, until the cache
+	 * holds at most 'size' entries. Handles that are being opened are always
+	 * borrowed.
+	 *
+	 * @param size the target size
+	 */
+	private void evict(int size) {
+		for (Iterator<Entry<ChannelAddress, Handle>> iterator = this.handles.entrySet().iterator(); iterator
+				.hasNext() && this.handles.size() > size;) {
+			Handle handle = iterator.next().getValue();
+			if (handle.borrowed == 0) {
+				iterator.remove();
+				closeQuietly(handle.db.getNow(null));
+			}
+		}
+	}
+
+	private static void closeQuietly(RrdDb db) {
+		if (db == null) {
+			return;
+		}
+		try {
+			db.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+}
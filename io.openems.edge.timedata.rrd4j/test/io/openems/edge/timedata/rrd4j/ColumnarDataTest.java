@@ -0,0 +1,112 @@
+package io.openems.edge.timedata.rrd4j;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+
+import io.openems.common.types.ChannelAddress;
+import io.openems.edge.timedata.rrd4j.ColumnarData.Column;
+
+public class ColumnarDataTest {
+
+	private static final ChannelAddress A = new ChannelAddress("meter0", "A");
+	private static final ChannelAddress B = new ChannelAddress("meter0", "B");
+	private static final double NAN = Double.NaN;
+
+	@Test
+	public void testSharedAxis() {
+		Map<ChannelAddress, Column> columns = new HashMap<>();
+		columns.put(A, new Column(new long[] { 0, 300, 600 }, new double[] { 1, 2, 3 }));
+		columns.put(B, new Column(new long[] { 0, 300, 600 }, new double[] { 4, 5, 6 }));
+
+		ColumnarData data = ColumnarData.of(columns);
+		assertArrayEquals(new long[] { 0, 300, 600 }, data.getTimestamps());
+		assertArrayEquals(new double[] { 1, 2, 3 }, data.getValues(A), 0);
+		assertArrayEquals(new double[] { 4, 5, 6 }, data.getValues(B), 0);
+		assertNull(data.getValues(new ChannelAddress("meter0", "C")));
+	}
+
+	@Test
+	public void testMismatchedAxes() {
+		Map<ChannelAddress, Column> columns = new HashMap<>();
+		columns.put(A, new Column(new long[] { 0, 300, 600 }, new double[] { 1, 2, 3 }));
+		columns.put(B, new Column(new long[] { 300, 900 }, new double[] { 5, 7 }));
+
+		ColumnarData data = ColumnarData.of(columns);
+		assertArrayEquals(new long[] { 0, 300, 600, 900 }, data.getTimestamps());
+		assertArrayEquals(new double[] { 1, 2, 3, NAN }, data.getValues(A), 0);
+		assertArrayEquals(new double[] { NAN, 5, NAN, 7 }, data.getValues(B), 0);
+
+		SortedMap<ZonedDateTime, SortedMap<ChannelAddress, JsonElement>> table = data.toTable(ZoneOffset.UTC);
+		assertEquals(4, table.size());
+		SortedMap<ChannelAddress, JsonElement> first = table.get(table.firstKey());
+		assertEquals(new JsonPrimitive(1.0), first.get(A));
+		assertEquals(JsonNull.INSTANCE, first.get(B));
+		assertEquals(ZonedDateTime.of(1970, 1, 1, 0, 15, 0, 0, ZoneOffset.UTC), table.lastKey());
+	}
+
+	@Test
+	public void testEmptyColumn() {
+		Map<ChannelAddress, Column> columns = new HashMap<>();
+		columns.put(A, new Column(new long[] { 0, 300 }, new double[] { 1, 2 }));
+		columns.put(B, new Column(new long[0], new double[0]));
+
+		ColumnarData data = ColumnarData.of(columns);
+		assertArrayEquals(new long[] { 0, 300 }, data.getTimestamps());
+		assertArrayEquals(new double[] { NAN, NAN }, data.getValues(B), 0);
+		assertEquals(JsonNull.INSTANCE, data.toEnergy().get(B));
+	}
+
+	@Test
+	public void testNoColumns() {
+		ColumnarData data = ColumnarData.of(new HashMap<>());
+		assertEquals(0, data.getTimestamps().length);
+		assertEquals(0, data.toTable(ZoneOffset.UTC).size());
+		assertEquals(0, data.toEnergy().size());
+	}
+
+	@Test
+	public void testEnergyIgnoresNanEdges() {
+		Map<ChannelAddress, Column> columns = new HashMap<>();
+		// NaN at the start and the end of the period
+		columns.put(A, new Column(new long[] { 0, 300, 600, 900, 1200 }, new double[] { NAN, 100, NAN, 250, NAN }));
+		// only one defined value
+		columns.put(B, new Column(new long[] { 0, 300, 600, 900, 1200 }, new double[] { NAN, NAN, 42, NAN, NAN }));
+
+		SortedMap<ChannelAddress, JsonElement> energy = ColumnarData.of(columns).toEnergy();
+		assertEquals(new JsonPrimitive(150.0), energy.get(A));
+		assertEquals(new JsonPrimitive(0.0), energy.get(B));
+	}
+
+	@Test
+	public void testEnergyAllNan() {
+		Map<ChannelAddress, Column> columns = new HashMap<>();
+		columns.put(A, new Column(new long[] { 0, 300 }, new double[] { NAN, NAN }));
+
+		assertEquals(JsonNull.INSTANCE, ColumnarData.of(columns).toEnergy().get(A));
+	}
+
+	@Test
+	public void testEnergyOnMismatchedAxes() {
+		Map<ChannelAddress, Column> columns = new HashMap<>();
+		columns.put(A, new Column(new long[] { 0, 300, 600 }, new double[] { 10, 20, 30 }));
+		columns.put(B, new Column(new long[] { 150, 450 }, new double[] { 5, 8 }));
+
+		SortedMap<ChannelAddress, JsonElement> energy = ColumnarData.of(columns).toEnergy();
+		assertEquals(new JsonPrimitive(20.0), energy.get(A));
+		assertEquals(new JsonPrimitive(3.0), energy.get(B));
+	}
+
+}
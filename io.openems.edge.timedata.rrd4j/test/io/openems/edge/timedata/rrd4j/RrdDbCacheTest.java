@@ -0,0 +1,191 @@
+package io.openems.edge.timedata.rrd4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.rrd4j.ConsolFun;
+import org.rrd4j.DsType;
+import org.rrd4j.core.RrdDb;
+import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdMemoryBackendFactory;
+
+import io.openems.common.types.ChannelAddress;
+
+public class RrdDbCacheTest {
+
+	private static final ChannelAddress A = new ChannelAddress("meter0", "A");
+	private static final ChannelAddress B = new ChannelAddress("meter0", "B");
+	private static final ChannelAddress C = new ChannelAddress("meter0", "C");
+
+	private static final AtomicInteger NEXT_PATH = new AtomicInteger();
+
+	private static RrdDb createDb() throws IOException {
+		RrdDef rrdDef = new RrdDef("test" + NEXT_PATH.incrementAndGet(), 60);
+		rrdDef.addDatasource("value", DsType.GAUGE, 120, Double.NaN, Double.NaN);
+		rrdDef.addArchive(ConsolFun.AVERAGE, 0.5, 1, 10);
+		return RrdDb.getBuilder() //
+				.setBackendFactory(new RrdMemoryBackendFactory()) //
+				.setRrdDef(rrdDef) //
+				.build();
+	}
+
+	@Test
+	public void testBorrowAndRelease() throws Exception {
+		RrdDbCache cache = new RrdDbCache(10);
+		AtomicInteger opened = new AtomicInteger();
+		RrdDbCache.Opener opener = () -> {
+			opened.incrementAndGet();
+			return createDb();
+		};
+
+		RrdDb db = cache.borrow(A, opener);
+		cache.release(A);
+		assertSame(db, cache.borrow(A, opener));
+		cache.release(A);
+		assertEquals(1, opened.get());
+		assertTrue(cache.contains(A));
+		assertEquals(Integer.valueOf(50), cache.getAndResetHitRate());
+		assertNull(cache.getAndResetHitRate());
+
+		cache.close();
+		assertTrue(db.isClosed());
+		assertFalse(cache.contains(A));
+	}
+
+	@Test
+	public void testNotExisting() throws Exception {
+		RrdDbCache cache = new RrdDbCache(10);
+		assertNull(cache.borrow(A, () -> null));
+		assertFalse(cache.contains(A));
+
+		// a failed open is not cached
+		try {
+			cache.borrow(A, () -> {
+				throw new IOException("failed");
+			});
+			fail("Expected IOException");
+		} catch (IOException e) {
+			assertEquals("failed", e.getMessage());
+		}
+		assertFalse(cache.contains(A));
+		assertNotNull(cache.borrow(A, RrdDbCacheTest::createDb));
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws Exception {
+		RrdDbCache cache = new RrdDbCache(2);
+		RrdDb a = cache.borrow(A, RrdDbCacheTest::createDb);
+		cache.release(A);
+		RrdDb b = cache.borrow(B, RrdDbCacheTest::createDb);
+		cache.release(B);
+		// 'A' is now used more recently than 'B'
+		cache.borrow(A, RrdDbCacheTest::createDb);
+		cache.release(A);
+
+		cache.borrow(C, RrdDbCacheTest::createDb);
+		cache.release(C);
+		assertTrue(cache.contains(A));
+		assertFalse(cache.contains(B));
+		assertTrue(cache.contains(C));
+		assertFalse(a.isClosed());
+		assertTrue(b.isClosed());
+	}
+
+	@Test
+	public void testBorrowedIsNotEvicted() throws Exception {
+		RrdDbCache cache = new RrdDbCache(1);
+		RrdDb a = cache.borrow(A, RrdDbCacheTest::createDb);
+		cache.borrow(B, RrdDbCacheTest::createDb);
+		cache.release(B);
+		assertTrue(cache.contains(A));
+		assertFalse(a.isClosed());
+
+		cache.release(A);
+		cache.borrow(C, RrdDbCacheTest::createDb);
+		assertFalse(cache.contains(A));
+		assertTrue(a.isClosed());
+	}
+
+	@Test
+	public void testSlowOpenDoesNotBlockOtherChannels() throws Exception {
+		RrdDbCache cache = new RrdDbCache(10);
+		CountDownLatch isOpening = new CountDownLatch(1);
+		CountDownLatch finishOpen = new CountDownLatch(1);
+		AtomicInteger opened = new AtomicInteger();
+		RrdDbCache.Opener slowOpener = () -> {
+			opened.incrementAndGet();
+			isOpening.countDown();
+			try {
+				finishOpen.await();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return createDb();
+		};
+
+		CompletableFuture<RrdDb> first = CompletableFuture.supplyAsync(() -> borrowUnchecked(cache, A, slowOpener));
+		assertTrue(isOpening.await(10, TimeUnit.SECONDS));
+		CompletableFuture<RrdDb> second = CompletableFuture.supplyAsync(() -> borrowUnchecked(cache, A, slowOpener));
+
+		// other Channels are not blocked
+		CompletableFuture<RrdDb> other = CompletableFuture
+				.supplyAsync(() -> borrowUnchecked(cache, B, RrdDbCacheTest::createDb));
+		assertNotNull(other.get(10, TimeUnit.SECONDS));
+		assertFalse(first.isDone());
+		assertFalse(cache.contains(A));
+
+		// the second borrower waits for the pending open
+		finishOpen.countDown();
+		assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, opened.get());
+		assertTrue(cache.contains(A));
+	}
+
+	@Test
+	public void testRetryIfPendingOpenFoundNothing() throws Exception {
+		RrdDbCache cache = new RrdDbCache(10);
+		CountDownLatch isOpening = new CountDownLatch(1);
+		CountDownLatch finishOpen = new CountDownLatch(1);
+		RrdDbCache.Opener existingOnly = () -> {
+			isOpening.countDown();
+			try {
+				finishOpen.await();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return null;
+		};
+
+		CompletableFuture<RrdDb> reader = CompletableFuture.supplyAsync(() -> borrowUnchecked(cache, A, existingOnly));
+		assertTrue(isOpening.await(10, TimeUnit.SECONDS));
+		CompletableFuture<RrdDb> writer = CompletableFuture
+				.supplyAsync(() -> borrowUnchecked(cache, A, RrdDbCacheTest::createDb));
+		finishOpen.countDown();
+
+		assertNull(reader.get(10, TimeUnit.SECONDS));
+		// the writer creates the database with its own Opener
+		assertNotNull(writer.get(10, TimeUnit.SECONDS));
+		assertTrue(cache.contains(A));
+	}
+
+	private static RrdDb borrowUnchecked(RrdDbCache cache, ChannelAddress channelAddress, RrdDbCache.Opener opener) {
+		try {
+			return cache.borrow(channelAddress, opener);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}